@@ -71,8 +71,7 @@ import org.dcm4chee.arc.procedure.ProcedureContext;
 import org.dcm4chee.arc.query.QueryContext;
 import org.dcm4chee.arc.retrieve.RetrieveContext;
 import org.dcm4chee.arc.stgcmt.StgCmtContext;
-import org.dcm4chee.arc.store.StoreContext;
-import org.dcm4chee.arc.store.StoreSession;
+import org.dcm4chee.arc.store.StoreEvent;
 import org.dcm4chee.arc.study.StudyMgtContext;
 import org.dcm4chee.arc.keycloak.HttpServletRequestInfo;
 import org.slf4j.Logger;
@@ -185,7 +184,7 @@ public class AuditService {
                 auditLogger);
     }
 
-    private void spoolInstancesDeleted(StoreContext ctx) {
+    private void spoolInstancesDeleted(StoreEvent ctx) {
         AuditUtils.EventType eventType = AuditUtils.EventType.forInstancesDeleted(ctx);
         try {
             writeSpoolFile(eventType,null,
@@ -398,11 +397,11 @@ public class AuditService {
                 auditLogger);
     }
 
-    void spoolStoreEvent(StoreContext ctx) {
+    void spoolStoreEvent(StoreEvent ctx) {
         try {
-            if (ctx.getRejectedInstance() != null) {
+            if (ctx.isRejectedInstance()) {
                 LOG.info("Suppress audit on receive of instances rejected by a previous received Rejection Note : {}",
-                        ctx.getRejectedInstance());
+                        ctx.getSopInstanceUID());
                 return;
             }
 
@@ -430,14 +429,13 @@ public class AuditService {
         }
     }
 
-    private void spoolInstancesStored(StoreContext ctx) {
-        StoreSession ss = ctx.getStoreSession();
-        HttpServletRequestInfo req = ss.getHttpRequest();
+    private void spoolInstancesStored(StoreEvent ctx) {
+        HttpServletRequestInfo req = ctx.getHttpRequest();
         String callingUserID = req != null
                 ? req.requesterUserID
-                : ss.getCallingAET() != null
-                ? ss.getCallingAET() : device.getDeviceName();
-        String calledUserID = req != null ? req.requestURI : ss.getCalledAET();
+                : ctx.getCallingAET() != null
+                ? ctx.getCallingAET() : device.getDeviceName();
+        String calledUserID = req != null ? req.requestURI : ctx.getCalledAET();
         try {
             String outcome = ctx.getException() != null
                     ? ctx.getRejectionNote() != null
@@ -456,10 +454,10 @@ public class AuditService {
             ArchiveDeviceExtension arcDev = getArchiveDevice();
             Attributes attr = ctx.getAttributes();
             AuditInfoBuilder.Builder infoBuilder = new AuditInfoBuilder.Builder()
-                    .callingHost(ss.getRemoteHostName())
+                    .callingHost(ctx.getRemoteHostName())
                     .callingUserID(callingUserID)
                     .calledUserID(calledUserID)
-                    .impaxEndpoint(ss.getImpaxReportEndpoint())
+                    .impaxEndpoint(ctx.getImpaxReportEndpoint())
                     .studyUIDAccNumDate(attr, arcDev)
                     .pIDAndName(attr, arcDev);
             AuditInfoBuilder info = infoBuilder
@@ -468,7 +466,7 @@ public class AuditService {
                     .build();
 
             String suffix = '-' + callingUserID.replace('|', '-')
-                    + '-' + ctx.getStoreSession().getCalledAET()
+                    + '-' + ctx.getCalledAET()
                     + '-' + ctx.getStudyInstanceUID();
             suffix = outcome != null ? suffix.concat("_ERROR") : suffix;
             writeSpoolFile(AuditUtils.EventType.forInstanceStored(ctx), suffix, info, instanceInfo);
@@ -520,8 +518,8 @@ public class AuditService {
         return impaxEndpointRelative.substring(0, impaxEndpointRelative.indexOf('/'));
     }
 
-    private boolean isDuplicateReceivedInstance(StoreContext ctx) {
-        return ctx.getLocations().isEmpty() && ctx.getStoredInstance() == null && ctx.getException() == null;
+    private boolean isDuplicateReceivedInstance(StoreEvent ctx) {
+        return !ctx.hasLocations() && !ctx.hasStoredInstance() && ctx.getException() == null;
     }
 
     void spoolRetrieveWADO(RetrieveContext ctx) {
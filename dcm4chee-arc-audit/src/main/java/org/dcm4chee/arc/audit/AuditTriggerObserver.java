@@ -60,7 +60,8 @@ import org.dcm4chee.arc.query.QueryContext;
 import org.dcm4chee.arc.retrieve.RetrieveContext;
 import org.dcm4chee.arc.retrieve.RetrieveWADO;
 import org.dcm4chee.arc.stgcmt.StgCmtContext;
-import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.AsyncStoreEventObserver;
+import org.dcm4chee.arc.store.StoreEvent;
 import org.dcm4chee.arc.retrieve.RetrieveEnd;
 import org.dcm4chee.arc.retrieve.RetrieveStart;
 import org.dcm4chee.arc.study.StudyMgtContext;
@@ -76,7 +77,7 @@ import javax.inject.Inject;
  * @since Feb 2016
  */
 @ApplicationScoped
-public class AuditTriggerObserver {
+public class AuditTriggerObserver implements AsyncStoreEventObserver {
     @Inject
     private AuditService auditService;
 
@@ -91,9 +92,15 @@ public class AuditTriggerObserver {
             auditService.spoolApplicationActivity(event);
     }
 
-    public void onStore(@Observes StoreContext ctx) {
+    @Override
+    public String getStoreEventObserverName() {
+        return "audit";
+    }
+
+    @Override
+    public void onStoreEvent(StoreEvent event) {
         if (deviceHasAuditLoggers())
-            auditService.spoolStoreEvent(ctx);
+            auditService.spoolStoreEvent(event);
     }
 
     public void onQuery(@Observes QueryContext ctx) {
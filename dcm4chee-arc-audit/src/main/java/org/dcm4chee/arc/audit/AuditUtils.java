@@ -51,8 +51,7 @@ import org.dcm4chee.arc.event.QueueMessageOperation;
 import org.dcm4chee.arc.event.RejectionNoteSent;
 import org.dcm4chee.arc.hl7.ArchiveHL7Message;
 import org.dcm4chee.arc.patient.PatientMgtContext;
-import org.dcm4chee.arc.store.StoreContext;
-import org.dcm4chee.arc.store.StoreSession;
+import org.dcm4chee.arc.store.StoreEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -193,16 +192,14 @@ class AuditUtils {
                     : APPLN_STOP;
         }
 
-        static EventType forInstanceStored(StoreContext ctx) {
-            return !ctx.getLocations().isEmpty() && ctx.getPreviousInstance() != null
+        static EventType forInstanceStored(StoreEvent ctx) {
+            return ctx.hasLocations() && ctx.hasPreviousInstance()
                         ? STORE_UPDT : STORE_CREA;
         }
 
-        static EventType forInstancesDeleted(StoreContext ctx) {
-            StoreSession storeSession = ctx.getStoreSession();
-            boolean isSchedulerDeletedExpiredStudies = storeSession.getAssociation() == null
-                                                        && storeSession.getHttpRequest() == null;
-            return ctx.getStoredInstance().getSeries().getStudy().getRejectionState() == RejectionState.COMPLETE
+        static EventType forInstancesDeleted(StoreEvent ctx) {
+            boolean isSchedulerDeletedExpiredStudies = !ctx.hasAssociation() && ctx.getHttpRequest() == null;
+            return ctx.getStudyRejectionState() == RejectionState.COMPLETE
                     ? isSchedulerDeletedExpiredStudies
                         ? PRMDLT_SCH
                         : RJ_COMPLET
@@ -50,8 +50,7 @@ import org.dcm4chee.arc.entity.Instance;
 import org.dcm4chee.arc.event.RejectionNoteSent;
 import org.dcm4chee.arc.keycloak.KeycloakContext;
 import org.dcm4chee.arc.keycloak.HttpServletRequestInfo;
-import org.dcm4chee.arc.store.StoreContext;
-import org.dcm4chee.arc.store.StoreSession;
+import org.dcm4chee.arc.store.StoreEvent;
 
 import javax.servlet.http.HttpServletRequest;
 import java.nio.file.Path;
@@ -65,11 +64,9 @@ import java.util.stream.Collectors;
  */
 class DeletionAuditService {
 
-    static AuditInfoBuilder[] instancesDeletedAuditInfo(StoreContext ctx, ArchiveDeviceExtension arcDev) {
-        StoreSession storeSession = ctx.getStoreSession();
+    static AuditInfoBuilder[] instancesDeletedAuditInfo(StoreEvent ctx, ArchiveDeviceExtension arcDev) {
         Attributes attr = ctx.getAttributes();
-        boolean isSchedulerDeletedExpiredStudies = storeSession.getAssociation() == null
-                && storeSession.getHttpRequest() == null;
+        boolean isSchedulerDeletedExpiredStudies = !ctx.hasAssociation() && ctx.getHttpRequest() == null;
 
         AuditInfoBuilder.Builder infoBuilder = new AuditInfoBuilder.Builder()
                 .studyUIDAccNumDate(attr, arcDev)
@@ -89,17 +86,16 @@ class DeletionAuditService {
         return infoBuilder.callingUserID(devName).build();
     }
 
-    private static AuditInfoBuilder userRejectedAuditInfo(StoreContext ctx, AuditInfoBuilder.Builder infoBuilder) {
-        StoreSession storeSession = ctx.getStoreSession();
-        HttpServletRequestInfo req = storeSession.getHttpRequest();
-        String callingAET = storeSession.getCallingAET();
+    private static AuditInfoBuilder userRejectedAuditInfo(StoreEvent ctx, AuditInfoBuilder.Builder infoBuilder) {
+        HttpServletRequestInfo req = ctx.getHttpRequest();
+        String callingAET = ctx.getCallingAET();
         return infoBuilder
-                .callingHost(storeSession.getRemoteHostName())
+                .callingHost(ctx.getRemoteHostName())
                 .callingUserID(req != null
                         ? req.requesterUserID
                         : callingAET != null
-                        ? callingAET : storeSession.getLocalApplicationEntity().getAETitle())
-                .calledUserID(req != null ? req.requestURI : storeSession.getCalledAET())
+                        ? callingAET : ctx.getLocalAETitle())
+                .calledUserID(req != null ? req.requestURI : ctx.getCalledAET())
                 .build();
     }
 
@@ -183,7 +179,7 @@ class DeletionAuditService {
         return infoBuilder.callingUserID(arcDev.getDevice().getDeviceName()).build();
     }
 
-    private static String outcome(StoreContext ctx) {
+    private static String outcome(StoreEvent ctx) {
         return ctx.getException() != null
                 ? ctx.getRejectionNote() != null
                 ? ctx.getRejectionNote().getRejectionNoteCode().getCodeMeaning() + " - " + ctx.getException().getMessage()
@@ -191,7 +187,7 @@ class DeletionAuditService {
                 : null;
     }
 
-    private static String warning(StoreContext ctx) {
+    private static String warning(StoreEvent ctx) {
         return ctx.getException() == null && ctx.getRejectionNote() != null
                 ? ctx.getRejectionNote().getRejectionNoteCode().getCodeMeaning() : null;
     }
@@ -97,6 +97,8 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 arcDev.getPurgeInstanceRecordsPollingInterval(), null);
         writer.writeNotDef("dcmPurgeInstanceRecordsFetchSize",
                 arcDev.getPurgeInstanceRecordsFetchSize(), 100);
+        writer.writeNotDef("dcmPurgeInstanceRecordsMaxParallel", arcDev.getPurgeInstanceRecordsMaxParallel(), 1);
+        writer.writeNotDef("dcmWadoMultiFrameRenderingMaxParallel", arcDev.getWadoMultiFrameRenderingMaxParallel(), 4);
         writer.writeNotNullOrDef("dcmDeleteUPSPollingInterval", arcDev.getDeleteUPSPollingInterval(), null);
         writer.writeNotDef("dcmDeleteUPSFetchSize", arcDev.getDeleteUPSFetchSize(), 100);
         writer.writeNotNullOrDef("dcmDeleteUPSCompletedDelay", arcDev.getDeleteUPSCompletedDelay(), null);
@@ -109,6 +111,7 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
         writer.writeNotEmpty("hl7ORUAction", arcDev.getHl7ORUAction());
         writer.writeNotDef("dcmPersonNameComponentOrderInsensitiveMatching",
                 arcDev.isPersonNameComponentOrderInsensitiveMatching(), false);
+        writer.writeNotDef("dcmPersonNameIndexedMatching", arcDev.isPersonNameIndexedMatching(), false);
         writer.writeNotDef("dcmSendPendingCGet", arcDev.isSendPendingCGet(), false);
         writer.writeNotNullOrDef("dcmSendPendingCMoveInterval", arcDev.getSendPendingCMoveInterval(), null);
         writer.writeNotEmpty("dcmWadoSupportedSRClasses", arcDev.getWadoSupportedSRClasses());
@@ -155,6 +158,10 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
         writer.writeNotNullOrDef("dcmLeadingCFindSCPQueryCacheStaleTimeout",
                 arcDev.getLeadingCFindSCPQueryCacheStaleTimeout(), null);
         writer.writeNotDef("dcmLeadingCFindSCPQueryCacheSize", arcDev.getLeadingCFindSCPQueryCacheSize(), 10);
+        writer.writeNotDef("dcmCFindSCUMaxIdleAssociations", arcDev.getCFindSCUMaxIdleAssociations(), 0);
+        writer.writeNotNullOrDef("dcmCFindSCUAssociationIdleTimeout", arcDev.getCFindSCUAssociationIdleTimeout(),
+                ArchiveDeviceExtension.DEFAULT_CFIND_SCU_ASSOCIATION_IDLE_TIMEOUT);
+        writer.writeNotDef("dcmCFindSCUMaxAssociations", arcDev.getCFindSCUMaxAssociations(), 0);
         writer.writeNotNullOrDef("dcmAuditSpoolDirectory",
                 arcDev.getAuditSpoolDirectory(), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR);
         writer.writeNotNullOrDef("dcmAuditPollingInterval", arcDev.getAuditPollingInterval(), null);
@@ -171,6 +178,8 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
         writer.writeNotNullOrDef("dcmUnzipVendorDataToURI", arcDev.getUnzipVendorDataToURI(), null);
         writer.writeNotNullOrDef("dcmPurgeQueueMessagePollingInterval",
                 arcDev.getPurgeQueueMessagePollingInterval(), null);
+        writer.writeNotNullOrDef("dcmCountQueueMessagePollingInterval",
+                arcDev.getCountQueueMessagePollingInterval(), null);
         writer.writeNotNullOrDef("dcmWadoSpoolDirectory",
                 arcDev.getWadoSpoolDirectory(), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR);
         writer.writeNotNullOrDef("dcmRejectExpiredStudiesPollingInterval",
@@ -215,6 +224,7 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
         writer.writeNotNullOrDef("dcmUPSWorklistLabel", arcDev.getUPSWorklistLabel(), null);
         writer.writeNotEmpty("dcmUPSEventSCU", arcDev.getUPSEventSCUs());
         writer.writeNotDef("dcmUPSEventSCUKeepAlive", arcDev.getUPSEventSCUKeepAlive(), 0);
+        writer.writeNotDef("dcmUPSEventMaxBacklog", arcDev.getUPSEventMaxBacklog(), 1000);
         writer.writeNotNullOrDef("dcmStorePermissionServiceErrorCommentPattern",
                 arcDev.getStorePermissionServiceErrorCommentPattern(), null);
         writer.writeNotNullOrDef("dcmStorePermissionServiceErrorCodePattern",
@@ -325,6 +335,10 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 arcDev.getPatientVerificationMaxRetries(), 0);
         writer.writeNotNullOrDef("dcmPatientVerificationMaxStaleness",
                 arcDev.getPatientVerificationMaxStaleness(), null);
+        writer.writeNotDef("dcmPatientVerificationMaxParallel",
+                arcDev.getPatientVerificationMaxParallel(), 1);
+        writer.writeNotDef("dcmPatientVerificationMaxRequestsPerSecond",
+                arcDev.getPatientVerificationMaxRequestsPerSecond(), 0);
         writer.writeNotNullOrDef("hl7OrderMissingStudyIUIDPolicy", arcDev.getHl7OrderMissingStudyIUIDPolicy(),
                 HL7OrderMissingStudyIUIDPolicy.GENERATE);
         writer.writeNotNullOrDef("hl7ImportReportMissingStudyIUIDPolicy",
@@ -364,6 +378,10 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 arcDev.isRetrieveTaskWarningOnWarnings(), false);
         writer.writeNotEmpty("dcmCStoreSCUOfCMoveSCP", arcDev.getCStoreSCUOfCMoveSCPs());
         writer.writeNotDef("dcmDeleteStudyChunkSize", arcDev.getDeleteStudyChunkSize(), 100);
+        writer.writeNotEmpty("dcmStoreEventAsyncObserver", arcDev.getStoreEventAsyncObservers());
+        writer.writeNotDef("dcmStoreEventMaxBacklog", arcDev.getStoreEventMaxBacklog(), 1000);
+        writer.writeNotDef("dcmHL7PrefetchMaxParallel", arcDev.getHL7PrefetchMaxParallel(), 1);
+        writer.writeNotDef("dcmHL7PrefetchMaxBacklog", arcDev.getHL7PrefetchMaxBacklog(), 1000);
         writeAttributeFilters(writer, arcDev);
         writeStorageDescriptor(writer, arcDev.getStorageDescriptors());
         writeQueryRetrieveView(writer, arcDev.getQueryRetrieveViews());
@@ -455,6 +473,11 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                     st.isStorageThresholdExceedsPermanently(), true);
             writer.writeNotNull("dcmStorageThresholdExceeded", st.getStorageThresholdExceeded());
             writer.writeNotDef("dcmDeleterThreads", st.getDeleterThreads(), 1);
+            writer.writeNotDef("dcmStorageVerificationMaxParallel", st.getStorageVerificationMaxParallel(), 0);
+            writer.writeNotNullOrDef("dcmStorageVerificationMaxBandwidth",
+                    st.getStorageVerificationMaxBandwidth(), null);
+            writer.writeNotDef("dcmStorageVerificationMaxObjectsPerSecond",
+                    st.getStorageVerificationMaxObjectsPerSecond(), 0);
             writer.writeNotNullOrDef("dcmStorageClusterID", st.getStorageClusterID(), null);
             writer.writeNotNullOrDef("dcmStorageThreshold", st.getStorageThreshold(), null);
             writer.writeNotEmpty("dcmDeleterThreshold", st.getDeleterThresholdsAsStrings());
@@ -1167,6 +1190,12 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 case "dcmPurgeInstanceRecordsFetchSize":
                     arcDev.setPurgeInstanceRecordsFetchSize(reader.intValue());
                     break;
+                case "dcmPurgeInstanceRecordsMaxParallel":
+                    arcDev.setPurgeInstanceRecordsMaxParallel(reader.intValue());
+                    break;
+                case "dcmWadoMultiFrameRenderingMaxParallel":
+                    arcDev.setWadoMultiFrameRenderingMaxParallel(reader.intValue());
+                    break;
                 case "dcmDeleteUPSPollingInterval":
                     arcDev.setDeleteUPSPollingInterval(Duration.valueOf(reader.stringValue()));
                     break;
@@ -1197,6 +1226,9 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 case "dcmPersonNameComponentOrderInsensitiveMatching":
                     arcDev.setPersonNameComponentOrderInsensitiveMatching(reader.booleanValue());
                     break;
+                case "dcmPersonNameIndexedMatching":
+                    arcDev.setPersonNameIndexedMatching(reader.booleanValue());
+                    break;
                 case "dcmSendPendingCGet":
                     arcDev.setSendPendingCGet(reader.booleanValue());
                     break;
@@ -1326,6 +1358,15 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 case "dcmLeadingCFindSCPQueryCacheSize":
                     arcDev.setLeadingCFindSCPQueryCacheSize(reader.intValue());
                     break;
+                case "dcmCFindSCUMaxIdleAssociations":
+                    arcDev.setCFindSCUMaxIdleAssociations(reader.intValue());
+                    break;
+                case "dcmCFindSCUAssociationIdleTimeout":
+                    arcDev.setCFindSCUAssociationIdleTimeout(Duration.valueOf(reader.stringValue()));
+                    break;
+                case "dcmCFindSCUMaxAssociations":
+                    arcDev.setCFindSCUMaxAssociations(reader.intValue());
+                    break;
                 case "dcmAuditSpoolDirectory":
                     arcDev.setAuditSpoolDirectory(reader.stringValue());
                     break;
@@ -1365,6 +1406,9 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 case "dcmPurgeQueueMessagePollingInterval":
                     arcDev.setPurgeQueueMessagePollingInterval(Duration.valueOf(reader.stringValue()));
                     break;
+                case "dcmCountQueueMessagePollingInterval":
+                    arcDev.setCountQueueMessagePollingInterval(Duration.valueOf(reader.stringValue()));
+                    break;
                 case "dcmWadoSpoolDirectory":
                     arcDev.setWadoSpoolDirectory(reader.stringValue());
                     break;
@@ -1456,6 +1500,9 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 case "dcmUPSEventSCUKeepAlive":
                     arcDev.setUPSEventSCUKeepAlive(reader.intValue());
                     break;
+                case "dcmUPSEventMaxBacklog":
+                    arcDev.setUPSEventMaxBacklog(reader.intValue());
+                    break;
                 case "dcmStorePermissionServiceErrorCommentPattern":
                     arcDev.setStorePermissionServiceErrorCommentPattern(Pattern.compile(reader.stringValue()));
                     break;
@@ -1678,6 +1725,12 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 case "dcmPatientVerificationMaxStaleness":
                     arcDev.setPatientVerificationMaxStaleness(Duration.valueOf(reader.stringValue()));
                     break;
+                case "dcmPatientVerificationMaxParallel":
+                    arcDev.setPatientVerificationMaxParallel(reader.intValue());
+                    break;
+                case "dcmPatientVerificationMaxRequestsPerSecond":
+                    arcDev.setPatientVerificationMaxRequestsPerSecond(reader.intValue());
+                    break;
                 case "dcmCSVUploadChunkSize":
                     arcDev.setCSVUploadChunkSize(reader.intValue());
                     break;
@@ -1760,6 +1813,18 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                 case "dcmDeleteStudyChunkSize":
                     arcDev.setDeleteStudyChunkSize(reader.intValue());
                     break;
+                case "dcmStoreEventAsyncObserver":
+                    arcDev.setStoreEventAsyncObservers(reader.stringArray());
+                    break;
+                case "dcmStoreEventMaxBacklog":
+                    arcDev.setStoreEventMaxBacklog(reader.intValue());
+                    break;
+                case "dcmHL7PrefetchMaxParallel":
+                    arcDev.setHL7PrefetchMaxParallel(reader.intValue());
+                    break;
+                case "dcmHL7PrefetchMaxBacklog":
+                    arcDev.setHL7PrefetchMaxBacklog(reader.intValue());
+                    break;
                 case "dcmAttributeFilter":
                     loadAttributeFilterListFrom(arcDev, reader);
                     break;
@@ -1970,6 +2035,15 @@ public class JsonArchiveConfiguration extends JsonConfigurationExtension {
                     case "dcmDeleterThreads":
                         st.setDeleterThreads(reader.intValue());
                         break;
+                    case "dcmStorageVerificationMaxParallel":
+                        st.setStorageVerificationMaxParallel(reader.intValue());
+                        break;
+                    case "dcmStorageVerificationMaxBandwidth":
+                        st.setStorageVerificationMaxBandwidth(reader.stringValue());
+                        break;
+                    case "dcmStorageVerificationMaxObjectsPerSecond":
+                        st.setStorageVerificationMaxObjectsPerSecond(reader.intValue());
+                        break;
                     case "dcmStorageClusterID":
                         st.setStorageClusterID(reader.stringValue());
                         break;
@@ -76,6 +76,46 @@ import java.util.regex.Pattern;
 class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     private static final Logger LOG = LoggerFactory.getLogger(LdapArchiveConfiguration.class);
+    private static final String[] DEVICE_CHILD_OBJECT_CLASSES = {
+            "dcmAttributeFilter",
+            "dcmStorage",
+            "dcmQueue",
+            "dcmPDQService",
+            "dcmExporter",
+            "dcmExportRule",
+            "dcmExportPriorsRule",
+            "hl7ExportRule",
+            "hl7PrefetchRule",
+            "dcmArchiveCompressionRule",
+            "dcmStoreAccessControlIDRule",
+            "dcmArchiveAttributeCoercion",
+            "dcmQueryRetrieveView",
+            "dcmRejectionNote",
+            "dcmStudyRetentionPolicy",
+            "hl7StudyRetentionPolicy",
+            "dcmIDGenerator",
+            "hl7ForwardRule",
+            "dcmRSForwardRule",
+            "dcmAttributeSet",
+            "hl7OrderScheduledStation",
+            "hl7OrderSPSStatus",
+            "dcmKeycloakServer",
+            "dcmMetrics",
+            "dcmUPSOnStore",
+            "dcmUPSProcessingRule",
+            "hl7UPSOnHL7",
+            "dcmMWLIdleTimeout"
+    };
+    private static final String[] AE_CHILD_OBJECT_CLASSES = {
+            "dcmExportRule",
+            "dcmExportPriorsRule",
+            "dcmArchiveCompressionRule",
+            "dcmStoreAccessControlIDRule",
+            "dcmArchiveAttributeCoercion",
+            "dcmStudyRetentionPolicy",
+            "dcmRSForwardRule",
+            "dcmUPSOnStore"
+    };
 
     @Override
     protected void storeTo(ConfigurationChanges.ModifiedObject ldapObj, Device device, Attributes attrs) {
@@ -110,6 +150,8 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 ext.getPurgeInstanceRecordsPollingInterval(), null);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmPurgeInstanceRecordsFetchSize",
                 ext.getPurgeInstanceRecordsFetchSize(), 100);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmPurgeInstanceRecordsMaxParallel", ext.getPurgeInstanceRecordsMaxParallel(), 1);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmWadoMultiFrameRenderingMaxParallel", ext.getWadoMultiFrameRenderingMaxParallel(), 4);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmDeleteUPSPollingInterval",
                 ext.getDeleteUPSPollingInterval(), null);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmDeleteUPSFetchSize", ext.getDeleteUPSFetchSize(), 100);
@@ -124,6 +166,8 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 ext.getBulkDataSpoolDirectory(), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmPersonNameComponentOrderInsensitiveMatching",
                 ext.isPersonNameComponentOrderInsensitiveMatching(), false);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmPersonNameIndexedMatching",
+                ext.isPersonNameIndexedMatching(), false);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmSendPendingCGet", ext.isSendPendingCGet(), false);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmSendPendingCMoveInterval",
                 ext.getSendPendingCMoveInterval(), null);
@@ -211,6 +255,12 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 ext.getLeadingCFindSCPQueryCacheStaleTimeout(), null);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmLeadingCFindSCPQueryCacheSize",
                 ext.getLeadingCFindSCPQueryCacheSize(), 10);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmCFindSCUMaxIdleAssociations",
+                ext.getCFindSCUMaxIdleAssociations(), 0);
+        LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmCFindSCUAssociationIdleTimeout",
+                ext.getCFindSCUAssociationIdleTimeout(), ArchiveDeviceExtension.DEFAULT_CFIND_SCU_ASSOCIATION_IDLE_TIMEOUT);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmCFindSCUMaxAssociations",
+                ext.getCFindSCUMaxAssociations(), 0);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmAuditSpoolDirectory",
                 ext.getAuditSpoolDirectory(), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmAuditPollingInterval",
@@ -221,6 +271,8 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 ext.getStowSpoolDirectory(), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmPurgeQueueMessagePollingInterval",
                 ext.getPurgeQueueMessagePollingInterval(), null);
+        LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmCountQueueMessagePollingInterval",
+                ext.getCountQueueMessagePollingInterval(), null);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmWadoSpoolDirectory",
                 ext.getWadoSpoolDirectory(), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR);
         LdapUtils.storeNotEmpty(ldapObj, attrs, "dcmHideSPSWithStatusFromMWL", ext.getHideSPSWithStatusFrom());
@@ -280,6 +332,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 ext.getUPSWorklistLabel(), null);
         LdapUtils.storeNotEmpty(ldapObj, attrs, "dcmUPSEventSCU", ext.getUPSEventSCUs());
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmUPSEventSCUKeepAlive", ext.getUPSEventSCUKeepAlive(), 0);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmUPSEventMaxBacklog", ext.getUPSEventMaxBacklog(), 1000);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmStorePermissionServiceErrorCommentPattern",
                 ext.getStorePermissionServiceErrorCommentPattern(), null);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmStorePermissionServiceErrorCodePattern",
@@ -409,6 +462,10 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 ext.getPatientVerificationMaxRetries(), 0);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmPatientVerificationMaxStaleness",
                 ext.getPatientVerificationMaxStaleness(), null);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmPatientVerificationMaxParallel",
+                ext.getPatientVerificationMaxParallel(), 1);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmPatientVerificationMaxRequestsPerSecond",
+                ext.getPatientVerificationMaxRequestsPerSecond(), 0);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmCSVUploadChunkSize", ext.getCSVUploadChunkSize(), 100);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "hl7OrderMissingStudyIUIDPolicy",
                 ext.getHl7OrderMissingStudyIUIDPolicy(), HL7OrderMissingStudyIUIDPolicy.GENERATE);
@@ -453,6 +510,10 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 ext.isRetrieveTaskWarningOnWarnings(), false);
         LdapUtils.storeNotEmpty(ldapObj, attrs, "dcmCStoreSCUOfCMoveSCP", ext.getCStoreSCUOfCMoveSCPs());
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmDeleteStudyChunkSize", ext.getDeleteStudyChunkSize(), 100);
+        LdapUtils.storeNotEmpty(ldapObj, attrs, "dcmStoreEventAsyncObserver", ext.getStoreEventAsyncObservers());
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmStoreEventMaxBacklog", ext.getStoreEventMaxBacklog(), 1000);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmHL7PrefetchMaxParallel", ext.getHL7PrefetchMaxParallel(), 1);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmHL7PrefetchMaxBacklog", ext.getHL7PrefetchMaxBacklog(), 1000);
         storeNotEmptyTags(ldapObj, attrs, "dcmRejectConflictingPatientAttribute",
                 ext.getRejectConflictingPatientAttribute());
     }
@@ -478,6 +539,8 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
         ext.setPurgeInstanceRecordsPollingInterval(toDuration(attrs.get("dcmPurgeInstanceRecordsPollingInterval"), null));
         ext.setPurgeInstanceRecordsFetchSize(
                 LdapUtils.intValue(attrs.get("dcmPurgeInstanceRecordsFetchSize"), 100));
+        ext.setPurgeInstanceRecordsMaxParallel(LdapUtils.intValue(attrs.get("dcmPurgeInstanceRecordsMaxParallel"), 1));
+        ext.setWadoMultiFrameRenderingMaxParallel(LdapUtils.intValue(attrs.get("dcmWadoMultiFrameRenderingMaxParallel"), 4));
         ext.setDeleteUPSPollingInterval(toDuration(attrs.get("dcmDeleteUPSPollingInterval"), null));
         ext.setDeleteUPSFetchSize(LdapUtils.intValue(attrs.get("dcmDeleteUPSFetchSize"), 100));
         ext.setDeleteUPSCompletedDelay(toDuration(attrs.get("dcmDeleteUPSCompletedDelay"), null));
@@ -488,6 +551,8 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 LdapUtils.stringValue(attrs.get("dcmBulkDataSpoolDirectory"), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR));
         ext.setPersonNameComponentOrderInsensitiveMatching(
                 LdapUtils.booleanValue(attrs.get("dcmPersonNameComponentOrderInsensitiveMatching"), false));
+        ext.setPersonNameIndexedMatching(
+                LdapUtils.booleanValue(attrs.get("dcmPersonNameIndexedMatching"), false));
         ext.setSendPendingCGet(LdapUtils.booleanValue(attrs.get("dcmSendPendingCGet"), false));
         ext.setSendPendingCMoveInterval(toDuration(attrs.get("dcmSendPendingCMoveInterval"), null));
         ext.setSpanningCFindSCP(LdapUtils.stringValue(attrs.get("dcmSpanningCFindSCP"), null));
@@ -542,6 +607,10 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
         ext.setAECacheStaleTimeout(toDuration(attrs.get("dcmAECacheStaleTimeout"), null));
         ext.setLeadingCFindSCPQueryCacheStaleTimeout(toDuration(attrs.get("dcmLeadingCFindSCPQueryCacheStaleTimeout"), null));
         ext.setLeadingCFindSCPQueryCacheSize(LdapUtils.intValue(attrs.get("dcmLeadingCFindSCPQueryCacheSize"), 10));
+        ext.setCFindSCUMaxIdleAssociations(LdapUtils.intValue(attrs.get("dcmCFindSCUMaxIdleAssociations"), 0));
+        ext.setCFindSCUAssociationIdleTimeout(toDuration(attrs.get("dcmCFindSCUAssociationIdleTimeout"),
+                ArchiveDeviceExtension.DEFAULT_CFIND_SCU_ASSOCIATION_IDLE_TIMEOUT));
+        ext.setCFindSCUMaxAssociations(LdapUtils.intValue(attrs.get("dcmCFindSCUMaxAssociations"), 0));
         ext.setAuditSpoolDirectory(
                 LdapUtils.stringValue(attrs.get("dcmAuditSpoolDirectory"), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR));
         ext.setAuditPollingInterval(toDuration(attrs.get("dcmAuditPollingInterval"), null));
@@ -549,6 +618,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
         ext.setStowSpoolDirectory(
                 LdapUtils.stringValue(attrs.get("dcmStowSpoolDirectory"), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR));
         ext.setPurgeQueueMessagePollingInterval(toDuration(attrs.get("dcmPurgeQueueMessagePollingInterval"), null));
+        ext.setCountQueueMessagePollingInterval(toDuration(attrs.get("dcmCountQueueMessagePollingInterval"), null));
         ext.setWadoSpoolDirectory(
                 LdapUtils.stringValue(attrs.get("dcmWadoSpoolDirectory"), ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR));
         ext.setHideSPSWithStatusFrom(LdapUtils.enumArray(SPSStatus.class, attrs.get("dcmHideSPSWithStatusFromMWL")));
@@ -592,6 +662,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
         ext.setUPSWorklistLabel(LdapUtils.stringValue(attrs.get("dcmUPSWorklistLabel"), null));
         ext.setUPSEventSCUs(LdapUtils.stringArray(attrs.get("dcmUPSEventSCU")));
         ext.setUPSEventSCUKeepAlive(LdapUtils.intValue(attrs.get("dcmUPSEventSCUKeepAlive"), 0));
+        ext.setUPSEventMaxBacklog(LdapUtils.intValue(attrs.get("dcmUPSEventMaxBacklog"), 1000));
         ext.setStorePermissionServiceErrorCommentPattern(toPattern(attrs.get("dcmStorePermissionServiceErrorCommentPattern")));
         ext.setStorePermissionServiceErrorCodePattern(toPattern(attrs.get("dcmStorePermissionServiceErrorCodePattern")));
         ext.setRetrieveAETitles(LdapUtils.stringArray(attrs.get("dcmRetrieveAET")));
@@ -696,6 +767,10 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 LdapUtils.intValue(attrs.get("dcmPatientVerificationMaxRetries"), 0));
         ext.setPatientVerificationMaxStaleness(
                 toDuration(attrs.get("dcmPatientVerificationMaxStaleness"), null));
+        ext.setPatientVerificationMaxParallel(
+                LdapUtils.intValue(attrs.get("dcmPatientVerificationMaxParallel"), 1));
+        ext.setPatientVerificationMaxRequestsPerSecond(
+                LdapUtils.intValue(attrs.get("dcmPatientVerificationMaxRequestsPerSecond"), 0));
         ext.setCSVUploadChunkSize(LdapUtils.intValue(attrs.get("dcmCSVUploadChunkSize"), 100));
         ext.setHl7OrderMissingStudyIUIDPolicy(
                 LdapUtils.enumValue(HL7OrderMissingStudyIUIDPolicy.class,
@@ -734,6 +809,10 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 LdapUtils.booleanValue(attrs.get("dcmRetrieveTaskWarningOnWarnings"), false));
         ext.setCStoreSCUOfCMoveSCPs(LdapUtils.stringArray(attrs.get("dcmCStoreSCUOfCMoveSCP")));
         ext.setDeleteStudyChunkSize(LdapUtils.intValue(attrs.get("dcmDeleteStudyChunkSize"), 100));
+        ext.setStoreEventAsyncObservers(LdapUtils.stringArray(attrs.get("dcmStoreEventAsyncObserver")));
+        ext.setStoreEventMaxBacklog(LdapUtils.intValue(attrs.get("dcmStoreEventMaxBacklog"), 1000));
+        ext.setHL7PrefetchMaxParallel(LdapUtils.intValue(attrs.get("dcmHL7PrefetchMaxParallel"), 1));
+        ext.setHL7PrefetchMaxBacklog(LdapUtils.intValue(attrs.get("dcmHL7PrefetchMaxBacklog"), 1000));
     }
 
     @Override
@@ -793,6 +872,14 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 aa.getPurgeInstanceRecordsFetchSize(),
                 bb.getPurgeInstanceRecordsFetchSize(),
                 100);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmPurgeInstanceRecordsMaxParallel",
+                aa.getPurgeInstanceRecordsMaxParallel(),
+                bb.getPurgeInstanceRecordsMaxParallel(),
+                1);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmWadoMultiFrameRenderingMaxParallel",
+                aa.getWadoMultiFrameRenderingMaxParallel(),
+                bb.getWadoMultiFrameRenderingMaxParallel(),
+                4);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmDeleteUPSPollingInterval",
                 aa.getDeleteUPSPollingInterval(),
                 bb.getDeleteUPSPollingInterval(), null);
@@ -821,6 +908,10 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 aa.isPersonNameComponentOrderInsensitiveMatching(),
                 bb.isPersonNameComponentOrderInsensitiveMatching(),
                 false);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmPersonNameIndexedMatching",
+                aa.isPersonNameIndexedMatching(),
+                bb.isPersonNameIndexedMatching(),
+                false);
         LdapUtils.storeDiff(ldapObj, mods, "dcmSendPendingCGet",
                 aa.isSendPendingCGet(), bb.isSendPendingCGet(), false);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmSendPendingCMoveInterval",
@@ -916,6 +1007,13 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 aa.getLeadingCFindSCPQueryCacheStaleTimeout(), bb.getLeadingCFindSCPQueryCacheStaleTimeout(), null);
         LdapUtils.storeDiff(ldapObj, mods, "dcmLeadingCFindSCPQueryCacheSize",
                 aa.getLeadingCFindSCPQueryCacheSize(), bb.getLeadingCFindSCPQueryCacheSize(), 10);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmCFindSCUMaxIdleAssociations",
+                aa.getCFindSCUMaxIdleAssociations(), bb.getCFindSCUMaxIdleAssociations(), 0);
+        LdapUtils.storeDiffObject(ldapObj, mods, "dcmCFindSCUAssociationIdleTimeout",
+                aa.getCFindSCUAssociationIdleTimeout(), bb.getCFindSCUAssociationIdleTimeout(),
+                ArchiveDeviceExtension.DEFAULT_CFIND_SCU_ASSOCIATION_IDLE_TIMEOUT);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmCFindSCUMaxAssociations",
+                aa.getCFindSCUMaxAssociations(), bb.getCFindSCUMaxAssociations(), 0);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmAuditSpoolDirectory",
                 aa.getAuditSpoolDirectory(),
                 bb.getAuditSpoolDirectory(),
@@ -930,6 +1028,8 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 ArchiveDeviceExtension.JBOSS_SERVER_TEMP_DIR);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmPurgeQueueMessagePollingInterval", aa.getPurgeQueueMessagePollingInterval(),
                 bb.getPurgeQueueMessagePollingInterval(), null);
+        LdapUtils.storeDiffObject(ldapObj, mods, "dcmCountQueueMessagePollingInterval",
+                aa.getCountQueueMessagePollingInterval(), bb.getCountQueueMessagePollingInterval(), null);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmWadoSpoolDirectory",
                 aa.getWadoSpoolDirectory(),
                 bb.getWadoSpoolDirectory(),
@@ -997,6 +1097,8 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
         LdapUtils.storeDiff(ldapObj, mods, "dcmUPSEventSCU", aa.getUPSEventSCUs(), bb.getUPSEventSCUs());
         LdapUtils.storeDiff(ldapObj, mods, "dcmUPSEventSCUKeepAlive",
                 aa.getUPSEventSCUKeepAlive(), bb.getUPSEventSCUKeepAlive(), 0);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmUPSEventMaxBacklog",
+                aa.getUPSEventMaxBacklog(), bb.getUPSEventMaxBacklog(), 1000);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmStorePermissionServiceErrorCommentPattern",
                 aa.getStorePermissionServiceErrorCommentPattern(), bb.getStorePermissionServiceErrorCommentPattern(), null);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmStorePermissionServiceErrorCodePattern",
@@ -1172,6 +1274,14 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 aa.getPatientVerificationMaxStaleness(),
                 bb.getPatientVerificationMaxStaleness(),
                 null);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmPatientVerificationMaxParallel",
+                aa.getPatientVerificationMaxParallel(),
+                bb.getPatientVerificationMaxParallel(),
+                1);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmPatientVerificationMaxRequestsPerSecond",
+                aa.getPatientVerificationMaxRequestsPerSecond(),
+                bb.getPatientVerificationMaxRequestsPerSecond(),
+                0);
         LdapUtils.storeDiff(ldapObj, mods, "dcmCSVUploadChunkSize",
                 aa.getCSVUploadChunkSize(),
                 bb.getCSVUploadChunkSize(),
@@ -1260,6 +1370,20 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 aa.getDeleteStudyChunkSize(),
                 bb.getDeleteStudyChunkSize(),
                 100);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmStoreEventAsyncObserver",
+                aa.getStoreEventAsyncObservers(), bb.getStoreEventAsyncObservers());
+        LdapUtils.storeDiff(ldapObj, mods, "dcmStoreEventMaxBacklog",
+                aa.getStoreEventMaxBacklog(),
+                bb.getStoreEventMaxBacklog(),
+                1000);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmHL7PrefetchMaxParallel",
+                aa.getHL7PrefetchMaxParallel(),
+                bb.getHL7PrefetchMaxParallel(),
+                1);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmHL7PrefetchMaxBacklog",
+                aa.getHL7PrefetchMaxBacklog(),
+                bb.getHL7PrefetchMaxBacklog(),
+                1000);
         if (remove)
             mods.add(new ModificationItem(DirContext.REMOVE_ATTRIBUTE,
                     LdapUtils.attr("objectClass", "dcmArchiveDevice")));
@@ -1310,34 +1434,37 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
         if (arcdev == null)
             return;
 
-        loadAttributeFilters(arcdev, deviceDN);
-        loadStorageDescriptors(arcdev, deviceDN);
-        loadQueueDescriptors(arcdev, deviceDN);
-        loadPDQServiceDescriptors(arcdev, deviceDN);
-        loadExporterDescriptors(arcdev, deviceDN);
-        loadExportRules(arcdev.getExportRules(), deviceDN);
-        loadPrefetchRules(arcdev.getExportPriorsRules(), deviceDN);
-        loadHL7ExportRules(arcdev.getHL7ExportRules(), deviceDN, config);
-        loadHL7PrefetchRules(arcdev.getHL7PrefetchRules(), deviceDN, config);
-        loadCompressionRules(arcdev.getCompressionRules(), deviceDN);
-        loadStoreAccessControlIDRules(arcdev.getStoreAccessControlIDRules(), deviceDN);
-        loadAttributeCoercions(arcdev.getAttributeCoercions(), deviceDN, device);
-        loadQueryRetrieveViews(arcdev, deviceDN);
-        loadRejectNotes(arcdev, deviceDN);
-        loadStudyRetentionPolicies(arcdev.getStudyRetentionPolicies(), deviceDN);
-        loadHL7StudyRetentionPolicies(arcdev.getHL7StudyRetentionPolicies(), deviceDN, config);
-        loadIDGenerators(arcdev, deviceDN);
-        loadHL7ForwardRules(arcdev.getHL7ForwardRules(), deviceDN, config);
-        loadRSForwardRules(arcdev.getRSForwardRules(), deviceDN);
-        loadAttributeSet(arcdev, deviceDN);
-        loadScheduledStations(arcdev.getHL7OrderScheduledStations(), deviceDN, config, device);
-        loadHL7OrderSPSStatus(arcdev.getHL7OrderSPSStatuses(), deviceDN, config);
-        loadKeycloakServers(arcdev, deviceDN);
-        loadMetricsDescriptors(arcdev, deviceDN);
-        loadUPSOnStoreList(arcdev.listUPSOnStore(), deviceDN);
-        loadUPSProcessingRules(arcdev, deviceDN);
-        loadUPSOnHL7List(arcdev.listUPSOnHL7(), deviceDN, config);
-        loadMWLIdleTimeouts(arcdev.getMWLIdleTimeouts(), deviceDN);
+        try (LdapChildEntries childEntries =
+                     LdapChildEntries.preload(config, deviceDN, DEVICE_CHILD_OBJECT_CLASSES)) {
+            loadAttributeFilters(arcdev, deviceDN);
+            loadStorageDescriptors(arcdev, deviceDN);
+            loadQueueDescriptors(arcdev, deviceDN);
+            loadPDQServiceDescriptors(arcdev, deviceDN);
+            loadExporterDescriptors(arcdev, deviceDN);
+            loadExportRules(arcdev.getExportRules(), deviceDN);
+            loadPrefetchRules(arcdev.getExportPriorsRules(), deviceDN);
+            loadHL7ExportRules(arcdev.getHL7ExportRules(), deviceDN, config);
+            loadHL7PrefetchRules(arcdev.getHL7PrefetchRules(), deviceDN, config);
+            loadCompressionRules(arcdev.getCompressionRules(), deviceDN);
+            loadStoreAccessControlIDRules(arcdev.getStoreAccessControlIDRules(), deviceDN);
+            loadAttributeCoercions(arcdev.getAttributeCoercions(), deviceDN, device);
+            loadQueryRetrieveViews(arcdev, deviceDN);
+            loadRejectNotes(arcdev, deviceDN);
+            loadStudyRetentionPolicies(arcdev.getStudyRetentionPolicies(), deviceDN);
+            loadHL7StudyRetentionPolicies(arcdev.getHL7StudyRetentionPolicies(), deviceDN, config);
+            loadIDGenerators(arcdev, deviceDN);
+            loadHL7ForwardRules(arcdev.getHL7ForwardRules(), deviceDN, config);
+            loadRSForwardRules(arcdev.getRSForwardRules(), deviceDN);
+            loadAttributeSet(arcdev, deviceDN);
+            loadScheduledStations(arcdev.getHL7OrderScheduledStations(), deviceDN, config, device);
+            loadHL7OrderSPSStatus(arcdev.getHL7OrderSPSStatuses(), deviceDN, config);
+            loadKeycloakServers(arcdev, deviceDN);
+            loadMetricsDescriptors(arcdev, deviceDN);
+            loadUPSOnStoreList(arcdev.listUPSOnStore(), deviceDN);
+            loadUPSProcessingRules(arcdev, deviceDN);
+            loadUPSOnHL7List(arcdev.listUPSOnHL7(), deviceDN, config);
+            loadMWLIdleTimeouts(arcdev.getMWLIdleTimeouts(), deviceDN);
+        }
         config.load(arcdev.getBulkDataDescriptors(), deviceDN);
     }
 
@@ -1929,14 +2056,17 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
         if (aeExt == null)
             return;
 
-        loadExportRules(aeExt.getExportRules(), aeDN);
-        loadPrefetchRules(aeExt.getExportPriorsRules(), aeDN);
-        loadCompressionRules(aeExt.getCompressionRules(), aeDN);
-        loadStoreAccessControlIDRules(aeExt.getStoreAccessControlIDRules(), aeDN);
-        loadAttributeCoercions(aeExt.getAttributeCoercions(), aeDN, ae.getDevice());
-        loadStudyRetentionPolicies(aeExt.getStudyRetentionPolicies(), aeDN);
-        loadRSForwardRules(aeExt.getRSForwardRules(), aeDN);
-        loadUPSOnStoreList(aeExt.listUPSOnStore(), aeDN);
+        try (LdapChildEntries childEntries =
+                     LdapChildEntries.preload(config, aeDN, AE_CHILD_OBJECT_CLASSES)) {
+            loadExportRules(aeExt.getExportRules(), aeDN);
+            loadPrefetchRules(aeExt.getExportPriorsRules(), aeDN);
+            loadCompressionRules(aeExt.getCompressionRules(), aeDN);
+            loadStoreAccessControlIDRules(aeExt.getStoreAccessControlIDRules(), aeDN);
+            loadAttributeCoercions(aeExt.getAttributeCoercions(), aeDN, ae.getDevice());
+            loadStudyRetentionPolicies(aeExt.getStudyRetentionPolicies(), aeDN);
+            loadRSForwardRules(aeExt.getRSForwardRules(), aeDN);
+            loadUPSOnStoreList(aeExt.listUPSOnStore(), aeDN);
+        }
     }
 
     @Override
@@ -2038,7 +2168,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     private void loadAttributeFilters(ArchiveDeviceExtension device, String deviceDN)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmAttributeFilter)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmAttributeFilter");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -2061,7 +2191,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadAttributeSet(ArchiveDeviceExtension device, String deviceDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmAttributeSet)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmAttributeSet");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -2086,7 +2216,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     static void loadHL7OrderSPSStatus(
             Map<SPSStatus, HL7OrderSPSStatus> hl7OrderSPSStatusMap, String deviceDN, LdapDicomConfiguration config)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=hl7OrderSPSStatus)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "hl7OrderSPSStatus");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -2280,6 +2410,12 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 descriptor.getStorageThresholdExceeded(), null);
         LdapUtils.storeNotDef(ldapObj, attrs, "dcmDeleterThreads",
                 descriptor.getDeleterThreads(), 1);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmStorageVerificationMaxParallel",
+                descriptor.getStorageVerificationMaxParallel(), 0);
+        LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmStorageVerificationMaxBandwidth",
+                descriptor.getStorageVerificationMaxBandwidth(), null);
+        LdapUtils.storeNotDef(ldapObj, attrs, "dcmStorageVerificationMaxObjectsPerSecond",
+                descriptor.getStorageVerificationMaxObjectsPerSecond(), 0);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmStorageClusterID",
                 descriptor.getStorageClusterID(), null);
         LdapUtils.storeNotNullOrDef(ldapObj, attrs, "dcmStorageThreshold",
@@ -2306,7 +2442,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadStorageDescriptors(ArchiveDeviceExtension arcdev, String deviceDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmStorage)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmStorage");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -2326,6 +2462,12 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 desc.setStorageThresholdExceeded(
                         LdapUtils.dateTimeValue(attrs.get("dcmStorageThresholdExceeded")));
                 desc.setDeleterThreads(LdapUtils.intValue(attrs.get("dcmDeleterThreads"), 1));
+                desc.setStorageVerificationMaxParallel(
+                        LdapUtils.intValue(attrs.get("dcmStorageVerificationMaxParallel"), 0));
+                desc.setStorageVerificationMaxBandwidth(
+                        LdapUtils.stringValue(attrs.get("dcmStorageVerificationMaxBandwidth"), null));
+                desc.setStorageVerificationMaxObjectsPerSecond(
+                        LdapUtils.intValue(attrs.get("dcmStorageVerificationMaxObjectsPerSecond"), 0));
                 desc.setStorageClusterID(LdapUtils.stringValue(attrs.get("dcmStorageClusterID"), null));
                 desc.setStorageThreshold(toStorageThreshold(attrs.get("dcmStorageThreshold")));
                 desc.setDeleterThresholdsFromStrings(LdapUtils.stringArray(attrs.get("dcmDeleterThreshold")));
@@ -2402,6 +2544,14 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
                 prev.getStorageThresholdExceeded(), desc.getStorageThresholdExceeded(), null);
         LdapUtils.storeDiff(ldapObj, mods, "dcmDeleterThreads",
                 prev.getDeleterThreads(), desc.getDeleterThreads(), 1);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmStorageVerificationMaxParallel",
+                prev.getStorageVerificationMaxParallel(), desc.getStorageVerificationMaxParallel(), 0);
+        LdapUtils.storeDiffObject(ldapObj, mods, "dcmStorageVerificationMaxBandwidth",
+                prev.getStorageVerificationMaxBandwidth(), desc.getStorageVerificationMaxBandwidth(), null);
+        LdapUtils.storeDiff(ldapObj, mods, "dcmStorageVerificationMaxObjectsPerSecond",
+                prev.getStorageVerificationMaxObjectsPerSecond(),
+                desc.getStorageVerificationMaxObjectsPerSecond(),
+                0);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmStorageClusterID",
                 prev.getStorageClusterID(), desc.getStorageClusterID(), null);
         LdapUtils.storeDiffObject(ldapObj, mods, "dcmStorageThreshold",
@@ -2464,7 +2614,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadQueueDescriptors(ArchiveDeviceExtension arcdev, String deviceDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmQueue)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmQueue");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -2575,7 +2725,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadPDQServiceDescriptors(ArchiveDeviceExtension arcdev, String deviceDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmPDQService)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmPDQService");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -2675,7 +2825,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadExporterDescriptors(ArchiveDeviceExtension arcdev, String deviceDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmExporter)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmExporter");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -2978,7 +3128,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadExportRules(Collection<ExportRule> exportRules, String parentDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmExportRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmExportRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -3001,7 +3151,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadMWLIdleTimeouts(Collection<MWLIdleTimeout> mwlIdleTimeouts, String parentDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmMWLIdleTimeout)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmMWLIdleTimeout");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -3019,7 +3169,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadUPSOnStoreList(Collection<UPSOnStore> upsOnStoreList, String parentDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmUPSOnStore)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmUPSOnStore");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -3077,7 +3227,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadUPSProcessingRules(ArchiveDeviceExtension arcDev, String parentDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmUPSProcessingRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmUPSProcessingRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -3113,7 +3263,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     static void loadUPSOnHL7List(Collection<UPSOnHL7> upsOnHL7List, String parentDN, LdapDicomConfiguration config)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=hl7UPSOnHL7)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "hl7UPSOnHL7");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -3178,7 +3328,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadPrefetchRules(Collection<ExportPriorsRule> exportPriorsRules, String parentDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmExportPriorsRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmExportPriorsRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -3227,7 +3377,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     static void loadHL7ExportRules(Collection<HL7ExportRule> prefetchRules, String parentDN,
                                    LdapDicomConfiguration config) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=hl7ExportRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "hl7ExportRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -3282,7 +3432,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     static void loadHL7PrefetchRules(Collection<HL7PrefetchRule> prefetchRules, String parentDN,
                                    LdapDicomConfiguration config) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=hl7PrefetchRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "hl7PrefetchRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4076,7 +4226,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     private void loadCompressionRules(Collection<ArchiveCompressionRule> rules, String parentDN)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmArchiveCompressionRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmArchiveCompressionRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4096,7 +4246,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     private void loadStoreAccessControlIDRules(Collection<StoreAccessControlIDRule> rules, String parentDN)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmStoreAccessControlIDRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmStoreAccessControlIDRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4114,7 +4264,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     private void loadStudyRetentionPolicies(Collection<StudyRetentionPolicy> policies, String parentDN)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmStudyRetentionPolicy)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmStudyRetentionPolicy");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4139,7 +4289,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     static void loadHL7StudyRetentionPolicies(Collection<HL7StudyRetentionPolicy> policies, String parentDN,
                                               LdapDicomConfiguration config)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=hl7StudyRetentionPolicy)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "hl7StudyRetentionPolicy");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4165,7 +4315,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     static void loadHL7ForwardRules(
             Collection<HL7ForwardRule> rules, String parentDN, LdapDicomConfiguration config)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=hl7ForwardRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "hl7ForwardRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4183,7 +4333,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     static void loadScheduledStations(
             Collection<HL7OrderScheduledStation> stations, String parentDN, LdapDicomConfiguration config, Device device)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=hl7OrderScheduledStation)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "hl7OrderScheduledStation");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4214,7 +4364,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     private void loadRSForwardRules(Collection<RSForwardRule> rules, String parentDN)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmRSForwardRule)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmRSForwardRule");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4235,7 +4385,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     private void loadKeycloakServers(ArchiveDeviceExtension arcdev, String parentDN)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmKeycloakServer)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmKeycloakServer");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4261,7 +4411,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadMetricsDescriptors(ArchiveDeviceExtension arcdev, String parentDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmMetrics)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmMetrics");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4814,7 +4964,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadQueryRetrieveViews(ArchiveDeviceExtension arcdev, String deviceDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmQueryRetrieveView)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmQueryRetrieveView");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -4922,7 +5072,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
 
     private void loadAttributeCoercions(Collection<ArchiveAttributeCoercion> coercions, String parentDN, Device device)
             throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(parentDN, "(objectclass=dcmArchiveAttributeCoercion)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, parentDN, "dcmArchiveAttributeCoercion");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -5078,7 +5228,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadRejectNotes(ArchiveDeviceExtension arcdev, String deviceDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmRejectionNote)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmRejectionNote");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -5106,7 +5256,7 @@ class LdapArchiveConfiguration extends LdapDicomConfigurationExtension {
     }
 
     private void loadIDGenerators(ArchiveDeviceExtension arcdev, String deviceDN) throws NamingException {
-        NamingEnumeration<SearchResult> ne = config.search(deviceDN, "(objectclass=dcmIDGenerator)");
+        NamingEnumeration<SearchResult> ne = LdapChildEntries.search(config, deviceDN, "dcmIDGenerator");
         try {
             while (ne.hasMore()) {
                 SearchResult sr = ne.next();
@@ -59,6 +59,17 @@ import java.util.List;
  * @since Jul 2015
  */
 public class LdapArchiveHL7Configuration extends LdapHL7ConfigurationExtension {
+
+    private static final String[] HL7_APP_CHILD_OBJECT_CLASSES = {
+            "hl7ForwardRule",
+            "hl7ExportRule",
+            "hl7PrefetchRule",
+            "hl7OrderScheduledStation",
+            "hl7OrderSPSStatus",
+            "hl7StudyRetentionPolicy",
+            "hl7UPSOnHL7"
+    };
+
     @Override
     public void storeTo(ConfigurationChanges.ModifiedObject ldapObj, HL7Application hl7App, String deviceDN, Attributes attrs) {
         ArchiveHL7ApplicationExtension ext =
@@ -158,14 +169,17 @@ public class LdapArchiveHL7Configuration extends LdapHL7ConfigurationExtension {
             return;
 
         LdapDicomConfiguration config = getDicomConfiguration();
-        LdapArchiveConfiguration.loadHL7ForwardRules(ext.getHL7ForwardRules(), appDN, config);
-        LdapArchiveConfiguration.loadHL7ExportRules(ext.getHL7ExportRules(), appDN, config);
-        LdapArchiveConfiguration.loadHL7PrefetchRules(ext.getHL7PrefetchRules(), appDN, config);
-        LdapArchiveConfiguration.loadScheduledStations(ext.getHL7OrderScheduledStations(), appDN, config,
-                hl7App.getDevice());
-        LdapArchiveConfiguration.loadHL7OrderSPSStatus(ext.getHL7OrderSPSStatuses(), appDN, config);
-        LdapArchiveConfiguration.loadHL7StudyRetentionPolicies(ext.getHL7StudyRetentionPolicies(), appDN, config);
-        LdapArchiveConfiguration.loadUPSOnHL7List(ext.listUPSOnHL7(), appDN, config);
+        try (LdapChildEntries childEntries =
+                     LdapChildEntries.preload(config, appDN, HL7_APP_CHILD_OBJECT_CLASSES)) {
+            LdapArchiveConfiguration.loadHL7ForwardRules(ext.getHL7ForwardRules(), appDN, config);
+            LdapArchiveConfiguration.loadHL7ExportRules(ext.getHL7ExportRules(), appDN, config);
+            LdapArchiveConfiguration.loadHL7PrefetchRules(ext.getHL7PrefetchRules(), appDN, config);
+            LdapArchiveConfiguration.loadScheduledStations(ext.getHL7OrderScheduledStations(), appDN, config,
+                    hl7App.getDevice());
+            LdapArchiveConfiguration.loadHL7OrderSPSStatus(ext.getHL7OrderSPSStatuses(), appDN, config);
+            LdapArchiveConfiguration.loadHL7StudyRetentionPolicies(ext.getHL7StudyRetentionPolicies(), appDN, config);
+            LdapArchiveConfiguration.loadUPSOnHL7List(ext.listUPSOnHL7(), appDN, config);
+        }
     }
 
     @Override
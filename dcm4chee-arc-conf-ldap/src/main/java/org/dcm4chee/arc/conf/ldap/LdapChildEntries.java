@@ -0,0 +1,157 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.conf.ldap;
+
+import org.dcm4che3.conf.ldap.LdapDicomConfiguration;
+import org.dcm4che3.conf.ldap.LdapUtils;
+
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.SearchResult;
+import java.util.*;
+
+/**
+ * Fetches the child entries of a configuration object of all object classes loaded by the archive
+ * configuration extensions by one LDAP search and dispatches them by object class to the subsequent
+ * {@link #search} invocations of the loading thread.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+class LdapChildEntries implements AutoCloseable {
+
+    private static final ThreadLocal<Map<String, Map<String, List<SearchResult>>>> PRELOADED =
+            ThreadLocal.withInitial(HashMap::new);
+
+    private final String parentDN;
+
+    private LdapChildEntries(String parentDN) {
+        this.parentDN = parentDN;
+    }
+
+    static LdapChildEntries preload(LdapDicomConfiguration config, String parentDN, String... objectClasses)
+            throws NamingException {
+        Map<String, List<SearchResult>> byObjectClass = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String objectClass : objectClasses)
+            byObjectClass.put(objectClass, new ArrayList<>());
+        NamingEnumeration<SearchResult> ne = config.search(parentDN, filter(objectClasses));
+        try {
+            while (ne.hasMore()) {
+                SearchResult sr = ne.next();
+                Attribute attr = sr.getAttributes().get("objectClass");
+                if (attr == null)
+                    continue;
+                NamingEnumeration<?> values = attr.getAll();
+                try {
+                    while (values.hasMore()) {
+                        List<SearchResult> list = byObjectClass.get((String) values.next());
+                        if (list != null)
+                            list.add(sr);
+                    }
+                } finally {
+                    LdapUtils.safeClose(values);
+                }
+            }
+        } finally {
+            LdapUtils.safeClose(ne);
+        }
+        PRELOADED.get().put(parentDN, byObjectClass);
+        return new LdapChildEntries(parentDN);
+    }
+
+    static NamingEnumeration<SearchResult> search(LdapDicomConfiguration config, String parentDN,
+            String objectClass) throws NamingException {
+        Map<String, List<SearchResult>> byObjectClass = PRELOADED.get().get(parentDN);
+        List<SearchResult> list;
+        return byObjectClass != null && (list = byObjectClass.get(objectClass)) != null
+                ? new SearchResults(list.iterator())
+                : config.search(parentDN, "(objectclass=" + objectClass + ")");
+    }
+
+    private static String filter(String... objectClasses) {
+        StringBuilder sb = new StringBuilder(objectClasses.length * 32).append("(|");
+        for (String objectClass : objectClasses)
+            sb.append("(objectclass=").append(objectClass).append(')');
+        return sb.append(')').toString();
+    }
+
+    @Override
+    public void close() {
+        Map<String, Map<String, List<SearchResult>>> preloaded = PRELOADED.get();
+        preloaded.remove(parentDN);
+        if (preloaded.isEmpty())
+            PRELOADED.remove();
+    }
+
+    private static class SearchResults implements NamingEnumeration<SearchResult> {
+        private final Iterator<SearchResult> iter;
+
+        SearchResults(Iterator<SearchResult> iter) {
+            this.iter = iter;
+        }
+
+        @Override
+        public SearchResult next() {
+            return iter.next();
+        }
+
+        @Override
+        public boolean hasMore() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public SearchResult nextElement() {
+            return iter.next();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.conf.ldap;
+
+import org.dcm4che3.conf.ldap.LdapDicomConfiguration;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.naming.Context;
+import javax.naming.NamingEnumeration;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchResult;
+import javax.naming.spi.InitialContextFactory;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class LdapChildEntriesTest {
+
+    private static final String AE_DN = "dicomAETitle=ARC,dicomDeviceName=arc,cn=Devices,cn=DICOM Configuration,dc=dcm4che,dc=org";
+
+    private static final List<String> searchFilters = Collections.synchronizedList(new ArrayList<>());
+    private static final List<SearchResult> childEntries = new ArrayList<>();
+
+    private LdapDicomConfiguration config;
+    private LdapArchiveConfiguration arcConfig;
+
+    public static class CountingContextFactory implements InitialContextFactory {
+        @Override
+        public Context getInitialContext(Hashtable<?, ?> env) {
+            return (Context) Proxy.newProxyInstance(DirContext.class.getClassLoader(),
+                    new Class<?>[]{ DirContext.class },
+                    (proxy, method, args) -> {
+                        Class<?> returnType = method.getReturnType();
+                        if (method.getName().equals("search")) {
+                            String filter = String.valueOf(args[1]);
+                            searchFilters.add(filter);
+                            return new Results(filter.startsWith("(|") ? childEntries : Collections.emptyList());
+                        }
+                        if (method.getName().equals("getEnvironment"))
+                            return env;
+                        if (returnType == javax.naming.directory.Attributes.class)
+                            return new BasicAttributes(true);
+                        if (returnType == NamingEnumeration.class)
+                            return new Results(Collections.emptyList());
+                        return returnType == boolean.class ? Boolean.FALSE : null;
+                    });
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        searchFilters.clear();
+        childEntries.clear();
+        Hashtable<String, String> env = new Hashtable<>();
+        env.put(Context.INITIAL_CONTEXT_FACTORY, CountingContextFactory.class.getName());
+        env.put(Context.PROVIDER_URL, "ldap://localhost:389/dc=dcm4che,dc=org");
+        config = new LdapDicomConfiguration(env);
+        config.addDicomConfigurationExtension(arcConfig = new LdapArchiveConfiguration());
+        searchFilters.clear();
+    }
+
+    @After
+    public void tearDown() {
+        config.close();
+    }
+
+    @Test
+    public void loadsChildEntriesOfAEBySingleSearch() throws Exception {
+        ApplicationEntity ae = new ApplicationEntity("ARC");
+        ae.addAEExtension(new ArchiveAEExtension());
+        new Device("arc").addApplicationEntity(ae);
+        arcConfig.loadChilds(ae, AE_DN);
+        assertEquals(searchFilters.toString(), 1, searchFilters.size());
+        assertTrue(searchFilters.get(0).startsWith("(|(objectclass=dcmExportRule)"));
+    }
+
+    @Test
+    public void dispatchesPreloadedEntriesByObjectClass() throws Exception {
+        childEntries.add(childEntry("cn=rule1", "dcmExportRule"));
+        childEntries.add(childEntry("cn=rule2", "dcmExportRule"));
+        childEntries.add(childEntry("cn=policy", "dcmStudyRetentionPolicy"));
+        childEntries.add(childEntry("cn=other", "dcmOther"));
+        try (LdapChildEntries preloaded = LdapChildEntries.preload(config, AE_DN,
+                "dcmExportRule", "dcmStudyRetentionPolicy", "dcmRSForwardRule")) {
+            assertEquals(Arrays.asList("cn=rule1", "cn=rule2"), names(LdapChildEntries.search(config, AE_DN, "dcmExportRule")));
+            assertEquals(Collections.singletonList("cn=policy"),
+                    names(LdapChildEntries.search(config, AE_DN, "dcmStudyRetentionPolicy")));
+            assertTrue(names(LdapChildEntries.search(config, AE_DN, "dcmRSForwardRule")).isEmpty());
+            assertEquals(1, searchFilters.size());
+            LdapChildEntries.search(config, AE_DN, "dcmUPSOnStore");
+            LdapChildEntries.search(config, "cn=other," + AE_DN, "dcmExportRule");
+            assertEquals(3, searchFilters.size());
+        }
+        LdapChildEntries.search(config, AE_DN, "dcmExportRule");
+        assertEquals(4, searchFilters.size());
+        assertEquals("(objectclass=dcmExportRule)", searchFilters.get(3));
+    }
+
+    private static SearchResult childEntry(String name, String objectClass) {
+        BasicAttributes attrs = new BasicAttributes(true);
+        attrs.put("objectClass", objectClass);
+        return new SearchResult(name, null, attrs);
+    }
+
+    private static List<String> names(NamingEnumeration<SearchResult> ne) throws Exception {
+        List<String> names = new ArrayList<>();
+        while (ne.hasMore())
+            names.add(ne.next().getName());
+        return names;
+    }
+
+    private static class Results implements NamingEnumeration<SearchResult> {
+        private final Iterator<SearchResult> iter;
+
+        Results(List<SearchResult> list) {
+            this.iter = new ArrayList<>(list).iterator();
+        }
+
+        @Override
+        public SearchResult next() {
+            return iter.next();
+        }
+
+        @Override
+        public boolean hasMore() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public SearchResult nextElement() {
+            return iter.next();
+        }
+    }
+}
@@ -226,7 +226,8 @@ class ArchiveDeviceFactory {
         newQueueDescriptor("Retrieve12", "Dicom Retrieve Tasks 12"),
         newQueueDescriptor("Retrieve13", "Dicom Retrieve Tasks 13"),
         newQueueDescriptor("DiffTasks", "Diff Tasks"),
-        newQueueDescriptor("Rejection", "Rejection Tasks")
+        newQueueDescriptor("Rejection", "Rejection Tasks"),
+        newQueueDescriptor("IOCM", "IOCM Tasks", 0)
     };
 
     static final MetricsDescriptor[] METRICS_DESCRIPTORS = {
@@ -246,10 +247,14 @@ class ArchiveDeviceFactory {
     };
 
     private static QueueDescriptor newQueueDescriptor(String name, String description) {
+        return newQueueDescriptor(name, description, 10);
+    }
+
+    private static QueueDescriptor newQueueDescriptor(String name, String description, int maxRetries) {
         QueueDescriptor desc = new QueueDescriptor(name);
         desc.setDescription(description);
         desc.setJndiName("jms/queue/" + name);
-        desc.setMaxRetries(10);
+        desc.setMaxRetries(maxRetries);
         desc.setRetryDelay(Duration.valueOf("PT30S"));
         desc.setRetryDelayMultiplier(200);
         desc.setMaxRetryDelay(Duration.valueOf("PT10M"));
@@ -1203,6 +1208,7 @@ class ArchiveDeviceFactory {
     static final int QIDO_MAX_NUMBER_OF_RESULTS = 1000;
     static final Duration IAN_TASK_POLLING_INTERVAL = Duration.valueOf("PT1M");
     static final Duration PURGE_QUEUE_MSG_POLLING_INTERVAL = Duration.valueOf("PT1H");
+    static final Duration COUNT_QUEUE_MSG_POLLING_INTERVAL = Duration.valueOf("PT5M");
 
     static final String CALC_STUDY_SIZE_EXPORTER_ID = "CalculateStudySize";
     static final String CALC_STUDY_SIZE_EXPORTER_DESC = "Calculate Study Size";
@@ -1694,6 +1700,7 @@ class ArchiveDeviceFactory {
         ext.setQidoMaxNumberOfResults(QIDO_MAX_NUMBER_OF_RESULTS);
         ext.setIanTaskPollingInterval(IAN_TASK_POLLING_INTERVAL);
         ext.setPurgeQueueMessagePollingInterval(PURGE_QUEUE_MSG_POLLING_INTERVAL);
+        ext.setCountQueueMessagePollingInterval(COUNT_QUEUE_MSG_POLLING_INTERVAL);
         ext.setExportTaskPollingInterval(EXPORT_TASK_POLLING_INTERVAL);
         ext.setPurgeStoragePollingInterval(PURGE_STORAGE_POLLING_INTERVAL);
         ext.setPurgeStoragePollingInterval(PURGE_STORAGE_POLLING_INTERVAL);
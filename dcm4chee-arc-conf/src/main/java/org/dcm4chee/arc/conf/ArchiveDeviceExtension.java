@@ -70,11 +70,13 @@ public class ArchiveDeviceExtension extends DeviceExtension {
     public static final String DEFAULT_WADO_ZIP_ENTRY_NAME_FORMAT =
             "DICOM/{0020000D,hash}/{0020000E,hash}/{00080018,hash}";
     public static final String WADO_THUMBNAIL_VIEWPORT = "64,64";
+    public static final Duration DEFAULT_CFIND_SCU_ASSOCIATION_IDLE_TIMEOUT = Duration.valueOf("PT30S");
 
     private volatile String defaultCharacterSet;
     private volatile String upsWorklistLabel;
     private volatile String[] upsEventSCUs = {};
     private volatile int upsEventSCUKeepAlive;
+    private volatile int upsEventMaxBacklog = 1000;
     private volatile String fuzzyAlgorithmClass;
     private volatile String bulkDataDescriptorID;
     private volatile String[] seriesMetadataStorageIDs = {};
@@ -88,6 +90,8 @@ public class ArchiveDeviceExtension extends DeviceExtension {
     private volatile Duration purgeInstanceRecordsDelay;
     private volatile Duration purgeInstanceRecordsPollingInterval;
     private volatile int purgeInstanceRecordsFetchSize = 100;
+    private volatile int purgeInstanceRecordsMaxParallel = 1;
+    private volatile int wadoMultiFrameRenderingMaxParallel = 4;
     private volatile Duration deleteUPSPollingInterval;
     private volatile int deleteUPSFetchSize = 100;
     private volatile Duration deleteUPSCompletedDelay;
@@ -103,6 +107,7 @@ public class ArchiveDeviceExtension extends DeviceExtension {
     private volatile boolean sendPendingCGet = false;
     private volatile Duration sendPendingCMoveInterval;
     private volatile boolean personNameComponentOrderInsensitiveMatching = false;
+    private volatile boolean personNameIndexedMatching = false;
     private volatile int queryFetchSize = 100;
     private volatile int queryMaxNumberOfResults = 0;
     private volatile int qidoMaxNumberOfResults = 0;
@@ -148,6 +153,10 @@ public class ArchiveDeviceExtension extends DeviceExtension {
     private volatile int purgeStorageFetchSize = 100;
     private volatile int deleteStudyBatchSize = 10;
     private volatile int deleteStudyChunkSize = 100;
+    private volatile String[] storeEventAsyncObservers = {};
+    private volatile int storeEventMaxBacklog = 1000;
+    private volatile int hl7PrefetchMaxParallel = 1;
+    private volatile int hl7PrefetchMaxBacklog = 1000;
     private volatile boolean deletePatientOnDeleteLastStudy = false;
     private volatile Duration failedToDeletePollingInterval;
     private volatile int failedToDeleteFetchSize = 100;
@@ -155,12 +164,16 @@ public class ArchiveDeviceExtension extends DeviceExtension {
     private volatile Duration aeCacheStaleTimeout;
     private volatile Duration leadingCFindSCPQueryCacheStaleTimeout;
     private volatile int leadingCFindSCPQueryCacheSize = 10;
+    private volatile int cFindSCUMaxIdleAssociations;
+    private volatile Duration cFindSCUAssociationIdleTimeout = DEFAULT_CFIND_SCU_ASSOCIATION_IDLE_TIMEOUT;
+    private volatile int cFindSCUMaxAssociations;
     private volatile String auditSpoolDirectory = JBOSS_SERVER_TEMP_DIR;
     private volatile Duration auditPollingInterval;
     private volatile Duration auditAggregateDuration;
     private volatile String stowSpoolDirectory = JBOSS_SERVER_TEMP_DIR;
     private volatile String wadoSpoolDirectory = JBOSS_SERVER_TEMP_DIR;
     private volatile Duration purgeQueueMessagePollingInterval;
+    private volatile Duration countQueueMessagePollingInterval;
     private volatile Duration purgeStgCmtPollingInterval;
     private volatile Duration purgeStgCmtCompletedDelay;
     private volatile Duration mwlPollingInterval;
@@ -256,6 +269,8 @@ public class ArchiveDeviceExtension extends DeviceExtension {
     private volatile Duration patientVerificationPollingInterval;
     private volatile int patientVerificationFetchSize = 100;
     private volatile Duration patientVerificationMaxStaleness;
+    private volatile int patientVerificationMaxParallel = 1;
+    private volatile int patientVerificationMaxRequestsPerSecond;
     private volatile Period patientVerificationPeriod;
     private volatile Period patientVerificationPeriodOnNotFound;
     private volatile Duration patientVerificationRetryInterval;
@@ -351,6 +366,14 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         this.upsEventSCUKeepAlive = upsEventSCUKeepAlive;
     }
 
+    public int getUPSEventMaxBacklog() {
+        return upsEventMaxBacklog;
+    }
+
+    public void setUPSEventMaxBacklog(int upsEventMaxBacklog) {
+        this.upsEventMaxBacklog = greaterZero(upsEventMaxBacklog, "upsEventMaxBacklog");
+    }
+
     public String getFuzzyAlgorithmClass() {
         return fuzzyAlgorithmClass;
     }
@@ -531,6 +554,22 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         this.purgeInstanceRecordsFetchSize =  greaterZero(purgeInstanceRecordsFetchSize, "purgeInstanceRecordsFetchSize");
     }
 
+    public int getPurgeInstanceRecordsMaxParallel() {
+        return purgeInstanceRecordsMaxParallel;
+    }
+
+    public void setPurgeInstanceRecordsMaxParallel(int purgeInstanceRecordsMaxParallel) {
+        this.purgeInstanceRecordsMaxParallel = greaterZero(purgeInstanceRecordsMaxParallel, "purgeInstanceRecordsMaxParallel");
+    }
+
+    public int getWadoMultiFrameRenderingMaxParallel() {
+        return wadoMultiFrameRenderingMaxParallel;
+    }
+
+    public void setWadoMultiFrameRenderingMaxParallel(int wadoMultiFrameRenderingMaxParallel) {
+        this.wadoMultiFrameRenderingMaxParallel = greaterZero(wadoMultiFrameRenderingMaxParallel, "wadoMultiFrameRenderingMaxParallel");
+    }
+
     public Duration getDeleteUPSPollingInterval() {
         return deleteUPSPollingInterval;
     }
@@ -587,6 +626,14 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         this.personNameComponentOrderInsensitiveMatching = personNameComponentOrderInsensitiveMatching;
     }
 
+    public boolean isPersonNameIndexedMatching() {
+        return personNameIndexedMatching;
+    }
+
+    public void setPersonNameIndexedMatching(boolean personNameIndexedMatching) {
+        this.personNameIndexedMatching = personNameIndexedMatching;
+    }
+
     public boolean isValidateCallingAEHostname() {
         return validateCallingAEHostname;
     }
@@ -967,6 +1014,45 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         this.deleteStudyChunkSize = greaterZero(deleteStudyChunkSize, "deleteStudyChunkSize");
     }
 
+    public String[] getStoreEventAsyncObservers() {
+        return storeEventAsyncObservers;
+    }
+
+    public void setStoreEventAsyncObservers(String... storeEventAsyncObservers) {
+        this.storeEventAsyncObservers = storeEventAsyncObservers;
+    }
+
+    public boolean isStoreEventAsyncObserver(String name) {
+        for (String observer : storeEventAsyncObservers)
+            if (observer.equals(name))
+                return true;
+        return false;
+    }
+
+    public int getStoreEventMaxBacklog() {
+        return storeEventMaxBacklog;
+    }
+
+    public void setStoreEventMaxBacklog(int storeEventMaxBacklog) {
+        this.storeEventMaxBacklog = greaterZero(storeEventMaxBacklog, "storeEventMaxBacklog");
+    }
+
+    public int getHL7PrefetchMaxParallel() {
+        return hl7PrefetchMaxParallel;
+    }
+
+    public void setHL7PrefetchMaxParallel(int hl7PrefetchMaxParallel) {
+        this.hl7PrefetchMaxParallel = greaterZero(hl7PrefetchMaxParallel, "hl7PrefetchMaxParallel");
+    }
+
+    public int getHL7PrefetchMaxBacklog() {
+        return hl7PrefetchMaxBacklog;
+    }
+
+    public void setHL7PrefetchMaxBacklog(int hl7PrefetchMaxBacklog) {
+        this.hl7PrefetchMaxBacklog = greaterZero(hl7PrefetchMaxBacklog, "hl7PrefetchMaxBacklog");
+    }
+
     public boolean isDeletePatientOnDeleteLastStudy() {
         return deletePatientOnDeleteLastStudy;
     }
@@ -1036,6 +1122,31 @@ public class ArchiveDeviceExtension extends DeviceExtension {
                 greaterZero(leadingCFindSCPQueryCacheSize, "leadingCFindSCPQueryCacheSize");
     }
 
+    public int getCFindSCUMaxIdleAssociations() {
+        return cFindSCUMaxIdleAssociations;
+    }
+
+    public void setCFindSCUMaxIdleAssociations(int cFindSCUMaxIdleAssociations) {
+        this.cFindSCUMaxIdleAssociations =
+                greaterOrEqualsZero(cFindSCUMaxIdleAssociations, "cFindSCUMaxIdleAssociations");
+    }
+
+    public Duration getCFindSCUAssociationIdleTimeout() {
+        return cFindSCUAssociationIdleTimeout;
+    }
+
+    public void setCFindSCUAssociationIdleTimeout(Duration cFindSCUAssociationIdleTimeout) {
+        this.cFindSCUAssociationIdleTimeout = Objects.requireNonNull(cFindSCUAssociationIdleTimeout);
+    }
+
+    public int getCFindSCUMaxAssociations() {
+        return cFindSCUMaxAssociations;
+    }
+
+    public void setCFindSCUMaxAssociations(int cFindSCUMaxAssociations) {
+        this.cFindSCUMaxAssociations = greaterOrEqualsZero(cFindSCUMaxAssociations, "cFindSCUMaxAssociations");
+    }
+
     public String getAuditSpoolDirectory() {
         return auditSpoolDirectory;
     }
@@ -1154,6 +1265,14 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         this.purgeQueueMessagePollingInterval = purgeQueueMessagePollingInterval;
     }
 
+    public Duration getCountQueueMessagePollingInterval() {
+        return countQueueMessagePollingInterval;
+    }
+
+    public void setCountQueueMessagePollingInterval(Duration countQueueMessagePollingInterval) {
+        this.countQueueMessagePollingInterval = countQueueMessagePollingInterval;
+    }
+
     public Duration getPurgeStgCmtPollingInterval() {
         return purgeStgCmtPollingInterval;
     }
@@ -2552,6 +2671,23 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         this.patientVerificationMaxStaleness = patientVerificationMaxStaleness;
     }
 
+    public int getPatientVerificationMaxParallel() {
+        return patientVerificationMaxParallel;
+    }
+
+    public void setPatientVerificationMaxParallel(int patientVerificationMaxParallel) {
+        this.patientVerificationMaxParallel =
+                greaterZero(patientVerificationMaxParallel, "patientVerificationMaxParallel");
+    }
+
+    public int getPatientVerificationMaxRequestsPerSecond() {
+        return patientVerificationMaxRequestsPerSecond;
+    }
+
+    public void setPatientVerificationMaxRequestsPerSecond(int patientVerificationMaxRequestsPerSecond) {
+        this.patientVerificationMaxRequestsPerSecond = patientVerificationMaxRequestsPerSecond;
+    }
+
     public MultipleStoreAssociations[] getMultipleStoreAssociations() {
         return multipleStoreAssociations;
     }
@@ -2803,6 +2939,7 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         upsWorklistLabel = arcdev.upsWorklistLabel;
         upsEventSCUs = arcdev.upsEventSCUs;
         upsEventSCUKeepAlive = arcdev.upsEventSCUKeepAlive;
+        upsEventMaxBacklog = arcdev.upsEventMaxBacklog;
         fuzzyAlgorithmClass = arcdev.fuzzyAlgorithmClass;
         fuzzyStr = arcdev.fuzzyStr;
         bulkDataDescriptorID = arcdev.bulkDataDescriptorID;
@@ -2816,6 +2953,8 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         purgeInstanceRecordsDelay = arcdev.purgeInstanceRecordsDelay;
         purgeInstanceRecordsPollingInterval = arcdev.purgeInstanceRecordsPollingInterval;
         purgeInstanceRecordsFetchSize = arcdev.purgeInstanceRecordsFetchSize;
+        purgeInstanceRecordsMaxParallel = arcdev.purgeInstanceRecordsMaxParallel;
+        wadoMultiFrameRenderingMaxParallel = arcdev.wadoMultiFrameRenderingMaxParallel;
         deleteUPSPollingInterval = arcdev.deleteUPSPollingInterval;
         deleteUPSFetchSize = arcdev.deleteUPSFetchSize;
         deleteUPSCompletedDelay = arcdev.deleteUPSCompletedDelay;
@@ -2828,6 +2967,7 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         showPatientInfoInAuditLog = arcdev.showPatientInfoInAuditLog;
         bulkDataSpoolDirectory = arcdev.bulkDataSpoolDirectory;
         personNameComponentOrderInsensitiveMatching = arcdev.personNameComponentOrderInsensitiveMatching;
+        personNameIndexedMatching = arcdev.personNameIndexedMatching;
         validateCallingAEHostname = arcdev.validateCallingAEHostname;
         sendPendingCGet = arcdev.sendPendingCGet;
         sendPendingCMoveInterval = arcdev.sendPendingCMoveInterval;
@@ -2881,6 +3021,10 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         purgeStorageFetchSize = arcdev.purgeStorageFetchSize;
         deleteStudyBatchSize = arcdev.deleteStudyBatchSize;
         deleteStudyChunkSize = arcdev.deleteStudyChunkSize;
+        storeEventAsyncObservers = arcdev.storeEventAsyncObservers;
+        storeEventMaxBacklog = arcdev.storeEventMaxBacklog;
+        hl7PrefetchMaxParallel = arcdev.hl7PrefetchMaxParallel;
+        hl7PrefetchMaxBacklog = arcdev.hl7PrefetchMaxBacklog;
         deletePatientOnDeleteLastStudy = arcdev.deletePatientOnDeleteLastStudy;
         failedToDeletePollingInterval = arcdev.failedToDeletePollingInterval;
         failedToDeleteFetchSize = arcdev.failedToDeleteFetchSize;
@@ -2888,6 +3032,9 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         aeCacheStaleTimeout = arcdev.aeCacheStaleTimeout;
         leadingCFindSCPQueryCacheStaleTimeout = arcdev.leadingCFindSCPQueryCacheStaleTimeout;
         leadingCFindSCPQueryCacheSize = arcdev.leadingCFindSCPQueryCacheSize;
+        cFindSCUMaxIdleAssociations = arcdev.cFindSCUMaxIdleAssociations;
+        cFindSCUAssociationIdleTimeout = arcdev.cFindSCUAssociationIdleTimeout;
+        cFindSCUMaxAssociations = arcdev.cFindSCUMaxAssociations;
         auditSpoolDirectory = arcdev.auditSpoolDirectory;
         auditPollingInterval = arcdev.auditPollingInterval;
         auditAggregateDuration = arcdev.auditAggregateDuration;
@@ -2896,6 +3043,7 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         hl7LogFilePattern = arcdev.hl7LogFilePattern;
         hl7ErrorLogFilePattern = arcdev.hl7ErrorLogFilePattern;
         purgeQueueMessagePollingInterval = arcdev.purgeQueueMessagePollingInterval;
+        countQueueMessagePollingInterval = arcdev.countQueueMessagePollingInterval;
         purgeStgCmtPollingInterval = arcdev.purgeStgCmtPollingInterval;
         purgeStgCmtCompletedDelay = arcdev.purgeStgCmtCompletedDelay;
         hideSPSWithStatusFrom = arcdev.hideSPSWithStatusFrom;
@@ -2984,6 +3132,8 @@ public class ArchiveDeviceExtension extends DeviceExtension {
         patientVerificationPollingInterval = arcdev.patientVerificationPollingInterval;
         patientVerificationFetchSize = arcdev.patientVerificationFetchSize;
         patientVerificationMaxStaleness = arcdev.patientVerificationMaxStaleness;
+        patientVerificationMaxParallel = arcdev.patientVerificationMaxParallel;
+        patientVerificationMaxRequestsPerSecond = arcdev.patientVerificationMaxRequestsPerSecond;
         patientVerificationPeriod = arcdev.patientVerificationPeriod;
         patientVerificationRetryInterval = arcdev.patientVerificationRetryInterval;
         patientVerificationPeriodOnNotFound = arcdev.patientVerificationPeriodOnNotFound;
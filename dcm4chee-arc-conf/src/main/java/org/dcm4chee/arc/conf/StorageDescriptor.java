@@ -66,6 +66,10 @@ public final class StorageDescriptor {
     private String retrieveCacheStorageID;
     private int retrieveCacheStorageMaxParallel = 10;
     private int deleterThreads = 1;
+    private int storageVerificationMaxParallel;
+    private String storageVerificationMaxBandwidth;
+    private long storageVerificationMaxBytesPerSecond;
+    private int storageVerificationMaxObjectsPerSecond;
     private String[] externalRetrieveAETitles = {};
     private boolean readOnly;
     private boolean noDeletionConstraint;
@@ -175,6 +179,37 @@ public final class StorageDescriptor {
         this.deleterThreads = deleterThreads;
     }
 
+    public int getStorageVerificationMaxParallel() {
+        return storageVerificationMaxParallel;
+    }
+
+    public void setStorageVerificationMaxParallel(int storageVerificationMaxParallel) {
+        this.storageVerificationMaxParallel = storageVerificationMaxParallel;
+    }
+
+    public String getStorageVerificationMaxBandwidth() {
+        return storageVerificationMaxBandwidth;
+    }
+
+    public void setStorageVerificationMaxBandwidth(String storageVerificationMaxBandwidth) {
+        this.storageVerificationMaxBytesPerSecond = storageVerificationMaxBandwidth != null
+                ? BinaryPrefix.parse(storageVerificationMaxBandwidth)
+                : 0L;
+        this.storageVerificationMaxBandwidth = storageVerificationMaxBandwidth;
+    }
+
+    public long getStorageVerificationMaxBytesPerSecond() {
+        return storageVerificationMaxBytesPerSecond;
+    }
+
+    public int getStorageVerificationMaxObjectsPerSecond() {
+        return storageVerificationMaxObjectsPerSecond;
+    }
+
+    public void setStorageVerificationMaxObjectsPerSecond(int storageVerificationMaxObjectsPerSecond) {
+        this.storageVerificationMaxObjectsPerSecond = storageVerificationMaxObjectsPerSecond;
+    }
+
     public boolean isReadOnly() {
         return readOnly;
     }
@@ -0,0 +1,300 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.conf;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.io.ContentHandlerAdapter;
+import org.dcm4che3.io.SAXTransformer.SetupTransformer;
+import org.dcm4che3.io.SAXWriter;
+import org.dcm4che3.io.TemplatesCache;
+import org.dcm4che3.util.StringUtils;
+import org.xml.sax.*;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of {@link Transformer} instances of one compiled XSL stylesheet, looked up by its not yet resolved URI,
+ * so neither the expansion of system properties in the URI nor the instantiation of a {@link Transformer} is
+ * repeated for each transformation. For stylesheets loaded from a file, the last modification time of the file
+ * is recorded, so {@link #removeModified} can discard only pools of changed stylesheets.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public final class TransformerPool {
+
+    private static final int MAX_IDLE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final Map<String, TransformerPool> pools = new ConcurrentHashMap<>();
+
+    private final String uri;
+    private final Path path;
+    private final long lastModified;
+    private final Templates templates;
+    private final Queue<Transformer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numIdle = new AtomicInteger();
+
+    private TransformerPool(String uri, Path path, Templates templates) {
+        this.uri = uri;
+        this.path = path;
+        this.lastModified = lastModified(path);
+        this.templates = templates;
+    }
+
+    public static TransformerPool of(String uri) throws TransformerConfigurationException {
+        TransformerPool pool = pools.get(uri);
+        if (pool == null) {
+            String resolvedURI = StringUtils.replaceSystemProperties(uri);
+            pool = new TransformerPool(uri, toPath(resolvedURI), TemplatesCache.getDefault().get(resolvedURI));
+            TransformerPool prev = pools.putIfAbsent(uri, pool);
+            if (prev != null)
+                pool = prev;
+        }
+        return pool;
+    }
+
+    public static void clear() {
+        pools.clear();
+    }
+
+    /**
+     * Removes pools of stylesheets whose file was modified since it was compiled or is contained in
+     * {@code changedFiles}. Clears {@link TemplatesCache#getDefault()}, if any pool was removed or
+     * {@code changedFiles} is not empty, so removed stylesheets are compiled again on next use.
+     *
+     * @param changedFiles files known to be changed
+     * @return URIs of removed pools
+     */
+    public static List<String> removeModified(Collection<Path> changedFiles) {
+        List<String> removed = new ArrayList<>();
+        pools.values().removeIf(pool -> {
+            if (pool.path == null
+                    || !changedFiles.contains(pool.path) && lastModified(pool.path) == pool.lastModified)
+                return false;
+
+            removed.add(pool.uri);
+            return true;
+        });
+        if (!removed.isEmpty() || !changedFiles.isEmpty())
+            TemplatesCache.getDefault().clear();
+        return removed;
+    }
+
+    private static Path toPath(String uri) {
+        try {
+            URI u = new URI(uri);
+            return "file".equals(u.getScheme()) ? Paths.get(u).normalize() : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return path != null ? Files.getLastModifiedTime(path).toMillis() : -1L;
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    public String getURI() {
+        return uri;
+    }
+
+    public Templates getTemplates() {
+        return templates;
+    }
+
+    public Attributes transform(Attributes attrs, boolean includeNameSpaceDeclaration, boolean includeKeyword,
+            SetupTransformer setup) throws TransformerConfigurationException, SAXException {
+        Attributes result = new Attributes();
+        try {
+            transform(handler -> {
+                SAXWriter saxWriter = new SAXWriter(handler);
+                saxWriter.setIncludeKeyword(includeKeyword);
+                saxWriter.setIncludeNamespaceDeclaration(includeNameSpaceDeclaration);
+                saxWriter.write(attrs);
+            }, new ContentHandlerAdapter(result), setup);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+        return result;
+    }
+
+    public void transform(SAXEventSource source, ContentHandler result, SetupTransformer setup)
+            throws TransformerConfigurationException, SAXException, IOException {
+        Transformer transformer = borrow();
+        try {
+            if (setup != null)
+                setup.setup(transformer);
+            transformer.transform(new SAXSource(new SAXEventSourceReader(source), new InputSource()),
+                    new SAXResult(result));
+        } catch (TransformerConfigurationException e) {
+            throw e;
+        } catch (TransformerException e) {
+            Throwable cause = e.getException();
+            if (cause instanceof SAXException)
+                throw (SAXException) cause;
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw new SAXException(e);
+        }
+        release(transformer);
+    }
+
+    private Transformer borrow() throws TransformerConfigurationException {
+        Transformer transformer = idle.poll();
+        if (transformer == null)
+            return templates.newTransformer();
+
+        numIdle.decrementAndGet();
+        return transformer;
+    }
+
+    private void release(Transformer transformer) {
+        transformer.reset();
+        if (numIdle.incrementAndGet() <= MAX_IDLE)
+            idle.offer(transformer);
+        else
+            numIdle.decrementAndGet();
+    }
+
+    @FunctionalInterface
+    public interface SAXEventSource {
+        void writeTo(ContentHandler handler) throws SAXException, IOException;
+    }
+
+    private static class SAXEventSourceReader implements XMLReader {
+        private final SAXEventSource source;
+        private ContentHandler contentHandler;
+        private DTDHandler dtdHandler;
+        private EntityResolver entityResolver;
+        private ErrorHandler errorHandler;
+
+        SAXEventSourceReader(SAXEventSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean getFeature(String name) {
+            return "http://xml.org/sax/features/namespaces".equals(name);
+        }
+
+        @Override
+        public void setFeature(String name, boolean value) {
+        }
+
+        @Override
+        public Object getProperty(String name) throws SAXNotRecognizedException {
+            throw new SAXNotRecognizedException(name);
+        }
+
+        @Override
+        public void setProperty(String name, Object value) throws SAXNotRecognizedException {
+            throw new SAXNotRecognizedException(name);
+        }
+
+        @Override
+        public void setEntityResolver(EntityResolver resolver) {
+            this.entityResolver = resolver;
+        }
+
+        @Override
+        public EntityResolver getEntityResolver() {
+            return entityResolver;
+        }
+
+        @Override
+        public void setDTDHandler(DTDHandler handler) {
+            this.dtdHandler = handler;
+        }
+
+        @Override
+        public DTDHandler getDTDHandler() {
+            return dtdHandler;
+        }
+
+        @Override
+        public void setContentHandler(ContentHandler handler) {
+            this.contentHandler = handler;
+        }
+
+        @Override
+        public ContentHandler getContentHandler() {
+            return contentHandler;
+        }
+
+        @Override
+        public void setErrorHandler(ErrorHandler handler) {
+            this.errorHandler = handler;
+        }
+
+        @Override
+        public ErrorHandler getErrorHandler() {
+            return errorHandler;
+        }
+
+        @Override
+        public void parse(InputSource input) throws IOException, SAXException {
+            source.writeTo(contentHandler);
+        }
+
+        @Override
+        public void parse(String systemId) throws IOException, SAXException {
+            source.writeTo(contentHandler);
+        }
+    }
+}
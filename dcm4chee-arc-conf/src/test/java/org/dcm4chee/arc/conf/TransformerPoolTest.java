@@ -0,0 +1,168 @@
+/*
+ * *** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * *** END LICENSE BLOCK *****
+ */
+
+package org.dcm4chee.arc.conf;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class TransformerPoolTest {
+
+    private static final String XSL =
+            "<xsl:stylesheet xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\" version=\"1.0\">\n" +
+            "  <xsl:param name=\"prefix\"/>\n" +
+            "  <xsl:template match=\"/NativeDicomModel\">\n" +
+            "    <NativeDicomModel>\n" +
+            "      <DicomAttribute tag=\"00100020\" vr=\"LO\">\n" +
+            "        <Value number=\"1\">\n" +
+            "          <xsl:value-of select=\"$prefix\"/>\n" +
+            "          <xsl:value-of select=\"DicomAttribute[@tag='00100010']/PersonName/Alphabetic/FamilyName\"/>\n" +
+            "        </Value>\n" +
+            "      </DicomAttribute>\n" +
+            "    </NativeDicomModel>\n" +
+            "  </xsl:template>\n" +
+            "</xsl:stylesheet>\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String uri;
+    private String otherURI;
+
+    @Before
+    public void setUp() throws Exception {
+        uri = writeXSL("patid.xsl").toURI().toString();
+        otherURI = writeXSL("other.xsl").toURI().toString();
+    }
+
+    private File writeXSL(String name) throws Exception {
+        File xsl = folder.newFile(name);
+        Files.write(xsl.toPath(), XSL.getBytes(StandardCharsets.UTF_8));
+        return xsl;
+    }
+
+    @After
+    public void tearDown() {
+        TransformerPool.clear();
+    }
+
+    @Test
+    public void testTransform() throws Exception {
+        TransformerPool pool = TransformerPool.of(uri);
+        assertSame(pool, TransformerPool.of(uri));
+        assertEquals("X-Doe", pool.transform(patient("Doe^John"), false, false,
+                t -> t.setParameter("prefix", "X-")).getString(Tag.PatientID));
+        assertEquals("Doe", pool.transform(patient("Doe^John"), false, false, null)
+                .getString(Tag.PatientID));
+    }
+
+    @Test
+    public void testConcurrentTransform() throws Exception {
+        TransformerPool pool = TransformerPool.of(uri);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String name = "Doe" + i;
+                results.add(executor.submit(() ->
+                        pool.transform(patient(name), false, true, null).getString(Tag.PatientID)));
+            }
+            for (int i = 0; i < 100; i++) {
+                assertEquals("Doe" + i, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRemoveModified() throws Exception {
+        TransformerPool pool = TransformerPool.of(uri);
+        TransformerPool other = TransformerPool.of(otherURI);
+        assertEquals(Collections.emptyList(), TransformerPool.removeModified(Collections.emptyList()));
+        assertSame(pool, TransformerPool.of(uri));
+
+        File xsl = new File(folder.getRoot(), "patid.xsl");
+        assertTrue(xsl.setLastModified(xsl.lastModified() - 60000L));
+        assertEquals(Collections.singletonList(uri), TransformerPool.removeModified(Collections.emptyList()));
+        assertNotSame(pool, TransformerPool.of(uri));
+        assertSame(other, TransformerPool.of(otherURI));
+    }
+
+    @Test
+    public void testRemoveChangedFiles() throws Exception {
+        TransformerPool pool = TransformerPool.of(uri);
+        TransformerPool other = TransformerPool.of(otherURI);
+        Path changed = folder.getRoot().toPath().resolve("sub/../other.xsl").normalize();
+        assertEquals(Collections.singletonList(otherURI),
+                TransformerPool.removeModified(Collections.singletonList(changed)));
+        assertSame(pool, TransformerPool.of(uri));
+        assertNotSame(other, TransformerPool.of(otherURI));
+    }
+
+    private static Attributes patient(String name) {
+        Attributes attrs = new Attributes(1);
+        attrs.setString(Tag.PatientName, VR.PN, name);
+        return attrs;
+    }
+}
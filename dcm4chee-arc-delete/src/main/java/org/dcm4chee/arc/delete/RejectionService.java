@@ -45,6 +45,7 @@ import org.dcm4che3.net.ApplicationEntity;
 import org.dcm4chee.arc.conf.RejectionNote;
 import org.dcm4chee.arc.keycloak.HttpServletRequestInfo;
 import org.dcm4chee.arc.qmgt.QueueSizeLimitExceededException;
+import org.dcm4chee.arc.store.StoreSession;
 
 import java.util.List;
 
@@ -68,4 +69,6 @@ public interface RejectionService {
 
     void scheduleStudyRejectTasks(String aet, List<String> studyUIDs, Code code,
               HttpServletRequestInfo httpRequest, String batchID) throws QueueSizeLimitExceededException;
+
+    String rejectionNoteObjectStorageID(StoreSession storeSession);
 }
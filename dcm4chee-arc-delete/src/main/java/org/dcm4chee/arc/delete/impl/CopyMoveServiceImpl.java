@@ -0,0 +1,319 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.delete.impl;
+
+import org.dcm4che3.data.*;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.AcceptConflictingPatientID;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.RejectionNote;
+import org.dcm4chee.arc.delete.CopyMoveService;
+import org.dcm4chee.arc.delete.RejectionService;
+import org.dcm4chee.arc.keycloak.HttpServletRequestInfo;
+import org.dcm4chee.arc.qmgt.QueueSizeLimitExceededException;
+import org.dcm4chee.arc.query.QueryService;
+import org.dcm4chee.arc.retrieve.RetrieveService;
+import org.dcm4chee.arc.store.InstanceLocations;
+import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreService;
+import org.dcm4chee.arc.store.StoreSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+@ApplicationScoped
+public class CopyMoveServiceImpl implements CopyMoveService {
+    private static final Logger LOG = LoggerFactory.getLogger(CopyMoveServiceImpl.class);
+    static final int CHUNK_SIZE = 100;
+
+    @Inject
+    private Device device;
+
+    @Inject
+    private StoreService storeService;
+
+    @Inject
+    private RetrieveService retrieveService;
+
+    @Inject
+    private QueryService queryService;
+
+    @Inject
+    private RejectionService rejectionService;
+
+    @Inject
+    private DeletionServiceEJB ejb;
+
+    private int chunkSize = CHUNK_SIZE;
+
+    public CopyMoveServiceImpl() {
+    }
+
+    CopyMoveServiceImpl(Device device, StoreService storeService, RetrieveService retrieveService,
+            QueryService queryService, RejectionService rejectionService, DeletionServiceEJB ejb, int chunkSize) {
+        this.device = device;
+        this.storeService = storeService;
+        this.retrieveService = retrieveService;
+        this.queryService = queryService;
+        this.rejectionService = rejectionService;
+        this.ejb = ejb;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Collection<InstanceLocations> queryInstances(
+            StoreSession session, String targetStudyIUID, Attributes instanceRefs) throws IOException {
+        restoreInstances(session, instanceRefs);
+        Collection<InstanceLocations> instances = retrieveService.queryInstances(session, instanceRefs, targetStudyIUID);
+        return instances != null ? instances : Collections.emptyList();
+    }
+
+    @Override
+    public Attributes copyInstances(StoreSession session, Collection<InstanceLocations> instances,
+            Attributes instanceRefs, Attributes coerceAttrs, Attributes.UpdatePolicy updatePolicy,
+            RejectionNote rjNote) throws Exception {
+        return copyInstances(session, instances, instanceRefs, coerceAttrs, updatePolicy, rjNote, null);
+    }
+
+    private Attributes copyInstances(StoreSession session, Collection<InstanceLocations> instances,
+            Attributes instanceRefs, Attributes coerceAttrs, Attributes.UpdatePolicy updatePolicy,
+            RejectionNote rjNote, Consumer<String> progress) throws Exception {
+        Attributes sopInstanceRefs = getSOPInstanceRefs(instanceRefs, instances, session.getLocalApplicationEntity());
+        moveSequence(sopInstanceRefs, Tag.ReferencedSeriesSequence, instanceRefs);
+        Attributes result = copyInChunks(session, instances, coerceAttrs, updatePolicy, progress);
+        if (rjNote != null)
+            rejectInstances(session, instanceRefs, rjNote, result);
+        return result;
+    }
+
+    /**
+     * Copies the instances in chunks of {@link #CHUNK_SIZE} through the same store session, so UIDs referenced
+     * by instances of different chunks - e.g. a shared Frame of Reference UID or references of Key Objects,
+     * Presentation States or SR Documents - are mapped to the same new UID, and reports the progress after each
+     * chunk.
+     */
+    private Attributes copyInChunks(StoreSession session, Collection<InstanceLocations> instances,
+            Attributes coerceAttrs, Attributes.UpdatePolicy updatePolicy, Consumer<String> progress)
+            throws Exception {
+        Attributes result = new Attributes();
+        Sequence refSOPSeq = result.newSequence(Tag.ReferencedSOPSequence, instances.size());
+        Sequence failedSOPSeq = result.newSequence(Tag.FailedSOPSequence, 10);
+        List<InstanceLocations> chunk = new ArrayList<>(Math.min(chunkSize, instances.size()));
+        int processed = 0;
+        for (Iterator<InstanceLocations> iter = instances.iterator(); iter.hasNext();) {
+            chunk.add(iter.next());
+            if (chunk.size() < chunkSize && iter.hasNext())
+                continue;
+
+            Attributes chunkResult = storeService.copyInstances(session, chunk, coerceAttrs, updatePolicy);
+            moveItems(chunkResult.getSequence(Tag.ReferencedSOPSequence), refSOPSeq);
+            moveItems(chunkResult.getSequence(Tag.FailedSOPSequence), failedSOPSeq);
+            String failureReason = chunkResult.getString(Tag.FailureReason);
+            if (failureReason != null)
+                result.setString(Tag.FailureReason, VR.US, failureReason);
+            processed += chunk.size();
+            chunk.clear();
+            String msg = processed + " of " + instances.size() + " instances processed, "
+                    + failedSOPSeq.size() + " failed.";
+            LOG.info("{}: {}", session, msg);
+            if (progress != null)
+                progress.accept(msg);
+        }
+        return result;
+    }
+
+    private static void moveItems(Sequence src, Sequence dest) {
+        if (src != null)
+            while (!src.isEmpty())
+                dest.add(src.remove(0));
+    }
+
+    @Override
+    public Attributes copyOrMoveInstances(String aet, String targetStudyIUID, Attributes instanceRefs,
+            Attributes coerceAttrs, Code code, HttpServletRequestInfo httpRequest, Consumer<String> progress)
+            throws Exception {
+        ApplicationEntity ae = device.getApplicationEntity(aet, true);
+        if (ae == null || !ae.isInstalled())
+            throw new IllegalStateException("No such Application Entity: " + aet);
+
+        RejectionNote rjNote = null;
+        if (code != null && (rjNote = arcDev().getRejectionNote(code)) == null)
+            throw new IllegalStateException("Unknown Rejection Note Code: " + code);
+
+        return copyOrMoveInstances(ae, targetStudyIUID, instanceRefs, coerceAttrs, rjNote, httpRequest, progress);
+    }
+
+    @Override
+    public Attributes copyOrMoveInstances(ApplicationEntity ae, String targetStudyIUID, Attributes instanceRefs,
+            Attributes coerceAttrs, RejectionNote rjNote, HttpServletRequestInfo httpRequest) throws Exception {
+        return copyOrMoveInstances(ae, targetStudyIUID, instanceRefs, coerceAttrs, rjNote, httpRequest, null);
+    }
+
+    private Attributes copyOrMoveInstances(ApplicationEntity ae, String targetStudyIUID, Attributes instanceRefs,
+            Attributes coerceAttrs, RejectionNote rjNote, HttpServletRequestInfo httpRequest,
+            Consumer<String> progress) throws Exception {
+        StoreSession session = storeService.newStoreSession(httpRequest, ae, null);
+        if (rjNote != null)
+            session.withObjectStorageID(rejectionService.rejectionNoteObjectStorageID(session));
+
+        Collection<InstanceLocations> instances = queryInstances(session, targetStudyIUID, instanceRefs);
+        if (instances.isEmpty())
+            return null;
+
+        LOG.info("Start {} of {} instances of Study[UID={}] to Study[UID={}].",
+                rjNote != null ? "move" : "copy", instances.size(),
+                instanceRefs.getString(Tag.StudyInstanceUID), targetStudyIUID);
+        ArchiveAEExtension arcAE = ae.getAEExtensionNotNull(ArchiveAEExtension.class);
+        session.setAcceptConflictingPatientID(AcceptConflictingPatientID.YES);
+        session.setPatientUpdatePolicy(Attributes.UpdatePolicy.PRESERVE);
+        session.setStudyUpdatePolicy(arcAE.copyMoveUpdatePolicy());
+        Attributes result = copyInstances(session, instances, instanceRefs, coerceAttrs,
+                Attributes.UpdatePolicy.MERGE, rjNote, progress);
+        LOG.info("{} of {} instances of Study[UID={}] to Study[UID={}] completed.",
+                rjNote != null ? "Move" : "Copy", instances.size(),
+                instanceRefs.getString(Tag.StudyInstanceUID), targetStudyIUID);
+        return result;
+    }
+
+    @Override
+    public void scheduleCopyOrMove(String aet, String targetStudyIUID, Attributes instanceRefs,
+            Attributes coerceAttrs, Code code, HttpServletRequestInfo httpRequest, String batchID)
+            throws QueueSizeLimitExceededException {
+        ejb.scheduleCopyOrMove(aet, targetStudyIUID, instanceRefs, coerceAttrs, code, httpRequest, batchID);
+    }
+
+    private void restoreInstances(StoreSession session, Attributes instanceRefs) throws IOException {
+        String studyUID = instanceRefs.getString(Tag.StudyInstanceUID);
+        Sequence seq = instanceRefs.getSequence(Tag.ReferencedSeriesSequence);
+        if (seq == null || seq.isEmpty())
+            storeService.restoreInstances(session, studyUID, null, null);
+        else for (Attributes item : seq)
+            storeService.restoreInstances(session, studyUID, item.getString(Tag.SeriesInstanceUID), null);
+    }
+
+    private void rejectInstances(StoreSession session, Attributes instanceRefs, RejectionNote rjNote,
+            Attributes result) throws IOException {
+        Sequence refSeriesSeq = instanceRefs.getSequence(Tag.ReferencedSeriesSequence);
+        removeFailedInstanceRefs(refSeriesSeq, failedIUIDs(result));
+        if (refSeriesSeq.isEmpty())
+            return;
+
+        StoreContext koctx = storeService.newStoreContext(session);
+        Attributes ko = queryService.createRejectionNote(instanceRefs, rjNote);
+        koctx.setSopClassUID(ko.getString(Tag.SOPClassUID));
+        koctx.setSopInstanceUID(ko.getString(Tag.SOPInstanceUID));
+        koctx.setReceiveTransferSyntax(UID.ExplicitVRLittleEndian);
+        storeService.store(koctx, ko);
+    }
+
+    private static Set<String> failedIUIDs(Attributes result) {
+        Sequence failedSOPSeq = result.getSequence(Tag.FailedSOPSequence);
+        if (failedSOPSeq == null || failedSOPSeq.isEmpty())
+            return Collections.emptySet();
+
+        Set<String> failedIUIDs = new HashSet<>(failedSOPSeq.size() * 4 / 3 + 1);
+        failedSOPSeq.forEach(failedSOPRef -> failedIUIDs.add(failedSOPRef.getString(Tag.ReferencedSOPInstanceUID)));
+        return failedIUIDs;
+    }
+
+    private static void removeFailedInstanceRefs(Sequence refSeriesSeq, Set<String> failedIUIDs) {
+        if (failedIUIDs.isEmpty())
+            return;
+
+        for (Iterator<Attributes> refSeriesIter = refSeriesSeq.iterator(); refSeriesIter.hasNext();) {
+            Sequence refSOPSeq = refSeriesIter.next().getSequence(Tag.ReferencedSOPSequence);
+            refSOPSeq.removeIf(refSOP -> failedIUIDs.contains(refSOP.getString(Tag.ReferencedSOPInstanceUID)));
+            if (refSOPSeq.isEmpty())
+                refSeriesIter.remove();
+        }
+    }
+
+    private static Attributes getSOPInstanceRefs(Attributes instanceRefs, Collection<InstanceLocations> instances,
+            ApplicationEntity ae) {
+        String sourceStudyUID = instanceRefs.getString(Tag.StudyInstanceUID);
+        Attributes refStudy = new Attributes(2);
+        Sequence refSeriesSeq = refStudy.newSequence(Tag.ReferencedSeriesSequence, 10);
+        refStudy.setString(Tag.StudyInstanceUID, VR.UI, sourceStudyUID);
+        HashMap<String, Sequence> seriesMap = new HashMap<>();
+        instances.forEach(instance -> {
+            Attributes iAttr = instance.getAttributes();
+            String seriesIUID = iAttr.getString(Tag.SeriesInstanceUID);
+            Sequence refSOPSeq = seriesMap.get(seriesIUID);
+            if (refSOPSeq == null) {
+                Attributes refSeries = new Attributes(4);
+                refSeries.setString(Tag.RetrieveAETitle, VR.AE, ae.getAETitle());
+                refSOPSeq = refSeries.newSequence(Tag.ReferencedSOPSequence, 10);
+                refSeries.setString(Tag.SeriesInstanceUID, VR.UI, seriesIUID);
+                seriesMap.put(seriesIUID, refSOPSeq);
+                refSeriesSeq.add(refSeries);
+            }
+            Attributes refSOP = new Attributes(2);
+            refSOP.setString(Tag.ReferencedSOPClassUID, VR.UI, instance.getSopClassUID());
+            refSOP.setString(Tag.ReferencedSOPInstanceUID, VR.UI, instance.getSopInstanceUID());
+            refSOPSeq.add(refSOP);
+        });
+        return refStudy;
+    }
+
+    private static void moveSequence(Attributes src, int tag, Attributes dest) {
+        Sequence srcSeq = src.getSequence(tag);
+        int size = srcSeq.size();
+        Sequence destSeq = dest.newSequence(tag, size);
+        for (int i = 0; i < size; i++)
+            destSeq.add(srcSeq.remove(0));
+    }
+
+    private ArchiveDeviceExtension arcDev() {
+        return device.getDeviceExtensionNotNull(ArchiveDeviceExtension.class);
+    }
+}
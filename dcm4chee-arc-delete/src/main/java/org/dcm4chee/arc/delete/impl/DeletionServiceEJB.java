@@ -47,6 +47,7 @@ import org.dcm4chee.arc.code.CodeCache;
 import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
 import org.dcm4chee.arc.conf.RetentionPeriod;
 import org.dcm4chee.arc.conf.StorageDescriptor;
+import org.dcm4chee.arc.delete.CopyMoveService;
 import org.dcm4chee.arc.delete.RejectionService;
 import org.dcm4chee.arc.delete.StudyDeleteContext;
 import org.dcm4chee.arc.entity.*;
@@ -89,6 +90,7 @@ public class DeletionServiceEJB {
     private static final Logger LOG = LoggerFactory.getLogger(DeletionServiceEJB.class);
 
     public static final int MAX_LOCATIONS_PER_INSTANCE = 3;
+    private static final int DELETE_CHUNK_SIZE = 500;
 
     @PersistenceContext(unitName = "dcm4chee-arc")
     private EntityManager em;
@@ -111,6 +113,15 @@ public class DeletionServiceEJB {
     @Inject
     private QueueManager queueManager;
 
+    public DeletionServiceEJB() {
+    }
+
+    DeletionServiceEJB(EntityManager em, CodeCache codeCache, StoreServiceEJB storeEjb) {
+        this.em = em;
+        this.codeCache = codeCache;
+        this.storeEjb = storeEjb;
+    }
+
     public List<Location> findLocationsWithStatus(String storageID, Location.Status status, int limit) {
         return em.createNamedQuery(Location.FIND_BY_STORAGE_ID_AND_STATUS, Location.class)
                 .setParameter(1, storageID)
@@ -415,6 +426,7 @@ public class DeletionServiceEJB {
         int initialCapacity = size * 4 / 3;
         HashMap<Long, Instance> insts = new HashMap<>(initialCapacity);
         HashMap<Long, UIDMap> uidMaps = new HashMap<>();
+        List<Long> markToDeletePks = new ArrayList<>(size);
         Instance prev = null;
         int n = limit - (MAX_LOCATIONS_PER_INSTANCE - 1);
         for (Location location : locations) {
@@ -425,7 +437,16 @@ public class DeletionServiceEJB {
             UIDMap uidMap = location.getUidMap();
             if (uidMap != null)
                 uidMaps.put(uidMap.getPk(), uidMap);
-            storeEjb.removeOrMarkToDelete(location);
+            if (location.getMultiReference() == null)
+                markToDeletePks.add(location.getPk());
+            else
+                storeEjb.removeOrMarkToDelete(location);
+        }
+        for (List<Long> chunk : chunks(markToDeletePks)) {
+            em.createNamedQuery(Location.MARK_TO_DELETE_BY_PKS)
+                    .setParameter(1, chunk)
+                    .setParameter(2, Location.Status.TO_DELETE)
+                    .executeUpdate();
         }
         for (UIDMap uidMap : uidMaps.values())
             storeEjb.removeOrphaned(uidMap);
@@ -434,6 +455,8 @@ public class DeletionServiceEJB {
 
     private void deleteInstances(Collection<Instance> insts, StudyDeleteContext ctx) {
         HashMap<Long, Series> series = new HashMap<>();
+        HashMap<Long, List<String>> sopIUIDsOfSeries = new HashMap<>();
+        List<Long> instancePks = new ArrayList<>(insts.size());
         for (Instance inst : insts) {
             Series ser = inst.getSeries();
             if (!series.containsKey(ser.getPk())) {
@@ -442,13 +465,29 @@ public class DeletionServiceEJB {
                 ser.resetSize();
             }
             if (ctx != null) ctx.addInstance(inst);
-            em.remove(inst);
-            em.createNamedQuery(RejectedInstance.DELETE_BY_UIDS)
-                    .setParameter(1, ser.getStudy().getStudyInstanceUID())
-                    .setParameter(2, ser.getSeriesInstanceUID())
-                    .setParameter(3, inst.getSopInstanceUID())
-                    .executeUpdate();
+            sopIUIDsOfSeries.computeIfAbsent(ser.getPk(), k -> new ArrayList<>()).add(inst.getSopInstanceUID());
+            instancePks.add(inst.getPk());
+        }
+        Set<Long> instancesWithSRContent = instancePksWithSRContent(instancePks);
+        List<Long> bulkDeletePks = new ArrayList<>(instancePks.size());
+        for (Instance inst : insts) {
+            if (instancesWithSRContent.contains(inst.getPk()))
+                em.remove(inst);
+            else
+                bulkDeletePks.add(inst.getPk());
         }
+        em.flush();
+        deleteInstanceRecords(Collections.emptyList(), bulkDeletePks);
+        sopIUIDsOfSeries.forEach((seriesPk, sopIUIDs) -> {
+            Series ser = series.get(seriesPk);
+            for (List<String> chunk : chunks(sopIUIDs)) {
+                em.createNamedQuery(RejectedInstance.DELETE_BY_SOP_IUIDS)
+                        .setParameter(1, ser.getStudy().getStudyInstanceUID())
+                        .setParameter(2, ser.getSeriesInstanceUID())
+                        .setParameter(3, chunk)
+                        .executeUpdate();
+            }
+        });
         HashMap<Long, Study> studies = new HashMap<>();
         for (Series ser : series.values()) {
             Study study = ser.getStudy();
@@ -544,14 +583,23 @@ public class DeletionServiceEJB {
             return false;
         }
         calculateMissingSeriesQueryAttributes(seriesPk);
+        Set<Long> instancesWithSRContent = instancePksWithSRContent(instancePksOfDicomFiles(locations));
         Map<String,Long> sizeOfInst = new HashMap<>();
+        List<Long> locationPks = new ArrayList<>(locations.size());
+        Set<Long> instancePks = new HashSet<>();
         for (Location location : locations) {
             switch (location.getObjectType()) {
                 case DICOM_FILE:
-                    sizeOfInst.merge(location.getInstance().getSopInstanceUID(), location.getSize(),
+                    Instance inst = location.getInstance();
+                    sizeOfInst.merge(inst.getSopInstanceUID(), location.getSize(),
                             (v1,v2) -> Math.max(v1, v2));
-                    em.remove(location);
-                    em.remove(location.getInstance());
+                    if (instancesWithSRContent.contains(inst.getPk())) {
+                        em.remove(location);
+                        em.remove(inst);
+                    } else {
+                        locationPks.add(location.getPk());
+                        instancePks.add(inst.getPk());
+                    }
                     break;
                 case METADATA:
                     location.setInstance(null);
@@ -559,12 +607,59 @@ public class DeletionServiceEJB {
                     break;
             }
         }
+        em.flush();
+        deleteInstanceRecords(locationPks, new ArrayList<>(instancePks));
         series.setSize(sizeOfInst.values().stream().mapToLong(Long::longValue).sum());
         series.setInstancePurgeTime(null);
         series.setInstancePurgeState(Series.InstancePurgeState.PURGED);
         return true;
     }
 
+    private static List<Long> instancePksOfDicomFiles(List<Location> locations) {
+        return locations.stream()
+                .filter(Location::isDicomFile)
+                .map(location -> location.getInstance().getPk())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> instancePksWithSRContent(List<Long> instancePks) {
+        Set<Long> result = new HashSet<>();
+        for (List<Long> chunk : chunks(instancePks)) {
+            result.addAll(em.createNamedQuery(Instance.PKS_WITH_SR_CONTENT, Long.class)
+                    .setParameter(1, chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    private void deleteInstanceRecords(List<Long> locationPks, List<Long> instancePks) {
+        for (List<Long> chunk : chunks(locationPks)) {
+            em.createNamedQuery(Location.DELETE_BY_PKS)
+                    .setParameter(1, chunk)
+                    .executeUpdate();
+        }
+        for (List<Long> chunk : chunks(instancePks)) {
+            List<Long> attributesBlobPks = em.createNamedQuery(Instance.ATTRIBUTES_BLOB_PKS, Long.class)
+                    .setParameter(1, chunk)
+                    .getResultList();
+            em.createNamedQuery(Instance.DELETE_BY_PKS)
+                    .setParameter(1, chunk)
+                    .executeUpdate();
+            em.createNamedQuery(AttributesBlob.DELETE_BY_PKS)
+                    .setParameter(1, attributesBlobPks)
+                    .executeUpdate();
+        }
+    }
+
+    private static <T> List<List<T>> chunks(List<T> pks) {
+        List<List<T>> chunks = new ArrayList<>((pks.size() + DELETE_CHUNK_SIZE - 1) / DELETE_CHUNK_SIZE);
+        for (int i = 0; i < pks.size(); i += DELETE_CHUNK_SIZE) {
+            chunks.add(pks.subList(i, Math.min(pks.size(), i + DELETE_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
     private boolean verifyMetadata(Map<String, List<Location>> locationsFromMetadata, List<Location> locations) {
         for (Location location : locations) {
             if (location.getObjectType() == Location.ObjectType.DICOM_FILE) {
@@ -706,4 +801,22 @@ public class DeletionServiceEJB {
             throw new JMSRuntimeException(e.getMessage(), e.getErrorCode(), e.getCause());
         }
     }
+
+    public void scheduleCopyOrMove(String aet, String targetStudyIUID, Attributes instanceRefs,
+                                   Attributes coerceAttrs, Code code, HttpServletRequestInfo httpRequest,
+                                   String batchID)
+            throws QueueSizeLimitExceededException {
+        try {
+            ObjectMessage msg = queueManager.createObjectMessage(new Attributes[]{
+                    instanceRefs, coerceAttrs != null ? coerceAttrs : new Attributes() });
+            msg.setStringProperty("LocalAET", aet);
+            msg.setStringProperty("StudyInstanceUID", targetStudyIUID);
+            if (code != null)
+                msg.setStringProperty("Code", code.toString());
+            httpRequest.copyTo(msg);
+            queueManager.scheduleMessage(CopyMoveService.QUEUE_NAME, msg, Message.DEFAULT_PRIORITY, batchID, 0L);
+        } catch (JMSException e) {
+            throw new JMSRuntimeException(e.getMessage(), e.getErrorCode(), e.getCause());
+        }
+    }
 }
@@ -45,6 +45,7 @@ import org.dcm4che3.data.Sequence;
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.dict.archive.PrivateTag;
 import org.dcm4che3.json.JSONReader;
+import org.dcm4che3.net.Device;
 import org.dcm4che3.util.SafeClose;
 import org.dcm4che3.util.StringUtils;
 import org.dcm4chee.arc.Scheduler;
@@ -52,6 +53,7 @@ import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
 import org.dcm4chee.arc.conf.Duration;
 import org.dcm4chee.arc.entity.Location;
 import org.dcm4chee.arc.entity.Series;
+import org.dcm4chee.arc.metrics.MetricsService;
 import org.dcm4chee.arc.storage.ReadContext;
 import org.dcm4chee.arc.storage.Storage;
 import org.dcm4chee.arc.storage.StorageFactory;
@@ -61,6 +63,7 @@ import org.slf4j.LoggerFactory;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.json.Json;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -68,6 +71,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -86,10 +91,22 @@ public class PurgeInstanceRecordsScheduler extends Scheduler {
     @Inject
     private StorageFactory storageFactory;
 
+    @Inject
+    private MetricsService metricsService;
+
     protected PurgeInstanceRecordsScheduler() {
         super(Mode.scheduleWithFixedDelay);
     }
 
+    PurgeInstanceRecordsScheduler(Device device, DeletionServiceEJB ejb, StorageFactory storageFactory,
+                                  MetricsService metricsService) {
+        this();
+        this.device = device;
+        this.ejb = ejb;
+        this.storageFactory = storageFactory;
+        this.metricsService = metricsService;
+    }
+
     @Override
     protected Logger log() {
         return LOG;
@@ -106,51 +123,42 @@ public class PurgeInstanceRecordsScheduler extends Scheduler {
         ArchiveDeviceExtension arcDev = device.getDeviceExtension(ArchiveDeviceExtension.class);
         int fetchSize = arcDev.getPurgeInstanceRecordsFetchSize();
         List<Series.MetadataUpdate> series;
-        Map<String, Storage> storageMap = new HashMap<>();
+        Map<String, Storage> storageMap = new ConcurrentHashMap<>();
         try {
             do {
                 if (getPollingInterval() == null)
                     return;
 
                 series = ejb.findSeriesToPurgeInstances(fetchSize);
-                for (Series.MetadataUpdate metadataUpdate : series) {
-                    if (getPollingInterval() == null)
-                        return;
-
-                    Long seriesPk = metadataUpdate.seriesPk;
-                    if (!claim(metadataUpdate))
-                        continue;
+                int maxParallel = Math.min(series.size(), arcDev.getPurgeInstanceRecordsMaxParallel());
+                if (maxParallel <= 1) {
+                    for (Series.MetadataUpdate metadataUpdate : series) {
+                        if (getPollingInterval() == null)
+                            return;
 
-                    LOG.info("Purging Instance records of Series[pk={}]", seriesPk);
-                    Map<String, List<Location>> locationsFromMetadata = null;
-                    try {
-                        locationsFromMetadata = locationsFromMetadata(
-                                getStorage(metadataUpdate.storageID, storageMap),
-                                metadataUpdate.storagePath);
-                    } catch (IOException e) {
-                        LOG.warn("Reading of Metadata of Series[pk={}] failed - schedule recreation", seriesPk, e);
-                        try {
-                            ejb.scheduleMetadataUpdate(seriesPk);
-                        } catch (Exception e1) {
-                            LOG.warn("Failed to schedule recreation of Metadata of Series[pk={}]", seriesPk, e1);
-                        }
-                        continue;
+                        purgeInstanceRecords(metadataUpdate, storageMap);
                     }
+                } else {
+                    Semaphore semaphore = new Semaphore(maxParallel);
                     try {
-                        if (ejb.purgeInstanceRecordsOfSeries(seriesPk, locationsFromMetadata)) {
-                            LOG.info("Purged Instance records of Series[pk={}]", seriesPk);
-                        } else {
-                            LOG.warn("Verification of Metadata of Series[pk={}] failed - recreation scheduled", seriesPk);
-                        }
-                    } catch (Exception e) {
-                        LOG.warn("Failed to purge Instance records of Series[pk={}]\n", seriesPk, e);
-                        try {
-                            ejb.updateInstancePurgeState(seriesPk,
-                                    Series.InstancePurgeState.NO, Series.InstancePurgeState.FAILED_TO_PURGE);
-                        } catch (Exception e1) {
-                            LOG.warn("Failed to set Instance Purge State of Series[pk={}] to FAILED", seriesPk, e1);
+                        for (Series.MetadataUpdate metadataUpdate : series) {
+                            if (getPollingInterval() == null)
+                                break;
+
+                            semaphore.acquire();
+                            device.execute(() -> {
+                                try {
+                                    purgeInstanceRecords(metadataUpdate, storageMap);
+                                } finally {
+                                    semaphore.release();
+                                }
+                            });
                         }
+                    } catch (InterruptedException e) {
+                        LOG.warn("Interrupted purge of Instance records:\n", e);
+                        Thread.currentThread().interrupt();
                     }
+                    semaphore.acquireUninterruptibly(maxParallel);
                 }
             }
             while (series.size() == fetchSize);
@@ -160,6 +168,47 @@ public class PurgeInstanceRecordsScheduler extends Scheduler {
         }
     }
 
+    private void purgeInstanceRecords(Series.MetadataUpdate metadataUpdate, Map<String, Storage> storageMap) {
+        Long seriesPk = metadataUpdate.seriesPk;
+        if (!claim(metadataUpdate))
+            return;
+
+        LOG.info("Purging Instance records of Series[pk={}]", seriesPk);
+        long startTime = System.nanoTime();
+        Map<String, List<Location>> locationsFromMetadata;
+        try {
+            locationsFromMetadata = locationsFromMetadata(
+                    getStorage(metadataUpdate.storageID, storageMap),
+                    metadataUpdate.storagePath);
+        } catch (IOException e) {
+            LOG.warn("Reading of Metadata of Series[pk={}] failed - schedule recreation", seriesPk, e);
+            try {
+                ejb.scheduleMetadataUpdate(seriesPk);
+            } catch (Exception e1) {
+                LOG.warn("Failed to schedule recreation of Metadata of Series[pk={}]", seriesPk, e1);
+            }
+            return;
+        }
+        int numInstances = locationsFromMetadata.size();
+        try {
+            if (ejb.purgeInstanceRecordsOfSeries(seriesPk, locationsFromMetadata)) {
+                LOG.info("Purged {} Instance records of Series[pk={}]", numInstances, seriesPk);
+                metricsService.accept("purge-instance-records",
+                        () -> numInstances * 1e9 / (System.nanoTime() - startTime));
+            } else {
+                LOG.warn("Verification of Metadata of Series[pk={}] failed - recreation scheduled", seriesPk);
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to purge Instance records of Series[pk={}]\n", seriesPk, e);
+            try {
+                ejb.updateInstancePurgeState(seriesPk,
+                        Series.InstancePurgeState.NO, Series.InstancePurgeState.FAILED_TO_PURGE);
+            } catch (Exception e1) {
+                LOG.warn("Failed to set Instance Purge State of Series[pk={}] to FAILED", seriesPk, e1);
+            }
+        }
+    }
+
     private boolean claim(Series.MetadataUpdate metadataUpdate) {
         try {
             return ejb.claimPurgeInstanceRecordsOfSeries(metadataUpdate);
@@ -173,7 +222,7 @@ public class PurgeInstanceRecordsScheduler extends Scheduler {
             throws IOException {
         Map<String, List<Location>> map = new HashMap<>();
         try (InputStream in = storage.openInputStream(createReadContext(storage, storagePath))) {
-            ZipInputStream zip = new ZipInputStream(in);
+            ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in));
             ZipEntry entry;
             while ((entry = zip.getNextEntry()) != null) {
                 Attributes attrs = parseJSON(zip);
@@ -213,12 +262,7 @@ public class PurgeInstanceRecordsScheduler extends Scheduler {
     }
 
     private Storage getStorage(String storageID, Map<String,Storage> storageMap) {
-        Storage storage = storageMap.get(storageID);
-        if (storage == null) {
-            ArchiveDeviceExtension arcDev = device.getDeviceExtension(ArchiveDeviceExtension.class);
-            storage = storageFactory.getStorage(arcDev.getStorageDescriptorNotNull(storageID));
-            storageMap.put(storageID, storage);
-        }
-        return storage;
+        return storageMap.computeIfAbsent(storageID, id -> storageFactory.getStorage(
+                device.getDeviceExtension(ArchiveDeviceExtension.class).getStorageDescriptorNotNull(id)));
     }
 }
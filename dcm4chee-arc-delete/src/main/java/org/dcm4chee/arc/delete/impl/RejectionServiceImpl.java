@@ -162,13 +162,8 @@ public class RejectionServiceImpl implements org.dcm4chee.arc.delete.RejectionSe
         ejb.scheduleStudyRejectTasks(aet, studyUIDs, code, httpRequest, batchID);
     }
 
-    private static int countInstances(Attributes attrs) {
-        return attrs.getNestedDataset(Tag.CurrentRequestedProcedureEvidenceSequence)
-                .getSequence(Tag.ReferencedSeriesSequence).stream()
-                .collect(Collectors.summingInt(x -> x.getSequence(Tag.ReferencedSOPSequence).size()));
-    }
-
-    private String rejectionNoteObjectStorageID(StoreSession storeSession) {
+    @Override
+    public String rejectionNoteObjectStorageID(StoreSession storeSession) {
         String rejectionNoteStorageAET = device.getDeviceExtension(ArchiveDeviceExtension.class)
                 .getRejectionNoteStorageAET();
         if (rejectionNoteStorageAET == null)
@@ -192,6 +187,12 @@ public class RejectionServiceImpl implements org.dcm4chee.arc.delete.RejectionSe
         return null;
     }
 
+    private static int countInstances(Attributes attrs) {
+        return attrs.getNestedDataset(Tag.CurrentRequestedProcedureEvidenceSequence)
+                .getSequence(Tag.ReferencedSeriesSequence).stream()
+                .collect(Collectors.summingInt(x -> x.getSequence(Tag.ReferencedSOPSequence).size()));
+    }
+
     private ApplicationEntity getApplicationEntity(String aet) {
         return device.getApplicationEntity(aet, true);
     }
@@ -0,0 +1,273 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+
+package org.dcm4chee.arc.delete.impl;
+
+import org.dcm4che3.data.*;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.RejectionNote;
+import org.dcm4chee.arc.delete.RejectionService;
+import org.dcm4chee.arc.keycloak.HttpServletRequestInfo;
+import org.dcm4chee.arc.query.QueryService;
+import org.dcm4chee.arc.retrieve.RetrieveService;
+import org.dcm4chee.arc.store.InstanceLocations;
+import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreService;
+import org.dcm4chee.arc.store.StoreSession;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class CopyMoveServiceImplTest {
+
+    private static final String AET = "DCM4CHEE";
+    private static final String SOURCE_STUDY_IUID = "1.2.3";
+    private static final String TARGET_STUDY_IUID = "1.2.4";
+    private static final String FRAME_OF_REFERENCE_UID = "1.2.3.99";
+    private static final Code REJECTION_CODE = new Code("113039", "DCM", null, "Data Retention Policy Expired");
+    private static final int CHUNK_SIZE = 2;
+
+    private final List<Attributes> scheduledRefs = new ArrayList<>();
+    private final List<String> scheduledBatchIDs = new ArrayList<>();
+    private final List<Integer> chunkSizes = new ArrayList<>();
+    private final Set<String> remappedFrameOfReferenceUIDs = new HashSet<>();
+    private final List<Attributes> rejectionNoteRefs = new ArrayList<>();
+    private final List<String> progress = new ArrayList<>();
+    private final Map<String, String> uidMap = new HashMap<>();
+    private final List<InstanceLocations> instances = new ArrayList<>();
+    private String failedIUID;
+    private int storedRejectionNotes;
+    private CopyMoveServiceImpl service;
+
+    @Before
+    public void setUp() {
+        Device device = new Device("dcm4chee-arc");
+        ArchiveDeviceExtension arcdev = new ArchiveDeviceExtension();
+        RejectionNote rjNote = new RejectionNote();
+        rjNote.setRejectionNoteLabel("Data Retention Expired");
+        rjNote.setRejectionNoteCode(REJECTION_CODE);
+        arcdev.addRejectionNote(rjNote);
+        device.addDeviceExtension(arcdev);
+        ApplicationEntity ae = new ApplicationEntity(AET);
+        ae.addAEExtension(new ArchiveAEExtension());
+        device.addApplicationEntity(ae);
+        StoreSession session = proxy(StoreSession.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getLocalApplicationEntity":
+                    return ae;
+                case "getUIDMap":
+                    return uidMap;
+                case "toString":
+                    return "StoreSession";
+            }
+            return null;
+        });
+        service = new CopyMoveServiceImpl(device,
+                storeService(session),
+                proxy(RetrieveService.class, (proxy, method, args) ->
+                        method.getName().equals("queryInstances") ? instances : null),
+                proxy(QueryService.class, (proxy, method, args) -> {
+                    Attributes ko = new Attributes(2);
+                    ko.setString(Tag.SOPClassUID, VR.UI, UID.KeyObjectSelectionDocumentStorage);
+                    ko.setString(Tag.SOPInstanceUID, VR.UI, "1.2.4.1000");
+                    rejectionNoteRefs.add(new Attributes((Attributes) args[0]));
+                    return ko;
+                }),
+                proxy(RejectionService.class, (proxy, method, args) -> null),
+                new DeletionServiceEJB() {
+                    @Override
+                    public void scheduleCopyOrMove(String aet, String targetStudyIUID, Attributes instanceRefs,
+                            Attributes coerceAttrs, Code code, HttpServletRequestInfo httpRequest, String batchID) {
+                        scheduledRefs.add(instanceRefs);
+                        scheduledBatchIDs.add(batchID);
+                    }
+                },
+                CHUNK_SIZE);
+    }
+
+    @Test
+    public void scheduleOneTaskPerRequest() throws Exception {
+        Attributes instanceRefs = instanceRefs(3, 2);
+        service.scheduleCopyOrMove(AET, TARGET_STUDY_IUID, instanceRefs, null, REJECTION_CODE, null, null);
+        assertEquals(1, scheduledRefs.size());
+        assertSame(instanceRefs, scheduledRefs.get(0));
+        assertNull(scheduledBatchIDs.get(0));
+    }
+
+    @Test
+    public void moveInstancesOfSeveralSeriesInChunks() throws Exception {
+        addInstances(3, 2);
+        failedIUID = sopIUID(1, 0);
+        Attributes result = service.copyOrMoveInstances(AET, TARGET_STUDY_IUID, instanceRefs(3, 2), null,
+                REJECTION_CODE, null, progress::add);
+
+        assertEquals(Arrays.asList(2, 2, 2), chunkSizes);
+        assertEquals("one new Frame of Reference UID for all series",
+                Collections.singleton(uidMap.get(FRAME_OF_REFERENCE_UID)), remappedFrameOfReferenceUIDs);
+        assertEquals(5, result.getSequence(Tag.ReferencedSOPSequence).size());
+        assertEquals(1, result.getSequence(Tag.FailedSOPSequence).size());
+        assertEquals(Arrays.asList(
+                "2 of 6 instances processed, 0 failed.",
+                "4 of 6 instances processed, 1 failed.",
+                "6 of 6 instances processed, 1 failed."),
+                progress);
+
+        assertEquals(1, storedRejectionNotes);
+        assertEquals(1, rejectionNoteRefs.size());
+        Sequence refSeriesSeq = rejectionNoteRefs.get(0).getSequence(Tag.ReferencedSeriesSequence);
+        assertEquals(3, refSeriesSeq.size());
+        assertEquals(1, refSeriesSeq.get(1).getSequence(Tag.ReferencedSOPSequence).size());
+    }
+
+    @Test
+    public void copyInstancesWithoutRejectionNote() throws Exception {
+        addInstances(1, 3);
+        Attributes result = service.copyOrMoveInstances(AET, TARGET_STUDY_IUID, instanceRefs(1, 3), null,
+                null, null, progress::add);
+
+        assertEquals(Arrays.asList(2, 1), chunkSizes);
+        assertEquals(3, result.getSequence(Tag.ReferencedSOPSequence).size());
+        assertEquals(2, progress.size());
+        assertEquals(0, storedRejectionNotes);
+    }
+
+    private StoreService storeService(StoreSession session) {
+        StoreContext storeContext = proxy(StoreContext.class, (proxy, method, args) -> null);
+        return proxy(StoreService.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "newStoreSession":
+                    return session;
+                case "newStoreContext":
+                    return storeContext;
+                case "restoreInstances":
+                    return Collections.emptyList();
+                case "copyInstances":
+                    return copyInstances((StoreSession) args[0], (Collection<?>) args[1]);
+                case "store":
+                    storedRejectionNotes++;
+                    return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private Attributes copyInstances(StoreSession session, Collection<?> chunk) {
+        chunkSizes.add(chunk.size());
+        Attributes result = new Attributes(2);
+        Sequence refSOPSeq = result.newSequence(Tag.ReferencedSOPSequence, chunk.size());
+        Sequence failedSOPSeq = result.newSequence(Tag.FailedSOPSequence, 1);
+        for (Object o : chunk) {
+            InstanceLocations inst = (InstanceLocations) o;
+            remappedFrameOfReferenceUIDs.add(session.getUIDMap().computeIfAbsent(
+                    inst.getAttributes().getString(Tag.FrameOfReferenceUID),
+                    uid -> "2.25." + (session.getUIDMap().size() + 1)));
+            Attributes refSOP = new Attributes(2);
+            refSOP.setString(Tag.ReferencedSOPClassUID, VR.UI, inst.getSopClassUID());
+            refSOP.setString(Tag.ReferencedSOPInstanceUID, VR.UI, inst.getSopInstanceUID());
+            (inst.getSopInstanceUID().equals(failedIUID) ? failedSOPSeq : refSOPSeq).add(refSOP);
+        }
+        return result;
+    }
+
+    private void addInstances(int numSeries, int numInstances) {
+        for (int i = 0; i < numSeries; i++)
+            for (int j = 0; j < numInstances; j++) {
+                Attributes attrs = new Attributes(4);
+                attrs.setString(Tag.SOPClassUID, VR.UI, UID.CTImageStorage);
+                attrs.setString(Tag.SOPInstanceUID, VR.UI, sopIUID(i, j));
+                attrs.setString(Tag.SeriesInstanceUID, VR.UI, seriesIUID(i));
+                attrs.setString(Tag.FrameOfReferenceUID, VR.UI, FRAME_OF_REFERENCE_UID);
+                instances.add(proxy(InstanceLocations.class, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAttributes":
+                            return attrs;
+                        case "getSopClassUID":
+                            return attrs.getString(Tag.SOPClassUID);
+                        case "getSopInstanceUID":
+                            return attrs.getString(Tag.SOPInstanceUID);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+            }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, handler));
+    }
+
+    private static Attributes instanceRefs(int numSeries, int numInstances) {
+        Attributes instanceRefs = new Attributes(2);
+        instanceRefs.setString(Tag.StudyInstanceUID, VR.UI, SOURCE_STUDY_IUID);
+        Sequence refSeriesSeq = instanceRefs.newSequence(Tag.ReferencedSeriesSequence, numSeries);
+        for (int i = 0; i < numSeries; i++) {
+            Attributes refSeries = new Attributes(2);
+            refSeries.setString(Tag.SeriesInstanceUID, VR.UI, seriesIUID(i));
+            Sequence refSOPSeq = refSeries.newSequence(Tag.ReferencedSOPSequence, numInstances);
+            for (int j = 0; j < numInstances; j++) {
+                Attributes refSOP = new Attributes(2);
+                refSOP.setString(Tag.ReferencedSOPClassUID, VR.UI, UID.CTImageStorage);
+                refSOP.setString(Tag.ReferencedSOPInstanceUID, VR.UI, sopIUID(i, j));
+                refSOPSeq.add(refSOP);
+            }
+            refSeriesSeq.add(refSeries);
+        }
+        return instanceRefs;
+    }
+
+    private static String seriesIUID(int series) {
+        return SOURCE_STUDY_IUID + '.' + (series + 1);
+    }
+
+    private static String sopIUID(int series, int instance) {
+        return seriesIUID(series) + '.' + (instance + 1);
+    }
+}
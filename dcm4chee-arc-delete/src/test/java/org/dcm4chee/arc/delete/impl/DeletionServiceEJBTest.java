@@ -0,0 +1,175 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.delete.impl;
+
+import org.dcm4che3.data.Code;
+import org.dcm4chee.arc.code.CodeCache;
+import org.dcm4chee.arc.entity.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class DeletionServiceEJBTest {
+
+    private static final int NUM_INSTANCES = 1200;
+    private static final long SR_INSTANCE_PK = 7L;
+    private static final Code REJECTION_CODE = new Code("113001", "DCM", null, "Rejected for Quality Reasons");
+
+    private final List<Location> locations = new ArrayList<>();
+    private final Map<String, List<List<?>>> executedUpdates = new HashMap<>();
+    private final List<Object> removed = new ArrayList<>();
+    private DeletionServiceEJB ejb;
+
+    @Before
+    public void setUp() {
+        Series series = new Series();
+        series.setStudy(new Study(1L, "1.2.3"));
+        for (int i = 1; i <= NUM_INSTANCES; i++) {
+            Instance inst = new Instance();
+            inst.setPk(i);
+            inst.setSeries(series);
+            Location location = new Location.Builder().pk(i).storageID("fs1").storagePath("path/" + i).build();
+            location.setInstance(inst);
+            locations.add(location);
+        }
+        ejb = new DeletionServiceEJB(entityManager(), codeCache(), null);
+    }
+
+    @Test
+    public void deleteRejectedInstancesByBulkStatements() {
+        assertEquals(NUM_INSTANCES, ejb.deleteRejectedInstances(REJECTION_CODE, null, Integer.MAX_VALUE));
+
+        List<List<?>> markToDelete = executedUpdates.get(Location.MARK_TO_DELETE_BY_PKS);
+        assertEquals(3, markToDelete.size());
+        assertEquals(NUM_INSTANCES, distinct(markToDelete).size());
+
+        List<List<?>> deleteInstances = executedUpdates.get(Instance.DELETE_BY_PKS);
+        assertEquals(3, deleteInstances.size());
+        Set<Object> deletedInstancePks = distinct(deleteInstances);
+        assertEquals(NUM_INSTANCES - 1, deletedInstancePks.size());
+        assertFalse(deletedInstancePks.contains(SR_INSTANCE_PK));
+
+        assertEquals(1, removed.size());
+        assertEquals(SR_INSTANCE_PK, ((Instance) removed.get(0)).getPk());
+
+        assertEquals(3, executedUpdates.get(RejectedInstance.DELETE_BY_SOP_IUIDS).size());
+        assertNull(executedUpdates.get(RejectedInstance.DELETE_BY_UIDS));
+    }
+
+    private static Set<Object> distinct(List<List<?>> chunks) {
+        Set<Object> result = new HashSet<>();
+        for (List<?> chunk : chunks) {
+            assertTrue(chunk.size() <= 500);
+            result.addAll(chunk);
+        }
+        return result;
+    }
+
+    private static CodeCache codeCache() {
+        return (CodeCache) Proxy.newProxyInstance(CodeCache.class.getClassLoader(),
+                new Class<?>[]{ CodeCache.class },
+                (proxy, method, args) -> new CodeEntity(REJECTION_CODE));
+    }
+
+    private EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{ EntityManager.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "createNamedQuery":
+                            return query((String) args[0]);
+                        case "remove":
+                            removed.add(args[0]);
+                            return null;
+                        case "flush":
+                            return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Query query(String name) {
+        Map<Integer, Object> params = new HashMap<>();
+        return (Query) Proxy.newProxyInstance(TypedQuery.class.getClassLoader(),
+                new Class<?>[]{ TypedQuery.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setParameter":
+                            params.put((Integer) args[0], args[1]);
+                            return proxy;
+                        case "setMaxResults":
+                            return proxy;
+                        case "getResultList":
+                            if (name.equals(Location.FIND_BY_REJECTION_CODE))
+                                return locations;
+                            if (name.equals(Instance.PKS_WITH_SR_CONTENT))
+                                return ((List<?>) params.get(1)).contains(SR_INSTANCE_PK)
+                                        ? Collections.singletonList(SR_INSTANCE_PK)
+                                        : Collections.emptyList();
+                            return Collections.emptyList();
+                        case "getSingleResult":
+                            return 1L;
+                        case "executeUpdate":
+                            Object param1 = params.get(1);
+                            Object param3 = params.get(3);
+                            List<?> values = param3 instanceof List ? (List<?>) param3
+                                    : param1 instanceof List ? (List<?>) param1
+                                    : Collections.singletonList(param1);
+                            executedUpdates.computeIfAbsent(name, k -> new ArrayList<>())
+                                    .add(new ArrayList<>(values));
+                            return values.size();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.delete.impl;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Sequence;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.dict.archive.PrivateTag;
+import org.dcm4che3.json.JSONWriter;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.Duration;
+import org.dcm4chee.arc.conf.StorageDescriptor;
+import org.dcm4chee.arc.entity.Location;
+import org.dcm4chee.arc.entity.Series;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.dcm4chee.arc.storage.DefaultReadContext;
+import org.dcm4chee.arc.storage.ReadContext;
+import org.dcm4chee.arc.storage.Storage;
+import org.dcm4chee.arc.storage.StorageFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class PurgeInstanceRecordsSchedulerTest {
+
+    private static final String STORAGE_ID = "fs1";
+    private static final int NUM_SERIES = 8;
+    private static final int INSTANCES_PER_SERIES = 250;
+    private static final long PURGE_LATENCY_MS = 40;
+
+    private final Map<String, byte[]> metadataZips = new HashMap<>();
+    private final Deque<Series.MetadataUpdate> seriesToPurge = new ArrayDeque<>();
+    private final Map<Long, Map<String, List<Location>>> purged = new ConcurrentHashMap<>();
+    private final Map<String, Integer> rates = new ConcurrentHashMap<>();
+    private final AtomicInteger concurrentPurges = new AtomicInteger();
+    private final AtomicInteger maxConcurrentPurges = new AtomicInteger();
+    private final AtomicInteger openedStorages = new AtomicInteger();
+    private final AtomicInteger closedStorages = new AtomicInteger();
+    private ExecutorService executor;
+    private ArchiveDeviceExtension arcDev;
+    private PurgeInstanceRecordsScheduler scheduler;
+
+    @Before
+    public void setUp() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        arcDev = new ArchiveDeviceExtension();
+        arcDev.setPurgeInstanceRecords(true);
+        arcDev.setPurgeInstanceRecordsPollingInterval(Duration.valueOf("PT1M"));
+        arcDev.setPurgeInstanceRecordsFetchSize(3);
+        arcDev.addStorageDescriptor(new StorageDescriptor(STORAGE_ID));
+        Device device = new Device("dcm4chee-arc");
+        device.addDeviceExtension(arcDev);
+        device.setExecutor(executor);
+        for (long seriesPk = 1; seriesPk <= NUM_SERIES; seriesPk++) {
+            String storagePath = "metadata/" + seriesPk + ".zip";
+            metadataZips.put(storagePath, metadataZip(seriesPk));
+            seriesToPurge.add(new Series.MetadataUpdate(seriesPk, null, 0, new Date(),
+                    Series.InstancePurgeState.NO, STORAGE_ID, storagePath));
+        }
+        scheduler = new PurgeInstanceRecordsScheduler(device, new DeletionServiceStub(), new StorageFactoryStub(),
+                new MetricsStub());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void purgeSerial() {
+        arcDev.setPurgeInstanceRecordsMaxParallel(1);
+        scheduler.execute();
+        assertPurged();
+        assertEquals(1, maxConcurrentPurges.get());
+    }
+
+    @Test
+    public void purgeParallel() {
+        arcDev.setPurgeInstanceRecordsMaxParallel(3);
+        long start = System.nanoTime();
+        scheduler.execute();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertPurged();
+        assertEquals(3, maxConcurrentPurges.get());
+        // 3 fetches of at most 3 Series purged in parallel
+        assertTrue("elapsed: " + elapsed + " ms", elapsed < NUM_SERIES * PURGE_LATENCY_MS);
+    }
+
+    private void assertPurged() {
+        assertTrue(seriesToPurge.isEmpty());
+        assertEquals(NUM_SERIES, purged.size());
+        purged.forEach((seriesPk, locationsFromMetadata) -> {
+            assertEquals(INSTANCES_PER_SERIES, locationsFromMetadata.size());
+            for (int i = 0; i < INSTANCES_PER_SERIES; i++) {
+                List<Location> locations = locationsFromMetadata.get(sopInstanceUID(seriesPk, i));
+                assertNotNull(locations);
+                assertEquals(i % 10 == 0 ? 2 : 1, locations.size());
+                Location location = locations.get(0);
+                assertEquals(STORAGE_ID, location.getStorageID());
+                assertEquals(storagePath(seriesPk, i), location.getStoragePath());
+                assertEquals(1000 + i, location.getSize());
+            }
+        });
+        assertEquals(NUM_SERIES, rates.get("purge-instance-records").intValue());
+        assertEquals(1, openedStorages.get());
+        assertEquals(1, closedStorages.get());
+    }
+
+    private static byte[] metadataZip(long seriesPk) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bout)) {
+            for (int i = 0; i < INSTANCES_PER_SERIES; i++) {
+                String iuid = sopInstanceUID(seriesPk, i);
+                Attributes attrs = new Attributes();
+                attrs.setString(Tag.SOPInstanceUID, VR.UI, iuid);
+                setLocation(attrs, STORAGE_ID, storagePath(seriesPk, i), 1000 + i);
+                if (i % 10 == 0) {
+                    Attributes item = new Attributes();
+                    setLocation(item, "fs2", storagePath(seriesPk, i), 1000 + i);
+                    Sequence seq = attrs.newSequence(PrivateTag.PrivateCreator, PrivateTag.OtherStorageSequence, 1);
+                    seq.add(item);
+                }
+                out.putNextEntry(new ZipEntry(iuid));
+                JsonGenerator gen = Json.createGenerator(out);
+                new JSONWriter(gen).write(attrs);
+                gen.flush();
+                out.closeEntry();
+            }
+        }
+        return bout.toByteArray();
+    }
+
+    private static void setLocation(Attributes attrs, String storageID, String storagePath, int size) {
+        attrs.setString(PrivateTag.PrivateCreator, PrivateTag.StorageID, VR.LO, storageID);
+        attrs.setString(PrivateTag.PrivateCreator, PrivateTag.StoragePath, VR.LO, storagePath.split("/"));
+        attrs.setString(PrivateTag.PrivateCreator, PrivateTag.StorageTransferSyntaxUID, VR.UI,
+                UID.ExplicitVRLittleEndian);
+        attrs.setInt(PrivateTag.PrivateCreator, PrivateTag.StorageObjectSize, VR.UL, size);
+    }
+
+    private static String sopInstanceUID(long seriesPk, int i) {
+        return "1.2.3." + seriesPk + "." + i;
+    }
+
+    private static String storagePath(long seriesPk, int i) {
+        return "2026/10/" + seriesPk + "/" + i;
+    }
+
+    private class DeletionServiceStub extends DeletionServiceEJB {
+        @Override
+        public List<Series.MetadataUpdate> findSeriesToPurgeInstances(int fetchSize) {
+            List<Series.MetadataUpdate> list = new ArrayList<>(fetchSize);
+            Series.MetadataUpdate metadataUpdate;
+            while (list.size() < fetchSize && (metadataUpdate = seriesToPurge.poll()) != null)
+                list.add(metadataUpdate);
+            return list;
+        }
+
+        @Override
+        public boolean claimPurgeInstanceRecordsOfSeries(Series.MetadataUpdate metadataUpdate) {
+            return true;
+        }
+
+        @Override
+        public boolean purgeInstanceRecordsOfSeries(Long seriesPk, Map<String, List<Location>> locationsFromMetadata) {
+            maxConcurrentPurges.accumulateAndGet(concurrentPurges.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(PURGE_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrentPurges.decrementAndGet();
+            }
+            assertNull("purged twice", purged.put(seriesPk, locationsFromMetadata));
+            return true;
+        }
+    }
+
+    private class StorageFactoryStub extends StorageFactory {
+        @Override
+        public Storage getStorage(StorageDescriptor descriptor) {
+            assertEquals(STORAGE_ID, descriptor.getStorageID());
+            openedStorages.incrementAndGet();
+            return (Storage) Proxy.newProxyInstance(Storage.class.getClassLoader(),
+                    new Class<?>[]{ Storage.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "createReadContext":
+                                return new DefaultReadContext((Storage) proxy);
+                            case "openInputStream":
+                                return new ByteArrayInputStream(
+                                        metadataZips.get(((ReadContext) args[0]).getStoragePath()));
+                            case "close":
+                                closedStorages.incrementAndGet();
+                                return null;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+
+    private class MetricsStub implements MetricsService {
+        @Override
+        public boolean exists(String name) {
+            return true;
+        }
+
+        @Override
+        public void accept(String name, double value) {
+            assertTrue(name, value > 0);
+            rates.merge(name, 1, Integer::sum);
+        }
+
+        @Override
+        public void acceptNanoTime(String name, long startTime) {
+        }
+
+        @Override
+        public void acceptDataRate(String name, long bytes, long startTime) {
+        }
+
+        @Override
+        public void accept(String name, DoubleSupplier valueSupplier) {
+            accept(name, valueSupplier.getAsDouble());
+        }
+
+        @Override
+        public void forEach(String name, int limit, int binSize, Consumer<DoubleSummaryStatistics> consumer) {
+        }
+    }
+}
@@ -150,6 +150,10 @@ public class DiffRS {
     @Pattern(regexp = "true|false")
     private String forceQueryByStudyUID;
 
+    @QueryParam("ParallelQueriesByStudyUID")
+    @Pattern(regexp = "[1-9]\\d?")
+    private String parallelQueriesByStudyUID;
+
     @QueryParam("SplitStudyDateRange")
     @ValidValueOf(type = Duration.class)
     private String splitStudyDateRange;
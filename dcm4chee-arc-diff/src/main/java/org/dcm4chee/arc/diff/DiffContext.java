@@ -72,6 +72,7 @@ public class DiffContext {
     private Duration splitStudyDateRange;
     private int priority;
     private boolean forceQueryByStudyUID;
+    private int parallelQueriesByStudyUID;
     private boolean fuzzymatching;
     private boolean checkMissing;
     private boolean checkDifferent;
@@ -129,6 +130,7 @@ public class DiffContext {
         this.queryString = queryString;
         this.queryAttributes = new QueryAttributes(queryParameters, null);
         this.forceQueryByStudyUID = parseBoolean(queryParameters.getFirst("ForceQueryByStudyUID"), false);
+        this.parallelQueriesByStudyUID = parseInt(queryParameters.getFirst("ParallelQueriesByStudyUID"), 1);
         this.splitStudyDateRange = parseDuration(queryParameters.getFirst("SplitStudyDateRange"));
         this.compareKeys = parseComparefields(queryParameters.get("comparefield"));
         this.priority = parseInt(queryParameters.getFirst("priority"), 0);
@@ -147,6 +149,10 @@ public class DiffContext {
         return forceQueryByStudyUID;
     }
 
+    public int getParallelQueriesByStudyUID() {
+        return parallelQueriesByStudyUID;
+    }
+
     public Duration getSplitStudyDateRange() {
         return splitStudyDateRange;
     }
@@ -55,9 +55,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Date;
-import java.util.EnumSet;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -72,8 +74,12 @@ public class DiffSCUImpl implements DiffSCU {
 
     private Association as1;
     private Association as2;
+    private final List<Association> moreAs2 = new ArrayList<>();
+    private BlockingQueue<Association> idleAs2;
+    private final Deque<QueryByStudyUID> outstandingQueries = new ArrayDeque<>();
     private DimseRSP dimseRSP;
     private DimseRSP dimseRSP2;
+    private boolean primaryCompleted;
     private int missing;
     private int different;
     private int matches;
@@ -97,6 +103,15 @@ public class DiffSCUImpl implements DiffSCU {
             dimseRSP2 = findSCU.query(as2, ctx.priority(), ctx.getQueryKeys(), 0, 1, ctx.getSplitStudyDateRange());
             dimseRSP2.next();
             checkRSP(dimseRSP2);
+        } else if (ctx.getParallelQueriesByStudyUID() > 1) {
+            idleAs2 = new ArrayBlockingQueue<>(ctx.getParallelQueriesByStudyUID());
+            idleAs2.add(as2);
+            for (int i = 1; i < ctx.getParallelQueriesByStudyUID(); i++) {
+                Association as = findSCU.openAssociation(ctx.getLocalAE(), ctx.getSecondaryAE().getAETitle(),
+                        UID.StudyRootQueryRetrieveInformationModelFIND, queryOptions);
+                moreAs2.add(as);
+                idleAs2.add(as);
+            }
         }
         dimseRSP = findSCU.query(as1, ctx.priority(), ctx.getQueryKeys(), 0, 1, ctx.getSplitStudyDateRange());
         dimseRSP.next();
@@ -105,44 +120,70 @@ public class DiffSCUImpl implements DiffSCU {
 
     @Override
     public void countDiffs() throws Exception {
-        do {
-            Attributes match = dimseRSP.getDataset();
-            if (match != null) {
-                matches++;
-                Attributes other = findOther(match.getString(Tag.StudyInstanceUID));
-                if (other == null)
+        Lookup lookup;
+        while ((lookup = nextLookup()) != null) {
+            if (lookup.other == null)
+                missing++;
+            else if (lookup.other.diff(lookup.match, ctx.getCompareKeys(),null) > 0)
+                different++;
+        }
+    }
+
+    @Override
+    public Attributes nextDiff() throws Exception {
+        Lookup lookup;
+        while ((lookup = nextLookup()) != null) {
+            if (lookup.other == null) {
+                if (ctx.isCheckMissing()) {
                     missing++;
-                else if (other.diff(match, ctx.getCompareKeys(),null) > 0)
+                    return addOriginalAttributesSequence(lookup.match, modifiedAttributesForMissing());
+                }
+            } else if (ctx.isCheckDifferent()) {
+                Attributes modified = new Attributes(lookup.match.size());
+                if (lookup.other.diff(lookup.match, ctx.getCompareKeys(), modified) > 0) {
                     different++;
+                    return addOriginalAttributesSequence(lookup.match, modified);
+                }
             }
-        } while (dimseRSP.next());
+        }
+        waitForOutstandingRSP(as1, dimseRSP);
+        waitForOutstandingRSP(as2, dimseRSP2);
+        return null;
     }
 
-    @Override
-    public Attributes nextDiff() throws Exception {
-        boolean next;
-        do {
+    private Lookup nextLookup() throws Exception {
+        if (idleAs2 == null) {
+            Attributes match = nextPrimaryMatch();
+            return match != null ? new Lookup(match, findOther(match.getString(Tag.StudyInstanceUID))) : null;
+        }
+        Attributes match;
+        while (outstandingQueries.size() < ctx.getParallelQueriesByStudyUID()
+                && (match = nextPrimaryMatch()) != null) {
+            QueryByStudyUID query = new QueryByStudyUID(match);
+            ctx.getLocalAE().getDevice().execute(query);
+            outstandingQueries.add(query);
+        }
+        QueryByStudyUID query = outstandingQueries.poll();
+        if (query == null)
+            return null;
+
+        try {
+            return new Lookup(query.match, query.get());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    private Attributes nextPrimaryMatch() throws Exception {
+        while (!primaryCompleted && !canceled) {
             Attributes match = dimseRSP.getDataset();
-            next = dimseRSP.next();
+            primaryCompleted = !dimseRSP.next();
             if (match != null) {
                 matches++;
-                Attributes other = findOther(match.getString(Tag.StudyInstanceUID));
-                if (other == null) {
-                    if (ctx.isCheckMissing()) {
-                        missing++;
-                        return addOriginalAttributesSequence(match, modifiedAttributesForMissing());
-                    }
-                } else if (ctx.isCheckDifferent()) {
-                    Attributes modified = new Attributes(match.size());
-                    if (other.diff(match, ctx.getCompareKeys(), modified) > 0) {
-                        different++;
-                        return addOriginalAttributesSequence(match, modified);
-                    }
-                }
+                return match;
             }
-        } while (next && !canceled);
-        waitForOutstandingRSP(as1, dimseRSP);
-        waitForOutstandingRSP(as2, dimseRSP2);
+        }
         return null;
     }
 
@@ -170,8 +211,11 @@ public class DiffSCUImpl implements DiffSCU {
 
     @Override
     public void close() {
+        outstandingQueries.forEach(query -> query.cancel(true));
+        outstandingQueries.clear();
         safeRelease(as1);
         safeRelease(as2);
+        moreAs2.forEach(DiffSCUImpl::safeRelease);
     }
 
     private static Attributes modifiedAttributesForMissing() {
@@ -245,4 +289,32 @@ public class DiffSCUImpl implements DiffSCU {
         List<Attributes> matches = findSCU.findStudy(as2, ctx.priority(), studyIUID, ctx.getReturnKeys());
         return !matches.isEmpty() ? matches.get(0) : null;
     }
+
+    private static class Lookup {
+        final Attributes match;
+        final Attributes other;
+
+        Lookup(Attributes match, Attributes other) {
+            this.match = match;
+            this.other = other;
+        }
+    }
+
+    private class QueryByStudyUID extends FutureTask<Attributes> {
+        final Attributes match;
+
+        QueryByStudyUID(Attributes match) {
+            super(() -> {
+                Association as = idleAs2.take();
+                try {
+                    List<Attributes> others = findSCU.findStudy(as, ctx.priority(),
+                            match.getString(Tag.StudyInstanceUID), ctx.getReturnKeys());
+                    return !others.isEmpty() ? others.get(0) : null;
+                } finally {
+                    idleAs2.add(as);
+                }
+            });
+            this.match = match;
+        }
+    }
 }
@@ -0,0 +1,303 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.diff.impl;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.*;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.BasicCFindSCP;
+import org.dcm4che3.net.service.BasicQueryTask;
+import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.dcm4che3.net.service.QueryTask;
+import org.dcm4chee.arc.diff.DiffContext;
+import org.dcm4chee.arc.diff.DiffSCU;
+import org.dcm4chee.arc.query.scu.CFindSCU;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class DiffSCUImplTest {
+
+    private static final String PRIMARY_AET = "PRIMARY";
+    private static final String SECONDARY_AET = "SECONDARY";
+    private static final int STUDIES = 60;
+    private static final int PARALLEL_QUERIES = 6;
+    private static final long SECONDARY_DELAY = 20;
+
+    private final StudyCFindSCP findSCP = new StudyCFindSCP();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device scpDevice;
+    private ApplicationEntity primaryAE;
+    private ApplicationEntity secondaryAE;
+    private ApplicationEntity localAE;
+    private CFindSCU findSCU;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        scpDevice = createSCPDevice();
+        scpDevice.bindConnections();
+        localAE = createSCUDevice().getApplicationEntity("DIFF_SCU");
+        findSCU = createCFindSCU();
+    }
+
+    @After
+    public void tearDown() {
+        scpDevice.unbindConnections();
+        scheduledExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelQueriesByStudyUID() throws Exception {
+        List<String> serial = diffs(1);
+        assertEquals(1, findSCP.maxConcurrent.get());
+
+        findSCP.maxConcurrent.set(0);
+        findSCP.arrived = new CountDownLatch(PARALLEL_QUERIES);
+        List<String> parallel = diffs(PARALLEL_QUERIES);
+
+        assertEquals(expectedDiffs(), serial);
+        assertEquals(serial, parallel);
+        assertEquals(PARALLEL_QUERIES, findSCP.maxConcurrent.get());
+    }
+
+    private List<String> diffs(int parallelQueries) throws Exception {
+        DiffContext ctx = new DiffContext()
+                .setLocalAE(localAE)
+                .setPrimaryAE(primaryAE)
+                .setSecondaryAE(secondaryAE)
+                .setQueryString("missing=true&ParallelQueriesByStudyUID=" + parallelQueries);
+        List<String> diffs = new ArrayList<>();
+        DiffSCU diffSCU = new DiffSCUImpl(ctx, findSCU);
+        try {
+            diffSCU.init();
+            Attributes diff;
+            while ((diff = diffSCU.nextDiff()) != null)
+                diffs.add(diff.getString(Tag.StudyInstanceUID));
+        } finally {
+            diffSCU.close();
+        }
+        assertEquals(STUDIES, diffSCU.matches());
+        return diffs;
+    }
+
+    private static List<String> expectedDiffs() {
+        List<String> diffs = new ArrayList<>();
+        for (int i = 0; i < STUDIES; i++)
+            if (isMissing(i) || isDifferent(i))
+                diffs.add(studyIUID(i));
+        return diffs;
+    }
+
+    private static boolean isMissing(int i) {
+        return i % 7 == 0;
+    }
+
+    private static boolean isDifferent(int i) {
+        return i % 5 == 0;
+    }
+
+    private static String studyIUID(int i) {
+        return "1.2.3." + i;
+    }
+
+    private static Attributes study(int i, String description) {
+        Attributes attrs = new Attributes(3);
+        attrs.setString(Tag.QueryRetrieveLevel, VR.CS, "STUDY");
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, studyIUID(i));
+        attrs.setString(Tag.StudyDescription, VR.LO, description);
+        return attrs;
+    }
+
+    private Device createSCPDevice() throws Exception {
+        Device device = new Device("diff-scp");
+        Connection conn = new Connection(null, "127.0.0.1", freePort());
+        device.addConnection(conn);
+        primaryAE = createSCP(device, conn, PRIMARY_AET);
+        secondaryAE = createSCP(device, conn, SECONDARY_AET);
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+        serviceRegistry.addDicomService(findSCP);
+        device.setDimseRQHandler(serviceRegistry);
+        device.setExecutor(executor);
+        device.setScheduledExecutor(scheduledExecutor);
+        return device;
+    }
+
+    private static ApplicationEntity createSCP(Device device, Connection conn, String aet) {
+        ApplicationEntity ae = new ApplicationEntity(aet);
+        ae.setAssociationAcceptor(true);
+        ae.addConnection(conn);
+        ae.addTransferCapability(new TransferCapability(null,
+                UID.StudyRootQueryRetrieveInformationModelFIND, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+        device.addApplicationEntity(ae);
+        return ae;
+    }
+
+    private Device createSCUDevice() {
+        Device device = new Device("diff-scu");
+        Connection conn = new Connection();
+        device.addConnection(conn);
+        ApplicationEntity ae = new ApplicationEntity("DIFF_SCU");
+        ae.setAssociationInitiator(true);
+        ae.addConnection(conn);
+        device.addApplicationEntity(ae);
+        device.setExecutor(executor);
+        device.setScheduledExecutor(scheduledExecutor);
+        return device;
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket ss = new ServerSocket(0)) {
+            return ss.getLocalPort();
+        }
+    }
+
+    private CFindSCU createCFindSCU() {
+        return (CFindSCU) Proxy.newProxyInstance(DiffSCUImplTest.class.getClassLoader(),
+                new Class<?>[]{ CFindSCU.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "openAssociation":
+                            return openAssociation((ApplicationEntity) args[0], (String) args[1], (String) args[2]);
+                        case "query":
+                            return ((Association) args[0]).cfind(UID.StudyRootQueryRetrieveInformationModelFIND,
+                                    (Integer) args[1], (Attributes) args[2], UID.ImplicitVRLittleEndian,
+                                    (Integer) args[3], (Integer) args[4]);
+                        case "findStudy":
+                            if (args[0] instanceof Association)
+                                return findStudy((Association) args[0], (Integer) args[1], (String) args[2]);
+                    }
+                    throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    private Association openAssociation(ApplicationEntity localAE, String calledAET, String cuid)
+            throws Exception {
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContext(new PresentationContext(1, cuid, UID.ImplicitVRLittleEndian));
+        return localAE.connect(PRIMARY_AET.equals(calledAET) ? primaryAE : secondaryAE, aarq);
+    }
+
+    private static List<Attributes> findStudy(Association as, int priority, String studyIUID) throws Exception {
+        Attributes keys = new Attributes(2);
+        keys.setString(Tag.QueryRetrieveLevel, VR.CS, "STUDY");
+        keys.setString(Tag.StudyInstanceUID, VR.UI, studyIUID);
+        List<Attributes> matches = new ArrayList<>();
+        DimseRSP rsp = as.cfind(UID.StudyRootQueryRetrieveInformationModelFIND, priority, keys,
+                UID.ImplicitVRLittleEndian, 0, 1);
+        while (rsp.next())
+            if (Status.isPending(rsp.getCommand().getInt(Tag.Status, -1)))
+                matches.add(rsp.getDataset());
+        return matches;
+    }
+
+    private static class StudyCFindSCP extends BasicCFindSCP {
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        volatile CountDownLatch arrived;
+
+        StudyCFindSCP() {
+            super(UID.StudyRootQueryRetrieveInformationModelFIND);
+        }
+
+        @Override
+        protected QueryTask calculateMatches(Association as, PresentationContext pc, Attributes rq, Attributes keys) {
+            List<Attributes> matches = new ArrayList<>();
+            if (PRIMARY_AET.equals(as.getCalledAET())) {
+                for (int i = 0; i < STUDIES; i++)
+                    matches.add(study(i, "Study " + i));
+            } else {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    // hold the first queries until all parallel queries were received
+                    CountDownLatch arrived = this.arrived;
+                    if (arrived != null) {
+                        arrived.countDown();
+                        arrived.await(10, TimeUnit.SECONDS);
+                    }
+                    Thread.sleep(SECONDARY_DELAY);
+                } catch (InterruptedException ignore) {
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+                String studyIUID = keys.getString(Tag.StudyInstanceUID);
+                int i = Integer.parseInt(studyIUID.substring(studyIUID.lastIndexOf('.') + 1));
+                if (!isMissing(i))
+                    matches.add(study(i, isDifferent(i) ? "Changed " + i : "Study " + i));
+            }
+            return new BasicQueryTask(as, pc, rq, keys) {
+                private int index;
+
+                @Override
+                protected boolean hasMoreMatches() {
+                    return index < matches.size();
+                }
+
+                @Override
+                protected Attributes nextMatch() {
+                    return matches.get(index++);
+                }
+            };
+        }
+    }
+}
@@ -541,11 +541,30 @@ public class QueryRetrieveRS {
                 DimseRSP dimseRSP = findSCU.query(as, priorityAsInt, keys, 0, 1, splitStudyDateRange());
                 dimseRSP.next();
                 int status;
-                do {
-                    status = dimseRSP.getCommand().getInt(Tag.Status, -1);
-                    if (Status.isPending(status))
-                        count += action.apply(createExtRetrieveCtx(destAET, dimseRSP));
-                } while (dimseRSP.next());
+                if (level == QueryRetrieveLevel2.STUDY) {
+                    int chunkSize = device.getDeviceExtensionNotNull(ArchiveDeviceExtension.class)
+                            .getCSVUploadChunkSize();
+                    List<String> studyUIDs = new ArrayList<>();
+                    do {
+                        status = dimseRSP.getCommand().getInt(Tag.Status, -1);
+                        if (Status.isPending(status)) {
+                            studyUIDs.add(dimseRSP.getDataset().getString(Tag.StudyInstanceUID));
+                            if (studyUIDs.size() == chunkSize) {
+                                count += action.apply(createExtRetrieveCtx(destAET, studyUIDs.toArray(new String[0])));
+                                LOG.info("Processed {} matching studies", count);
+                                studyUIDs.clear();
+                            }
+                        }
+                    } while (dimseRSP.next());
+                    if (!studyUIDs.isEmpty())
+                        count += action.apply(createExtRetrieveCtx(destAET, studyUIDs.toArray(new String[0])));
+                } else {
+                    do {
+                        status = dimseRSP.getCommand().getInt(Tag.Status, -1);
+                        if (Status.isPending(status))
+                            count += action.apply(createExtRetrieveCtx(destAET, dimseRSP));
+                    } while (dimseRSP.next());
+                }
                 warning = warning(status);
             } catch (IllegalStateException | IllegalArgumentException | ConfigurationException e) {
                 errorStatus = Response.Status.NOT_FOUND;
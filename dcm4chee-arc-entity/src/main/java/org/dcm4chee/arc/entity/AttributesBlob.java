@@ -54,10 +54,15 @@ import java.io.IOException;
  * @author Umberto Cappellini <umberto.cappellini@agfa.com>
  * @author Gunter Zeilinger <gunterze@gmail.com>
  */
+@NamedQuery(
+    name = AttributesBlob.DELETE_BY_PKS,
+    query = "delete from AttributesBlob a where a.pk in ?1")
 @Entity
 @Table(name = "dicomattrs")
 public class AttributesBlob {
 
+    public static final String DELETE_BY_PKS = "AttributesBlob.deleteByPks";
+
     @Id
     @GeneratedValue(strategy=GenerationType.IDENTITY)
     @Column(name = "pk")
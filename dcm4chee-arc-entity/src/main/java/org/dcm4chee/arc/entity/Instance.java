@@ -164,7 +164,18 @@ import java.util.*;
             "from Instance instance " +
             "where instance.series.study.studyInstanceUID = ?1 " +
             "and instance.series.seriesInstanceUID = ?2 " +
-            "and instance.sopInstanceUID = ?3")
+            "and instance.sopInstanceUID = ?3"),
+@NamedQuery(
+    name = Instance.PKS_WITH_SR_CONTENT,
+    query = "select i.pk from Instance i " +
+            "where i.pk in ?1 and (i.contentItems is not empty or i.verifyingObservers is not empty)"),
+@NamedQuery(
+    name = Instance.ATTRIBUTES_BLOB_PKS,
+    query = "select i.attributesBlob.pk from Instance i " +
+            "where i.pk in ?1"),
+@NamedQuery(
+    name = Instance.DELETE_BY_PKS,
+    query = "delete from Instance i where i.pk in ?1")
 })
 @Entity
 @Table(name = "instance",
@@ -193,6 +204,9 @@ public class Instance {
     public static final String IUIDS_OF_SERIES = "Instance.iuidsOfSeries";
     public static final String IUIDS_OF_SERIES2 = "Instance.iuidsOfSeries2";
     public static final String NUMBER_OF_FRAMES = "Instance.numberOfFrames";
+    public static final String PKS_WITH_SR_CONTENT = "Instance.pksWithSRContent";
+    public static final String ATTRIBUTES_BLOB_PKS = "Instance.attributesBlobPks";
+    public static final String DELETE_BY_PKS = "Instance.deleteByPks";
     public static final String FIND_LAST_MODIFIED_STUDY_LEVEL = "Instance.findLastModifiedStudyLevel";
     public static final String FIND_LAST_MODIFIED_SERIES_LEVEL = "Instance.findLastModifiedSeriesLevel";
     public static final String FIND_LAST_MODIFIED_INSTANCE_LEVEL = "Instance.findLastModifiedInstanceLevel";
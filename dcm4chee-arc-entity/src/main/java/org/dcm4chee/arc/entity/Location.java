@@ -63,7 +63,7 @@ import java.util.Date;
                 query = "select l from Location l join fetch l.instance inst " +
                         "where inst.series.study.pk=?1"),
         @NamedQuery(name = Location.FIND_BY_SERIES_PK,
-                query = "select l from Location l where l.instance.series.pk=?1"),
+                query = "select l from Location l join fetch l.instance i where i.series.pk=?1"),
         @NamedQuery(name = Location.FIND_BY_STUDY_PK_AND_STORAGE_IDS,
                 query = "select l from Location l join fetch l.instance inst " +
                         "where inst.series.study.pk=?1 and l.storageID in ?2"),
@@ -115,6 +115,10 @@ import java.util.Date;
                 query = "update Location l set l.status = ?3 where l.pk = ?1 and l.status = ?2"),
         @NamedQuery(name = Location.DELETE_BY_PK,
                 query = "delete from Location l where l.pk = ?1"),
+        @NamedQuery(name = Location.DELETE_BY_PKS,
+                query = "delete from Location l where l.pk in ?1"),
+        @NamedQuery(name = Location.MARK_TO_DELETE_BY_PKS,
+                query = "update Location l set l.status = ?2, l.instance = null where l.pk in ?1"),
         @NamedQuery(name = Location.EXISTS,
                 query = "select l.pk from Location l where l.pk = ?1")
 })
@@ -147,6 +151,8 @@ public class Location {
     public static final String SET_STATUS = "Location.SetStatus";
     public static final String UPDATE_STATUS_FROM = "Location.UpdateStatusFrom";
     public static final String DELETE_BY_PK = "Location.DeleteByPk";
+    public static final String DELETE_BY_PKS = "Location.DeleteByPks";
+    public static final String MARK_TO_DELETE_BY_PKS = "Location.MarkToDeleteByPks";
     public static final String SIZE_OF_SERIES = "Location.SizeOfSeries";
     public static final String EXISTS = "Location.Exists";
 
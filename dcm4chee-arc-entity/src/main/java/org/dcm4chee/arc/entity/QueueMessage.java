@@ -77,6 +77,9 @@ import java.util.*;
                 query = "select distinct o.deviceName from QueueMessage o where o.batchID=?1 order by o.deviceName"),
         @NamedQuery(name = QueueMessage.COUNT_BY_DEVICE_AND_QUEUE_NAME_AND_STATUS,
                 query = "select count(o) from QueueMessage o where o.deviceName=?1 and o.queueName=?2 and o.status=?3"),
+        @NamedQuery(name = QueueMessage.COUNT_BY_DEVICE_AND_QUEUE_NAME_GROUP_BY_STATUS,
+                query = "select o.status, count(o) from QueueMessage o where o.deviceName=?1 and o.queueName=?2 " +
+                        "group by o.status"),
         @NamedQuery(name = QueueMessage.COUNT_BY_BATCH_ID_AND_STATUS,
                 query = "select count(o) from QueueMessage o where o.batchID=?1 and o.status=?2"),
         @NamedQuery(name = QueueMessage.FIND_BY_STATUS_AND_QUEUE_NAME,
@@ -89,6 +92,7 @@ public class QueueMessage {
     public static final String FIND_BY_MSG_ID = "QueueMessage.FindByMsgId";
     public static final String FIND_DEVICE_BY_BATCH_ID = "QueueMessage.FindDeviceByBatchId";
     public static final String COUNT_BY_DEVICE_AND_QUEUE_NAME_AND_STATUS = "QueueMessage.CountByDeviceAndQueueNameAndStatus";
+    public static final String COUNT_BY_DEVICE_AND_QUEUE_NAME_GROUP_BY_STATUS = "QueueMessage.CountByDeviceAndQueueNameGroupByStatus";
     public static final String COUNT_BY_BATCH_ID_AND_STATUS = "QueueMessage.CountByBatchIdAndStatus";
     public static final String FIND_BY_STATUS_AND_QUEUE_NAME = "QueueMessage.FindByStatusAndQueueName";
     public static final String UPDATE_STATUS = "QueueMessage.UpdateStatus";
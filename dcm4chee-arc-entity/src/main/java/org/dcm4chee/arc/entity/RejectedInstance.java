@@ -64,10 +64,15 @@ import java.util.Date;
         name = RejectedInstance.DELETE_BY_UIDS,
         query = "delete from RejectedInstance ri " +
                 "where ri.studyInstanceUID = ?1 and ri.seriesInstanceUID = ?2 and ri.sopInstanceUID = ?3")
+@NamedQuery(
+        name = RejectedInstance.DELETE_BY_SOP_IUIDS,
+        query = "delete from RejectedInstance ri " +
+                "where ri.studyInstanceUID = ?1 and ri.seriesInstanceUID = ?2 and ri.sopInstanceUID in ?3")
 public class RejectedInstance {
     public static final String FIND_BY_UIDS = "RejectedInstance.findByUIDs";
     public static final String FIND_BY_SERIES_UID = "RejectedInstance.findBySeriesUID";
     public static final String DELETE_BY_UIDS = "RejectedInstance.deleteByUIDs";
+    public static final String DELETE_BY_SOP_IUIDS = "RejectedInstance.deleteBySopIUIDs";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -194,18 +194,6 @@ import java.util.stream.Stream;
                 "where se.instancePurgeTime < current_timestamp " +
                 "and se.metadataScheduledUpdateTime is null " +
                 "order by se.instancePurgeTime"),
-@NamedQuery(
-        name=Series.SCHEDULE_METADATA_UPDATE_FOR_PATIENT,
-        query = "update Series se set se.metadataScheduledUpdateTime = current_timestamp " +
-                "where se.study in (select st from Study st where st.patient = ?1) " +
-                "and se.metadata is not null " +
-                "and se.metadataScheduledUpdateTime is null"),
-@NamedQuery(
-        name=Series.SCHEDULE_METADATA_UPDATE_FOR_STUDY,
-        query = "update Series se set se.metadataScheduledUpdateTime = current_timestamp " +
-                "where se.study = ?1 " +
-                "and se.metadata is not null " +
-                "and se.metadataScheduledUpdateTime is null"),
 @NamedQuery(
         name=Series.SCHEDULE_METADATA_UPDATE_FOR_SERIES,
         query = "update Series se set se.metadataScheduledUpdateTime = current_timestamp " +
@@ -321,8 +309,6 @@ public class Series {
     public static final String SERIES_IUIDS_OF_STUDY = "Series.seriesIUIDsOfStudy";
     public static final String SCHEDULED_METADATA_UPDATE = "Series.scheduledMetadataUpdate";
     public static final String SCHEDULED_PURGE_INSTANCES = "Series.scheduledPurgeInstances";
-    public static final String SCHEDULE_METADATA_UPDATE_FOR_PATIENT = "Series.scheduleMetadataUpdateForPatient";
-    public static final String SCHEDULE_METADATA_UPDATE_FOR_STUDY = "Series.scheduleMetadataUpdateForStudy";
     public static final String SCHEDULE_METADATA_UPDATE_FOR_SERIES = "Series.scheduleMetadataUpdateForSeries";
     public static final String SCHEDULE_METADATA_UPDATE_FOR_SERIES_UID = "Series.scheduleMetadataUpdateForSeriesUID";
     public static final String UPDATE_INSTANCE_PURGE_STATE = "Series.updateInstancePurgeState";
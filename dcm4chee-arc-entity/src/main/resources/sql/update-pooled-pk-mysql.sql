@@ -0,0 +1,71 @@
+-- switch primary key generation to pooled sequences with allocation size 50,
+-- emulated by single row tables,
+-- required by archive build with -D pooled -D mapping-file=META-INF/orm-sequence.xml
+-- stop the archive before applying
+create table dicomattrs_pk_seq (next_val bigint);
+create table uidmap_pk_seq (next_val bigint);
+create table code_pk_seq (next_val bigint);
+create table content_item_pk_seq (next_val bigint);
+create table export_task_pk_seq (next_val bigint);
+create table retrieve_task_pk_seq (next_val bigint);
+create table diff_task_pk_seq (next_val bigint);
+create table ian_task_pk_seq (next_val bigint);
+create table hl7psu_task_pk_seq (next_val bigint);
+create table instance_pk_seq (next_val bigint);
+create table issuer_pk_seq (next_val bigint);
+create table location_pk_seq (next_val bigint);
+create table metadata_pk_seq (next_val bigint);
+create table mpps_pk_seq (next_val bigint);
+create table mwl_item_pk_seq (next_val bigint);
+create table patient_pk_seq (next_val bigint);
+create table patient_id_pk_seq (next_val bigint);
+create table person_name_pk_seq (next_val bigint);
+create table queue_msg_pk_seq (next_val bigint);
+create table rejected_instance_pk_seq (next_val bigint);
+create table series_pk_seq (next_val bigint);
+create table series_query_attrs_pk_seq (next_val bigint);
+create table series_req_pk_seq (next_val bigint);
+create table soundex_code_pk_seq (next_val bigint);
+create table stgcmt_result_pk_seq (next_val bigint);
+create table stgver_task_pk_seq (next_val bigint);
+create table study_pk_seq (next_val bigint);
+create table study_query_attrs_pk_seq (next_val bigint);
+create table verify_observer_pk_seq (next_val bigint);
+create table ups_pk_seq (next_val bigint);
+create table ups_request_pk_seq (next_val bigint);
+create table subscription_pk_seq (next_val bigint);
+create table global_subscription_pk_seq (next_val bigint);
+
+insert into dicomattrs_pk_seq select coalesce(max(pk), 0) + 51 from dicomattrs;
+insert into uidmap_pk_seq select coalesce(max(pk), 0) + 51 from uidmap;
+insert into code_pk_seq select coalesce(max(pk), 0) + 51 from code;
+insert into content_item_pk_seq select coalesce(max(pk), 0) + 51 from content_item;
+insert into export_task_pk_seq select coalesce(max(pk), 0) + 51 from export_task;
+insert into retrieve_task_pk_seq select coalesce(max(pk), 0) + 51 from retrieve_task;
+insert into diff_task_pk_seq select coalesce(max(pk), 0) + 51 from diff_task;
+insert into ian_task_pk_seq select coalesce(max(pk), 0) + 51 from ian_task;
+insert into hl7psu_task_pk_seq select coalesce(max(pk), 0) + 51 from hl7psu_task;
+insert into instance_pk_seq select coalesce(max(pk), 0) + 51 from instance;
+insert into issuer_pk_seq select coalesce(max(pk), 0) + 51 from issuer;
+insert into location_pk_seq select coalesce(max(pk), 0) + 51 from location;
+insert into metadata_pk_seq select coalesce(max(pk), 0) + 51 from metadata;
+insert into mpps_pk_seq select coalesce(max(pk), 0) + 51 from mpps;
+insert into mwl_item_pk_seq select coalesce(max(pk), 0) + 51 from mwl_item;
+insert into patient_pk_seq select coalesce(max(pk), 0) + 51 from patient;
+insert into patient_id_pk_seq select coalesce(max(pk), 0) + 51 from patient_id;
+insert into person_name_pk_seq select coalesce(max(pk), 0) + 51 from person_name;
+insert into queue_msg_pk_seq select coalesce(max(pk), 0) + 51 from queue_msg;
+insert into rejected_instance_pk_seq select coalesce(max(pk), 0) + 51 from rejected_instance;
+insert into series_pk_seq select coalesce(max(pk), 0) + 51 from series;
+insert into series_query_attrs_pk_seq select coalesce(max(pk), 0) + 51 from series_query_attrs;
+insert into series_req_pk_seq select coalesce(max(pk), 0) + 51 from series_req;
+insert into soundex_code_pk_seq select coalesce(max(pk), 0) + 51 from soundex_code;
+insert into stgcmt_result_pk_seq select coalesce(max(pk), 0) + 51 from stgcmt_result;
+insert into stgver_task_pk_seq select coalesce(max(pk), 0) + 51 from stgver_task;
+insert into study_pk_seq select coalesce(max(pk), 0) + 51 from study;
+insert into study_query_attrs_pk_seq select coalesce(max(pk), 0) + 51 from study_query_attrs;
+insert into verify_observer_pk_seq select coalesce(max(pk), 0) + 51 from verify_observer;
+insert into ups_pk_seq select coalesce(max(pk), 0) + 51 from ups;
+insert into ups_request_pk_seq select coalesce(max(pk), 0) + 51 from ups_req;
+insert into subscription_pk_seq select coalesce(max(pk), 0) + 51 from subscription;
+insert into global_subscription_pk_seq select coalesce(max(pk), 0) + 51 from global_subscription;
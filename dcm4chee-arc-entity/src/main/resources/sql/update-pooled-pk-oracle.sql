@@ -0,0 +1,36 @@
+-- switch primary key generation to pooled sequences with allocation size 50,
+-- required by archive build with -D pooled
+-- stop the archive before applying
+alter sequence dicomattrs_pk_seq increment by 50;
+alter sequence uidmap_pk_seq increment by 50;
+alter sequence code_pk_seq increment by 50;
+alter sequence content_item_pk_seq increment by 50;
+alter sequence export_task_pk_seq increment by 50;
+alter sequence retrieve_task_pk_seq increment by 50;
+alter sequence diff_task_pk_seq increment by 50;
+alter sequence ian_task_pk_seq increment by 50;
+alter sequence hl7psu_task_pk_seq increment by 50;
+alter sequence instance_pk_seq increment by 50;
+alter sequence issuer_pk_seq increment by 50;
+alter sequence location_pk_seq increment by 50;
+alter sequence metadata_pk_seq increment by 50;
+alter sequence mpps_pk_seq increment by 50;
+alter sequence mwl_item_pk_seq increment by 50;
+alter sequence patient_pk_seq increment by 50;
+alter sequence patient_id_pk_seq increment by 50;
+alter sequence person_name_pk_seq increment by 50;
+alter sequence queue_msg_pk_seq increment by 50;
+alter sequence rejected_instance_pk_seq increment by 50;
+alter sequence series_pk_seq increment by 50;
+alter sequence series_query_attrs_pk_seq increment by 50;
+alter sequence series_req_pk_seq increment by 50;
+alter sequence soundex_code_pk_seq increment by 50;
+alter sequence stgcmt_result_pk_seq increment by 50;
+alter sequence stgver_task_pk_seq increment by 50;
+alter sequence study_pk_seq increment by 50;
+alter sequence study_query_attrs_pk_seq increment by 50;
+alter sequence verify_observer_pk_seq increment by 50;
+alter sequence ups_pk_seq increment by 50;
+alter sequence ups_request_pk_seq increment by 50;
+alter sequence subscription_pk_seq increment by 50;
+alter sequence global_subscription_pk_seq increment by 50;
@@ -70,6 +70,8 @@ public interface ExportManager {
 
     boolean scheduleExportTask(Long pk);
 
+    int scheduleExportTasks(List<Long> pks);
+
     void scheduleExportTask(String seriesUID, String objectUID, ExporterDescriptor exporter,
                             HttpServletRequestInfo httpServletRequestInfo, String batchID, String... studyUID)
         throws QueueSizeLimitExceededException;
@@ -95,6 +97,9 @@ public interface ExportManager {
     void rescheduleExportTask(Long pk, ExporterDescriptor exporter, HttpServletRequestInfo httpServletRequestInfo,
                               QueueMessageEvent queueEvent, Date scheduledTime);
 
+    int rescheduleExportTasks(List<Long> pks, ExporterDescriptor newExporter,
+                              HttpServletRequestInfo httpServletRequestInfo, Date scheduledTime);
+
     int deleteTasks(TaskQueryParam queueTaskQueryParam, TaskQueryParam exportTaskQueryParam, int deleteTasksFetchSize);
 
     List<String> listDistinctDeviceNames(TaskQueryParam exportTaskQueryParam);
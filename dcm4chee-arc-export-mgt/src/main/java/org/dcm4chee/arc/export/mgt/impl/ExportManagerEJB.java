@@ -165,9 +165,12 @@ public class ExportManagerEJB implements ExportManager {
         QueueMessage queueMessage = task.getQueueMessage();
         if (queueMessage != null) {
             if (queueMessage.getStatus() == QueueMessage.Status.SCHEDULED) {
-                queueMessage.setStatus(QueueMessage.Status.CANCELED);
-                LOG.info("Cancel processing of Task[id={}] at Queue {}",
-                        queueMessage.getMessageID(), queueMessage.getQueueName());
+                try {
+                    queueManager.cancelTask(queueMessage.getMessageID(), null);
+                } catch (IllegalTaskStateException e) {
+                    LOG.info("Failed to cancel processing of Task[id={}] at Queue {}:\n",
+                            queueMessage.getMessageID(), queueMessage.getQueueName(), e);
+                }
             }
             task.setQueueMessage(null);
         }
@@ -213,6 +216,34 @@ public class ExportManagerEJB implements ExportManager {
         return true;
     }
 
+    @Override
+    public int scheduleExportTasks(List<Long> pks) {
+        ArchiveDeviceExtension arcDev = device.getDeviceExtensionNotNull(ArchiveDeviceExtension.class);
+        Map<String, Integer> capacities = new HashMap<>();
+        int count = 0;
+        for (Long pk : pks) {
+            ExportTask exportTask = em.find(ExportTask.class, pk);
+            ExporterDescriptor exporter = arcDev.getExporterDescriptor(exportTask.getExporterID());
+            if (!reserveCapacity(capacities, exporter.getQueueName())) {
+                LOG.info("Maximal number of Tasks in Queue {} reached - retry to schedule Export Tasks",
+                        exporter.getQueueName());
+                break;
+            }
+            scheduleExportTask(exportTask, exporter, null, null);
+            count++;
+        }
+        return count;
+    }
+
+    private boolean reserveCapacity(Map<String, Integer> capacities, String queueName) {
+        int capacity = capacities.computeIfAbsent(queueName, queueManager::remainingCapacityOnThisDevice);
+        if (capacity <= 0)
+            return false;
+
+        capacities.put(queueName, capacity - 1);
+        return true;
+    }
+
     @Override
     public void scheduleExportTask(String seriesUID, String objectUID, ExporterDescriptor exporter,
                                    HttpServletRequestInfo httpServletRequestInfo, String batchID, String... studyUIDs)
@@ -377,6 +408,27 @@ public class ExportManagerEJB implements ExportManager {
             rescheduleAtScheduledTime(task, queueEvent, scheduledTime);
     }
 
+    @Override
+    public int rescheduleExportTasks(List<Long> pks, ExporterDescriptor newExporter,
+                                     HttpServletRequestInfo httpServletRequestInfo, Date scheduledTime) {
+        ArchiveDeviceExtension arcDev = device.getDeviceExtensionNotNull(ArchiveDeviceExtension.class);
+        for (Long pk : pks) {
+            ExportTask task = em.find(ExportTask.class, pk);
+            if (task == null)
+                continue;
+
+            ExporterDescriptor exporter = newExporter != null
+                    ? newExporter
+                    : arcDev.getExporterDescriptorNotNull(task.getExporterID());
+            task.setExporterID(exporter.getExporterID());
+            if (scheduledTime == null)
+                rescheduleImmediately(task, exporter, httpServletRequestInfo, null);
+            else
+                rescheduleAtScheduledTime(task, null, scheduledTime);
+        }
+        return pks.size();
+    }
+
     private void rescheduleAtScheduledTime(ExportTask task, QueueMessageEvent queueEvent, Date scheduledTime) {
         task.setScheduledTime(scheduledTime);
         if (task.getQueueMessage() != null) {
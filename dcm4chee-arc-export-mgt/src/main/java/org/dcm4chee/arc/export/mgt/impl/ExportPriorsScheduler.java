@@ -60,8 +60,8 @@ import org.dcm4chee.arc.query.QueryContext;
 import org.dcm4chee.arc.query.QueryService;
 import org.dcm4chee.arc.query.util.OrderByTag;
 import org.dcm4chee.arc.query.util.QueryParam;
-import org.dcm4chee.arc.store.StoreContext;
-import org.dcm4chee.arc.store.StoreSession;
+import org.dcm4chee.arc.store.AsyncStoreEventObserver;
+import org.dcm4chee.arc.store.StoreEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -79,7 +79,7 @@ import java.util.stream.Stream;
  * @since Sep 2018
  */
 @ApplicationScoped
-public class ExportPriorsScheduler {
+public class ExportPriorsScheduler implements AsyncStoreEventObserver {
 
     private static final Logger LOG = LoggerFactory.getLogger(ExportPriorsScheduler.class);
 
@@ -92,26 +92,31 @@ public class ExportPriorsScheduler {
     @Inject
     private ExportManager exportManager;
 
-    public void onStore(@Observes StoreContext ctx) {
-        if (ctx.getException() != null)
+    @Override
+    public String getStoreEventObserverName() {
+        return "export-priors";
+    }
+
+    @Override
+    public void onStoreEvent(StoreEvent event) {
+        if (event.getException() != null)
             return;
 
         Calendar now = Calendar.getInstance();
-        StoreSession session = ctx.getStoreSession();
-        ArchiveAEExtension arcAE = session.getArchiveAEExtension();
+        ArchiveAEExtension arcAE = event.getArchiveAEExtension();
         ArchiveDeviceExtension arcdev = arcAE.getArchiveDeviceExtension();
         arcAE.prefetchRules()
-                .filter(((Predicate<ExportPriorsRule>) session::isNotProcessed)
-                        .and(ctx::isExportReoccurredInstances)
+                .filter(((Predicate<ExportPriorsRule>) event::isNotProcessed)
+                        .and(event::isExportReoccurredInstances)
                         .and(rule -> rule.match(
-                                session.getRemoteHostName(),
-                                session.getCallingAET(),
-                                session.getLocalHostName(),
-                                session.getCalledAET(),
-                                ctx.getAttributes(), now)))
+                                event.getRemoteHostName(),
+                                event.getCallingAET(),
+                                event.getLocalHostName(),
+                                event.getCalledAET(),
+                                event.getAttributes(), now)))
                 .forEach(rule -> {
-                    export(ctx, rule, arcdev, now);
-                    session.markAsProcessed(rule);
+                    export(event, rule, arcdev, now);
+                    event.markAsProcessed(rule);
                 });
     }
 
@@ -140,12 +145,12 @@ public class ExportPriorsScheduler {
                 .forEach(rule -> export(sock, hl7Fields, rule, arcdev, now));
     }
 
-    private void export(StoreContext ctx, ExportPriorsRule rule, ArchiveDeviceExtension arcdev, Calendar now) {
+    private void export(StoreEvent event, ExportPriorsRule rule, ArchiveDeviceExtension arcdev, Calendar now) {
         try {
-            LOG.info("{}: Apply {}", ctx.getStoreSession(), rule);
+            LOG.info("{}: Apply {}", event, rule);
             Date notExportedAfter = new Date(
                     now.getTimeInMillis() - rule.getSuppressDuplicateExportInterval().getSeconds() * 1000L);
-            Attributes attrs = ctx.getAttributes();
+            Attributes attrs = event.getAttributes();
             IDWithIssuer pid = IDWithIssuer.pidOf(attrs);
             String siuid = attrs.getString(Tag.StudyInstanceUID);
             String batchID = rule.getCommonName() + '[' + siuid + ']';
@@ -167,7 +172,7 @@ public class ExportPriorsScheduler {
                         });
             }
         } catch (Exception e) {
-            LOG.warn("{}: Failed to apply {}:\n", ctx.getStoreSession(), rule, e);
+            LOG.warn("{}: Failed to apply {}:\n", event, rule, e);
         }
     }
 
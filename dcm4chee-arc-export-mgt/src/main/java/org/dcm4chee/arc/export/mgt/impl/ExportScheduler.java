@@ -4,13 +4,13 @@ import org.dcm4chee.arc.Scheduler;
 import org.dcm4chee.arc.conf.*;
 import org.dcm4chee.arc.export.mgt.ExportManager;
 import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreEventObserver;
 import org.dcm4chee.arc.store.StoreSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ejb.EJBException;
 import javax.enterprise.context.ApplicationScoped;
-import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import java.util.Calendar;
 import java.util.Date;
@@ -22,7 +22,7 @@ import java.util.Map;
  * @since Oct 2015
  */
 @ApplicationScoped
-public class ExportScheduler extends Scheduler {
+public class ExportScheduler extends Scheduler implements StoreEventObserver {
 
     private static final Logger LOG = LoggerFactory.getLogger(ExportScheduler.class);
 
@@ -49,20 +49,47 @@ public class ExportScheduler extends Scheduler {
         ArchiveDeviceExtension arcDev = device.getDeviceExtension(ArchiveDeviceExtension.class);
         int fetchSize = arcDev.getExportTaskFetchSize();
         List<Long> exportTasksToSchedule;
+        int scheduled = 0;
         do {
             exportTasksToSchedule = ejb.findExportTasksToSchedule(fetchSize);
-            for (Long pk : exportTasksToSchedule) {
-                try {
-                    if (!ejb.scheduleExportTask(pk)) return;
-                } catch (Exception e) {
-                    LOG.warn("Failed to schedule ExportTask[pk={}}]\n:", pk, e);
-                }
-            }
+            int count = scheduleExportTasks(exportTasksToSchedule);
+            if (count > 0)
+                LOG.info("Scheduled {} Export Tasks", scheduled += count);
+            if (count < exportTasksToSchedule.size())
+                return;
         }
         while (getPollingInterval() != null && exportTasksToSchedule.size() == fetchSize);
     }
 
-    public void onStore(@Observes StoreContext ctx) {
+    private int scheduleExportTasks(List<Long> pks) {
+        if (pks.isEmpty())
+            return 0;
+
+        try {
+            return ejb.scheduleExportTasks(pks);
+        } catch (Exception e) {
+            LOG.info("Failed to schedule {} Export Tasks in one transaction - schedule them separately:\n",
+                    pks.size(), e);
+        }
+        int count = 0;
+        for (Long pk : pks) {
+            try {
+                if (!ejb.scheduleExportTask(pk)) break;
+            } catch (Exception e) {
+                LOG.warn("Failed to schedule ExportTask[pk={}}]\n:", pk, e);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public String getStoreEventObserverName() {
+        return "export";
+    }
+
+    @Override
+    public void onStore(StoreContext ctx) {
         if (ctx.getException() != null)
             return;
 
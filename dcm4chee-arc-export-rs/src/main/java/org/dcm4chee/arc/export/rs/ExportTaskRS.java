@@ -344,19 +344,30 @@ public class ExportTaskRS {
             do {
                 List<Tuple> exportTasks = mgr.exportTaskPksAndExporterIDs(
                     queueTaskQueryParam(status), exportTaskQueryParam(devName, updatedTime), rescheduleTasksFetchSize);
-                exportTasks.forEach(exportTask -> {
-                    long pk = (long) exportTask.get(0);
-                    try {
-                        mgr.rescheduleExportTask(pk,
-                                newExporter != null ? newExporter : exporter((String) exportTask.get(1)),
-                                httpServletRequestInfo,
-                                null,
-                                scheduledTime);
-                    } catch (Exception e) {
-                        LOG.warn("Failed rescheduling of task [pk={}]\n", pk, e);
-                    }
-                });
+                try {
+                    mgr.rescheduleExportTasks(
+                            exportTasks.stream().map(exportTask -> (Long) exportTask.get(0)).collect(Collectors.toList()),
+                            newExporter,
+                            httpServletRequestInfo,
+                            scheduledTime);
+                } catch (Exception e) {
+                    LOG.info("Failed to reschedule {} tasks in one transaction - reschedule them separately:\n",
+                            exportTasks.size(), e);
+                    exportTasks.forEach(exportTask -> {
+                        long pk = (long) exportTask.get(0);
+                        try {
+                            mgr.rescheduleExportTask(pk,
+                                    newExporter != null ? newExporter : exporter((String) exportTask.get(1)),
+                                    httpServletRequestInfo,
+                                    null,
+                                    scheduledTime);
+                        } catch (Exception e1) {
+                            LOG.warn("Failed rescheduling of task [pk={}]\n", pk, e1);
+                        }
+                    });
+                }
                 count = exportTasks.size();
+                LOG.debug("Rescheduled {} tasks on device {}", rescheduled + count, device.getDeviceName());
                 rescheduled += count;
             } while (count >= rescheduleTasksFetchSize);
             queueEvent.setCount(rescheduled);
@@ -43,7 +43,9 @@ package org.dcm4che.arc.export.storage;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
 import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.BinaryPrefix;
 import org.dcm4chee.arc.conf.ExporterDescriptor;
 import org.dcm4chee.arc.entity.Location;
 import org.dcm4chee.arc.entity.QueueMessage;
@@ -53,20 +55,18 @@ import org.dcm4chee.arc.qmgt.Outcome;
 import org.dcm4chee.arc.store.InstanceLocations;
 import org.dcm4chee.arc.retrieve.RetrieveContext;
 import org.dcm4chee.arc.retrieve.RetrieveService;
-import org.dcm4chee.arc.retrieve.LocationInputStream;
 import org.dcm4chee.arc.storage.Storage;
 import org.dcm4chee.arc.storage.StorageFactory;
 import org.dcm4chee.arc.storage.WriteContext;
 import org.dcm4chee.arc.store.StoreService;
 import org.dcm4chee.arc.store.StoreSession;
+import org.dcm4chee.arc.store.UpdateLocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 /**
@@ -80,6 +80,8 @@ public class StorageExporter extends AbstractExporter {
     private final RetrieveService retrieveService;
     private final StoreService storeService;
     private final StorageFactory storageFactory;
+    private final int maxParallel;
+    private final int maxInFlightBytes;
 
     public StorageExporter(ExporterDescriptor descriptor, RetrieveService retrieveService,
                            StoreService storeService, StorageFactory storageFactory) {
@@ -87,6 +89,9 @@ public class StorageExporter extends AbstractExporter {
         this.retrieveService = retrieveService;
         this.storeService = storeService;
         this.storageFactory = storageFactory;
+        this.maxParallel = Integer.parseInt(descriptor.getProperty("MaxParallel", "1"));
+        this.maxInFlightBytes = (int) Math.min(Integer.MAX_VALUE,
+                BinaryPrefix.parse(descriptor.getProperty("MaxInFlightBytes", "256MiB")));
     }
 
     @Override
@@ -110,9 +115,9 @@ public class StorageExporter extends AbstractExporter {
                 return new Outcome(QueueMessage.Status.WARNING, noMatches(exportContext));
 
             try {
-                Set<String> seriesIUIDs = new HashSet<>();
                 Storage storage = retrieveService.getStorage(storageID, retrieveContext);
                 retrieveContext.setDestinationStorage(storage.getStorageDescriptor());
+                Map<String, List<CopyTask>> tasksBySeries = new LinkedHashMap<>();
                 for (InstanceLocations instanceLocations : retrieveContext.getMatches()) {
                     Map<Boolean, List<Location>> locationsOnStorageByStatusOK =
                             instanceLocations.getLocations().stream()
@@ -122,32 +127,22 @@ public class StorageExporter extends AbstractExporter {
                         retrieveContext.setNumberOfMatches(retrieveContext.getNumberOfMatches()-1);
                         continue;
                     }
-
-                    WriteContext writeCtx = storage.createWriteContext();
-                    writeCtx.setAttributes(instanceLocations.getAttributes());
-                    writeCtx.setStudyInstanceUID(studyIUID);
-                    Location location = null;
-                    try {
-                        LOG.debug("Start copying {} to {}:\n", instanceLocations, storage.getStorageDescriptor());
-                        location = copyTo(retrieveContext, instanceLocations, storage, writeCtx);
-                        storeService.replaceLocation(storeSession, instanceLocations.getInstancePk(),
-                                location, locationsOnStorageByStatusOK.get(Boolean.FALSE));
-                        storage.commitStorage(writeCtx);
-                        retrieveContext.incrementCompleted();
-                        LOG.debug("Finished copying {} to {}:\n", instanceLocations, storage.getStorageDescriptor());
-                        seriesIUIDs.add(instanceLocations.getAttributes().getString(Tag.SeriesInstanceUID));
-                    } catch (Exception e) {
-                        LOG.warn("Failed to copy {} to {}:\n", instanceLocations, storage.getStorageDescriptor(), e);
-                        retrieveContext.incrementFailed();
-                        retrieveContext.addFailedSOPInstanceUID(instanceLocations.getSopInstanceUID());
-                        if (location != null)
-                            try {
-                                storage.revokeStorage(writeCtx);
-                            } catch (Exception e2) {
-                                LOG.warn("Failed to revoke storage", e2);
-                            }
+                    tasksBySeries.computeIfAbsent(
+                            instanceLocations.getAttributes().getString(Tag.SeriesInstanceUID),
+                            seriesIUID -> new ArrayList<>())
+                            .add(new CopyTask(instanceLocations, locationsOnStorageByStatusOK.get(Boolean.FALSE)));
+                }
+                Set<String> seriesIUIDs = new HashSet<>();
+                long startTime = System.nanoTime();
+                long copiedBytes = 0L;
+                for (Map.Entry<String, List<CopyTask>> entry : tasksBySeries.entrySet()) {
+                    List<CopyTask> copied = copy(retrieveContext, storage, studyIUID, entry.getValue());
+                    if (replaceLocations(retrieveContext, storeSession, storage, copied)) {
+                        seriesIUIDs.add(entry.getKey());
+                        copiedBytes += copied.stream().mapToLong(task -> task.location.getSize()).sum();
                     }
                 }
+                long elapsed = System.nanoTime() - startTime;
                 if (!seriesIUIDs.isEmpty()) {
                     storeService.addStorageID(studyIUID, storageID);
                     for (String seriesIUID : seriesIUIDs) {
@@ -157,28 +152,126 @@ public class StorageExporter extends AbstractExporter {
                 return new Outcome(retrieveContext.failed() > 0
                         ? QueueMessage.Status.FAILED
                         : QueueMessage.Status.COMPLETED,
-                        outcomeMessage(exportContext, retrieveContext));
+                        outcomeMessage(exportContext, retrieveContext, copiedBytes, elapsed));
             } finally {
                 retrieveContext.getRetrieveService().updateLocations(retrieveContext);
             }
         }
     }
 
-    private Location copyTo(RetrieveContext retrieveContext, InstanceLocations instanceLocations,
-                            Storage storage, WriteContext writeCtx) throws IOException {
-        try (LocationInputStream locationInputStream = retrieveService.openLocationInputStream(
-                retrieveContext, instanceLocations)) {
-            writeCtx.setContentLength(locationInputStream.location.getSize());
-            storage.copy(locationInputStream.stream, writeCtx);
-            return new Location.Builder()
-                    .storageID(storage.getStorageDescriptor().getStorageID())
-                    .storagePath(writeCtx.getStoragePath())
-                    .transferSyntaxUID(locationInputStream.location.getTransferSyntaxUID())
-                    .objectType(Location.ObjectType.DICOM_FILE)
-                    .size(locationInputStream.location.getSize())
-                    .digest(locationInputStream.location.getDigest())
-                    .build();
+    private List<CopyTask> copy(RetrieveContext retrieveContext, Storage storage, String studyIUID,
+            List<CopyTask> tasks) throws InterruptedException {
+        try {
+            if (maxParallel <= 1) {
+                for (CopyTask task : tasks) {
+                    copy(retrieveContext, storage, studyIUID, task);
+                }
+            } else {
+                copyParallel(retrieveContext, storage, studyIUID, tasks);
+            }
+        } finally {
+            tasks.forEach(task -> retrieveContext.getUpdateLocations().addAll(task.updateLocations));
         }
+        return tasks.stream().filter(task -> task.location != null).collect(Collectors.toList());
+    }
+
+    private void copyParallel(RetrieveContext retrieveContext, Storage storage, String studyIUID,
+            List<CopyTask> tasks) throws InterruptedException {
+        Device device = retrieveContext.getLocalApplicationEntity().getDevice();
+        Semaphore semaphore = new Semaphore(maxParallel);
+        Semaphore inFlightBytes = new Semaphore(maxInFlightBytes);
+        try {
+            for (CopyTask task : tasks) {
+                int permits = (int) Math.min(task.size(), maxInFlightBytes);
+                semaphore.acquire();
+                try {
+                    inFlightBytes.acquire(permits);
+                } catch (InterruptedException e) {
+                    semaphore.release();
+                    throw e;
+                }
+                Runnable copy = () -> {
+                    try {
+                        copy(retrieveContext, storage, studyIUID, task);
+                    } finally {
+                        inFlightBytes.release(permits);
+                        semaphore.release();
+                    }
+                };
+                try {
+                    device.execute(copy);
+                } catch (RejectedExecutionException e) {
+                    LOG.info("Failed to schedule copy of {} to {} - copy synchronously:\n",
+                            task.instanceLocations, storage.getStorageDescriptor(), e);
+                    copy.run();
+                }
+            }
+        } finally {
+            semaphore.acquireUninterruptibly(maxParallel);
+        }
+    }
+
+    private void copy(RetrieveContext retrieveContext, Storage storage, String studyIUID, CopyTask task) {
+        task.writeCtx = storage.createWriteContext();
+        task.writeCtx.setAttributes(task.instanceLocations.getAttributes());
+        task.writeCtx.setStudyInstanceUID(studyIUID);
+        try {
+            LOG.debug("Start copying {} to {}:\n", task.instanceLocations, storage.getStorageDescriptor());
+            task.location = retrieveService.copyTo(
+                    retrieveContext, task.instanceLocations, storage, task.writeCtx, task.updateLocations);
+        } catch (Exception e) {
+            LOG.warn("Failed to copy {} to {}:\n", task.instanceLocations, storage.getStorageDescriptor(), e);
+            onFailure(retrieveContext, storage, task);
+        }
+    }
+
+    private boolean replaceLocations(RetrieveContext retrieveContext, StoreSession storeSession, Storage storage,
+            List<CopyTask> copied) {
+        if (copied.isEmpty())
+            return false;
+
+        Map<Long, Location> newLocations = new HashMap<>();
+        Map<Long, List<Location>> replaceLocations = new HashMap<>();
+        for (CopyTask task : copied) {
+            Long instancePk = task.instanceLocations.getInstancePk();
+            newLocations.put(instancePk, task.location);
+            replaceLocations.put(instancePk, task.replaceLocations);
+        }
+        try {
+            storeService.replaceLocations(storeSession, newLocations, replaceLocations);
+        } catch (Exception e) {
+            LOG.warn("Failed to update locations of {} instances copied to {}:\n",
+                    copied.size(), storage.getStorageDescriptor(), e);
+            for (CopyTask task : copied) {
+                onFailure(retrieveContext, storage, task);
+            }
+            return false;
+        }
+        boolean completed = false;
+        for (CopyTask task : copied) {
+            try {
+                storage.commitStorage(task.writeCtx);
+                retrieveContext.incrementCompleted();
+                completed = true;
+                LOG.debug("Finished copying {} to {}:\n", task.instanceLocations, storage.getStorageDescriptor());
+            } catch (Exception e) {
+                LOG.warn("Failed to commit copy of {} to {}:\n",
+                        task.instanceLocations, storage.getStorageDescriptor(), e);
+                onFailure(retrieveContext, storage, task);
+            }
+        }
+        return completed;
+    }
+
+    private static void onFailure(RetrieveContext retrieveContext, Storage storage, CopyTask task) {
+        retrieveContext.incrementFailed();
+        retrieveContext.addFailedSOPInstanceUID(task.instanceLocations.getSopInstanceUID());
+        if (task.location != null)
+            try {
+                storage.revokeStorage(task.writeCtx);
+            } catch (Exception e2) {
+                LOG.warn("Failed to revoke storage", e2);
+            }
     }
 
     private String noMatches(ExportContext exportContext) {
@@ -188,7 +281,8 @@ public class StorageExporter extends AbstractExporter {
         return sb.toString();
     }
 
-    private String outcomeMessage(ExportContext exportContext, RetrieveContext retrieveContext) {
+    private String outcomeMessage(ExportContext exportContext, RetrieveContext retrieveContext,
+            long copiedBytes, long elapsed) {
         int completed = retrieveContext.completed();
         int failed = retrieveContext.failed();
         StringBuilder sb = new StringBuilder(256);
@@ -198,6 +292,8 @@ public class StorageExporter extends AbstractExporter {
         sb.append(" - completed:").append(completed);
         if (failed > 0)
             sb.append(", ").append("failed:").append(failed);
+        if (copiedBytes > 0)
+            sb.append(String.format(" - %.3f MB/s", copiedBytes * 1000.0 / Math.max(elapsed, 1L)));
         return sb.toString();
     }
 
@@ -212,4 +308,21 @@ public class StorageExporter extends AbstractExporter {
         return sb.append("Study[uid=").append(studyInstanceUID).append("]");
     }
 
+    private static class CopyTask {
+        final InstanceLocations instanceLocations;
+        final List<Location> replaceLocations;
+        final List<UpdateLocation> updateLocations = new ArrayList<>(1);
+        WriteContext writeCtx;
+        Location location;
+
+        CopyTask(InstanceLocations instanceLocations, List<Location> replaceLocations) {
+            this.instanceLocations = instanceLocations;
+            this.replaceLocations = replaceLocations;
+        }
+
+        long size() {
+            return instanceLocations.getLocations().stream().mapToLong(Location::getSize).max().orElse(0L);
+        }
+    }
+
 }
@@ -0,0 +1,409 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che.arc.export.storage;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.ExporterDescriptor;
+import org.dcm4chee.arc.conf.StorageDescriptor;
+import org.dcm4chee.arc.entity.Location;
+import org.dcm4chee.arc.entity.QueueMessage;
+import org.dcm4chee.arc.exporter.ExportContext;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.dcm4chee.arc.qmgt.Outcome;
+import org.dcm4chee.arc.retrieve.RetrieveContext;
+import org.dcm4chee.arc.retrieve.RetrieveService;
+import org.dcm4chee.arc.retrieve.impl.InstanceLocationsImpl;
+import org.dcm4chee.arc.storage.ReadContext;
+import org.dcm4chee.arc.storage.Storage;
+import org.dcm4chee.arc.storage.WriteContext;
+import org.dcm4chee.arc.storage.filesystem.FileSystemStorage;
+import org.dcm4chee.arc.store.InstanceLocations;
+import org.dcm4chee.arc.store.StoreService;
+import org.dcm4chee.arc.store.StoreSession;
+import org.dcm4chee.arc.store.UpdateLocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class StorageExporterTest {
+
+    private static final String AET = "DCM4CHEE";
+    private static final String STUDY_IUID = "1.2.3";
+    private static final String SOURCE_STORAGE_ID = "fs1";
+    private static final String TARGET_STORAGE_ID = "fs2";
+    private static final int SERIES = 2;
+    private static final int INSTANCES_PER_SERIES = 16;
+    private static final int INSTANCE_SIZE = 64 * 1024;
+    private static final long COPY_LATENCY_MS = 20;
+
+    private Path tmpDir;
+    private ExecutorService executor;
+    private Device device;
+    private ApplicationEntity ae;
+    private final Map<String, Storage> storages = new HashMap<>();
+    private final List<InstanceLocations> matches = new ArrayList<>();
+    private final Map<Long, byte[]> contents = new HashMap<>();
+    private final Map<Long, Location> newLocations = new ConcurrentHashMap<>();
+    private final Set<String> metadataUpdates = ConcurrentHashMap.newKeySet();
+    private final List<UpdateLocation> updatedLocations = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger concurrentCopies = new AtomicInteger();
+    private final AtomicInteger maxConcurrentCopies = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("storage-exporter-test");
+        executor = Executors.newCachedThreadPool();
+        device = new Device("dcm4chee-arc");
+        device.addDeviceExtension(new ArchiveDeviceExtension());
+        device.setExecutor(executor);
+        ae = new ApplicationEntity(AET);
+        ae.addAEExtension(new ArchiveAEExtension());
+        device.addApplicationEntity(ae);
+        Storage source = openStorage(SOURCE_STORAGE_ID);
+        openStorage(TARGET_STORAGE_ID);
+        Random random = new Random(0);
+        long instancePk = 0;
+        for (int series = 1; series <= SERIES; series++) {
+            for (int i = 1; i <= INSTANCES_PER_SERIES; i++) {
+                Attributes attrs = new Attributes();
+                attrs.setString(Tag.StudyInstanceUID, VR.UI, STUDY_IUID);
+                attrs.setString(Tag.SeriesInstanceUID, VR.UI, STUDY_IUID + '.' + series);
+                attrs.setString(Tag.SOPInstanceUID, VR.UI, STUDY_IUID + '.' + series + '.' + i);
+                attrs.setString(Tag.SOPClassUID, VR.UI, UID.SecondaryCaptureImageStorage);
+                byte[] content = new byte[INSTANCE_SIZE];
+                random.nextBytes(content);
+                InstanceLocationsImpl inst = new InstanceLocationsImpl(attrs);
+                inst.setInstancePk(++instancePk);
+                if (instancePk == 1)
+                    inst.getLocations().add(location("missing/object", INSTANCE_SIZE));
+                inst.getLocations().add(location(store(source, attrs, content), INSTANCE_SIZE));
+                matches.add(inst);
+                contents.put(instancePk, content);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        for (Storage storage : storages.values())
+            storage.close();
+        try (Stream<Path> paths = Files.walk(tmpDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void copySerial() throws Exception {
+        assertCopied(export(1));
+        assertEquals(1, maxConcurrentCopies.get());
+    }
+
+    @Test
+    public void copyParallel() throws Exception {
+        assertCopied(export(4));
+        assertEquals(4, maxConcurrentCopies.get());
+    }
+
+    @Test
+    public void copyParallelIfExecutorRejects() throws Exception {
+        AtomicInteger scheduled = new AtomicInteger();
+        device.setExecutor(task -> {
+            if (scheduled.incrementAndGet() % 2 == 0)
+                throw new RejectedExecutionException();
+            executor.execute(task);
+        });
+        assertCopied(export(4));
+    }
+
+    @Test
+    public void parallelCopySpeedup() throws Exception {
+        long serial = timed(1);
+        newLocations.clear();
+        metadataUpdates.clear();
+        updatedLocations.clear();
+        long parallel = timed(4);
+        assertTrue("serial: " + serial + " ms, parallel: " + parallel + " ms", parallel * 2 < serial);
+    }
+
+    private long timed(int maxParallel) throws Exception {
+        long start = System.nanoTime();
+        assertCopied(export(maxParallel));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private Outcome export(int maxParallel) throws Exception {
+        ExporterDescriptor descriptor = new ExporterDescriptor("copy");
+        descriptor.setExportURI(URI.create("storage:" + TARGET_STORAGE_ID));
+        descriptor.setProperty("MaxParallel", Integer.toString(maxParallel));
+        StorageExporter exporter = new StorageExporter(descriptor, retrieveService(), storeService(), null);
+        ExportContext exportContext = exporter.createExportContext();
+        exportContext.setAETitle(AET);
+        exportContext.setStudyInstanceUID(STUDY_IUID);
+        return exporter.export(exportContext);
+    }
+
+    private void assertCopied(Outcome outcome) throws IOException {
+        int numInstances = SERIES * INSTANCES_PER_SERIES;
+        assertEquals(outcome.getDescription(), QueueMessage.Status.COMPLETED, outcome.getStatus());
+        assertTrue(outcome.getDescription(), outcome.getDescription().contains("completed:" + numInstances));
+        assertTrue(outcome.getDescription(), outcome.getDescription().contains("MB/s"));
+        assertEquals(numInstances, newLocations.size());
+        for (Map.Entry<Long, Location> entry : newLocations.entrySet()) {
+            Location location = entry.getValue();
+            assertEquals(TARGET_STORAGE_ID, location.getStorageID());
+            assertArrayEquals(contents.get(entry.getKey()),
+                    Files.readAllBytes(tmpDir.resolve(TARGET_STORAGE_ID).resolve(location.getStoragePath())));
+        }
+        assertEquals(SERIES, metadataUpdates.size());
+        assertEquals(1, updatedLocations.size());
+        assertEquals("missing/object", updatedLocations.get(0).location.getStoragePath());
+    }
+
+    private Storage openStorage(String storageID) {
+        StorageDescriptor descriptor = new StorageDescriptor(storageID);
+        descriptor.setStorageURIStr(tmpDir.resolve(storageID).toUri().toString());
+        Storage storage = new FileSystemStorage(descriptor, stub(MetricsService.class, (proxy, method, args) -> null));
+        storages.put(storageID, storage);
+        return storage;
+    }
+
+    private static String store(Storage storage, Attributes attrs, byte[] content) throws IOException {
+        WriteContext writeCtx = storage.createWriteContext();
+        writeCtx.setAttributes(attrs);
+        writeCtx.setStudyInstanceUID(STUDY_IUID);
+        try (OutputStream out = storage.openOutputStream(writeCtx)) {
+            out.write(content);
+        }
+        storage.commitStorage(writeCtx);
+        return writeCtx.getStoragePath();
+    }
+
+    private static Location location(String storagePath, long size) {
+        return new Location.Builder()
+                .storageID(SOURCE_STORAGE_ID)
+                .storagePath(storagePath)
+                .objectType(Location.ObjectType.DICOM_FILE)
+                .size(size)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RetrieveService retrieveService() {
+        return stub(RetrieveService.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "newRetrieveContext":
+                    return stub(RetrieveContext.class, new RetrieveContextStub((RetrieveService) proxy));
+                case "calculateMatches":
+                    return true;
+                case "getStorage":
+                    return ((RetrieveContext) args[1]).computeStorageIfAbsent((String) args[0], storages::get);
+                case "copyTo":
+                    return copyTo((InstanceLocations) args[1], (Storage) args[2], (WriteContext) args[3],
+                            (List<UpdateLocation>) args[4]);
+                case "updateLocations":
+                    updatedLocations.addAll(((RetrieveContext) args[0]).getUpdateLocations());
+                    return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private Location copyTo(InstanceLocations inst, Storage storage, WriteContext writeCtx,
+            List<UpdateLocation> updateLocations) throws IOException {
+        maxConcurrentCopies.accumulateAndGet(concurrentCopies.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(COPY_LATENCY_MS);
+            IOException ex = null;
+            for (Location location : inst.getLocations()) {
+                Storage source = storages.get(location.getStorageID());
+                ReadContext readCtx = source.createReadContext();
+                readCtx.setStoragePath(location.getStoragePath());
+                writeCtx.setContentLength(location.getSize());
+                try {
+                    if (storage.canCopyFrom(source)) {
+                        storage.copyFrom(source, readCtx, writeCtx);
+                    } else {
+                        try (InputStream in = source.openInputStream(readCtx)) {
+                            storage.copy(in, writeCtx);
+                        }
+                    }
+                    return new Location.Builder()
+                            .storageID(storage.getStorageDescriptor().getStorageID())
+                            .storagePath(writeCtx.getStoragePath())
+                            .objectType(Location.ObjectType.DICOM_FILE)
+                            .size(location.getSize())
+                            .build();
+                } catch (IOException e) {
+                    ex = e;
+                    updateLocations.add(new UpdateLocation(inst, location, Location.Status.MISSING_OBJECT, null));
+                }
+            }
+            throw ex;
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } finally {
+            concurrentCopies.decrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private StoreService storeService() {
+        StoreSession storeSession = stub(StoreSession.class, (proxy, method, args) ->
+                method.getName().equals("withObjectStorageID") ? proxy : null);
+        return stub(StoreService.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "newStoreSession":
+                    return storeSession;
+                case "restoreInstances":
+                case "addStorageID":
+                    return null;
+                case "replaceLocations":
+                    Map<Long, Location> locations = (Map<Long, Location>) args[1];
+                    for (Map.Entry<Long, Location> entry : locations.entrySet())
+                        assertNull("replaced twice", newLocations.put(entry.getKey(), entry.getValue()));
+                    return null;
+                case "scheduleMetadataUpdate":
+                    metadataUpdates.add((String) args[1]);
+                    return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private class RetrieveContextStub implements InvocationHandler {
+        final RetrieveService retrieveService;
+        final Map<String, Storage> storageMap = new ConcurrentHashMap<>();
+        final List<UpdateLocation> updateLocations = new ArrayList<>();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        volatile int numberOfMatches = matches.size();
+        volatile StorageDescriptor destinationStorage;
+
+        RetrieveContextStub(RetrieveService retrieveService) {
+            this.retrieveService = retrieveService;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getLocalApplicationEntity":
+                    return ae;
+                case "getRetrieveService":
+                    return retrieveService;
+                case "getMatches":
+                    return matches;
+                case "getNumberOfMatches":
+                    return numberOfMatches;
+                case "setNumberOfMatches":
+                    numberOfMatches = (int) args[0];
+                    return null;
+                case "getDestinationStorage":
+                    return destinationStorage;
+                case "setDestinationStorage":
+                    destinationStorage = (StorageDescriptor) args[0];
+                    return null;
+                case "computeStorageIfAbsent":
+                    return storageMap.computeIfAbsent((String) args[0], (Function<String, Storage>) args[1]);
+                case "getUpdateLocations":
+                    return updateLocations;
+                case "completed":
+                    return completed.get();
+                case "incrementCompleted":
+                    completed.incrementAndGet();
+                    return null;
+                case "failed":
+                    return failed.get();
+                case "incrementFailed":
+                    failed.incrementAndGet();
+                    return null;
+                case "setHttpServletRequestInfo":
+                case "addFailedSOPInstanceUID":
+                case "close":
+                    return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, (proxy, method, args) -> {
+            Object value = handler.invoke(proxy, method, args);
+            return value == null && method.getReturnType() == boolean.class ? Boolean.FALSE : value;
+        });
+    }
+}
@@ -45,8 +45,8 @@ import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.VR;
 import org.dcm4che3.net.Device;
 import org.dcm4che3.util.SafeClose;
-import org.dcm4che3.util.StreamUtils;
 import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.Duration;
 import org.dcm4chee.arc.conf.ExporterDescriptor;
 import org.dcm4chee.arc.conf.StorageDescriptor;
 import org.dcm4chee.arc.entity.QueueMessage;
@@ -67,6 +67,10 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -79,12 +83,23 @@ public class WadoExporter extends AbstractExporter {
     private static final int COPY_BUFFER_SIZE = 8192;
     private final QueryService queryService;
     private final StorageFactory storageFactory;
+    private final Device device;
+    private final int maxParallel;
+    private final int maxRetries;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
     private final EnumMap<Entity,List<WadoRequest>> wadoRequests = new EnumMap<>(Entity.class);
 
     public WadoExporter(ExporterDescriptor descriptor, QueryService queryService, StorageFactory storageFactory, Device device) {
         super(descriptor);
         this.queryService = queryService;
         this.storageFactory = storageFactory;
+        this.device = device;
+        this.maxParallel = Integer.parseInt(descriptor.getProperty("MaxParallel", "1"));
+        this.maxRetries = Integer.parseInt(descriptor.getProperty("MaxRetries", "0"));
+        this.retryDelayMillis = toMillis(Duration.valueOf(descriptor.getProperty("RetryDelay", "PT1S")));
+        this.maxRetryDelayMillis = Math.max(retryDelayMillis,
+                toMillis(Duration.valueOf(descriptor.getProperty("MaxRetryDelay", "PT1M"))));
         EnumMap<HeaderField, String> headerFields0 = getHeaderFields(0, new EnumMap<>(HeaderField.class));
         String storageID = descriptor.getProperty("StorageID", null);
         addWadoRequest(descriptor.getExportURI().getSchemeSpecificPart(), headerFields0,
@@ -97,6 +112,10 @@ public class WadoExporter extends AbstractExporter {
         }
     }
 
+    private static long toMillis(Duration duration) {
+        return Math.max(1L, duration.getSeconds() * 1000L + duration.getNano() / 1000000);
+    }
+
     private EnumMap<HeaderField, String> getHeaderFields(int i, EnumMap<HeaderField, String> headerFields) {
         for (HeaderField headerField : HeaderField.values()) {
             String name = headerField.toString();
@@ -131,24 +150,32 @@ public class WadoExporter extends AbstractExporter {
 
     @Override
     public Outcome export(ExportContext exportContext) throws Exception {
-        byte[] buffer = new byte[COPY_BUFFER_SIZE];
-        int count = 0;
-        int failed = 0;
-        Exception ex = null;
-        HashMap<String, Storage> storageMap = new HashMap<>();
+        Counts counts = new Counts();
+        Map<String, Storage> storageMap = new ConcurrentHashMap<>();
         try {
-            for (Map.Entry<Entity, List<WadoRequest>> entry : wadoRequests.entrySet()) {
-                for (Object[] params : entry.getKey().queryParams(exportContext, queryService)) {
-                    for (WadoRequest wadoRequest : entry.getValue()) {
-                        try {
-                            if (invoke(wadoRequest, params, buffer, storageMap))
-                                count++;
-                        } catch (Exception e) {
-                            failed++;
-                            ex = e;
+            Semaphore semaphore = maxParallel > 1 ? new Semaphore(maxParallel) : null;
+            try {
+                for (Map.Entry<Entity, List<WadoRequest>> entry : wadoRequests.entrySet()) {
+                    for (Object[] params : entry.getKey().queryParams(exportContext, queryService)) {
+                        for (WadoRequest wadoRequest : entry.getValue()) {
+                            if (semaphore == null) {
+                                invoke(wadoRequest, params, storageMap, counts);
+                            } else {
+                                semaphore.acquire();
+                                device.execute(() -> {
+                                    try {
+                                        invoke(wadoRequest, params, storageMap, counts);
+                                    } finally {
+                                        semaphore.release();
+                                    }
+                                });
+                            }
                         }
                     }
                 }
+            } finally {
+                if (semaphore != null)
+                    semaphore.acquireUninterruptibly(maxParallel);
             }
         } finally {
             for (Storage storage : storageMap.values())
@@ -156,41 +183,124 @@ public class WadoExporter extends AbstractExporter {
         }
 
         String exporterID = exportContext.getExporter().getExporterDescriptor().getExporterID();
+        int count = counts.completed.get();
+        int failed = counts.failed.get();
+        long failedBytes = counts.failedBytes.get();
+        String discarded = failedBytes > 0 ? ", discarded " + failedBytes + " bytes of failed transfers" : "";
         if (failed == 0) {
             return new Outcome(QueueMessage.Status.COMPLETED,
-                    "Fetched " + count + " objects by WADO Exporter " + exporterID);
+                    "Fetched " + count + " objects (" + counts.bytes.get() + " bytes) by WADO Exporter " + exporterID
+                            + discarded);
         }
+        Exception ex = counts.exception;
         if (count > 0) {
             return new Outcome(QueueMessage.Status.WARNING,
-                    "Fetched " + count + " objects by WADO Exporter " + exporterID
-                            + ", failed: " + failed + " - " + ex.getMessage());
+                    "Fetched " + count + " objects (" + counts.bytes.get() + " bytes) by WADO Exporter " + exporterID
+                            + ", failed: " + failed + discarded + " - " + ex.getMessage());
         }
+        if (failedBytes > 0)
+            LOG.warn("WADO Exporter {} discarded {} bytes of failed transfers", exporterID, failedBytes);
         throw ex;
     }
 
-    private boolean invoke(WadoRequest request, Object[] params, byte[] buffer, Map<String, Storage> storageMap)
+    private void invoke(WadoRequest request, Object[] params, Map<String, Storage> storageMap, Counts counts) {
+        long retryDelay = retryDelayMillis;
+        for (int retry = 0;; retry++) {
+            try {
+                long bytes = fetch(request, params, storageMap, counts);
+                if (bytes >= 0) {
+                    counts.completed.getAndIncrement();
+                    counts.bytes.getAndAdd(bytes);
+                }
+                return;
+            } catch (Exception e) {
+                if (retry >= maxRetries || !isRetryable(e)) {
+                    counts.failed.getAndIncrement();
+                    counts.exception = e;
+                    return;
+                }
+                LOG.info("Failed to fetch {} - retry in {} ms:\n", request.format.format(params), retryDelay, e);
+            }
+            try {
+                Thread.sleep(retryDelay);
+            } catch (InterruptedException e) {
+                counts.failed.getAndIncrement();
+                counts.exception = e;
+                Thread.currentThread().interrupt();
+                return;
+            }
+            retryDelay = Math.min(retryDelay << 1, maxRetryDelayMillis);
+        }
+    }
+
+    private static boolean isRetryable(Exception e) {
+        return !(e instanceof HttpStatusException) || ((HttpStatusException) e).responseCode >= 500;
+    }
+
+    private long fetch(WadoRequest request, Object[] params, Map<String, Storage> storageMap, Counts counts)
             throws Exception {
         HttpURLConnection httpConn = request.openConnection(params);
         int responseCode = httpConn.getResponseCode();
-        if (responseCode == HttpURLConnection.HTTP_NOT_FOUND)
-            return false;
-        try (InputStream in = httpConn.getInputStream();
-             OutputStream out = getOutputStream(request.storageDescriptor, params, storageMap)) {
-            StreamUtils.copy(in, out, buffer);
+        if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            drainErrorStream(httpConn);
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND)
+                return -1L;
+            throw new HttpStatusException(responseCode, httpConn.getResponseMessage());
+        }
+        Storage storage = getStorage(request.storageDescriptor, storageMap);
+        WriteContext writeCtx = storage != null ? createWriteContext(storage, params) : null;
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long bytes = 0L;
+        try {
+            try (InputStream in = httpConn.getInputStream();
+                 OutputStream out = storage != null ? storage.openOutputStream(writeCtx) : null) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    if (out != null)
+                        out.write(buffer, 0, read);
+                    bytes += read;
+                }
+                long contentLength = httpConn.getContentLengthLong();
+                if (contentLength >= 0 && bytes != contentLength)
+                    throw new IOException("Received " + bytes + " of " + contentLength + " bytes");
+            }
+            if (storage != null)
+                storage.commitStorage(writeCtx);
+        } catch (Exception e) {
+            counts.failedBytes.getAndAdd(bytes);
+            if (writeCtx != null && writeCtx.getStoragePath() != null)
+                revokeStorage(storage, writeCtx);
+            throw e;
         }
-        return true;
+        return bytes;
     }
 
-    private OutputStream getOutputStream(
-            StorageDescriptor storageDescriptor, Object[] params, Map<String, Storage> storageMap) throws IOException {
-        if (storageDescriptor == null)
-            return null;
+    private static void revokeStorage(Storage storage, WriteContext writeCtx) {
+        try {
+            storage.revokeStorage(writeCtx);
+        } catch (Exception e) {
+            LOG.warn("Failed to revoke storage", e);
+        }
+    }
 
-        Storage storage = storageMap.get(storageDescriptor.getStorageID());
-        if (storage == null) {
-            storage = storageFactory.getStorage(storageDescriptor);
-            storageMap.put(storageDescriptor.getStorageID(), storage);
+    private static void drainErrorStream(HttpURLConnection httpConn) {
+        try (InputStream err = httpConn.getErrorStream()) {
+            if (err != null) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                while (err.read(buffer) > 0);
+            }
+        } catch (IOException ignore) {
         }
+    }
+
+    private Storage getStorage(StorageDescriptor storageDescriptor, Map<String, Storage> storageMap) {
+        return storageDescriptor != null
+                ? storageMap.computeIfAbsent(storageDescriptor.getStorageID(),
+                    storageID -> storageFactory.getStorage(storageDescriptor))
+                : null;
+    }
+
+    private static WriteContext createWriteContext(Storage storage, Object[] params) {
         WriteContext ctx = storage.createWriteContext();
         Attributes attrs = new Attributes(params.length);
         switch (params.length) {
@@ -204,7 +314,7 @@ public class WadoExporter extends AbstractExporter {
                 attrs.setString(Tag.StudyInstanceUID, VR.UI, (String) params[0]);
         }
         ctx.setAttributes(attrs);
-        return storage.openOutputStream(ctx);
+        return ctx;
     }
 
     private enum Entity {
@@ -277,6 +387,23 @@ public class WadoExporter extends AbstractExporter {
         }
     }
 
+    private static class Counts {
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicLong failedBytes = new AtomicLong();
+        volatile Exception exception;
+    }
+
+    private static class HttpStatusException extends IOException {
+        final int responseCode;
+
+        HttpStatusException(int responseCode, String responseMessage) {
+            super("HTTP " + responseCode + " " + responseMessage);
+            this.responseCode = responseCode;
+        }
+    }
+
     private static class WadoRequest {
         final MessageFormat format;
         final EnumMap<HeaderField,String> headerFields;
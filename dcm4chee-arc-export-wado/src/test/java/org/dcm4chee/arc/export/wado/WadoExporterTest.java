@@ -0,0 +1,232 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.export.wado;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.ExporterDescriptor;
+import org.dcm4chee.arc.conf.StorageDescriptor;
+import org.dcm4chee.arc.entity.QueueMessage;
+import org.dcm4chee.arc.exporter.ExportContext;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.dcm4chee.arc.qmgt.Outcome;
+import org.dcm4chee.arc.query.QueryService;
+import org.dcm4chee.arc.storage.Storage;
+import org.dcm4chee.arc.storage.StorageFactory;
+import org.dcm4chee.arc.storage.filesystem.FileSystemStorage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class WadoExporterTest {
+
+    private static final int SIZE = 64 * 1024;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final byte[] content = new byte[SIZE];
+    private volatile Response response;
+    private HttpServer server;
+    private Path storageDir;
+
+    private interface Response {
+        void send(HttpExchange exchange, int request) throws IOException;
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        new Random(0).nextBytes(content);
+        storageDir = Files.createTempDirectory("wado-exporter-test");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/wado", exchange -> {
+            try {
+                exchange.getResponseHeaders().set("Connection", "close");
+                response.send(exchange, requests.incrementAndGet());
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.stop(0);
+        try (Stream<Path> paths = Files.walk(storageDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void retryRevokesPartialWrite() throws Exception {
+        response = (exchange, request) -> {
+            if (request == 1)
+                sendTruncated(exchange);
+            else
+                sendContent(exchange);
+        };
+        Outcome outcome = export(createExporter("2", "PT0.01S", null));
+        assertEquals(QueueMessage.Status.COMPLETED, outcome.getStatus());
+        assertTrue(outcome.getDescription(),
+                outcome.getDescription().contains("discarded " + SIZE / 2 + " bytes"));
+        assertEquals(2, requests.get());
+        List<Path> files = storedFiles();
+        assertEquals(1, files.size());
+        assertArrayEquals(content, Files.readAllBytes(files.get(0)));
+    }
+
+    @Test
+    public void failedRetriesLeaveNoPartialWrite() throws Exception {
+        response = (exchange, request) -> sendTruncated(exchange);
+        try {
+            export(createExporter("1", "PT0.01S", null));
+            fail("IOException expected");
+        } catch (IOException expected) {
+        }
+        assertEquals(2, requests.get());
+        assertTrue(storedFiles().isEmpty());
+    }
+
+    @Test
+    public void retryDelayIsCappedAtMaxRetryDelay() throws Exception {
+        response = (exchange, request) -> exchange.sendResponseHeaders(503, -1);
+        long start = System.nanoTime();
+        try {
+            export(createExporter("4", "PT0.1S", "PT0.2S"));
+            fail("IOException expected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("503"));
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        assertEquals(5, requests.get());
+        // 100 + 200 + 200 + 200 ms, instead of 100 + 200 + 400 + 800 ms without cap
+        assertTrue("elapsed " + elapsedMillis + " ms", elapsedMillis >= 700 && elapsedMillis < 1500);
+    }
+
+    @Test
+    public void clientErrorIsNotRetried() throws Exception {
+        response = (exchange, request) -> exchange.sendResponseHeaders(400, -1);
+        try {
+            export(createExporter("4", "PT0.01S", null));
+            fail("IOException expected");
+        } catch (IOException expected) {
+        }
+        assertEquals(1, requests.get());
+    }
+
+    private void sendContent(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(200, SIZE);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+    }
+
+    private void sendTruncated(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(200, SIZE);
+        OutputStream out = exchange.getResponseBody();
+        out.write(content, 0, SIZE / 2);
+        out.flush();
+    }
+
+    private List<Path> storedFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(storageDir)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private static Outcome export(WadoExporter exporter) throws Exception {
+        ExportContext exportContext = exporter.createExportContext();
+        exportContext.setStudyInstanceUID("1.2.3");
+        exportContext.setSeriesInstanceUID("1.2.3.4");
+        return exporter.export(exportContext);
+    }
+
+    private WadoExporter createExporter(String maxRetries, String retryDelay, String maxRetryDelay) {
+        StorageDescriptor storageDescriptor = new StorageDescriptor("wado");
+        storageDescriptor.setStorageURIStr(storageDir.toUri().toString());
+        storageDescriptor.setProperty("pathFormat", "{0020000D}/{0020000E}");
+        ArchiveDeviceExtension arcDev = new ArchiveDeviceExtension();
+        arcDev.addStorageDescriptor(storageDescriptor);
+        Device device = new Device("test");
+        device.addDeviceExtension(arcDev);
+        ExporterDescriptor descriptor = new ExporterDescriptor("wado", URI.create("wado:http://localhost:"
+                + server.getAddress().getPort() + "/wado?requestType=WADO&studyUID=[0]&seriesUID=[1]"));
+        descriptor.setProperty("StorageID", "wado");
+        descriptor.setProperty("MaxRetries", maxRetries);
+        descriptor.setProperty("RetryDelay", retryDelay);
+        if (maxRetryDelay != null)
+            descriptor.setProperty("MaxRetryDelay", maxRetryDelay);
+        return new WadoExporter(descriptor, stub(QueryService.class), new StorageFactory() {
+            @Override
+            public Storage getStorage(StorageDescriptor descriptor) {
+                return new FileSystemStorage(descriptor, stub(MetricsService.class));
+            }
+        }, device);
+    }
+
+    private static <T> T stub(Class<T> clazz) {
+        return clazz.cast(Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[]{ clazz },
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? Boolean.FALSE : null));
+    }
+}
@@ -52,6 +52,7 @@ import org.dcm4chee.arc.entity.MPPS;
 import org.dcm4chee.arc.mpps.MPPSContext;
 import org.dcm4chee.arc.query.QueryService;
 import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreEventObserver;
 import org.dcm4chee.arc.store.StoreSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,7 +68,7 @@ import java.util.List;
  * @since Jan 2017
  */
 @ApplicationScoped
-public class HL7PSUScheduler extends Scheduler {
+public class HL7PSUScheduler extends Scheduler implements StoreEventObserver {
     private static final Logger LOG = LoggerFactory.getLogger(HL7PSUScheduler.class);
 
     @Inject
@@ -150,7 +151,13 @@ public class HL7PSUScheduler extends Scheduler {
         } while (hl7psuTasks.size() == fetchSize);
     }
 
-    public void onStore(@Observes StoreContext ctx) {
+    @Override
+    public String getStoreEventObserverName() {
+        return "hl7-psu";
+    }
+
+    @Override
+    public void onStore(StoreContext ctx) {
         if (ctx.getLocations().isEmpty() || ctx.getRejectionNote() != null)
             return;
 
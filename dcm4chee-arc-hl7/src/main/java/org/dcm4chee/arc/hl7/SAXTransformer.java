@@ -48,18 +48,12 @@ import org.dcm4che3.hl7.HL7Parser;
 import org.dcm4che3.io.ContentHandlerAdapter;
 import org.dcm4che3.io.SAXTransformer.SetupTransformer;
 import org.dcm4che3.io.SAXWriter;
-import org.dcm4che3.io.TemplatesCache;
 import org.dcm4che3.net.hl7.UnparsedHL7Message;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4chee.arc.conf.ArchiveHL7ApplicationExtension;
+import org.dcm4chee.arc.conf.TransformerPool;
 import org.xml.sax.SAXException;
 
-import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.sax.SAXResult;
-import javax.xml.transform.sax.SAXTransformerFactory;
-import javax.xml.transform.sax.TransformerHandler;
 import java.io.*;
 
 /**
@@ -70,12 +64,9 @@ class SAXTransformer {
 
     private SAXTransformer() {}
 
-    private static SAXTransformerFactory factory = (SAXTransformerFactory) TransformerFactory.newInstance();
-
     public static Attributes transform(
             UnparsedHL7Message msg, ArchiveHL7ApplicationExtension arcHL7App, String uri, SetupTransformer setup)
             throws TransformerConfigurationException, IOException, SAXException {
-        Templates tpl = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(uri));
         Attributes attrs = new Attributes();
         String hl7charset = msg.msh().getField(17, arcHL7App.getHL7Application().getHL7DefaultCharacterSet());
         String dicomCharset = arcHL7App.hl7DicomCharacterSet() != null
@@ -83,31 +74,27 @@ class SAXTransformer {
                 : HL7Charset.toDicomCharacterSetCode(hl7charset);
         if (dicomCharset != null)
             attrs.setString(Tag.SpecificCharacterSet, VR.CS, dicomCharset);
-        TransformerHandler th = factory.newTransformerHandler(tpl);
-        th.setResult(new SAXResult(new ContentHandlerAdapter(attrs)));
-        if (setup != null)
-            setup.setup(th.getTransformer());
-        new HL7Parser(th).parse(new InputStreamReader(
-                new ByteArrayInputStream(msg.data()),
-                HL7Charset.toCharsetName(hl7charset)));
+        TransformerPool.of(uri).transform(
+                handler -> new HL7Parser(handler).parse(new InputStreamReader(
+                        new ByteArrayInputStream(msg.data()),
+                        HL7Charset.toCharsetName(hl7charset))),
+                new ContentHandlerAdapter(attrs),
+                setup);
         return attrs;
     }
 
     public static byte[] transform(Attributes attrs, String hl7charset, String uri, SetupTransformer setup)
-            throws TransformerConfigurationException, SAXException, UnsupportedEncodingException {
+            throws TransformerConfigurationException, SAXException, IOException {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-        Templates tpl = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(uri));
-        TransformerHandler th = factory.newTransformerHandler(tpl);
-        th.setResult(new SAXResult(new HL7ContentHandler(new OutputStreamWriter(out, HL7Charset.toCharsetName(hl7charset)))));
-        if (setup != null)
-            setup.setup(th.getTransformer());
-
-        SAXWriter saxWriter = new SAXWriter(th);
-        saxWriter.setIncludeKeyword(true);
-        saxWriter.setIncludeNamespaceDeclaration(false);
-        saxWriter.write(attrs);
-
+        TransformerPool.of(uri).transform(
+                handler -> {
+                    SAXWriter saxWriter = new SAXWriter(handler);
+                    saxWriter.setIncludeKeyword(true);
+                    saxWriter.setIncludeNamespaceDeclaration(false);
+                    saxWriter.write(attrs);
+                },
+                new HL7ContentHandler(new OutputStreamWriter(out, HL7Charset.toCharsetName(hl7charset))),
+                setup);
         return out.toByteArray();
     }
 
@@ -40,6 +40,7 @@ package org.dcm4chee.arc.ian.scu;
 
 import org.dcm4che3.data.*;
 import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
 import org.dcm4chee.arc.Scheduler;
 import org.dcm4chee.arc.conf.*;
 import org.dcm4chee.arc.entity.IanTask;
@@ -51,6 +52,7 @@ import org.dcm4chee.arc.mpps.MPPSContext;
 import org.dcm4chee.arc.qmgt.QueueSizeLimitExceededException;
 import org.dcm4chee.arc.query.QueryService;
 import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreEventObserver;
 import org.dcm4chee.arc.store.StoreSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,8 +60,11 @@ import org.slf4j.LoggerFactory;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -67,7 +72,7 @@ import java.util.List;
  * @since Apr 2016
  */
 @ApplicationScoped
-public class IANScheduler extends Scheduler {
+public class IANScheduler extends Scheduler implements StoreEventObserver {
     private static final Logger LOG = LoggerFactory.getLogger(IANScheduler.class);
 
     @Inject
@@ -76,10 +81,19 @@ public class IANScheduler extends Scheduler {
     @Inject
     private QueryService queryService;
 
+    private final Map<String, PendingIanTask> pendingIanTasks = new ConcurrentHashMap<>();
+
     protected IANScheduler() {
         super(Mode.scheduleWithFixedDelay);
     }
 
+    IANScheduler(Device device, IANEJB ejb, QueryService queryService) {
+        this();
+        this.device = device;
+        this.ejb = ejb;
+        this.queryService = queryService;
+    }
+
     @Override
     protected Logger log() {
         return LOG;
@@ -93,6 +107,7 @@ public class IANScheduler extends Scheduler {
 
     @Override
     protected void execute() {
+        flushPendingIanTasks();
         ArchiveDeviceExtension arcDev = device.getDeviceExtension(ArchiveDeviceExtension.class);
         int fetchSize = arcDev.getIanTaskFetchSize();
         long ianTaskPk = 0;
@@ -170,7 +185,13 @@ public class IANScheduler extends Scheduler {
         }
     }
 
-    public void onStore(@Observes StoreContext ctx) {
+    @Override
+    public String getStoreEventObserverName() {
+        return "ian";
+    }
+
+    @Override
+    public void onStore(StoreContext ctx) {
         if (ctx.getLocations().isEmpty() || ctx.getException() != null)
             return;
 
@@ -179,20 +200,53 @@ public class IANScheduler extends Scheduler {
         String[] ianDestinations = arcAE.ianDestinations();
         Duration ianDelay = arcAE.ianDelay();
         if (ianDestinations.length != 0 && ianDelay != null) {
-            try {
-                IANEJB.IanTaskAction ianTaskAction =
-                        ejb.createOrUpdateIANTaskForStudy(arcAE, session.getCalledAET(), ctx.getStudyInstanceUID());
-                switch (ianTaskAction.action) {
-                    case CREATED:
-                        LOG.info("{}: Created {}", ctx, ianTaskAction.ianTask);
-                        break;
-                    case UPDATED:
-                        LOG.debug("{}: Updated {}", ctx, ianTaskAction.ianTask);
-                        break;
-                }
-            } catch (Exception e) {
-                LOG.warn("{}: Failed to create or update IanTask", ctx, e);
+            String studyIUID = ctx.getStudyInstanceUID();
+            long scheduledTime = System.currentTimeMillis() + ianDelay.getSeconds() * 1000L;
+            if (getPollingInterval() == null) {
+                createOrUpdateIANTaskForStudy(ctx, arcAE, session.getCalledAET(), studyIUID, scheduledTime);
+                return;
+            }
+            PendingIanTask pending = new PendingIanTask(arcAE, session.getCalledAET(), scheduledTime);
+            if (pendingIanTasks.merge(studyIUID, pending, PendingIanTask::update) == pending
+                    && !createOrUpdateIANTaskForStudy(ctx, arcAE, session.getCalledAET(), studyIUID, scheduledTime))
+                pendingIanTasks.remove(studyIUID, pending);
+        }
+    }
+
+    private boolean createOrUpdateIANTaskForStudy(Object prompt, ArchiveAEExtension arcAE, String callingAET,
+            String studyIUID, long scheduledTime) {
+        try {
+            IANEJB.IanTaskAction ianTaskAction = ejb.createOrUpdateIANTaskForStudy(arcAE, callingAET, studyIUID,
+                    new Date(scheduledTime));
+            switch (ianTaskAction.action) {
+                case CREATED:
+                    LOG.info("{}: Created {}", prompt, ianTaskAction.ianTask);
+                    break;
+                case UPDATED:
+                    LOG.debug("{}: Updated {}", prompt, ianTaskAction.ianTask);
+                    break;
             }
+            return true;
+        } catch (Exception e) {
+            LOG.warn("{}: Failed to create or update IanTask", prompt, e);
+            return false;
+        }
+    }
+
+    private void flushPendingIanTasks() {
+        for (String studyIUID : pendingIanTasks.keySet()) {
+            long[] scheduledTime = { 0L };
+            PendingIanTask pending = pendingIanTasks.computeIfPresent(studyIUID, (key, value) -> {
+                if (!value.dirty)
+                    return null;
+                value.dirty = false;
+                scheduledTime[0] = value.scheduledTime;
+                return value;
+            });
+            if (pending != null
+                    && !createOrUpdateIANTaskForStudy("Study[uid=" + studyIUID + "]",
+                        pending.arcAE, pending.callingAET, studyIUID, scheduledTime[0]))
+                pending.dirty = true;
         }
     }
 
@@ -299,4 +353,22 @@ public class IANScheduler extends Scheduler {
         return false;
     }
 
+    private static class PendingIanTask {
+        final ArchiveAEExtension arcAE;
+        final String callingAET;
+        volatile long scheduledTime;
+        volatile boolean dirty;
+
+        PendingIanTask(ArchiveAEExtension arcAE, String callingAET, long scheduledTime) {
+            this.arcAE = arcAE;
+            this.callingAET = callingAET;
+            this.scheduledTime = scheduledTime;
+        }
+
+        PendingIanTask update(PendingIanTask other) {
+            scheduledTime = Math.max(scheduledTime, other.scheduledTime);
+            dirty = true;
+            return this;
+        }
+    }
 }
@@ -99,12 +99,13 @@ public class IANEJB {
         return task;
     }
 
-    public IanTaskAction createOrUpdateIANTaskForStudy(ArchiveAEExtension arcAE, String callingAET, String studyInstanceUID) {
+    public IanTaskAction createOrUpdateIANTaskForStudy(ArchiveAEExtension arcAE, String callingAET,
+            String studyInstanceUID, Date scheduledTime) {
         try {
             IanTask task = em.createNamedQuery(IanTask.FIND_BY_STUDY_IUID, IanTask.class)
                     .setParameter(1, studyInstanceUID)
                     .getSingleResult();
-            task.setScheduledTime(scheduledTime(arcAE.ianDelay()));
+            task.setScheduledTime(scheduledTime);
             return new IanTaskAction(task, Action.UPDATED);
         } catch (NoResultException nre) {
             IanTask task = new IanTask();
@@ -112,7 +113,7 @@ public class IANEJB {
             task.setCallingAET(callingAET);
             task.setIanDestinations(arcAE.ianDestinations());
             task.setStudyInstanceUID(studyInstanceUID);
-            task.setScheduledTime(scheduledTime(arcAE.ianDelay()));
+            task.setScheduledTime(scheduledTime);
             em.persist(task);
             return new IanTaskAction(task, Action.CREATED);
         }
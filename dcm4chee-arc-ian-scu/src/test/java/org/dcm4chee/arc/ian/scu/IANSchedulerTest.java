@@ -0,0 +1,155 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.ian.scu;
+
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.Duration;
+import org.dcm4chee.arc.entity.IanTask;
+import org.dcm4chee.arc.entity.Location;
+import org.dcm4chee.arc.ian.scu.impl.IANEJB;
+import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreSession;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class IANSchedulerTest {
+
+    private final List<String> updatedStudies = new ArrayList<>();
+    private final List<Date> scheduledTimes = new ArrayList<>();
+    private ArchiveDeviceExtension arcdev;
+    private ArchiveAEExtension arcAE;
+    private IANScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        Device device = new Device("dcm4chee-arc");
+        arcdev = new ArchiveDeviceExtension();
+        arcdev.setIanTaskPollingInterval(Duration.valueOf("PT1M"));
+        device.addDeviceExtension(arcdev);
+        ApplicationEntity ae = new ApplicationEntity("DCM4CHEE");
+        arcAE = new ArchiveAEExtension();
+        arcAE.setIanDestinations("IANSCP");
+        arcAE.setIanDelay(Duration.valueOf("PT5M"));
+        ae.addAEExtension(arcAE);
+        device.addApplicationEntity(ae);
+        scheduler = new IANScheduler(device, new CountingIANEJB(), null);
+    }
+
+    @Test
+    public void coalesceUpdatesOfStudyUntilFlush() {
+        store("1.1");
+        store("1.1");
+        store("1.1");
+        store("1.2");
+        assertEquals(Arrays.asList("1.1", "1.2"), updatedStudies);
+
+        scheduler.execute();
+        assertEquals(Arrays.asList("1.1", "1.2", "1.1"), updatedStudies);
+        assertFalse(scheduledTimes.get(2).before(scheduledTimes.get(0)));
+
+        scheduler.execute();
+        assertEquals(3, updatedStudies.size());
+
+        store("1.1");
+        assertEquals(Arrays.asList("1.1", "1.2", "1.1", "1.1"), updatedStudies);
+    }
+
+    @Test
+    public void updateForEachInstanceIfPollingIsDisabled() {
+        arcdev.setIanTaskPollingInterval(null);
+        store("1.1");
+        store("1.1");
+        store("1.1");
+        assertEquals(Arrays.asList("1.1", "1.1", "1.1"), updatedStudies);
+    }
+
+    private void store(String studyIUID) {
+        StoreSession session = proxy(StoreSession.class, "getArchiveAEExtension", arcAE, "getCalledAET", "DCM4CHEE");
+        scheduler.onStore(proxy(StoreContext.class,
+                "getStoreSession", session,
+                "getStudyInstanceUID", studyIUID,
+                "getLocations", Collections.singletonList(new Location())));
+    }
+
+    private static <T> T proxy(Class<T> type, Object... returnValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < returnValues.length; i++)
+            map.put((String) returnValues[i], returnValues[++i]);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type },
+                (proxy, method, args) -> method.getName().equals("toString")
+                        ? type.getSimpleName()
+                        : map.get(method.getName())));
+    }
+
+    private class CountingIANEJB extends IANEJB {
+        @Override
+        public IanTaskAction createOrUpdateIANTaskForStudy(ArchiveAEExtension arcAE, String callingAET,
+                String studyInstanceUID, Date scheduledTime) {
+            Action action = updatedStudies.contains(studyInstanceUID) ? Action.UPDATED : Action.CREATED;
+            updatedStudies.add(studyInstanceUID);
+            scheduledTimes.add(scheduledTime);
+            return new IanTaskAction(new IanTask(), action);
+        }
+
+        @Override
+        public List<IanTask> fetchIANTasksForMPPS(String deviceName, long prevPk, int fetchSize) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<IanTask> fetchIANTasksForStudy(String deviceName, int fetchSize) {
+            return Collections.emptyList();
+        }
+    }
+}
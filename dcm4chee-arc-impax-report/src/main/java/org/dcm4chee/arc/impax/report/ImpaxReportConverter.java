@@ -43,10 +43,9 @@ package org.dcm4chee.arc.impax.report;
 
 import org.dcm4che3.data.*;
 import org.dcm4che3.io.ContentHandlerAdapter;
-import org.dcm4che3.io.TemplatesCache;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4che3.util.TagUtils;
 import org.dcm4che3.util.UIDUtils;
+import org.dcm4chee.arc.conf.TransformerPool;
 
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
@@ -98,8 +97,7 @@ public class ImpaxReportConverter {
         this.patientMismatchCode = new Code(props.getOrDefault("PatientMismatch", DEFAULT_PAT_MISMATCH));
         this.noReportTitleCode = codeOrNull(props.get("NoReportTitle"));
         this.verifyingOrganization = props.getOrDefault("VerifyingOrganization", DEFAULT_VERIFYING_ORGANIZATION);
-        this.tpls = TemplatesCache.getDefault().get(
-                StringUtils.replaceSystemProperties(props.getOrDefault("xsl", DEFAULT_XSL)));
+        this.tpls = TransformerPool.of(props.getOrDefault("xsl", DEFAULT_XSL)).getTemplates();
         this.studyAttrs = studyAttrs;
         this.seriesIUID = UIDUtils.remapUID(studyAttrs.getString(Tag.StudyInstanceUID));
         for (Map.Entry<String, String> prop : props.entrySet()) {
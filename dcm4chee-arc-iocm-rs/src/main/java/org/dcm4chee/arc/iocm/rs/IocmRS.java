@@ -47,6 +47,7 @@ import org.dcm4che3.json.JSONWriter;
 import org.dcm4che3.net.ApplicationEntity;
 import org.dcm4che3.net.Device;
 import org.dcm4che3.util.StringUtils;
+import org.dcm4chee.arc.delete.CopyMoveService;
 import org.dcm4chee.arc.delete.RejectionService;
 import org.dcm4chee.arc.entity.*;
 import org.dcm4chee.arc.hl7.RESTfulHL7Sender;
@@ -59,12 +60,9 @@ import org.dcm4chee.arc.patient.*;
 import org.dcm4chee.arc.procedure.ProcedureContext;
 import org.dcm4chee.arc.procedure.ProcedureService;
 import org.dcm4chee.arc.qmgt.QueueSizeLimitExceededException;
-import org.dcm4chee.arc.query.QueryService;
 import org.dcm4chee.arc.query.util.QueryAttributes;
-import org.dcm4chee.arc.retrieve.RetrieveService;
 import org.dcm4chee.arc.store.InstanceLocations;
 import org.dcm4chee.arc.rs.client.RSForward;
-import org.dcm4chee.arc.store.StoreContext;
 import org.dcm4chee.arc.store.StoreService;
 import org.dcm4chee.arc.store.StoreSession;
 import org.dcm4chee.arc.study.StudyMgtContext;
@@ -112,18 +110,15 @@ public class IocmRS {
     @Inject
     private Device device;
 
-    @Inject
-    private QueryService queryService;
-
-    @Inject
-    private RetrieveService retrieveService;
-
     @Inject
     private StoreService storeService;
 
     @Inject
     private RejectionService rejectionService;
 
+    @Inject
+    private CopyMoveService copyMoveService;
+
     @Inject
     private DeletionService deletionService;
 
@@ -630,25 +625,21 @@ public class IocmRS {
                     HttpServletRequestInfo.valueOf(request), arcAE.getApplicationEntity(), null)
                     .withObjectStorageID(rejectionNoteObjectStorageID());
 
-            restoreInstances(session, instanceRefs);
-            Collection<InstanceLocations> instanceLocations = toInstanceLocations(studyUID, instanceRefs, session);
+            Collection<InstanceLocations> instanceLocations =
+                    copyMoveService.queryInstances(session, studyUID, instanceRefs);
             if (instanceLocations.isEmpty())
                 return errResponse("No Instances found. ", Response.Status.NOT_FOUND);
 
-
             final Attributes result;
             if (studyUID.equals(instanceRefs.getString(Tag.StudyInstanceUID))) {
                 procedureService.updateStudySeriesAttributes(ctx);
                 result = getResult(instanceLocations);
             } else {
-                Attributes sopInstanceRefs = getSOPInstanceRefs(instanceRefs, instanceLocations, arcAE.getApplicationEntity());
-                moveSequence(sopInstanceRefs, Tag.ReferencedSeriesSequence, instanceRefs);
                 session.setAcceptConflictingPatientID(AcceptConflictingPatientID.YES);
                 session.setPatientUpdatePolicy(Attributes.UpdatePolicy.PRESERVE);
                 session.setStudyUpdatePolicy(arcAE.linkMWLEntryUpdatePolicy());
-                result = storeService.copyInstances(
-                        session, instanceLocations, instAttrs(mwl), Attributes.UpdatePolicy.OVERWRITE);
-                rejectInstances(instanceRefs, rjNote, session, result);
+                result = copyMoveService.copyInstances(session, instanceLocations, instanceRefs, instAttrs(mwl),
+                        Attributes.UpdatePolicy.OVERWRITE, rjNote);
             }
             return toResponse(result);
         } catch (IllegalStateException e) {
@@ -775,26 +766,14 @@ public class IocmRS {
         try {
             RejectionNote rjNote = toRejectionNote(codeValue, designator);
             Attributes instanceRefs = parseSOPInstanceReferences(in);
-            StoreSession session = storeService.newStoreSession(
-                    HttpServletRequestInfo.valueOf(request), arcAE.getApplicationEntity(), null);
-            if (rjNote != null)
-                session.withObjectStorageID(rejectionNoteObjectStorageID());
+            if (queue)
+                return queueCopyOrMove(studyUID, instanceRefs, rjNote);
 
-            restoreInstances(session, instanceRefs);
-            Collection<InstanceLocations> instances = toInstanceLocations(studyUID, instanceRefs, session);
-            if (instances.isEmpty())
+            Attributes result = copyMoveService.copyOrMoveInstances(arcAE.getApplicationEntity(), studyUID,
+                    instanceRefs, coerceAttrs, rjNote, HttpServletRequestInfo.valueOf(request));
+            if (result == null)
                 return errResponse("No Instances found. ", Response.Status.NOT_FOUND);
 
-            Attributes sopInstanceRefs = getSOPInstanceRefs(instanceRefs, instances, arcAE.getApplicationEntity());
-            moveSequence(sopInstanceRefs, Tag.ReferencedSeriesSequence, instanceRefs);
-            session.setAcceptConflictingPatientID(AcceptConflictingPatientID.YES);
-            session.setPatientUpdatePolicy(Attributes.UpdatePolicy.PRESERVE);
-            session.setStudyUpdatePolicy(arcAE.copyMoveUpdatePolicy());
-            Attributes result = storeService.copyInstances(
-                    session, instances, coerceAttrs, Attributes.UpdatePolicy.MERGE);
-            if (rjNote != null)
-                rejectInstances(instanceRefs, rjNote, session, result);
-
             return toResponse(result);
         } catch (IllegalStateException e) {
             return errResponse(e.getMessage(), Response.Status.NOT_FOUND);
@@ -804,28 +783,15 @@ public class IocmRS {
         }
     }
 
-    private Collection<InstanceLocations> toInstanceLocations(
-            String studyUID, Attributes instanceRefs, StoreSession session) {
-        try {
-            return retrieveService.queryInstances(session, instanceRefs, studyUID);
-        } catch (Exception e) {
-            throw new WebApplicationException(
-                    errResponseAsTextPlain(exceptionAsString(e), Response.Status.INTERNAL_SERVER_ERROR));
-        }
-    }
-
-    private void restoreInstances(StoreSession session, Attributes sopInstanceRefs) {
+    private Response queueCopyOrMove(String studyUID, Attributes instanceRefs, RejectionNote rjNote) {
         try {
-            String studyUID = sopInstanceRefs.getString(Tag.StudyInstanceUID);
-            Sequence seq = sopInstanceRefs.getSequence(Tag.ReferencedSeriesSequence);
-            if (seq == null || seq.isEmpty())
-                storeService.restoreInstances(session, studyUID, null, null);
-            else for (Attributes item : seq)
-                storeService.restoreInstances(session, studyUID, item.getString(Tag.SeriesInstanceUID), null);
-        } catch (Exception e) {
-            throw new WebApplicationException(
-                    errResponseAsTextPlain(exceptionAsString(e), Response.Status.INTERNAL_SERVER_ERROR));
+            copyMoveService.scheduleCopyOrMove(aet, studyUID, instanceRefs, coerceAttrs,
+                    rjNote != null ? rjNote.getRejectionNoteCode() : null,
+                    HttpServletRequestInfo.valueOf(request), batchID);
+        } catch (QueueSizeLimitExceededException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
         }
+        return Response.accepted().build();
     }
 
     private RejectionNote toRejectionNote(String codeValue, String designator) {
@@ -843,42 +809,6 @@ public class IocmRS {
         return rjNote;
     }
 
-    private void rejectInstances(Attributes instanceRefs, RejectionNote rjNote, StoreSession session, Attributes result)
-            throws IOException {
-        Sequence refSeriesSeq = instanceRefs.getSequence(Tag.ReferencedSeriesSequence);
-        removeFailedInstanceRefs(refSeriesSeq, failedIUIDs(result));
-        if (!refSeriesSeq.isEmpty())
-            reject(session, instanceRefs, rjNote);
-    }
-
-    private Set<String> failedIUIDs(Attributes result) {
-        Sequence failedSOPSeq = result.getSequence(Tag.FailedSOPSequence);
-        if (failedSOPSeq == null || failedSOPSeq.isEmpty())
-            return Collections.emptySet();
-
-        Set<String> failedIUIDs = new HashSet<>(failedSOPSeq.size() * 4 / 3 + 1);
-        failedSOPSeq.forEach(failedSOPRef -> failedIUIDs.add(failedSOPRef.getString(Tag.ReferencedSOPInstanceUID)));
-        return failedIUIDs;
-    }
-
-    private void removeFailedInstanceRefs(Sequence refSeriesSeq, Set<String> failedIUIDs) {
-        if (failedIUIDs.isEmpty())
-            return;
-
-        for (Iterator<Attributes> refSeriesIter = refSeriesSeq.iterator(); refSeriesIter.hasNext();) {
-            Sequence refSOPSeq = refSeriesIter.next().getSequence(Tag.ReferencedSOPSequence);
-            removeFailedRefSOPs(refSOPSeq, failedIUIDs);
-            if (refSOPSeq.isEmpty())
-                refSeriesIter.remove();
-        }
-    }
-
-    private void removeFailedRefSOPs(Sequence refSOPSeq, Set<String> failedIUIDs) {
-        for (Iterator<Attributes> refSopIter = refSOPSeq.iterator(); refSopIter.hasNext();)
-            if (failedIUIDs.contains(refSopIter.next().getString(Tag.ReferencedSOPInstanceUID)))
-                refSopIter.remove();
-    }
-
     private Response.Status status(Attributes result) {
         return result.getSequence(Tag.ReferencedSOPSequence).isEmpty()
                 ? Response.Status.CONFLICT
@@ -887,51 +817,6 @@ public class IocmRS {
                     ? Response.Status.OK : Response.Status.ACCEPTED;
     }
 
-    private void reject(StoreSession session, Attributes instanceRefs, RejectionNote rjNote) throws IOException {
-        StoreContext koctx = storeService.newStoreContext(session);
-        Attributes ko = queryService.createRejectionNote(instanceRefs, rjNote);
-        koctx.setSopClassUID(ko.getString(Tag.SOPClassUID));
-        koctx.setSopInstanceUID(ko.getString(Tag.SOPInstanceUID));
-        koctx.setReceiveTransferSyntax(UID.ExplicitVRLittleEndian);
-        storeService.store(koctx, ko);
-    }
-
-    private Attributes getSOPInstanceRefs(Attributes instanceRefs, Collection<InstanceLocations> instances,
-                                          ApplicationEntity ae) {
-        String sourceStudyUID = instanceRefs.getString(Tag.StudyInstanceUID);
-        Attributes refStudy = new Attributes(2);
-        Sequence refSeriesSeq = refStudy.newSequence(Tag.ReferencedSeriesSequence, 10);
-        refStudy.setString(Tag.StudyInstanceUID, VR.UI, sourceStudyUID);
-        HashMap<String, Sequence> seriesMap = new HashMap<>();
-        instances.forEach(instance -> {
-            Attributes iAttr = instance.getAttributes();
-            String seriesIUID = iAttr.getString(Tag.SeriesInstanceUID);
-            Sequence refSOPSeq = seriesMap.get(seriesIUID);
-            if (refSOPSeq == null) {
-                Attributes refSeries = new Attributes(4);
-                refSeries.setString(Tag.RetrieveAETitle, VR.AE, ae.getAETitle());
-                refSOPSeq = refSeries.newSequence(Tag.ReferencedSOPSequence, 10);
-                refSeries.setString(Tag.SeriesInstanceUID, VR.UI, seriesIUID);
-                seriesMap.put(seriesIUID, refSOPSeq);
-                refSeriesSeq.add(refSeries);
-            }
-            Attributes refSOP = new Attributes(2);
-            refSOP.setString(Tag.ReferencedSOPClassUID, VR.UI, instance.getSopClassUID());
-            refSOP.setString(Tag.ReferencedSOPInstanceUID, VR.UI, instance.getSopInstanceUID());
-            refSOPSeq.add(refSOP);
-        });
-        return refStudy;
-    }
-
-    private void moveSequence(Attributes src, int tag, Attributes dest) {
-        Sequence srcSeq = src.getSequence(tag);
-        int size = srcSeq.size();
-        Sequence destSeq = dest.newSequence(tag, size);
-        for (int i = 0; i < size; i++)
-            destSeq.add(srcSeq.remove(0));
-    }
-
-
     private void expect(JsonParser parser, JsonParser.Event expected) {
         JsonParser.Event next = parser.next();
         if (next != expected)
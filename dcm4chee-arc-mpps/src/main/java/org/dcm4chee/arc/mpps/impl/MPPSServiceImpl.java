@@ -44,14 +44,13 @@ import org.dcm4che3.data.AttributesCoercion;
 import org.dcm4che3.data.NullifyAttributesCoercion;
 import org.dcm4che3.data.UID;
 import org.dcm4che3.io.SAXTransformer;
-import org.dcm4che3.io.TemplatesCache;
-import org.dcm4che3.io.XSLTAttributesCoercion;
 import org.dcm4che3.net.Association;
 import org.dcm4che3.net.Dimse;
 import org.dcm4che3.net.TransferCapability;
 import org.dcm4che3.net.service.DicomServiceException;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4chee.arc.conf.ArchiveAttributeCoercion;
+import org.dcm4chee.arc.conf.PooledXSLTAttributesCoercion;
+import org.dcm4chee.arc.conf.TransformerPool;
 import org.dcm4chee.arc.entity.MPPS;
 import org.dcm4chee.arc.mima.SupplementAssigningAuthorities;
 import org.dcm4chee.arc.mpps.MPPSContext;
@@ -61,7 +60,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 
 /**
@@ -125,9 +123,8 @@ public class MPPSServiceImpl implements MPPSService {
         String xsltStylesheetURI = rule.getXSLTStylesheetURI();
         if (xsltStylesheetURI != null)
             try {
-                Templates tpls = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(xsltStylesheetURI));
                 LOG.info("Coerce Attributes from rule: {}", rule);
-                return new XSLTAttributesCoercion(tpls, null)
+                return new PooledXSLTAttributesCoercion(TransformerPool.of(xsltStylesheetURI), null)
                         .includeKeyword(!rule.isNoKeywords())
                         .setupTransformer(setupTransformer(ctx));
             } catch (TransformerConfigurationException e) {
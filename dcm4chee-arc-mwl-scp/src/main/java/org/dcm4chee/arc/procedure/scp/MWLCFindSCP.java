@@ -42,16 +42,15 @@ package org.dcm4chee.arc.procedure.scp;
 
 import org.dcm4che3.data.*;
 import org.dcm4che3.io.SAXTransformer;
-import org.dcm4che3.io.TemplatesCache;
-import org.dcm4che3.io.XSLTAttributesCoercion;
 import org.dcm4che3.net.Association;
 import org.dcm4che3.net.Dimse;
 import org.dcm4che3.net.QueryOption;
 import org.dcm4che3.net.TransferCapability;
 import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.service.*;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4chee.arc.conf.ArchiveAttributeCoercion;
+import org.dcm4chee.arc.conf.PooledXSLTAttributesCoercion;
+import org.dcm4chee.arc.conf.TransformerPool;
 import org.dcm4chee.arc.conf.UseCallingAETitleAsCoercion;
 import org.dcm4chee.arc.mima.SupplementAssigningAuthorities;
 import org.dcm4chee.arc.query.QueryContext;
@@ -64,7 +63,6 @@ import javax.ejb.EJB;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Typed;
 import javax.inject.Inject;
-import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import java.util.EnumSet;
 
@@ -145,9 +143,8 @@ public class MWLCFindSCP extends BasicCFindSCP {
         String xsltStylesheetURI = rule.getXSLTStylesheetURI();
         if (xsltStylesheetURI != null)
             try {
-                Templates tpls = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(xsltStylesheetURI));
                 LOG.info("Coerce Attributes from rule: {}", rule);
-                return new XSLTAttributesCoercion(tpls, null)
+                return new PooledXSLTAttributesCoercion(TransformerPool.of(xsltStylesheetURI), null)
                         .includeKeyword(!rule.isNoKeywords())
                         .setupTransformer(setupTransformer(ctx));
             } catch (TransformerConfigurationException e) {
@@ -192,9 +192,6 @@ public class PatientServiceEJB {
                         modified)
                 : attrs,
                 filter, ctx.getFuzzyStr());
-        em.createNamedQuery(Series.SCHEDULE_METADATA_UPDATE_FOR_PATIENT)
-                .setParameter(1, pat)
-                .executeUpdate();
     }
 
     public Patient mergePatient(PatientMgtContext ctx)
@@ -283,9 +280,6 @@ public class PatientServiceEJB {
                         modified)
                 : patientID.exportPatientIDWithIssuer(patientAttrs),
                 ctx.getAttributeFilter(), ctx.getFuzzyStr());
-        em.createNamedQuery(Series.SCHEDULE_METADATA_UPDATE_FOR_PATIENT)
-                .setParameter(1, pat)
-                .executeUpdate();
     }
 
     private void updateIssuer(PatientID patientID, Issuer issuer) {
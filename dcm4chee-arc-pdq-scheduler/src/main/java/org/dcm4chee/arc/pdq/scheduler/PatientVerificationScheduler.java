@@ -43,6 +43,7 @@ package org.dcm4chee.arc.pdq.scheduler;
 
 import org.dcm4che3.audit.AuditMessages;
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.net.Device;
 import org.dcm4chee.arc.Scheduler;
 import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
 import org.dcm4chee.arc.conf.Duration;
@@ -63,6 +64,9 @@ import java.time.LocalDateTime;
 import java.time.Period;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -82,10 +86,19 @@ public class PatientVerificationScheduler extends Scheduler {
     @Inject
     private PatientVerificationEJB ejb;
 
+    private final Map<String, PDQServiceRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
     protected PatientVerificationScheduler() {
         super(Mode.scheduleWithFixedDelay);
     }
 
+    PatientVerificationScheduler(Device device, PatientService patientService, PatientVerificationEJB ejb) {
+        this();
+        this.device = device;
+        this.patientService = patientService;
+        this.ejb = ejb;
+    }
+
     @Override
     protected Logger log() {
         return LOG;
@@ -152,40 +165,114 @@ public class PatientVerificationScheduler extends Scheduler {
                 fetchSize, adjustIssuerOfPatientID));
     }
 
-    private boolean verifyPatients(PDQService pdqService, List<Patient.IDWithPkAndVerificationStatus> patients, int fetchSize,
-                                   boolean adjustIssuerOfPatientID) {
-        for (Patient.IDWithPkAndVerificationStatus patient : patients) {
-            try {
-                if (ejb.claimPatientVerification(patient))
-                    verifyPatient(pdqService, patient, adjustIssuerOfPatientID);
-            } catch (Exception e) {
-                LOG.warn("Verification of {} failed:\n", patient, e);
+    boolean verifyPatients(PDQService pdqService, List<Patient.IDWithPkAndVerificationStatus> patients, int fetchSize,
+                           boolean adjustIssuerOfPatientID) {
+        ArchiveDeviceExtension arcDev = device.getDeviceExtension(ArchiveDeviceExtension.class);
+        PDQServiceRateLimiter limiter = rateLimiterOf(pdqService.getPDQServiceDescriptor(), arcDev);
+        int maxParallel = Math.min(patients.size(), arcDev.getPatientVerificationMaxParallel());
+        if (maxParallel <= 1) {
+            for (Patient.IDWithPkAndVerificationStatus patient : patients) {
+                verifyPatient(pdqService, limiter, patient, adjustIssuerOfPatientID);
             }
+            return patients.size() == fetchSize;
+        }
+        LOG.debug("Verify {} Patients against {} by {} parallel threads",
+                patients.size(), pdqService.getPDQServiceDescriptor(), maxParallel);
+        Semaphore semaphore = new Semaphore(maxParallel);
+        try {
+            for (Patient.IDWithPkAndVerificationStatus patient : patients) {
+                semaphore.acquire();
+                device.execute(() -> {
+                    try {
+                        verifyPatient(pdqService, limiter, patient, adjustIssuerOfPatientID);
+                    } finally {
+                        semaphore.release();
+                    }
+                });
+            }
+            semaphore.acquire(maxParallel);
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted verification of Patients against {}:\n", pdqService.getPDQServiceDescriptor(), e);
+            Thread.currentThread().interrupt();
+            return false;
         }
         return patients.size() == fetchSize;
     }
 
-    private void verifyPatient(PDQService pdqService, Patient.IDWithPkAndVerificationStatus patient,
-                               boolean adjustIssuerOfPatientID) {
+    private PDQServiceRateLimiter rateLimiterOf(PDQServiceDescriptor descriptor, ArchiveDeviceExtension arcDev) {
+        int maxRequestsPerSecond = maxRequestsPerSecond(descriptor, arcDev);
+        return rateLimiters.compute(descriptor.getPDQServiceID(), (pdqServiceID, limiter) ->
+                limiter != null && limiter.getMaxRequestsPerSecond() == maxRequestsPerSecond
+                        ? limiter
+                        : new PDQServiceRateLimiter(maxRequestsPerSecond));
+    }
+
+    private static int maxRequestsPerSecond(PDQServiceDescriptor descriptor, ArchiveDeviceExtension arcDev) {
+        int defVal = arcDev.getPatientVerificationMaxRequestsPerSecond();
+        String value = descriptor.getProperty("MaxRequestsPerSecond", null);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignore invalid property MaxRequestsPerSecond={} of {} - use {}", value, descriptor, defVal);
+            }
+        }
+        return defVal;
+    }
+
+    private void verifyPatient(PDQService pdqService, PDQServiceRateLimiter limiter,
+                               Patient.IDWithPkAndVerificationStatus patient, boolean adjustIssuerOfPatientID) {
+        try {
+            if (!ejb.claimPatientVerification(patient))
+                return;
+        } catch (Exception e) {
+            LOG.warn("Failed to claim verification of {}:\n", patient, e);
+            return;
+        }
         PatientMgtContext ctx = patientService.createPatientMgtContextScheduler();
         ctx.setPatientID(patient.idWithIssuer);
         ctx.setPDQServiceURI(pdqService.getPDQServiceDescriptor().getPDQServiceURI().toString());
+        ctx.setPatientVerificationStatus(Patient.VerificationStatus.VERIFICATION_FAILED);
+        boolean updated = false;
+        try {
+            updated = queryAndUpdatePatient(pdqService, limiter, patient, adjustIssuerOfPatientID, ctx);
+        } catch (Exception e) {
+            ctx.setPatientVerificationStatus(Patient.VerificationStatus.VERIFICATION_FAILED);
+            LOG.warn("Verification of {} failed:\n", patient, e);
+        } finally {
+            if (!updated)
+                updatePatientStatus(patient, ctx);
+        }
+    }
+
+    private void updatePatientStatus(Patient.IDWithPkAndVerificationStatus patient, PatientMgtContext ctx) {
+        try {
+            patientService.updatePatientStatus(ctx);
+        } catch (Exception e) {
+            LOG.warn("Failed to update verification status of {} to {}:\n",
+                    patient, ctx.getPatientVerificationStatus(), e);
+        }
+    }
+
+    private boolean queryAndUpdatePatient(PDQService pdqService, PDQServiceRateLimiter limiter,
+                                          Patient.IDWithPkAndVerificationStatus patient,
+                                          boolean adjustIssuerOfPatientID, PatientMgtContext ctx) throws Exception {
         Attributes attrs;
         try {
+            limiter.acquire();
             attrs = pdqService.query(adjustIssuerOfPatientID
                     ? patient.idWithIssuer.withoutIssuer()
                     : patient.idWithIssuer);
-        } catch (PDQServiceException e) {
-            ctx.setPatientVerificationStatus(Patient.VerificationStatus.VERIFICATION_FAILED);
-            patientService.updatePatientStatus(ctx);
+        } catch (PDQServiceException | InterruptedException e) {
             LOG.info("Verification of {} failed against {}\n:", patient, pdqService.getPDQServiceDescriptor(), e);
-            return;
+            if (e instanceof InterruptedException)
+                Thread.currentThread().interrupt();
+            return false;
         }
         if (attrs == null) {
             ctx.setPatientVerificationStatus(Patient.VerificationStatus.NOT_FOUND);
-            patientService.updatePatientStatus(ctx);
             LOG.info("{} not found at {} - no verification", patient, pdqService.getPDQServiceDescriptor());
-            return;
+            return false;
         }
         ctx.setAttributes(attrs);
         ctx.setPatientVerificationStatus(Patient.VerificationStatus.VERIFIED);
@@ -203,5 +290,6 @@ public class PatientVerificationScheduler extends Scheduler {
                     patient,
                     pdqService.getPDQServiceDescriptor());
         }
+        return true;
     }
 }
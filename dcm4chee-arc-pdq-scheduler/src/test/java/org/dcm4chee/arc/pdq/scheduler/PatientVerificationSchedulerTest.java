@@ -0,0 +1,255 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.pdq.scheduler;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.IDWithIssuer;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.PDQServiceDescriptor;
+import org.dcm4chee.arc.entity.Patient;
+import org.dcm4chee.arc.entity.PatientID;
+import org.dcm4chee.arc.patient.PatientMgtContext;
+import org.dcm4chee.arc.patient.PatientService;
+import org.dcm4chee.arc.pdq.PDQService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class PatientVerificationSchedulerTest {
+
+    private static final int PATIENTS = 16;
+    private static final long QUERY_LATENCY_MS = 50;
+
+    private ExecutorService executor;
+    private ArchiveDeviceExtension arcDev;
+    private PatientVerificationScheduler scheduler;
+    private final Map<String, Patient.VerificationStatus> statusUpdates = new ConcurrentHashMap<>();
+    private final AtomicInteger claimed = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        arcDev = new ArchiveDeviceExtension();
+        Device device = new Device("dcm4chee-arc");
+        device.addDeviceExtension(arcDev);
+        device.setExecutor(executor);
+        scheduler = new PatientVerificationScheduler(device, patientService(), new PatientVerificationEJB() {
+            @Override
+            public boolean claimPatientVerification(Patient.IDWithPkAndVerificationStatus patient) {
+                claimed.incrementAndGet();
+                return true;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void throughputScalesWithMaxParallel() {
+        StubPDQService pdqService = new StubPDQService(new PDQServiceDescriptor("stub"), false);
+
+        arcDev.setPatientVerificationMaxParallel(1);
+        long serial = verify(pdqService, patients(0));
+        assertEquals(1, pdqService.maxConcurrent.get());
+
+        pdqService.maxConcurrent.set(0);
+        arcDev.setPatientVerificationMaxParallel(8);
+        long parallel = verify(pdqService, patients(PATIENTS));
+        assertEquals(8, pdqService.maxConcurrent.get());
+
+        assertTrue("serial: " + serial + " ms, parallel: " + parallel + " ms", parallel * 3 < serial);
+        assertEquals(2 * PATIENTS, claimed.get());
+        assertStatus(2 * PATIENTS, Patient.VerificationStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void rateLimitedPerPDQService() {
+        PDQServiceDescriptor limited = new PDQServiceDescriptor("limited");
+        limited.setProperty("MaxRequestsPerSecond", "20");
+        arcDev.setPatientVerificationMaxParallel(8);
+        arcDev.setPatientVerificationMaxRequestsPerSecond(0);
+
+        long unlimited = verify(new StubPDQService(new PDQServiceDescriptor("unlimited"), false), patients(0));
+        long rateLimited = verify(new StubPDQService(limited, false), patients(PATIENTS));
+
+        assertTrue("unlimited: " + unlimited + " ms", unlimited < 500);
+        // 16 queries at 20 per second are spread over at least 750 ms
+        assertTrue("rate limited: " + rateLimited + " ms", rateLimited >= 700);
+        assertStatus(2 * PATIENTS, Patient.VerificationStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void invalidMaxRequestsPerSecondFallsBackToDeviceDefault() {
+        PDQServiceDescriptor invalid = new PDQServiceDescriptor("invalid");
+        invalid.setProperty("MaxRequestsPerSecond", "twenty");
+        arcDev.setPatientVerificationMaxParallel(8);
+        arcDev.setPatientVerificationMaxRequestsPerSecond(0);
+
+        verify(new StubPDQService(invalid, false), patients(0));
+
+        assertEquals(PATIENTS, claimed.get());
+        assertStatus(PATIENTS, Patient.VerificationStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void statusWrittenIfQueryThrows() {
+        arcDev.setPatientVerificationMaxParallel(4);
+
+        verify(new StubPDQService(new PDQServiceDescriptor("failing"), true), patients(0));
+
+        assertStatus(PATIENTS, Patient.VerificationStatus.VERIFICATION_FAILED);
+    }
+
+    private long verify(PDQService pdqService, List<Patient.IDWithPkAndVerificationStatus> patients) {
+        long start = System.nanoTime();
+        assertFalse(scheduler.verifyPatients(pdqService, patients, PATIENTS + 1, false));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private void assertStatus(int expectedCount, Patient.VerificationStatus expected) {
+        assertEquals(expectedCount, statusUpdates.size());
+        statusUpdates.forEach((patientID, status) -> assertEquals(patientID, expected, status));
+    }
+
+    private static List<Patient.IDWithPkAndVerificationStatus> patients(int offset) {
+        List<Patient.IDWithPkAndVerificationStatus> patients = new ArrayList<>(PATIENTS);
+        for (int i = offset; i < offset + PATIENTS; i++) {
+            PatientID patientID = new PatientID();
+            patientID.setID("P" + i);
+            patients.add(new Patient.IDWithPkAndVerificationStatus(
+                    patientID, (long) i, Patient.VerificationStatus.UNVERIFIED));
+        }
+        return patients;
+    }
+
+    private PatientService patientService() {
+        return (PatientService) Proxy.newProxyInstance(PatientService.class.getClassLoader(),
+                new Class<?>[]{ PatientService.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "createPatientMgtContextScheduler":
+                            return patientMgtContext();
+                        case "updatePatientStatus":
+                            PatientMgtContext ctx = (PatientMgtContext) args[0];
+                            assertNull("status updated twice",
+                                    statusUpdates.put(ctx.getPatientID().getID(), ctx.getPatientVerificationStatus()));
+                            return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static PatientMgtContext patientMgtContext() {
+        Map<String, Object> props = new HashMap<>();
+        return (PatientMgtContext) Proxy.newProxyInstance(PatientMgtContext.class.getClassLoader(),
+                new Class<?>[]{ PatientMgtContext.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length == 1) {
+                        props.put(name.substring(3), args[0]);
+                        return null;
+                    }
+                    if (name.startsWith("get") && args == null)
+                        return props.get(name.substring(3));
+                    if (name.equals("toString"))
+                        return props.toString();
+                    throw new UnsupportedOperationException(name);
+                });
+    }
+
+    private static class StubPDQService implements PDQService {
+        final PDQServiceDescriptor descriptor;
+        final boolean fail;
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        StubPDQService(PDQServiceDescriptor descriptor, boolean fail) {
+            descriptor.setPDQServiceURI(URI.create("pdq-stub:" + descriptor.getPDQServiceID()));
+            this.descriptor = descriptor;
+            this.fail = fail;
+        }
+
+        @Override
+        public PDQServiceDescriptor getPDQServiceDescriptor() {
+            return descriptor;
+        }
+
+        @Override
+        public Attributes query(IDWithIssuer pid) {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                if (fail)
+                    throw new IllegalStateException("PDQ Service unavailable");
+                Thread.sleep(QUERY_LATENCY_MS);
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+    }
+}
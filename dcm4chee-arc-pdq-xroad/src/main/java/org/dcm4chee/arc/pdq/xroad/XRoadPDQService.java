@@ -41,13 +41,18 @@
 
 package org.dcm4chee.arc.pdq.xroad;
 
+import org.dcm4che3.conf.api.ConfigurationException;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.IDWithIssuer;
 import org.dcm4chee.arc.conf.PDQServiceDescriptor;
 import org.dcm4chee.arc.pdq.AbstractPDQService;
 import org.dcm4chee.arc.pdq.PDQServiceException;
+import org.dcm4chee.arc.xroad.XRoadAdapterPortType;
 import org.dcm4chee.arc.xroad.XRoadServiceProvider;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
  * @since Oct 2018
@@ -55,6 +60,7 @@ import org.dcm4chee.arc.xroad.XRoadServiceProvider;
 public class XRoadPDQService extends AbstractPDQService {
 
     private final XRoadServiceProvider serviceProvider;
+    private final Queue<XRoadAdapterPortType> idlePorts = new ConcurrentLinkedQueue<>();
 
     public XRoadPDQService(PDQServiceDescriptor descriptor, XRoadServiceProvider serviceProvider) {
         super(descriptor);
@@ -64,13 +70,20 @@ public class XRoadPDQService extends AbstractPDQService {
     @Override
     public Attributes query(IDWithIssuer pid) throws PDQServiceException {
         try {
-            return serviceProvider.rr441(
-                    descriptor.getPDQServiceURI().getSchemeSpecificPart(),
-                    descriptor.getProperties(),
-                    pid.getID());
+            XRoadAdapterPortType port = borrowPort();
+            Attributes attrs = serviceProvider.rr441(port, descriptor.getProperties(), pid.getID());
+            idlePorts.offer(port);
+            return attrs;
         } catch (Exception e) {
             throw new PDQServiceException(e);
         }
     }
 
+    private XRoadAdapterPortType borrowPort() throws ConfigurationException {
+        XRoadAdapterPortType port = idlePorts.poll();
+        return port != null
+                ? port
+                : serviceProvider.port(descriptor.getPDQServiceURI().getSchemeSpecificPart(), descriptor.getProperties());
+    }
+
 }
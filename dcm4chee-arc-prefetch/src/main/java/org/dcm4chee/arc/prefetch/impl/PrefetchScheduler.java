@@ -47,6 +47,8 @@ import org.dcm4che3.net.hl7.HL7Application;
 import org.dcm4che3.net.hl7.HL7DeviceExtension;
 import org.dcm4che3.net.hl7.UnparsedHL7Message;
 import org.dcm4che3.util.ReverseDNS;
+import org.dcm4che3.util.StringUtils;
+import org.dcm4che3.util.TagUtils;
 import org.dcm4chee.arc.HL7ConnectionEvent;
 import org.dcm4chee.arc.conf.*;
 import org.dcm4chee.arc.qmgt.QueueSizeLimitExceededException;
@@ -61,6 +63,7 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import java.net.Socket;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -80,6 +83,19 @@ public class PrefetchScheduler {
     @Inject
     private RetrieveManager retrieveManager;
 
+    private final Deque<PrefetchTask> pendingPrefetches = new ArrayDeque<>();
+    private final Map<String, Long> recentPrefetches = new HashMap<>();
+    private int runningPrefetches;
+
+    public PrefetchScheduler() {
+    }
+
+    PrefetchScheduler(Device device, CFindSCU findSCU, RetrieveManager retrieveManager) {
+        this.device = device;
+        this.findSCU = findSCU;
+        this.retrieveManager = retrieveManager;
+    }
+
     public void onHL7Connection(@Observes HL7ConnectionEvent event) {
         if (!(event.getType() == HL7ConnectionEvent.Type.MESSAGE_PROCESSED && event.getException() == null))
             return;
@@ -102,31 +118,120 @@ public class PrefetchScheduler {
         ArchiveDeviceExtension arcdev = device.getDeviceExtensionNotNull(ArchiveDeviceExtension.class);
         arcHL7App.hl7PrefetchRules()
                 .filter(rule -> rule.match(host, hl7Fields))
-                .forEach(rule -> prefetch(sock, hl7Fields, rule, arcdev, now));
+                .forEach(rule -> schedulePrefetch(sock, hl7Fields, rule, arcdev, now));
+    }
+
+    void schedulePrefetch(Socket sock, HL7Fields hl7Fields, HL7PrefetchRule rule,
+            ArchiveDeviceExtension arcdev, Calendar now) {
+        PrefetchTask task = null;
+        try {
+            String cx = hl7Fields.get("PID-3", null);
+            IDWithIssuer pid = rule.ignoreAssigningAuthorityOfPatientID(new IDWithIssuer(cx));
+            EntitySelector[] selectors = rule.getEntitySelectors();
+            List<Attributes> queryKeys = new ArrayList<>(selectors.length);
+            for (EntitySelector selector : selectors) {
+                queryKeys.add(selector.getQueryKeys(hl7Fields));
+            }
+            task = new PrefetchTask(sock, pid, rule, selectors, queryKeys, arcdev, now);
+            if (suppressDuplicate(task)) {
+                LOG.info("{}: Suppress duplicate application of {} for {}", sock, rule, pid);
+                return;
+            }
+            enqueue(task, arcdev);
+        } catch (Exception e) {
+            LOG.warn("{}: Failed to apply {}:\n", sock, rule, e);
+            if (task != null)
+                forget(task);
+        }
+    }
+
+    /**
+     * Returns {@code true} if an application of the same rule with equal Patient ID and query keys is pending,
+     * or was successfully completed within its Suppress Duplicate Retrieve Interval. Otherwise records the
+     * application, which is removed again if it fails or is discarded.
+     */
+    private boolean suppressDuplicate(PrefetchTask task) {
+        long now = task.now.getTimeInMillis();
+        long interval = task.rule.getSuppressDuplicateRetrieveInterval().getSeconds() * 1000L;
+        synchronized (recentPrefetches) {
+            // expirations depend on the interval of each rule, so sweep over all entries
+            recentPrefetches.values().removeIf(expiration -> expiration <= now);
+            if (recentPrefetches.containsKey(task.key))
+                return true;
+            if (interval > 0) {
+                task.expiration = now + interval;
+                recentPrefetches.put(task.key, task.expiration);
+            }
+            return false;
+        }
+    }
+
+    private void forget(PrefetchTask task) {
+        synchronized (recentPrefetches) {
+            recentPrefetches.remove(task.key, task.expiration);
+        }
     }
 
-    private void prefetch(Socket sock, HL7Fields hl7Fields, HL7PrefetchRule rule, ArchiveDeviceExtension arcdev,
-                          Calendar now) {
+    private void enqueue(PrefetchTask task, ArchiveDeviceExtension arcdev) {
+        synchronized (pendingPrefetches) {
+            int maxBacklog = arcdev.getHL7PrefetchMaxBacklog();
+            while (pendingPrefetches.size() >= maxBacklog) {
+                PrefetchTask discarded = pendingPrefetches.remove();
+                LOG.warn("{}: Backlog of HL7 Prefetches exceeds limit of {} - discard application of {} for {}",
+                        discarded.sock, maxBacklog, discarded.rule, discarded.pid);
+                forget(discarded);
+            }
+            pendingPrefetches.add(task);
+            if (runningPrefetches >= arcdev.getHL7PrefetchMaxParallel())
+                return;
+
+            runningPrefetches++;
+        }
+        try {
+            device.execute(this::processPendingPrefetches);
+        } catch (RejectedExecutionException e) {
+            LOG.info("{}: Failed to schedule asynchronous application of HL7 Prefetch Rules:\n", task.sock, e);
+            processPendingPrefetches();
+        }
+    }
+
+    private void processPendingPrefetches() {
+        PrefetchTask task;
+        for (;;) {
+            synchronized (pendingPrefetches) {
+                if ((task = pendingPrefetches.poll()) == null) {
+                    runningPrefetches--;
+                    return;
+                }
+            }
+            prefetch(task);
+        }
+    }
+
+    private void prefetch(PrefetchTask task) {
+        Socket sock = task.sock;
+        HL7PrefetchRule rule = task.rule;
         try {
             LOG.info("{}: Apply {}", sock, rule);
+            Calendar now = task.now;
             Date notRetrievedAfter = new Date(
                     now.getTimeInMillis() - rule.getSuppressDuplicateRetrieveInterval().getSeconds() * 1000L);
             Calendar scheduledTime = ScheduleExpression.ceil(now, rule.getSchedules());
-            long delay = scheduledTime.getTimeInMillis() - now.getTimeInMillis();
-            String cx = hl7Fields.get("PID-3", null);
-            IDWithIssuer pid = rule.ignoreAssigningAuthorityOfPatientID(new IDWithIssuer(cx));
+            long delay = Math.max(0L, scheduledTime.getTimeInMillis() - System.currentTimeMillis());
+            IDWithIssuer pid = task.pid;
             String batchID = rule.getCommonName() + '[' + pid + ']';
-            if (rule.getEntitySelectors().length == 0) {
+            if (task.selectors.length == 0) {
                 prefetch(pid, batchID, new Attributes(0), -1,
-                        rule, arcdev, notRetrievedAfter, delay);
+                        rule, task.arcdev, notRetrievedAfter, delay);
             } else {
-                for (EntitySelector selector : rule.getEntitySelectors()) {
-                    prefetch(pid, batchID, selector.getQueryKeys(hl7Fields), selector.getNumberOfPriors(),
-                            rule, arcdev, notRetrievedAfter, delay);
+                for (int i = 0; i < task.selectors.length; i++) {
+                    prefetch(pid, batchID, task.queryKeys.get(i), task.selectors[i].getNumberOfPriors(),
+                            rule, task.arcdev, notRetrievedAfter, delay);
                 }
             }
         } catch (Exception e) {
             LOG.warn("{}: Failed to apply {}:\n", sock, rule, e);
+            forget(task);
         }
     }
 
@@ -182,4 +287,41 @@ public class PrefetchScheduler {
                 .setKeys(new Attributes(keys, Tag.QueryRetrieveLevel, Tag.StudyInstanceUID));
         retrieveManager.scheduleRetrieveTask(Priority.NORMAL, ctx, notRetrievedAfter, delay);
     }
+
+    private static class PrefetchTask {
+        final Socket sock;
+        final IDWithIssuer pid;
+        final HL7PrefetchRule rule;
+        final EntitySelector[] selectors;
+        final List<Attributes> queryKeys;
+        final ArchiveDeviceExtension arcdev;
+        final Calendar now;
+        final String key;
+        Long expiration;
+
+        PrefetchTask(Socket sock, IDWithIssuer pid, HL7PrefetchRule rule, EntitySelector[] selectors,
+                List<Attributes> queryKeys, ArchiveDeviceExtension arcdev, Calendar now) {
+            this.sock = sock;
+            this.pid = pid;
+            this.rule = rule;
+            this.selectors = selectors;
+            this.queryKeys = queryKeys;
+            this.arcdev = arcdev;
+            this.now = now;
+            this.key = keyOf(rule, pid, queryKeys);
+        }
+
+        private static String keyOf(HL7PrefetchRule rule, IDWithIssuer pid, List<Attributes> queryKeys) {
+            StringBuilder sb = new StringBuilder(rule.getCommonName()).append('|').append(pid);
+            for (Attributes keys : queryKeys) {
+                sb.append('|');
+                for (int tag : keys.tags()) {
+                    String[] values = keys.getStrings(tag);
+                    sb.append(TagUtils.toString(tag)).append('=')
+                            .append(values != null ? StringUtils.concat(values, '\\') : keys.getValue(tag));
+                }
+            }
+            return sb.toString();
+        }
+    }
 }
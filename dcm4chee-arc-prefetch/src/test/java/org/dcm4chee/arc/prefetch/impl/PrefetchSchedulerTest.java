@@ -0,0 +1,193 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.prefetch.impl;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.net.hl7.UnparsedHL7Message;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.Duration;
+import org.dcm4chee.arc.conf.HL7Fields;
+import org.dcm4chee.arc.conf.HL7PrefetchRule;
+import org.dcm4chee.arc.query.scu.CFindSCU;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class PrefetchSchedulerTest {
+
+    private static final long MINUTE = 60000L;
+
+    private final List<String> queriedPatientIDs = new ArrayList<>();
+    private final Deque<Runnable> executed = new ArrayDeque<>();
+    private final Set<String> failingPatientIDs = new HashSet<>();
+    private boolean runImmediately = true;
+    private ArchiveDeviceExtension arcdev;
+    private PrefetchScheduler scheduler;
+    private HL7PrefetchRule hourly;
+
+    @Before
+    public void setUp() {
+        Device device = new Device("dcm4chee-arc");
+        arcdev = new ArchiveDeviceExtension();
+        device.addDeviceExtension(arcdev);
+        device.setExecutor(task -> {
+            if (runImmediately)
+                task.run();
+            else
+                executed.add(task);
+        });
+        scheduler = new PrefetchScheduler(device, cfindSCU(), null);
+        hourly = rule("hourly", "PT1H");
+    }
+
+    @Test
+    public void suppressDuplicateWithinInterval() {
+        schedule(hourly, "P1", 0);
+        schedule(hourly, "P1", 30 * MINUTE);
+        schedule(hourly, "P2", 30 * MINUTE);
+        schedule(hourly, "P1", 61 * MINUTE);
+
+        assertEquals(Arrays.asList("P1", "P2", "P1"), queriedPatientIDs);
+    }
+
+    @Test
+    public void suppressDuplicatePerRuleInterval() {
+        HL7PrefetchRule shortInterval = rule("short", "PT1M");
+        schedule(hourly, "P1", 0);
+        schedule(shortInterval, "P1", 0);
+        schedule(shortInterval, "P1", 2 * MINUTE);
+        schedule(hourly, "P1", 2 * MINUTE);
+
+        assertEquals(Arrays.asList("P1", "P1", "P1"), queriedPatientIDs);
+    }
+
+    @Test
+    public void failedPrefetchIsNotSuppressed() {
+        failingPatientIDs.add("P1");
+        schedule(hourly, "P1", 0);
+        failingPatientIDs.clear();
+        schedule(hourly, "P1", MINUTE);
+        schedule(hourly, "P1", 2 * MINUTE);
+
+        assertEquals(Arrays.asList("P1", "P1"), queriedPatientIDs);
+    }
+
+    @Test
+    public void pendingPrefetchIsSuppressed() {
+        runImmediately = false;
+        schedule(hourly, "P1", 0);
+        schedule(hourly, "P1", MINUTE);
+        runPending();
+
+        assertEquals(Collections.singletonList("P1"), queriedPatientIDs);
+    }
+
+    @Test
+    public void discardOldestOnBacklogLimit() {
+        runImmediately = false;
+        arcdev.setHL7PrefetchMaxBacklog(2);
+        schedule(hourly, "P1", 0);
+        schedule(hourly, "P2", 0);
+        schedule(hourly, "P3", 0);
+        runPending();
+        assertEquals(Arrays.asList("P2", "P3"), queriedPatientIDs);
+
+        // discarded application is not recorded as done
+        schedule(hourly, "P1", MINUTE);
+        schedule(hourly, "P2", MINUTE);
+        runPending();
+        assertEquals(Arrays.asList("P2", "P3", "P1"), queriedPatientIDs);
+    }
+
+    private void runPending() {
+        Runnable task;
+        while ((task = executed.poll()) != null)
+            task.run();
+    }
+
+    private void schedule(HL7PrefetchRule rule, String pid, long time) {
+        Calendar now = Calendar.getInstance();
+        now.setTimeInMillis(time);
+        scheduler.schedulePrefetch(new Socket(), hl7Fields(pid), rule, arcdev, now);
+    }
+
+    private static HL7PrefetchRule rule(String commonName, String suppressDuplicateRetrieveInterval) {
+        HL7PrefetchRule rule = new HL7PrefetchRule(commonName);
+        rule.setAETitle("DCM4CHEE");
+        rule.setPrefetchCFindSCP("FINDSCP");
+        rule.setSuppressDuplicateRetrieveInterval(Duration.valueOf(suppressDuplicateRetrieveInterval));
+        return rule;
+    }
+
+    private static HL7Fields hl7Fields(String pid) {
+        String msg = "MSH|^~\\&|SND|SNDFAC|RCV|RCVFAC|20261019120000||ORM^O01|1|P|2.5.1\r"
+                + "PID|||" + pid + "^^^ISSUER\r";
+        return new HL7Fields(new UnparsedHL7Message(msg.getBytes(StandardCharsets.US_ASCII)), "ASCII");
+    }
+
+    private CFindSCU cfindSCU() {
+        return (CFindSCU) Proxy.newProxyInstance(PrefetchSchedulerTest.class.getClassLoader(),
+                new Class<?>[]{ CFindSCU.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("find")) {
+                        String pid = ((Attributes) args[4]).getString(Tag.PatientID);
+                        queriedPatientIDs.add(pid);
+                        if (failingPatientIDs.contains(pid))
+                            throw new IllegalStateException("C-FIND SCP unavailable");
+                        return new ArrayList<Attributes>();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
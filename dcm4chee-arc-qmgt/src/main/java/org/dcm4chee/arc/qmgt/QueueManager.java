@@ -63,10 +63,14 @@ public interface QueueManager {
 
     long countScheduledMessagesOnThisDevice(String queueName);
 
+    int remainingCapacityOnThisDevice(String queueName);
+
     QueueMessage onProcessingStart(String msgId);
 
     QueueMessage onProcessingSuccessful(String msgId, Outcome outcome);
 
+    void onProcessingProgress(String msgId, String progress);
+
     QueueMessage onProcessingFailed(String msgId, Throwable e);
 
     boolean cancelTask(String msgId, QueueMessageEvent queueEvent) throws IllegalTaskStateException;
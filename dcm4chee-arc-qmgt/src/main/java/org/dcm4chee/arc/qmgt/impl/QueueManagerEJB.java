@@ -54,6 +54,7 @@ import org.hibernate.annotations.QueryHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Resource;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
@@ -65,6 +66,7 @@ import javax.naming.NamingException;
 import javax.persistence.*;
 import javax.persistence.criteria.*;
 import javax.persistence.metamodel.SingularAttribute;
+import javax.transaction.TransactionSynchronizationRegistry;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.Iterator;
@@ -93,6 +95,12 @@ public class QueueManagerEJB {
     @Inject
     private Event<MessageCanceled> messageCanceledEvent;
 
+    @Inject
+    private QueueMessageCounters counters;
+
+    @Resource
+    private TransactionSynchronizationRegistry txSyncRegistry;
+
     @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public ObjectMessage createObjectMessage(Serializable object) {
         return jmsCtx.createObjectMessage(object);
@@ -109,15 +117,58 @@ public class QueueManagerEJB {
         QueueMessage entity = new QueueMessage(device.getDeviceName(), queueName, msg, delay);
         entity.setBatchID(batchID);
         em.persist(entity);
+        updateCountersOnCommit(null, entity);
         LOG.info("Schedule Task[id={}] at Queue {}", entity.getMessageID(), entity.getQueueName());
         return entity;
     }
 
     public long countScheduledMessagesOnThisDevice(String queueName) {
-        return em.createNamedQuery(QueueMessage.COUNT_BY_DEVICE_AND_QUEUE_NAME_AND_STATUS, Long.class)
+        return countMessagesOnThisDevice(queueName, QueueMessage.Status.SCHEDULED);
+    }
+
+    public int remainingCapacityOnThisDevice(String queueName) {
+        int maxQueueSize = descriptorOf(queueName).getMaxQueueSize();
+        return maxQueueSize > 0
+                ? (int) Math.max(0L, maxQueueSize - countScheduledMessagesOnThisDevice(queueName))
+                : Integer.MAX_VALUE;
+    }
+
+    public long countMessagesOnThisDevice(String queueName, QueueMessage.Status status) {
+        Long count = counters.get(queueName, status);
+        return count != null ? count : recountMessagesOnThisDevice(queueName)[status.ordinal()];
+    }
+
+    public long[] recountMessagesOnThisDevice(String queueName) {
+        long stamp = counters.beginRecount();
+        long[] counts = new long[QueueMessage.Status.values().length];
+        em.createNamedQuery(QueueMessage.COUNT_BY_DEVICE_AND_QUEUE_NAME_GROUP_BY_STATUS, Object[].class)
                 .setParameter(1, device.getDeviceName())
                 .setParameter(2, queueName)
-                .setParameter(3, QueueMessage.Status.SCHEDULED).getSingleResult();
+                .getResultList()
+                .forEach(row -> counts[((QueueMessage.Status) row[0]).ordinal()] = (Long) row[1]);
+        // uncommitted changes of this transaction are already counted, but will be applied again on commit
+        if (txSyncRegistry.getResource(QueueMessageCounters.class) == null
+                && !counters.set(queueName, counts, stamp))
+            LOG.debug("Concurrent changes of queue messages - do not cache recounted messages of Queue {}", queueName);
+        return counts;
+    }
+
+    private void updateCountersOnCommit(QueueMessageCounters.State prev, QueueMessage entity) {
+        QueueMessageCounters.State state = entity != null ? new QueueMessageCounters.State(entity) : null;
+        if (prev == null ? state == null : prev.equals(state))
+            return;
+
+        String deviceName = device.getDeviceName();
+        afterCommit(() -> counters.update(deviceName, prev, state));
+    }
+
+    private void invalidateCountersOnCommit() {
+        afterCommit(counters::invalidate);
+    }
+
+    private void afterCommit(Runnable action) {
+        txSyncRegistry.putResource(QueueMessageCounters.class, Boolean.TRUE);
+        txSyncRegistry.registerInterposedSynchronization(counters.onCommit(action));
     }
 
     @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
@@ -130,9 +181,11 @@ public class QueueManagerEJB {
             case SCHEDULED:
                 LOG.info("Start processing Task[id={}] from Queue {} with Status: {}",
                         entity.getMessageID(), entity.getQueueName(), entity.getStatus());
+                QueueMessageCounters.State prev = new QueueMessageCounters.State(entity);
                 entity.setProcessingStartTime(new Date());
                 entity.setStatus(QueueMessage.Status.IN_PROCESS);
                 setUpdateTime(entity);
+                updateCountersOnCommit(prev, entity);
                 return entity;
             default:
                 LOG.info("Suppress processing of Task[id={}] from Queue {} with Status: {}",
@@ -148,6 +201,13 @@ public class QueueManagerEJB {
             LOG.info("Finished processing of Task[id={}]", msgId);
             return null;
         }
+        QueueMessageCounters.State prev = new QueueMessageCounters.State(entity);
+        onProcessingSuccessful(msgId, entity, outcome);
+        updateCountersOnCommit(prev, entity);
+        return entity;
+    }
+
+    private void onProcessingSuccessful(String msgId, QueueMessage entity, Outcome outcome) {
         QueueMessage.Status status = outcome.getStatus();
         String queueName = entity.getQueueName();
         entity.setProcessingEndTime(new Date());
@@ -157,7 +217,7 @@ public class QueueManagerEJB {
         if (status == QueueMessage.Status.COMPLETED
                 || status == QueueMessage.Status.WARNING && !descriptorOf(queueName).isRetryOnWarning()) {
             LOG.info("Finished processing of Task[id={}] at Queue {} with Status {}", msgId, queueName, status);
-            return entity;
+            return;
         }
         QueueDescriptor descriptor = descriptorOf(queueName);
         long delay = descriptor.getRetryDelayInSeconds(entity.incrementNumberOfFailures());
@@ -166,11 +226,20 @@ public class QueueManagerEJB {
                     msgId, queueName, status);
             entity.setStatus(QueueMessage.Status.SCHEDULED);
             rescheduleTask(entity, descriptor, delay * 1000L);
-            return entity;
+            return;
         }
         LOG.warn("Failed processing of Task[id={}] at Queue {} with Status {}", msgId, queueName, status);
         entity.setStatus(status);
-        return entity;
+    }
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void onProcessingProgress(String msgId, String progress) {
+        QueueMessage entity = findQueueMessage(msgId);
+        if (entity == null || entity.getStatus() != QueueMessage.Status.IN_PROCESS)
+            return;
+
+        entity.setOutcomeMessage(progress);
+        setUpdateTime(entity);
     }
 
     @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
@@ -181,6 +250,7 @@ public class QueueManagerEJB {
             return null;
         }
 
+        QueueMessageCounters.State prev = new QueueMessageCounters.State(entity);
         entity.setErrorMessage(e.getMessage());
         entity.setProcessingEndTime(new Date());
         QueueDescriptor descriptor = descriptorOf(entity.getQueueName());
@@ -193,6 +263,7 @@ public class QueueManagerEJB {
             LOG.info("Failed processing of Task[id={}] at Queue {} - retry:\n", msgId, entity.getQueueName(), e);
             rescheduleTask(entity, descriptor, delay * 1000L);
         }
+        updateCountersOnCommit(prev, entity);
         return entity;
     }
 
@@ -217,8 +288,10 @@ public class QueueManagerEJB {
     }
 
     private void cancelTask(QueueMessage entity) {
+        QueueMessageCounters.State prev = new QueueMessageCounters.State(entity);
         entity.setStatus(QueueMessage.Status.CANCELED);
         setUpdateTime(entity);
+        updateCountersOnCommit(prev, entity);
         LOG.info("Cancel processing of Task[id={}] at Queue {}", entity.getMessageID(), entity.getQueueName());
         messageCanceledEvent.fire(new MessageCanceled(entity.getMessageID()));
     }
@@ -307,6 +380,7 @@ public class QueueManagerEJB {
     private long updateStatus(Subquery<QueueMessage> sq, QueueMessage.Status status, Date now) {
         CriteriaUpdate<QueueMessage> q = em.getCriteriaBuilder().createCriteriaUpdate(QueueMessage.class);
         Root<QueueMessage> queueMsg = q.from(QueueMessage.class);
+        invalidateCountersOnCommit();
         return em.createQuery(q.where(queueMsg.get(QueueMessage_.pk).in(sq))
                 .set(queueMsg.get(QueueMessage_.updatedTime), now)
                 .set(queueMsg.get(QueueMessage_.status), status))
@@ -462,6 +536,7 @@ public class QueueManagerEJB {
             case IN_PROCESS:
                 cancelTask(entity);
         }
+        QueueMessageCounters.State prev = new QueueMessageCounters.State(entity);
         if (queueName != null)
             entity.setQueueName(queueName);
         entity.setNumberOfFailures(0);
@@ -469,6 +544,7 @@ public class QueueManagerEJB {
         entity.setOutcomeMessage(null);
         rescheduleTask(entity, descriptorOf(entity.getQueueName()), 0L);
         updateTaskDeviceName(entity);
+        updateCountersOnCommit(prev, entity);
     }
 
     private void rescheduleTask(QueueMessage entity, QueueDescriptor descriptor, long delay) {
@@ -513,6 +589,7 @@ public class QueueManagerEJB {
     }
 
     private void deleteTask(QueueMessage entity, boolean deleteAssociated) {
+        QueueMessageCounters.State prev = new QueueMessageCounters.State(entity);
         if (entity.getStatus() == QueueMessage.Status.IN_PROCESS)
             messageCanceledEvent.fire(new MessageCanceled(entity.getMessageID()));
 
@@ -528,6 +605,7 @@ public class QueueManagerEJB {
         }
 
         em.remove(entity);
+        updateCountersOnCommit(prev, null);
         LOG.info("Delete Task[id={}] from Queue {}", entity.getMessageID(), entity.getQueueName());
     }
 
@@ -618,6 +696,10 @@ public class QueueManagerEJB {
     }
 
     public long countTasks(TaskQueryParam queueTaskQueryParam) {
+        if (isCountedOnThisDevice(queueTaskQueryParam))
+            return countMessagesOnThisDevice(
+                    queueTaskQueryParam.getQueueName().get(0), queueTaskQueryParam.getStatus());
+
         CriteriaBuilder cb = em.getCriteriaBuilder();
         MatchTask matchTask = new MatchTask(cb);
 
@@ -632,6 +714,18 @@ public class QueueManagerEJB {
         return QueryBuilder.unbox(em.createQuery(q.select(cb.count(queueMsg))).getSingleResult(), 0L);
     }
 
+    private boolean isCountedOnThisDevice(TaskQueryParam queueTaskQueryParam) {
+        return queueTaskQueryParam.getQueueName().size() == 1
+                && queueTaskQueryParam.getStatus() != null
+                && queueTaskQueryParam.getStatus() != QueueMessage.Status.TO_SCHEDULE
+                && device.getDeviceName().equals(queueTaskQueryParam.getDeviceName())
+                && queueTaskQueryParam.getBatchID() == null
+                && queueTaskQueryParam.getJmsMessageID() == null
+                && queueTaskQueryParam.getCreatedTime() == null
+                && queueTaskQueryParam.getUpdatedTime() == null
+                && queueTaskQueryParam.getUpdatedBefore() == null;
+    }
+
     private int queryFetchSize() {
         return device.getDeviceExtensionNotNull(ArchiveDeviceExtension.class).getQueryFetchSize();
     }
@@ -665,6 +759,7 @@ public class QueueManagerEJB {
     }
 
     public void retryInProcessTasks() {
+        invalidateCountersOnCommit();
         device.getDeviceExtension(ArchiveDeviceExtension.class)
                 .getQueueDescriptors()
                 .forEach(desc -> {
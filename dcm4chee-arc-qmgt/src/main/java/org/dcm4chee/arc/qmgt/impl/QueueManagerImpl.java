@@ -85,6 +85,11 @@ public class QueueManagerImpl implements QueueManager {
         return ejb.countScheduledMessagesOnThisDevice(queueName);
     }
 
+    @Override
+    public int remainingCapacityOnThisDevice(String queueName) {
+        return ejb.remainingCapacityOnThisDevice(queueName);
+    }
+
     @Override
     public QueueMessage onProcessingStart(String msgId) {
         try {
@@ -105,6 +110,15 @@ public class QueueManagerImpl implements QueueManager {
         }
     }
 
+    @Override
+    public void onProcessingProgress(String msgId, String progress) {
+        try {
+            ejb.onProcessingProgress(msgId, progress);
+        } catch (Throwable e) {
+            logDBUpdateFailed("onProcessingProgress", msgId, e);
+        }
+    }
+
     @Override
     public QueueMessage onProcessingFailed(String msgId, Throwable e) {
         try {
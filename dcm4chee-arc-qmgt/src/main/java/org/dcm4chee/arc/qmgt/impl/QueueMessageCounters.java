@@ -0,0 +1,174 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.qmgt.impl;
+
+import org.dcm4chee.arc.entity.QueueMessage;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Number of queue messages of this device by queue name and status, initialized from and reconciled with the DB,
+ * and adjusted on each status change of a queue message committed by this device.
+ * <p>
+ * Counts queried from the DB are only cached, if no transaction changing queue messages committed meanwhile or
+ * was about to commit, when the query started. Otherwise the counts may miss or include twice such changes.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+@ApplicationScoped
+public class QueueMessageCounters {
+
+    private final Map<String, long[]> counters = new HashMap<>();
+    private int pendingCommits;
+    private long modCount;
+
+    public synchronized Long get(String queueName, QueueMessage.Status status) {
+        long[] counts = counters.get(queueName);
+        return counts != null ? counts[status.ordinal()] : null;
+    }
+
+    /**
+     * Returns the stamp to pass to {@link #set} with the counts queried from the DB after this invocation,
+     * or {@code -1} if a transaction changing queue messages is about to commit.
+     */
+    public synchronized long beginRecount() {
+        return pendingCommits == 0 ? modCount : -1L;
+    }
+
+    /**
+     * Caches counts queried from the DB, if no transaction changing queue messages committed since or was about to
+     * commit at {@link #beginRecount}.
+     *
+     * @return {@code true} if the counts were cached
+     */
+    public synchronized boolean set(String queueName, long[] counts, long stamp) {
+        if (stamp < 0 || stamp != modCount || pendingCommits > 0)
+            return false;
+
+        counters.put(queueName, counts.clone());
+        return true;
+    }
+
+    public synchronized void invalidate() {
+        counters.clear();
+    }
+
+    public synchronized void update(String deviceName, State prev, State state) {
+        if (prev != null && prev.deviceName.equals(deviceName))
+            add(prev.queueName, prev.status, -1);
+        if (state != null && state.deviceName.equals(deviceName))
+            add(state.queueName, state.status, 1);
+    }
+
+    /**
+     * Returns {@link Synchronization} which invokes {@code action} after commit of the transaction and tracks
+     * the transaction as pending commit between {@code beforeCompletion} and {@code afterCompletion}.
+     */
+    public Synchronization onCommit(Runnable action) {
+        return new Synchronization() {
+            private boolean pending;
+
+            @Override
+            public void beforeCompletion() {
+                synchronized (QueueMessageCounters.this) {
+                    pendingCommits++;
+                    pending = true;
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (QueueMessageCounters.this) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        action.run();
+                        modCount++;
+                    }
+                    if (pending)
+                        pendingCommits--;
+                }
+            }
+        };
+    }
+
+    private void add(String queueName, QueueMessage.Status status, int delta) {
+        long[] counts = counters.get(queueName);
+        if (counts != null)
+            counts[status.ordinal()] += delta;
+    }
+
+    public static final class State {
+        private final String deviceName;
+        private final String queueName;
+        private final QueueMessage.Status status;
+
+        public State(QueueMessage entity) {
+            this(entity.getDeviceName(), entity.getQueueName(), entity.getStatus());
+        }
+
+        State(String deviceName, String queueName, QueueMessage.Status status) {
+            this.deviceName = deviceName;
+            this.queueName = queueName;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            State other = (State) o;
+            return deviceName.equals(other.deviceName)
+                    && queueName.equals(other.queueName)
+                    && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(deviceName, queueName, status);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.qmgt.impl;
+
+import org.dcm4chee.arc.entity.QueueMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class QueueMessageCountersTest {
+
+    private static final String DEVICE = "dcm4chee-arc";
+    private static final String QUEUE = "Export1";
+
+    private QueueMessageCounters counters;
+
+    @Before
+    public void setUp() {
+        counters = new QueueMessageCounters();
+    }
+
+    @Test
+    public void testUpdateOnCommit() {
+        assertTrue(counters.set(QUEUE, counts(3, 0), counters.beginRecount()));
+        Synchronization sync = counters.onCommit(() -> counters.update(DEVICE,
+                state(QueueMessage.Status.SCHEDULED), state(QueueMessage.Status.CANCELED)));
+        sync.beforeCompletion();
+        sync.afterCompletion(Status.STATUS_COMMITTED);
+        assertEquals(Long.valueOf(2), counters.get(QUEUE, QueueMessage.Status.SCHEDULED));
+        assertEquals(Long.valueOf(1), counters.get(QUEUE, QueueMessage.Status.CANCELED));
+    }
+
+    @Test
+    public void testNoUpdateOnRollback() {
+        assertTrue(counters.set(QUEUE, counts(3, 0), counters.beginRecount()));
+        Synchronization sync = counters.onCommit(() -> counters.update(DEVICE,
+                state(QueueMessage.Status.SCHEDULED), state(QueueMessage.Status.CANCELED)));
+        sync.beforeCompletion();
+        sync.afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertEquals(Long.valueOf(3), counters.get(QUEUE, QueueMessage.Status.SCHEDULED));
+        assertTrue(counters.set(QUEUE, counts(3, 0), counters.beginRecount()));
+    }
+
+    @Test
+    public void testIgnoreOtherDevice() {
+        assertTrue(counters.set(QUEUE, counts(3, 0), counters.beginRecount()));
+        counters.update("other-device", null, state(QueueMessage.Status.SCHEDULED));
+        assertEquals(Long.valueOf(3), counters.get(QUEUE, QueueMessage.Status.SCHEDULED));
+    }
+
+    @Test
+    public void testRecountSkippedIfCommittedMeanwhile() {
+        long stamp = counters.beginRecount();
+        Synchronization sync = counters.onCommit(() -> counters.update(DEVICE,
+                null, state(QueueMessage.Status.SCHEDULED)));
+        sync.beforeCompletion();
+        sync.afterCompletion(Status.STATUS_COMMITTED);
+        assertFalse(counters.set(QUEUE, counts(3, 0), stamp));
+        assertNull(counters.get(QUEUE, QueueMessage.Status.SCHEDULED));
+    }
+
+    @Test
+    public void testRecountSkippedIfCommitPending() {
+        Synchronization sync = counters.onCommit(() -> counters.update(DEVICE,
+                null, state(QueueMessage.Status.SCHEDULED)));
+        sync.beforeCompletion();
+        assertEquals(-1L, counters.beginRecount());
+        long stamp = 0L;
+        assertFalse(counters.set(QUEUE, counts(3, 0), stamp));
+        sync.afterCompletion(Status.STATUS_COMMITTED);
+        assertNull(counters.get(QUEUE, QueueMessage.Status.SCHEDULED));
+        assertTrue(counters.set(QUEUE, counts(4, 0), counters.beginRecount()));
+        assertEquals(Long.valueOf(4), counters.get(QUEUE, QueueMessage.Status.SCHEDULED));
+    }
+
+    @Test
+    public void testInvalidate() {
+        assertTrue(counters.set(QUEUE, counts(3, 0), counters.beginRecount()));
+        Synchronization sync = counters.onCommit(counters::invalidate);
+        sync.beforeCompletion();
+        sync.afterCompletion(Status.STATUS_COMMITTED);
+        assertNull(counters.get(QUEUE, QueueMessage.Status.SCHEDULED));
+    }
+
+    private static QueueMessageCounters.State state(QueueMessage.Status status) {
+        return new QueueMessageCounters.State(DEVICE, QUEUE, status);
+    }
+
+    private static long[] counts(long scheduled, long canceled) {
+        long[] counts = new long[QueueMessage.Status.values().length];
+        counts[QueueMessage.Status.SCHEDULED.ordinal()] = scheduled;
+        counts[QueueMessage.Status.CANCELED.ordinal()] = canceled;
+        return counts;
+    }
+}
@@ -43,8 +43,6 @@ package org.dcm4chee.arc.query.scp;
 import org.dcm4che3.data.*;
 import org.dcm4che3.dict.archive.PrivateTag;
 import org.dcm4che3.io.SAXTransformer;
-import org.dcm4che3.io.TemplatesCache;
-import org.dcm4che3.io.XSLTAttributesCoercion;
 import org.dcm4che3.net.Association;
 import org.dcm4che3.net.Dimse;
 import org.dcm4che3.net.QueryOption;
@@ -54,9 +52,10 @@ import org.dcm4che3.net.service.BasicCFindSCP;
 import org.dcm4che3.net.service.DicomServiceException;
 import org.dcm4che3.net.service.QueryRetrieveLevel2;
 import org.dcm4che3.net.service.QueryTask;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4chee.arc.conf.ArchiveAEExtension;
 import org.dcm4chee.arc.conf.ArchiveAttributeCoercion;
+import org.dcm4chee.arc.conf.PooledXSLTAttributesCoercion;
+import org.dcm4chee.arc.conf.TransformerPool;
 import org.dcm4chee.arc.conf.UseCallingAETitleAsCoercion;
 import org.dcm4chee.arc.mima.SupplementAssigningAuthorities;
 import org.dcm4chee.arc.query.QueryContext;
@@ -68,7 +67,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.ejb.EJB;
 import javax.inject.Inject;
-import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import java.util.EnumSet;
 import java.util.stream.Collectors;
@@ -165,9 +163,8 @@ class CommonCFindSCP extends BasicCFindSCP {
         String xsltStylesheetURI = rule.getXSLTStylesheetURI();
         if (xsltStylesheetURI != null)
             try {
-                Templates tpls = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(xsltStylesheetURI));
                 LOG.info("Coerce Attributes from rule: {}", rule);
-                return new XSLTAttributesCoercion(tpls, null)
+                return new PooledXSLTAttributesCoercion(TransformerPool.of(xsltStylesheetURI), null)
                         .includeKeyword(!rule.isNoKeywords())
                         .setupTransformer(setupTransformer(ctx));
             } catch (TransformerConfigurationException e) {
@@ -0,0 +1,222 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.query.scu.impl;
+
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.net.QueryOption;
+import org.dcm4chee.arc.conf.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps idle associations open for re-use by subsequent C-FIND requests with equal Calling AE Title,
+ * Called AE Title, Query/Retrieve Information Model and Query Options, and limits the number of associations
+ * open at the same time for such requests.
+ * <p>
+ * Each successful {@link #acquire} has to be followed by either {@link #offer} or {@link #discard}.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+class AssociationPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssociationPool.class);
+
+    private final Map<Key, Entry> pool = new HashMap<>();
+
+    /**
+     * Returns an idle association for re-use or {@code null}, if the caller shall open a new association.
+     * Waits for another caller to return or discard its association, if {@code maxAssociations} associations
+     * are already open.
+     *
+     * @param key             Calling and Called AE Title, Query/Retrieve Information Model and Query Options
+     * @param maxAssociations maximal number of open associations; 0 = unlimited
+     * @param timeout         maximal time in ms to wait for an association; 0 = unlimited
+     * @throws IOException if no association was returned or discarded within {@code timeout}
+     */
+    Association acquire(Key key, int maxAssociations, int timeout) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (pool) {
+            Entry entry = pool.computeIfAbsent(key, k -> new Entry());
+            for (;;) {
+                Idle idle;
+                while ((idle = entry.idle.poll()) != null) {
+                    if (idle.as.isReadyForDataTransfer()) {
+                        LOG.debug("{}: re-use for {}", idle.as, key);
+                        entry.inUse++;
+                        return idle.as;
+                    }
+                    LOG.debug("{}: discard closed association", idle.as);
+                }
+                if (maxAssociations == 0 || entry.inUse < maxAssociations) {
+                    entry.inUse++;
+                    return null;
+                }
+                LOG.debug("Maximal number of {} associations for {} reached - wait", maxAssociations, key);
+                if (timeout == 0) {
+                    pool.wait();
+                    continue;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0)
+                    throw new IOException("Timeout after " + timeout + " ms waiting for one of "
+                            + maxAssociations + " associations for " + key);
+                pool.wait(remaining);
+            }
+        }
+    }
+
+    /**
+     * Returns an acquired association for re-use by subsequent C-FIND requests.
+     *
+     * @return {@code false} if the association is not kept and has to be released by the caller
+     */
+    boolean offer(Key key, Association as, int maxIdle, Duration idleTimeout) {
+        Idle idle = new Idle(as);
+        synchronized (pool) {
+            Entry entry = pool.get(key);
+            entry.inUse--;
+            pool.notifyAll();
+            if (!as.isReadyForDataTransfer() || entry.idle.size() >= maxIdle)
+                return false;
+
+            entry.idle.push(idle);
+        }
+        Device device = as.getApplicationEntity().getDevice();
+        device.schedule(() -> {
+                    if (remove(key, idle))
+                        release(idle.as);
+                },
+                idleTimeout.getSeconds(), TimeUnit.SECONDS);
+        return true;
+    }
+
+    /**
+     * Signals that an acquired association was released or aborted or could not be opened.
+     */
+    void discard(Key key) {
+        synchronized (pool) {
+            pool.get(key).inUse--;
+            pool.notifyAll();
+        }
+    }
+
+    void releaseAll() {
+        List<Idle> idles = new ArrayList<>();
+        synchronized (pool) {
+            pool.values().forEach(entry -> {
+                idles.addAll(entry.idle);
+                entry.idle.clear();
+            });
+        }
+        idles.forEach(idle -> release(idle.as));
+    }
+
+    private boolean remove(Key key, Idle idle) {
+        synchronized (pool) {
+            Entry entry = pool.get(key);
+            return entry != null && entry.idle.remove(idle);
+        }
+    }
+
+    private static void release(Association as) {
+        try {
+            LOG.debug("{}: release idle association", as);
+            as.release();
+        } catch (Exception e) {
+            LOG.info("{}: failed to release idle association:\n", as, e);
+        }
+    }
+
+    private static class Entry {
+        final Deque<Idle> idle = new ArrayDeque<>();
+        int inUse;
+    }
+
+    private static class Idle {
+        final Association as;
+
+        Idle(Association as) {
+            this.as = as;
+        }
+    }
+
+    static class Key {
+        private final String callingAET;
+        private final String calledAET;
+        private final String cuid;
+        private final EnumSet<QueryOption> queryOptions;
+
+        Key(String callingAET, String calledAET, String cuid, EnumSet<QueryOption> queryOptions) {
+            this.callingAET = callingAET;
+            this.calledAET = calledAET;
+            this.cuid = cuid;
+            this.queryOptions = queryOptions;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return callingAET.equals(key.callingAET)
+                    && calledAET.equals(key.calledAET)
+                    && cuid.equals(key.cuid)
+                    && Objects.equals(queryOptions, key.queryOptions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(callingAET, calledAET, cuid, queryOptions);
+        }
+
+        @Override
+        public String toString() {
+            return callingAET + "->" + calledAET + ":" + cuid + queryOptions;
+        }
+    }
+}
@@ -48,11 +48,13 @@ import org.dcm4che3.net.pdu.ExtendedNegotiation;
 import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.service.DicomServiceException;
 import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
 import org.dcm4chee.arc.conf.Duration;
 import org.dcm4chee.arc.query.scu.CFindSCU;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.ArrayList;
@@ -73,17 +75,21 @@ public class CFindSCUImpl implements CFindSCU {
     @Inject
     private IApplicationEntityCache aeCache;
 
+    private final AssociationPool pool = new AssociationPool();
+
+    public CFindSCUImpl() {
+    }
+
+    CFindSCUImpl(IApplicationEntityCache aeCache) {
+        this.aeCache = aeCache;
+    }
+
     @Override
     public List<Attributes> findPatient(ApplicationEntity localAE, String calledAET, int priority, IDWithIssuer pid,
                                         int... returnKeys) throws Exception {
-        Association as = openAssociation(localAE, calledAET, UID.PatientRootQueryRetrieveInformationModelFIND,
-                queryOptions(false));
-        try {
-            return findPatient(as, priority, pid, returnKeys);
-        } finally {
-            as.waitForOutstandingRSP();
-            as.release();
-        }
+        return withAssociation(localAE, calledAET, UID.PatientRootQueryRetrieveInformationModelFIND,
+                queryOptions(false),
+                as -> findPatient(as, priority, pid, returnKeys));
     }
 
     @Override
@@ -107,27 +113,16 @@ public class CFindSCUImpl implements CFindSCU {
     @Override
     public List<Attributes> find(ApplicationEntity localAE, String calledAET, EnumSet<QueryOption> queryOptions,
             int priority, Attributes keys) throws Exception {
-        Association as = openAssociation(localAE, calledAET, UID.StudyRootQueryRetrieveInformationModelFIND,
-                queryOptions);
-        try {
-            return find(as, priority, keys);
-        } finally {
-            as.waitForOutstandingRSP();
-            as.release();
-        }
+        return withAssociation(localAE, calledAET, UID.StudyRootQueryRetrieveInformationModelFIND, queryOptions,
+                as -> find(as, priority, keys));
     }
 
     @Override
     public List<Attributes> findStudy(ApplicationEntity localAE, String calledAET, int priority, String studyIUID,
                                       int... returnKeys) throws Exception {
-        Association as = openAssociation(localAE, calledAET, UID.StudyRootQueryRetrieveInformationModelFIND,
-                queryOptions(false));
-        try {
-            return findStudy(as, priority, studyIUID, returnKeys);
-        } finally {
-            as.waitForOutstandingRSP();
-            as.release();
-        }
+        return withAssociation(localAE, calledAET, UID.StudyRootQueryRetrieveInformationModelFIND,
+                queryOptions(false),
+                as -> findStudy(as, priority, studyIUID, returnKeys));
     }
 
     @Override
@@ -142,14 +137,9 @@ public class CFindSCUImpl implements CFindSCU {
     @Override
     public List<Attributes> findSeries(ApplicationEntity localAE, String calledAET, int priority, String studyIUID,
                                        String seriesIUID, int... returnKeys) throws Exception {
-        Association as = openAssociation(localAE, calledAET, UID.StudyRootQueryRetrieveInformationModelFIND,
-                queryOptions(studyIUID == null));
-        try {
-            return findSeries(as, priority, studyIUID, seriesIUID, returnKeys);
-        } finally {
-            as.waitForOutstandingRSP();
-            as.release();
-        }
+        return withAssociation(localAE, calledAET, UID.StudyRootQueryRetrieveInformationModelFIND,
+                queryOptions(studyIUID == null),
+                as -> findSeries(as, priority, studyIUID, seriesIUID, returnKeys));
     }
 
     @Override
@@ -165,14 +155,9 @@ public class CFindSCUImpl implements CFindSCU {
     @Override
     public List<Attributes> findInstance(ApplicationEntity localAE, String calledAET, int priority, String studyIUID,
                                          String seriesIUID, String sopIUID, int... returnKeys) throws Exception {
-        Association as = openAssociation(localAE, calledAET, UID.StudyRootQueryRetrieveInformationModelFIND,
-                queryOptions(studyIUID == null || seriesIUID == null));
-        try {
-            return findInstance(as, priority, studyIUID, seriesIUID, sopIUID, returnKeys);
-        } finally {
-            as.waitForOutstandingRSP();
-            as.release();
-        }
+        return withAssociation(localAE, calledAET, UID.StudyRootQueryRetrieveInformationModelFIND,
+                queryOptions(studyIUID == null || seriesIUID == null),
+                as -> findInstance(as, priority, studyIUID, seriesIUID, sopIUID, returnKeys));
     }
 
     @Override
@@ -186,6 +171,94 @@ public class CFindSCUImpl implements CFindSCU {
                                                 new Attributes(4 + returnKeys.length))))));
     }
 
+    @PreDestroy
+    public void releaseIdleAssociations() {
+        pool.releaseAll();
+    }
+
+    private List<Attributes> withAssociation(ApplicationEntity localAE, String calledAET, String cuid,
+            EnumSet<QueryOption> queryOptions, Query query) throws Exception {
+        ArchiveDeviceExtension arcDev = localAE.getDevice().getDeviceExtensionNotNull(ArchiveDeviceExtension.class);
+        int maxIdle = arcDev.getCFindSCUMaxIdleAssociations();
+        int maxAssociations = arcDev.getCFindSCUMaxAssociations();
+        if (maxIdle == 0 && maxAssociations == 0) {
+            Association as = openAssociation(localAE, calledAET, cuid, queryOptions);
+            try {
+                return query.apply(as);
+            } finally {
+                as.waitForOutstandingRSP();
+                as.release();
+            }
+        }
+        AssociationPool.Key key = new AssociationPool.Key(localAE.getAETitle(), calledAET, cuid, queryOptions);
+        Duration idleTimeout = arcDev.getCFindSCUAssociationIdleTimeout();
+        Association as = pool.acquire(key, maxAssociations, acquireTimeout(localAE));
+        if (as != null) {
+            List<Attributes> result;
+            try {
+                result = query.apply(as);
+            } catch (DicomServiceException e) {
+                offerOrRelease(key, as, maxIdle, idleTimeout);
+                throw e;
+            } catch (Exception e) {
+                LOG.info("{}: query on re-used association failed - retry on new association:\n", as, e);
+                as.abort();
+                return withNewAssociation(localAE, calledAET, cuid, queryOptions, query, key, maxIdle, idleTimeout);
+            }
+            offerOrRelease(key, as, maxIdle, idleTimeout);
+            return result;
+        }
+        return withNewAssociation(localAE, calledAET, cuid, queryOptions, query, key, maxIdle, idleTimeout);
+    }
+
+    private static int acquireTimeout(ApplicationEntity localAE) {
+        int timeout = 0;
+        for (Connection conn : localAE.getConnections())
+            timeout = Math.max(timeout, Math.max(conn.getConnectTimeout(), conn.getResponseTimeout()));
+        return timeout;
+    }
+
+    private List<Attributes> withNewAssociation(ApplicationEntity localAE, String calledAET, String cuid,
+            EnumSet<QueryOption> queryOptions, Query query, AssociationPool.Key key, int maxIdle,
+            Duration idleTimeout) throws Exception {
+        Association as;
+        try {
+            as = openAssociation(localAE, calledAET, cuid, queryOptions);
+        } catch (Exception e) {
+            pool.discard(key);
+            throw e;
+        }
+        List<Attributes> result;
+        try {
+            result = query.apply(as);
+        } catch (DicomServiceException e) {
+            offerOrRelease(key, as, maxIdle, idleTimeout);
+            throw e;
+        } catch (Exception e) {
+            pool.discard(key);
+            as.waitForOutstandingRSP();
+            as.release();
+            throw e;
+        }
+        offerOrRelease(key, as, maxIdle, idleTimeout);
+        return result;
+    }
+
+    private void offerOrRelease(AssociationPool.Key key, Association as, int maxIdle, Duration idleTimeout)
+            throws Exception {
+        try {
+            as.waitForOutstandingRSP();
+        } finally {
+            if (!pool.offer(key, as, maxIdle, idleTimeout))
+                as.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        List<Attributes> apply(Association as) throws Exception;
+    }
+
     @Override
     public Association openAssociation(ApplicationEntity localAE, String calledAET,
                                        String cuid, EnumSet<QueryOption> queryOptions)
@@ -0,0 +1,261 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.query.scu.impl;
+
+import org.dcm4che3.conf.api.IApplicationEntityCache;
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.*;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.*;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class CFindSCUImplTest {
+
+    private static final String SCP_AET = "FIND_SCP";
+    private static final String SCU_AET = "FIND_SCU";
+    private static final int LOOKUPS = 20;
+
+    private final CountingCFindSCP findSCP = new CountingCFindSCP();
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device scpDevice;
+    private ApplicationEntity scpAE;
+    private ApplicationEntity scuAE;
+    private Connection scuConn;
+    private ArchiveDeviceExtension arcDev;
+    private CFindSCUImpl findSCU;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        scpDevice = createSCPDevice();
+        scpDevice.bindConnections();
+        createSCUDevice();
+        findSCU = new CFindSCUImpl((IApplicationEntityCache) Proxy.newProxyInstance(
+                CFindSCUImplTest.class.getClassLoader(),
+                new Class<?>[]{ IApplicationEntityCache.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findApplicationEntity") && SCP_AET.equals(args[0]))
+                        return scpAE;
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+
+    @After
+    public void tearDown() {
+        findSCU.releaseIdleAssociations();
+        scpDevice.unbindConnections();
+        scheduledExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testWithoutPoolOpensAssociationPerLookup() throws Exception {
+        for (int i = 0; i < LOOKUPS; i++)
+            assertEquals(1, findSCU.findStudy(scuAE, SCP_AET, 0, "1.2.3." + i).size());
+
+        assertEquals(LOOKUPS, findSCP.associations.size());
+    }
+
+    @Test
+    public void testPooledAssociationIsReused() throws Exception {
+        arcDev.setCFindSCUMaxIdleAssociations(1);
+        for (int i = 0; i < LOOKUPS; i++)
+            assertEquals(1, findSCU.findStudy(scuAE, SCP_AET, 0, "1.2.3." + i).size());
+
+        assertEquals(1, findSCP.associations.size());
+    }
+
+    @Test
+    public void testMaxAssociations() throws Exception {
+        arcDev.setCFindSCUMaxIdleAssociations(2);
+        arcDev.setCFindSCUMaxAssociations(2);
+        findSCP.delay = 50;
+        List<Future<List<Attributes>>> results = new ArrayList<>();
+        for (int i = 0; i < LOOKUPS; i++) {
+            String studyIUID = "1.2.3." + i;
+            results.add(executor.submit(() -> findSCU.findStudy(scuAE, SCP_AET, 0, studyIUID)));
+        }
+        for (Future<List<Attributes>> result : results)
+            assertEquals(1, result.get(10, TimeUnit.SECONDS).size());
+
+        assertTrue(findSCP.maxConcurrent.get() <= 2);
+        assertTrue(findSCP.associations.size() <= 2);
+    }
+
+    @Test
+    public void testWaitForAssociationTimesOut() throws Exception {
+        arcDev.setCFindSCUMaxIdleAssociations(1);
+        arcDev.setCFindSCUMaxAssociations(1);
+        scuConn.setConnectTimeout(200);
+        findSCP.delay = 2000;
+        Future<List<Attributes>> first = executor.submit(() -> findSCU.findStudy(scuAE, SCP_AET, 0, "1.2.3.1"));
+        while (findSCP.open.isEmpty())
+            Thread.sleep(10);
+
+        long start = System.currentTimeMillis();
+        try {
+            findSCU.findStudy(scuAE, SCP_AET, 0, "1.2.3.2");
+            fail("expected IOException");
+        } catch (IOException expected) {
+        }
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertEquals(1, first.get(10, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    public void testReleaseIdleAssociations() throws Exception {
+        arcDev.setCFindSCUMaxIdleAssociations(1);
+        findSCU.findStudy(scuAE, SCP_AET, 0, "1.2.3");
+        findSCU.releaseIdleAssociations();
+        findSCU.findStudy(scuAE, SCP_AET, 0, "1.2.3");
+        assertEquals(2, findSCP.associations.size());
+    }
+
+    private Device createSCPDevice() throws Exception {
+        Device device = new Device("find-scp");
+        Connection conn = new Connection(null, "127.0.0.1", freePort());
+        device.addConnection(conn);
+        scpAE = new ApplicationEntity(SCP_AET);
+        scpAE.setAssociationAcceptor(true);
+        scpAE.addConnection(conn);
+        scpAE.addTransferCapability(new TransferCapability(null,
+                UID.StudyRootQueryRetrieveInformationModelFIND, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+        device.addApplicationEntity(scpAE);
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+        serviceRegistry.addDicomService(findSCP);
+        device.setDimseRQHandler(serviceRegistry);
+        device.setExecutor(executor);
+        device.setScheduledExecutor(scheduledExecutor);
+        return device;
+    }
+
+    private Device createSCUDevice() {
+        Device device = new Device("find-scu");
+        Connection conn = scuConn = new Connection();
+        device.addConnection(conn);
+        arcDev = new ArchiveDeviceExtension();
+        device.addDeviceExtension(arcDev);
+        scuAE = new ApplicationEntity(SCU_AET);
+        scuAE.setAssociationInitiator(true);
+        scuAE.addConnection(conn);
+        scuAE.addAEExtension(new ArchiveAEExtension());
+        device.addApplicationEntity(scuAE);
+        device.setExecutor(executor);
+        device.setScheduledExecutor(scheduledExecutor);
+        return device;
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket ss = new ServerSocket(0)) {
+            return ss.getLocalPort();
+        }
+    }
+
+    private static class CountingCFindSCP extends BasicCFindSCP {
+        final Set<Association> associations = ConcurrentHashMap.newKeySet();
+        final Set<Association> open = ConcurrentHashMap.newKeySet();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        volatile long delay;
+
+        CountingCFindSCP() {
+            super(UID.StudyRootQueryRetrieveInformationModelFIND);
+        }
+
+        @Override
+        protected QueryTask calculateMatches(Association as, PresentationContext pc, Attributes rq, Attributes keys) {
+            associations.add(as);
+            if (open.add(as))
+                maxConcurrent.accumulateAndGet(open.size(), Math::max);
+            return new BasicQueryTask(as, pc, rq, keys) {
+                private boolean matched;
+
+                @Override
+                protected boolean hasMoreMatches() {
+                    return !matched;
+                }
+
+                @Override
+                protected Attributes nextMatch() {
+                    matched = true;
+                    if (delay > 0)
+                        try {
+                            Thread.sleep(delay);
+                        } catch (InterruptedException ignore) {
+                        }
+                    Attributes match = new Attributes(2);
+                    match.setString(Tag.QueryRetrieveLevel, VR.CS, "STUDY");
+                    match.setString(Tag.StudyInstanceUID, VR.UI, keys.getString(Tag.StudyInstanceUID));
+                    return match;
+                }
+            };
+        }
+
+        @Override
+        public void onClose(Association as) {
+            open.remove(as);
+        }
+    }
+}
@@ -137,6 +137,7 @@ public class QueryAttributes {
                 case "dcmQueueName":
                 case "SplitStudyDateRange":
                 case "ForceQueryByStudyUID":
+                case "ParallelQueriesByStudyUID":
                 case "includedefaults":
                 case "ExpirationDate":
                 case "storageID":
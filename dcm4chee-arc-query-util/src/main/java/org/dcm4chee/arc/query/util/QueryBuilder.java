@@ -1248,50 +1248,81 @@ public class QueryBuilder {
 
     private <T> void fuzzyMatch(List<Predicate> predicates, CriteriaQuery<T> q, Path<org.dcm4chee.arc.entity.PersonName> qpn,
             PersonName pn, QueryParam param) {
-        fuzzyMatch(predicates, q, qpn, pn, PersonName.Component.FamilyName, param);
-        fuzzyMatch(predicates, q, qpn, pn, PersonName.Component.GivenName, param);
-        fuzzyMatch(predicates, q, qpn, pn, PersonName.Component.MiddleName, param);
+        List<Function<Root<SoundexCode>, Predicate>> parts = new ArrayList<>();
+        fuzzyMatch(parts, pn, PersonName.Component.FamilyName, param);
+        fuzzyMatch(parts, pn, PersonName.Component.GivenName, param);
+        fuzzyMatch(parts, pn, PersonName.Component.MiddleName, param);
+        if (parts.isEmpty())
+            return;
+
+        if (param.isPersonNameIndexedMatching())
+            predicates.add(qpn.in(fuzzyMatchCandidates(q, parts)));
+        else
+            for (Function<Root<SoundexCode>, Predicate> part : parts) {
+                Subquery<SoundexCode> sq = q.subquery(SoundexCode.class);
+                Root<SoundexCode> soundexCode = sq.from(SoundexCode.class);
+                predicates.add(cb.exists(sq.select(soundexCode).where(
+                        cb.equal(soundexCode.get(SoundexCode_.personName), qpn),
+                        part.apply(soundexCode))));
+            }
+    }
+
+    private <T> Subquery<org.dcm4chee.arc.entity.PersonName> fuzzyMatchCandidates(CriteriaQuery<T> q,
+            List<Function<Root<SoundexCode>, Predicate>> parts) {
+        Subquery<org.dcm4chee.arc.entity.PersonName> sq = q.subquery(org.dcm4chee.arc.entity.PersonName.class);
+        Root<SoundexCode> soundexCode = sq.from(SoundexCode.class);
+        Path<org.dcm4chee.arc.entity.PersonName> personName = soundexCode.get(SoundexCode_.personName);
+        Predicate[] x = new Predicate[parts.size() * 2 - 1];
+        x[0] = parts.get(0).apply(soundexCode);
+        for (int i = 1; i < parts.size(); i++) {
+            Root<SoundexCode> soundexCode2 = sq.from(SoundexCode.class);
+            x[i * 2 - 1] = cb.equal(soundexCode2.get(SoundexCode_.personName), personName);
+            x[i * 2] = parts.get(i).apply(soundexCode2);
+        }
+        return sq.select(personName).distinct(true).where(x);
     }
 
-    private <T> void fuzzyMatch(List<Predicate> predicates, CriteriaQuery<T> q,
-            Path<org.dcm4chee.arc.entity.PersonName> qpn, PersonName pn, PersonName.Component c, QueryParam param) {
+    private void fuzzyMatch(List<Function<Root<SoundexCode>, Predicate>> parts, PersonName pn,
+            PersonName.Component c, QueryParam param) {
         String name = pn.get(c);
         if (isUniversalMatching(name))
             return;
 
-        Iterator<String> parts = SoundexCode.tokenizePersonNameComponent(name);
-        for (int i = 0; parts.hasNext(); ++i)
-            fuzzyMatch(predicates, q, qpn, c, i, parts.next(), param);
+        Iterator<String> it = SoundexCode.tokenizePersonNameComponent(name);
+        for (int i = 0; it.hasNext(); ++i) {
+            Function<Root<SoundexCode>, Predicate> part = fuzzyMatch(c, i, it.next(), param);
+            if (part != null)
+                parts.add(part);
+        }
     }
 
-    private <T> void fuzzyMatch(List<Predicate> predicates, CriteriaQuery<T> q,
-            Path<org.dcm4chee.arc.entity.PersonName> qpn, PersonName.Component c, int partIndex, String name,
+    private Function<Root<SoundexCode>, Predicate> fuzzyMatch(PersonName.Component c, int partIndex, String name,
             QueryParam param) {
         boolean wc = name.endsWith("*");
         if (wc) {
             name = name.substring(0, name.length()-1);
             if (name.isEmpty())
-                return;
+                return null;
         }
         FuzzyStr fuzzyStr = param.getFuzzyStr();
         String fuzzyName = fuzzyStr.toFuzzy(name);
         if (fuzzyName.isEmpty())
             if (wc)
-                return;
+                return null;
             else // code "" is stored as "*"
                 fuzzyName = "*";
 
-        Subquery<SoundexCode> sq = q.subquery(SoundexCode.class);
-        Root<SoundexCode> soundexCode = sq.from(SoundexCode.class);
-        Predicate y = cb.and(cb.equal(soundexCode.get(SoundexCode_.personName), qpn),
-                wc ? cb.like(soundexCode.get(SoundexCode_.codeValue), fuzzyName + '%')
-                   : cb.equal(soundexCode.get(SoundexCode_.codeValue), fuzzyName));
-        if (!param.isPersonNameComponentOrderInsensitiveMatching()) {
-            y = cb.and(y, cb.and(
-                    cb.equal(soundexCode.get(SoundexCode_.personNameComponent), c),
-                    cb.equal(soundexCode.get(SoundexCode_.componentPartIndex), partIndex)));
-        }
-        predicates.add(cb.exists(sq.select(soundexCode).where(y)));
+        String codeValue = fuzzyName;
+        return soundexCode -> {
+            Predicate y = wc ? cb.like(soundexCode.get(SoundexCode_.codeValue), codeValue + '%')
+                             : cb.equal(soundexCode.get(SoundexCode_.codeValue), codeValue);
+            if (!param.isPersonNameComponentOrderInsensitiveMatching()) {
+                y = cb.and(y, cb.and(
+                        cb.equal(soundexCode.get(SoundexCode_.personNameComponent), c),
+                        cb.equal(soundexCode.get(SoundexCode_.componentPartIndex), partIndex)));
+            }
+            return y;
+        };
     }
 
     private enum FormatDate {
@@ -105,6 +105,10 @@ public class QueryParam {
         return arcAE.personNameComponentOrderInsensitiveMatching();
     }
 
+    public boolean isPersonNameIndexedMatching() {
+        return arcDev.isPersonNameIndexedMatching();
+    }
+
     public boolean isHideNotRejectedInstances() {
         return qrView.isHideNotRejectedInstances();
     }
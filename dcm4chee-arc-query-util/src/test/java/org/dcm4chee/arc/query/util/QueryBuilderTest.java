@@ -0,0 +1,225 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.query.util;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.IDWithIssuer;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.AttributeFilter;
+import org.dcm4chee.arc.conf.Entity;
+import org.dcm4chee.arc.entity.Patient;
+import org.dcm4chee.arc.entity.Patient_;
+import org.dcm4chee.arc.entity.PersonName_;
+import org.dcm4chee.arc.entity.SoundexCode_;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Renders the predicates built by {@link QueryBuilder} with a recording {@link CriteriaBuilder}, which
+ * represents each expression by the chain of calls which created it.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class QueryBuilderTest {
+
+    private static final AtomicInteger roots = new AtomicInteger();
+    private ArchiveDeviceExtension arcdev;
+    private QueryParam queryParam;
+    private QueryBuilder builder;
+
+    @BeforeClass
+    public static void setUpMetamodel() throws Exception {
+        initMetamodel(Patient_.class);
+        initMetamodel(PersonName_.class);
+        initMetamodel(SoundexCode_.class);
+    }
+
+    @Before
+    public void setUp() {
+        roots.set(0);
+        Device device = new Device("test");
+        arcdev = new ArchiveDeviceExtension();
+        arcdev.setFuzzyAlgorithmClass("org.dcm4che3.soundex.ESoundex");
+        arcdev.setAttributeFilter(Entity.Patient, new AttributeFilter(Tag.PatientName, Tag.PatientID));
+        device.addDeviceExtension(arcdev);
+        ApplicationEntity ae = new ApplicationEntity("QRSCP");
+        ae.addAEExtension(new ArchiveAEExtension());
+        device.addApplicationEntity(ae);
+        queryParam = new QueryParam(ae);
+        queryParam.setFuzzySemanticMatching(true);
+        builder = new QueryBuilder(record(CriteriaBuilder.class, "cb"));
+    }
+
+    @Test
+    public void indexedMatchingRequiresAllParts() {
+        arcdev.setPersonNameIndexedMatching(true);
+
+        String predicate = personNamePredicate("MUELLER^HANS");
+
+        assertTrue(predicate, predicate.startsWith("Patient.join(patientName).in(q.subquery(PersonName)"));
+        assertEquals(predicate, 1, count(predicate, "q.subquery("));
+        assertTrue(predicate, predicate.contains(".select(SoundexCode#1.get(personName)).distinct(true).where("));
+        assertTrue(predicate, predicate.contains(
+                "cb.equal(SoundexCode#1.get(codeValue), '" + fuzzy("MUELLER") + "')"));
+        assertTrue(predicate, predicate.contains(
+                "cb.equal(SoundexCode#2.get(personName), SoundexCode#1.get(personName))"));
+        assertTrue(predicate, predicate.contains(
+                "cb.equal(SoundexCode#2.get(codeValue), '" + fuzzy("HANS") + "')"));
+        assertFalse(predicate, predicate.contains("SoundexCode#3"));
+        assertFalse(predicate, predicate.contains("cb.or("));
+        assertFalse(predicate, predicate.contains("groupBy("));
+        assertFalse(predicate, predicate.contains("having("));
+    }
+
+    @Test
+    public void indexedMatchingOfWildcardPart() {
+        arcdev.setPersonNameIndexedMatching(true);
+
+        String predicate = personNamePredicate("MUELL*^HANS");
+
+        assertTrue(predicate, predicate.contains(
+                "cb.like(SoundexCode#1.get(codeValue), '" + fuzzy("MUELL") + "%')"));
+        assertTrue(predicate, predicate.contains(
+                "cb.equal(SoundexCode#2.get(codeValue), '" + fuzzy("HANS") + "')"));
+    }
+
+    @Test
+    public void correlatedMatchingPerPart() {
+        String predicate = personNamePredicate("MUELLER^HANS");
+
+        assertEquals(predicate, 2, count(predicate, "cb.exists("));
+        assertTrue(predicate, predicate.contains(
+                "cb.equal(SoundexCode#1.get(personName), Patient.join(patientName))"));
+        assertTrue(predicate, predicate.contains(
+                "cb.equal(SoundexCode#2.get(personName), Patient.join(patientName))"));
+        assertFalse(predicate, predicate.contains(".in("));
+    }
+
+    private String personNamePredicate(String value) {
+        Attributes keys = new Attributes();
+        keys.setString(Tag.PatientName, VR.PN, value);
+        List<Predicate> predicates = builder.patientPredicates(
+                record(CriteriaQuery.class, "q"),
+                record(Root.class, "Patient"),
+                new IDWithIssuer[0], keys, queryParam);
+        return predicates.stream()
+                .map(Object::toString)
+                .filter(s -> s.contains("SoundexCode"))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private String fuzzy(String name) {
+        return arcdev.getFuzzyStr().toFuzzy(name);
+    }
+
+    private static int count(String s, String part) {
+        int count = 0;
+        for (int i = s.indexOf(part); i >= 0; i = s.indexOf(part, i + part.length()))
+            count++;
+        return count;
+    }
+
+    private static void initMetamodel(Class<?> metamodel) throws Exception {
+        for (Field field : metamodel.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType().isInterface())
+                field.set(null, record(field.getType(), field.getName()));
+        }
+    }
+
+    private static <T> T record(Class<T> type, String text) {
+        return type.cast(Proxy.newProxyInstance(QueryBuilderTest.class.getClassLoader(), new Class<?>[]{ type },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return text;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                    }
+                    Class<?> returnType = method.getReturnType();
+                    if (!returnType.isInterface())
+                        return returnType == boolean.class ? Boolean.FALSE : null;
+                    if (method.getName().equals("from"))
+                        return record(returnType, ((Class<?>) args[0]).getSimpleName() + '#' + roots.incrementAndGet());
+                    return record(returnType, text + '.' + method.getName() + '(' + render(args) + ')');
+                }));
+    }
+
+    private static String render(Object[] args) {
+        if (args == null)
+            return "";
+
+        return Arrays.stream(args).map(QueryBuilderTest::render).collect(Collectors.joining(", "));
+    }
+
+    private static String render(Object arg) {
+        if (arg instanceof Object[])
+            return render((Object[]) arg);
+        if (arg instanceof Class)
+            return ((Class<?>) arg).getSimpleName();
+        if (arg instanceof String)
+            return '\'' + (String) arg + '\'';
+        return String.valueOf(arg);
+    }
+}
@@ -42,10 +42,7 @@ package org.dcm4chee.arc.query.impl;
 
 import org.dcm4che3.data.*;
 import org.dcm4che3.io.SAXTransformer;
-import org.dcm4che3.io.TemplatesCache;
-import org.dcm4che3.io.XSLTAttributesCoercion;
 import org.dcm4che3.net.*;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4che3.util.UIDUtils;
 import org.dcm4chee.arc.LeadingCFindSCPQueryCache;
 import org.dcm4chee.arc.code.CodeCache;
@@ -71,7 +68,6 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.servlet.http.HttpServletRequest;
-import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import java.io.IOException;
 import java.util.Collection;
@@ -462,8 +458,7 @@ class QueryServiceImpl implements QueryService {
         String xsltStylesheetURI = rule.getXSLTStylesheetURI();
         if (xsltStylesheetURI != null)
             try {
-                Templates tpls = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(xsltStylesheetURI));
-                coercion = new XSLTAttributesCoercion(tpls, null)
+                coercion = new PooledXSLTAttributesCoercion(TransformerPool.of(xsltStylesheetURI), null)
                         .includeKeyword(!rule.isNoKeywords())
                         .setupTransformer(setupTransformer(ctx));
             } catch (TransformerConfigurationException e) {
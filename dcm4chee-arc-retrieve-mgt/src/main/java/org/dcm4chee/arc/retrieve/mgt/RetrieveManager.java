@@ -46,6 +46,7 @@ import org.dcm4chee.arc.query.util.TaskQueryParam;
 import org.dcm4chee.arc.retrieve.ExternalRetrieveContext;
 
 import javax.persistence.Tuple;
+import javax.servlet.http.HttpServletRequest;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -73,6 +74,8 @@ public interface RetrieveManager {
 
     void rescheduleRetrieveTask(Long pk, String newQueueName, QueueMessageEvent queueEvent, Date scheduledTime);
 
+    int rescheduleRetrieveTasks(List<Long> pks, String newQueueName, HttpServletRequest request, Date scheduledTime);
+
     int deleteTasks(TaskQueryParam queueTaskQueryParam, TaskQueryParam retrieveTaskQueryParam, int deleteTasksFetchSize);
 
     List<RetrieveBatch> listRetrieveBatches(
@@ -94,4 +97,6 @@ public interface RetrieveManager {
     List<Long> findRetrieveTasksToSchedule(int fetchSize);
 
     boolean scheduleRetrieveTask(Long pk);
+
+    int scheduleRetrieveTasks(List<Long> pks);
 }
@@ -50,6 +50,7 @@ import org.dcm4che3.net.Device;
 import org.dcm4che3.net.service.QueryRetrieveLevel2;
 import org.dcm4chee.arc.entity.*;
 import org.dcm4chee.arc.event.QueueMessageEvent;
+import org.dcm4chee.arc.event.QueueMessageOperation;
 import org.dcm4chee.arc.keycloak.HttpServletRequestInfo;
 import org.dcm4chee.arc.qmgt.IllegalTaskStateException;
 import org.dcm4chee.arc.qmgt.QueueManager;
@@ -317,6 +318,14 @@ public class RetrieveManagerEJB {
             rescheduleAtScheduledTime(task, queueEvent, scheduledTime);
     }
 
+    public int rescheduleRetrieveTasks(List<Long> pks, String newQueueName, HttpServletRequest request,
+                                       Date scheduledTime) {
+        for (Long pk : pks)
+            rescheduleRetrieveTask(pk, newQueueName,
+                    new QueueMessageEvent(request, QueueMessageOperation.RescheduleTasks), scheduledTime);
+        return pks.size();
+    }
+
     private void rescheduleAtScheduledTime(RetrieveTask task, QueueMessageEvent queueEvent, Date scheduledTime) {
         task.setScheduledTime(scheduledTime);
         if (task.getQueueMessage() != null) {
@@ -670,4 +679,29 @@ public class RetrieveManagerEJB {
         }
         return true;
     }
+
+    public int scheduleRetrieveTasks(List<Long> pks) {
+        Map<String, Integer> capacities = new HashMap<>();
+        int count = 0;
+        for (Long pk : pks) {
+            RetrieveTask retrieveTask = em.find(RetrieveTask.class, pk);
+            if (!reserveCapacity(capacities, retrieveTask.getQueueName())) {
+                LOG.info("Maximal number of Tasks in Queue {} reached - retry to schedule Retrieve Tasks",
+                        retrieveTask.getQueueName());
+                break;
+            }
+            scheduleRetrieveTask(retrieveTask, null);
+            count++;
+        }
+        return count;
+    }
+
+    private boolean reserveCapacity(Map<String, Integer> capacities, String queueName) {
+        int capacity = capacities.computeIfAbsent(queueName, queueManager::remainingCapacityOnThisDevice);
+        if (capacity <= 0)
+            return false;
+
+        capacities.put(queueName, capacity - 1);
+        return true;
+    }
 }
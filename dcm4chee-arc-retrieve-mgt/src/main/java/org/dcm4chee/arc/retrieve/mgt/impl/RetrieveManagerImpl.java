@@ -62,6 +62,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.Tuple;
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.Date;
 import java.util.Iterator;
@@ -184,6 +185,12 @@ public class RetrieveManagerImpl implements RetrieveManager {
         ejb.rescheduleRetrieveTask(pk, newQueueName, queueEvent, scheduledTime);
     }
 
+    @Override
+    public int rescheduleRetrieveTasks(List<Long> pks, String newQueueName, HttpServletRequest request,
+                                       Date scheduledTime) {
+        return ejb.rescheduleRetrieveTasks(pks, newQueueName, request, scheduledTime);
+    }
+
     @Override
     public int deleteTasks(TaskQueryParam queueTaskQueryParam, TaskQueryParam retrieveTaskQueryParam, int deleteTasksFetchSize) {
         return ejb.deleteTasks(queueTaskQueryParam, retrieveTaskQueryParam, deleteTasksFetchSize);
@@ -237,4 +244,9 @@ public class RetrieveManagerImpl implements RetrieveManager {
     public boolean scheduleRetrieveTask(Long pk) {
         return ejb.scheduleRetrieveTask(pk);
     }
+
+    @Override
+    public int scheduleRetrieveTasks(List<Long> pks) {
+        return ejb.scheduleRetrieveTasks(pks);
+    }
 }
@@ -81,16 +81,37 @@ public class RetrieveScheduler extends Scheduler {
         ArchiveDeviceExtension arcDev = device.getDeviceExtension(ArchiveDeviceExtension.class);
         int fetchSize = arcDev.getRetrieveTaskFetchSize();
         List<Long> retrieveTasksToSchedule;
+        int scheduled = 0;
         do {
             retrieveTasksToSchedule = mgr.findRetrieveTasksToSchedule(fetchSize);
-            for (Long pk : retrieveTasksToSchedule) {
-                try {
-                    if (!mgr.scheduleRetrieveTask(pk)) return;
-                } catch (Exception e) {
-                    LOG.warn("Failed to schedule RetrieveTask[pk={}}]\n:", pk, e);
-                }
-            }
+            int count = scheduleRetrieveTasks(retrieveTasksToSchedule);
+            if (count > 0)
+                LOG.info("Scheduled {} Retrieve Tasks", scheduled += count);
+            if (count < retrieveTasksToSchedule.size())
+                return;
         }
         while (getPollingInterval() != null && retrieveTasksToSchedule.size() == fetchSize);
     }
+
+    private int scheduleRetrieveTasks(List<Long> pks) {
+        if (pks.isEmpty())
+            return 0;
+
+        try {
+            return mgr.scheduleRetrieveTasks(pks);
+        } catch (Exception e) {
+            LOG.info("Failed to schedule {} Retrieve Tasks in one transaction - schedule them separately:\n",
+                    pks.size(), e);
+        }
+        int count = 0;
+        for (Long pk : pks) {
+            try {
+                if (!mgr.scheduleRetrieveTask(pk)) break;
+            } catch (Exception e) {
+                LOG.warn("Failed to schedule RetrieveTask[pk={}}]\n:", pk, e);
+            }
+            count++;
+        }
+        return count;
+    }
 }
@@ -389,14 +389,20 @@ public class RetrieveTaskRS {
             do {
                 List<Long> retrieveTaskPks = mgr.listRetrieveTaskPks(
                         queueTaskQueryParam, retrieveTaskQueryParam, rescheduleTasksFetchSize);
-                retrieveTaskPks.forEach(
-                        pk -> mgr.rescheduleRetrieveTask(
-                                pk,
-                                newQueueName,
-                                new QueueMessageEvent(request, QueueMessageOperation.RescheduleTasks),
-                                scheduledTime));
-
+                try {
+                    mgr.rescheduleRetrieveTasks(retrieveTaskPks, newQueueName, request, scheduledTime);
+                } catch (Exception e) {
+                    LOG.info("Failed to reschedule {} tasks in one transaction - reschedule them separately:\n",
+                            retrieveTaskPks.size(), e);
+                    retrieveTaskPks.forEach(
+                            pk -> mgr.rescheduleRetrieveTask(
+                                    pk,
+                                    newQueueName,
+                                    new QueueMessageEvent(request, QueueMessageOperation.RescheduleTasks),
+                                    scheduledTime));
+                }
                 rescheduled += retrieveTaskPks.size();
+                LOG.debug("Rescheduled {} tasks on device {}", rescheduled, device.getDeviceName());
             } while (rescheduled >= rescheduleTasksFetchSize);
             bulkMsgQueueEvent.setCount(rescheduled);
             LOG.info("Rescheduled {} tasks on device {}", rescheduled, device.getDeviceName());
@@ -60,6 +60,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -207,6 +208,8 @@ public interface RetrieveContext extends Closeable {
 
     void putStorage(String storageID, Storage storage);
 
+    Storage computeStorageIfAbsent(String storageID, Function<String, Storage> mappingFunction);
+
     void incrementPendingCStoreForward();
 
     void decrementPendingCStoreForward();
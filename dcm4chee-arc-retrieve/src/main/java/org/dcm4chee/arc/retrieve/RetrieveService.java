@@ -52,18 +52,22 @@ import org.dcm4che3.net.service.DicomServiceException;
 import org.dcm4che3.net.service.QueryRetrieveLevel2;
 import org.dcm4chee.arc.conf.ArchiveAEExtension;
 import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.entity.Location;
 import org.dcm4chee.arc.entity.Series;
 import org.dcm4chee.arc.metrics.MetricsService;
 import org.dcm4chee.arc.keycloak.HttpServletRequestInfo;
 import org.dcm4chee.arc.storage.Storage;
+import org.dcm4chee.arc.storage.WriteContext;
 import org.dcm4chee.arc.store.InstanceLocations;
 import org.dcm4chee.arc.store.StoreService;
 import org.dcm4chee.arc.store.StoreSession;
+import org.dcm4chee.arc.store.UpdateLocation;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -128,6 +132,12 @@ public interface RetrieveService {
     LocationInputStream openLocationInputStream(RetrieveContext ctx, InstanceLocations inst)
             throws IOException;
 
+    Location copyTo(RetrieveContext ctx, InstanceLocations inst, Storage storage, WriteContext writeCtx)
+            throws IOException;
+
+    Location copyTo(RetrieveContext ctx, InstanceLocations inst, Storage storage, WriteContext writeCtx,
+            List<UpdateLocation> updateLocations) throws IOException;
+
     Storage getStorage(String storageID, RetrieveContext ctx);
 
     Attributes loadMetadata(RetrieveContext ctx, InstanceLocations inst) throws IOException;
@@ -50,7 +50,6 @@ import org.dcm4chee.arc.entity.Instance;
 import org.dcm4chee.arc.entity.Location;
 import org.dcm4chee.arc.retrieve.RetrieveContext;
 import org.dcm4chee.arc.store.InstanceLocations;
-import org.dcm4chee.arc.retrieve.LocationInputStream;
 import org.dcm4chee.arc.storage.Storage;
 import org.dcm4chee.arc.storage.WriteContext;
 import org.dcm4chee.arc.store.StoreService;
@@ -171,7 +170,7 @@ public class CopyToRetrieveCacheTask implements Runnable {
         Location location = null;
         try {
             LOG.debug("Start copying {} to {}", match, storage.getStorageDescriptor());
-            location = copyTo(match, storage, writeCtx);
+            location = ctx.getRetrieveService().copyTo(ctx, match, storage, writeCtx);
             StoreService storeService = ctx.getRetrieveService().getStoreService();
             ApplicationEntity ae = ctx.getLocalApplicationEntity();
             StoreSession storeSession = storeService.newStoreSession(ae).withObjectStorageID(storageID);
@@ -194,22 +193,6 @@ public class CopyToRetrieveCacheTask implements Runnable {
         }
     }
 
-    private Location copyTo(InstanceLocations match, Storage storage, WriteContext writeCtx) throws IOException {
-        try (LocationInputStream locationInputStream = ctx.getRetrieveService().openLocationInputStream(
-                ctx, match)) {
-            writeCtx.setContentLength(locationInputStream.location.getSize());
-            storage.copy(locationInputStream.stream, writeCtx);
-            return new Location.Builder()
-                    .storageID(storage.getStorageDescriptor().getStorageID())
-                    .storagePath(writeCtx.getStoragePath())
-                    .transferSyntaxUID(locationInputStream.location.getTransferSyntaxUID())
-                    .objectType(Location.ObjectType.DICOM_FILE)
-                    .size(locationInputStream.location.getSize())
-                    .digest(locationInputStream.location.getDigest())
-                    .build();
-        }
-    }
-
     public InstanceLocations copiedToRetrieveCache() {
         try {
             LOG.debug("Wait for next finished copy to retrieve cache");
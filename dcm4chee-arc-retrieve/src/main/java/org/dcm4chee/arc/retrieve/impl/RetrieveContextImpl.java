@@ -59,8 +59,10 @@ import org.dcm4chee.arc.store.InstanceLocations;
 import org.dcm4chee.arc.store.UpdateLocation;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -103,7 +105,7 @@ class RetrieveContextImpl implements RetrieveContext {
             Collections.synchronizedCollection(new ArrayList<InstanceLocations>());
     private final Collection<String> failedSOPInstanceUIDs =
             Collections.synchronizedCollection(new ArrayList<String>());
-    private final HashMap<String, Storage> storageMap = new HashMap<>();
+    private final Map<String, Storage> storageMap = new ConcurrentHashMap<>();
     private ScheduledFuture<?> writePendingRSP;
     private volatile int fallbackMoveRSPNumberOfMatches;
     private volatile int fallbackMoveRSPFailed;
@@ -498,6 +500,11 @@ class RetrieveContextImpl implements RetrieveContext {
         storageMap.put(storageID, storage);
     }
 
+    @Override
+    public Storage computeStorageIfAbsent(String storageID, Function<String, Storage> mappingFunction) {
+        return storageMap.computeIfAbsent(storageID, mappingFunction);
+    }
+
     @Override
     public void incrementPendingCStoreForward() {
         pendingCStoreForward.getAndIncrement();
@@ -67,6 +67,7 @@ import org.dcm4chee.arc.retrieve.*;
 import org.dcm4chee.arc.storage.ReadContext;
 import org.dcm4chee.arc.storage.Storage;
 import org.dcm4chee.arc.storage.StorageFactory;
+import org.dcm4chee.arc.storage.WriteContext;
 import org.dcm4chee.arc.store.InstanceLocations;
 import org.dcm4chee.arc.store.StoreService;
 import org.dcm4chee.arc.store.StoreSession;
@@ -84,7 +85,6 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Tuple;
 import javax.persistence.criteria.*;
 import javax.servlet.http.HttpServletRequest;
-import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -93,6 +93,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -142,6 +143,13 @@ public class RetrieveServiceImpl implements RetrieveService {
     @Inject @RetrieveFailures
     private Event<RetrieveContext> retrieveFailures;
 
+    public RetrieveServiceImpl() {
+    }
+
+    RetrieveServiceImpl(Device device) {
+        this.device = device;
+    }
+
     @Override
     public Device getDevice() {
         return device;
@@ -437,6 +445,7 @@ public class RetrieveServiceImpl implements RetrieveService {
             RetrieveContext ctx, String storageID, String storagePath, Attributes seriesAttrs)
             throws IOException {
         QueryRetrieveView qrView = ctx.getQueryRetrieveView();
+        int[] patientAndStudyTags = patientAndStudyTags();
         Storage storage = getStorage(storageID, ctx);
         try (InputStream in = storage.openInputStream(
                 createReadContext(storage, storagePath, null))) {
@@ -449,6 +458,7 @@ public class RetrieveServiceImpl implements RetrieveService {
                             || !qrView.hideRejectedInstance(
                                 metadata.getNestedDataset(PrivateTag.PrivateCreator, PrivateTag.RejectionCodeSequence))
                             && !qrView.hideRejectionNote(metadata)) {
+                        metadata.removeSelected(patientAndStudyTags);
                         Attributes.unifyCharacterSets(seriesAttrs, metadata);
                         metadata.addAll(seriesAttrs);
                         ctx.getMatches().add(instanceLocationsFromMetadata(ctx, metadata));
@@ -459,6 +469,22 @@ public class RetrieveServiceImpl implements RetrieveService {
         }
     }
 
+    /**
+     * Patient and Study attributes in series metadata may be outdated, because updates of Patient and Study
+     * attributes do not trigger an update of the series metadata. They are removed, before the current
+     * Patient, Study and Series attributes from the database are added.
+     */
+    private int[] patientAndStudyTags() {
+        ArchiveDeviceExtension arcDev = getArchiveDeviceExtension();
+        return IntStream.concat(
+                IntStream.of(arcDev.getAttributeFilter(Entity.Patient).getSelection(false)),
+                IntStream.of(arcDev.getAttributeFilter(Entity.Study).getSelection(false)))
+                .filter(tag -> tag != Tag.SpecificCharacterSet)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
     private static boolean isEmptyOrContains(String[] ss, String s) {
         if (ss.length == 0)
             return true;
@@ -805,8 +831,7 @@ public class RetrieveServiceImpl implements RetrieveService {
         String xsltStylesheetURI = rule.getXSLTStylesheetURI();
         if (xsltStylesheetURI != null)
         try {
-            Templates tpls = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(xsltStylesheetURI));
-            coercion = new XSLTAttributesCoercion(tpls, coercion)
+            coercion = new PooledXSLTAttributesCoercion(TransformerPool.of(xsltStylesheetURI), coercion)
                     .includeKeyword(!rule.isNoKeywords())
                     .setupTransformer(setupTransformer(ctx));
         } catch (TransformerConfigurationException e) {
@@ -846,7 +871,33 @@ public class RetrieveServiceImpl implements RetrieveService {
     @Override
     public LocationInputStream openLocationInputStream(RetrieveContext ctx, InstanceLocations inst)
             throws IOException {
+        return openLocationInputStream(ctx, inst, ctx.getUpdateLocations());
+    }
+
+    private LocationInputStream openLocationInputStream(RetrieveContext ctx, InstanceLocations inst,
+            List<UpdateLocation> updateLocations) throws IOException {
         String studyInstanceUID = inst.getAttributes().getString(Tag.StudyInstanceUID);
+        IOException ex = null;
+        for (Location location : locationsToRead(inst)) {
+            try {
+                LOG.debug("Read {} from {}", inst, location);
+                return openLocationInputStream(getStorage(location.getStorageID(), ctx), location, studyInstanceUID);
+            } catch (IOException e) {
+                ex = e;
+                Location.Status errStatus = toStatus(e);
+                if (errStatus == Location.Status.MISSING_OBJECT && !exists(location)) {
+                    LOG.warn("{} of {} no longer exists", location, inst);
+                    ctx.incrementMissing();
+                } else {
+                    LOG.warn("Failed to read {} from {}:\n", inst, location, e);
+                    updateLocations.add(new UpdateLocation(inst, location, errStatus, null));
+                }
+            }
+        }
+        throw ex;
+    }
+
+    private List<Location> locationsToRead(InstanceLocations inst) throws IOException {
         ArchiveDeviceExtension arcdev = getArchiveDeviceExtension();
         Map<Availability, List<Location>> locationsByAvailability = inst.getLocations()
                 .stream().filter(Location::isDicomFile)
@@ -862,24 +913,49 @@ public class RetrieveServiceImpl implements RetrieveService {
         if (locations == null || locations.isEmpty()) {
             throw new IOException("Failed to find location of " + inst);
         }
-        IOException ex = null;
-        for (Location location : locations) {
-            try {
-                LOG.debug("Read {} from {}", inst, location);
-                return openLocationInputStream(getStorage(location.getStorageID(), ctx), location, studyInstanceUID);
-            } catch (IOException e) {
-                ex = e;
-                Location.Status errStatus = toStatus(e);
-                if (errStatus == Location.Status.MISSING_OBJECT && !exists(location)) {
-                    LOG.warn("{} of {} no longer exists", location, inst);
-                    ctx.incrementMissing();
-                } else {
-                    LOG.warn("Failed to read {} from {}:\n", inst, location, e);
-                    ctx.getUpdateLocations().add(new UpdateLocation(inst, location, errStatus, null));
+        return locations;
+    }
+
+    @Override
+    public Location copyTo(RetrieveContext ctx, InstanceLocations inst, Storage storage, WriteContext writeCtx)
+            throws IOException {
+        return copyTo(ctx, inst, storage, writeCtx, ctx.getUpdateLocations());
+    }
+
+    @Override
+    public Location copyTo(RetrieveContext ctx, InstanceLocations inst, Storage storage, WriteContext writeCtx,
+            List<UpdateLocation> updateLocations) throws IOException {
+        String studyInstanceUID = inst.getAttributes().getString(Tag.StudyInstanceUID);
+        for (Location location : locationsToRead(inst)) {
+            Storage source = getStorage(location.getStorageID(), ctx);
+            if (storage.canCopyFrom(source)) {
+                writeCtx.setContentLength(location.getSize());
+                try {
+                    LOG.debug("Copy {} from {}", inst, location);
+                    storage.copyFrom(source,
+                            createReadContext(source, location.getStoragePath(), studyInstanceUID), writeCtx);
+                    return copyOf(storage, writeCtx, location);
+                } catch (IOException | RuntimeException e) {
+                    LOG.info("Failed to copy {} from {} - fallback to stream:\n", inst, location, e);
                 }
             }
         }
-        throw ex;
+        try (LocationInputStream locationInputStream = openLocationInputStream(ctx, inst, updateLocations)) {
+            writeCtx.setContentLength(locationInputStream.location.getSize());
+            storage.copy(locationInputStream.stream, writeCtx);
+            return copyOf(storage, writeCtx, locationInputStream.location);
+        }
+    }
+
+    private static Location copyOf(Storage storage, WriteContext writeCtx, Location location) {
+        return new Location.Builder()
+                .storageID(storage.getStorageDescriptor().getStorageID())
+                .storagePath(writeCtx.getStoragePath())
+                .transferSyntaxUID(location.getTransferSyntaxUID())
+                .objectType(Location.ObjectType.DICOM_FILE)
+                .size(location.getSize())
+                .digest(location.getDigest())
+                .build();
     }
 
     private boolean exists(Location location) {
@@ -921,13 +997,8 @@ public class RetrieveServiceImpl implements RetrieveService {
 
     @Override
     public Storage getStorage(String storageID, RetrieveContext ctx) {
-        Storage storage = ctx.getStorage(storageID);
-        if (storage == null) {
-            ArchiveDeviceExtension arcDev = getArchiveDeviceExtension();
-            storage = storageFactory.getStorage(arcDev.getStorageDescriptorNotNull(storageID));
-            ctx.putStorage(storageID, storage);
-        }
-        return storage;
+        return ctx.computeStorageIfAbsent(storageID,
+                id -> storageFactory.getStorage(getArchiveDeviceExtension().getStorageDescriptorNotNull(id)));
     }
 
     @Override
@@ -0,0 +1,196 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.retrieve.impl;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.StorageDescriptor;
+import org.dcm4chee.arc.entity.Location;
+import org.dcm4chee.arc.retrieve.RetrieveContext;
+import org.dcm4chee.arc.storage.DefaultReadContext;
+import org.dcm4chee.arc.storage.DefaultWriteContext;
+import org.dcm4chee.arc.storage.Storage;
+import org.dcm4chee.arc.storage.WriteContext;
+import org.dcm4chee.arc.store.UpdateLocation;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class RetrieveServiceImplTest {
+
+    private static final String SOURCE_STORAGE_ID = "source";
+    private static final String TARGET_STORAGE_ID = "target";
+    private static final byte[] CONTENT = "DICOM".getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+    private RetrieveServiceImpl service;
+    private Storage source;
+
+    @Before
+    public void setUp() {
+        Device device = new Device("dcm4chee-arc");
+        ArchiveDeviceExtension arcdev = new ArchiveDeviceExtension();
+        arcdev.addStorageDescriptor(new StorageDescriptor(SOURCE_STORAGE_ID));
+        arcdev.addStorageDescriptor(new StorageDescriptor(TARGET_STORAGE_ID));
+        device.addDeviceExtension(arcdev);
+        service = new RetrieveServiceImpl(device);
+        source = storage(new StorageDescriptor(SOURCE_STORAGE_ID), (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createReadContext":
+                    return new DefaultReadContext((Storage) proxy);
+                case "openInputStream":
+                    return new ByteArrayInputStream(CONTENT);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @Test
+    public void copyFallsBackToStreamIfNativeCopyThrowsRuntimeException() throws Exception {
+        assertCopiedByStream(new IllegalStateException("copyBlob failed"));
+    }
+
+    @Test
+    public void copyFallsBackToStreamIfNativeCopyThrowsIOException() throws Exception {
+        assertCopiedByStream(new IOException("copy failed"));
+    }
+
+    private void assertCopiedByStream(Exception nativeCopyException) throws Exception {
+        Storage target = storage(new StorageDescriptor(TARGET_STORAGE_ID), (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "canCopyFrom":
+                    return args[0] == source;
+                case "copyFrom":
+                    throw nativeCopyException;
+                case "copy":
+                    copy((InputStream) args[0], (WriteContext) args[1]);
+                    return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        List<UpdateLocation> updateLocations = new ArrayList<>();
+        WriteContext writeCtx = new DefaultWriteContext(target);
+
+        Location location = service.copyTo(retrieveContext(), instanceLocations(), target, writeCtx,
+                updateLocations);
+
+        assertEquals(TARGET_STORAGE_ID, location.getStorageID());
+        assertEquals("copied/object", location.getStoragePath());
+        assertArrayEquals(CONTENT, streamed.toByteArray());
+        assertTrue(updateLocations.isEmpty());
+    }
+
+    private void copy(InputStream in, WriteContext writeCtx) throws IOException {
+        byte[] buf = new byte[256];
+        int read;
+        while ((read = in.read(buf)) > 0)
+            streamed.write(buf, 0, read);
+        writeCtx.setStoragePath("copied/object");
+    }
+
+    private static InstanceLocationsImpl instanceLocations() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3");
+        attrs.setString(Tag.SeriesInstanceUID, VR.UI, "1.2.3.1");
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.1.1");
+        attrs.setString(Tag.SOPClassUID, VR.UI, UID.SecondaryCaptureImageStorage);
+        InstanceLocationsImpl inst = new InstanceLocationsImpl(attrs);
+        inst.getLocations().add(new Location.Builder()
+                .storageID(SOURCE_STORAGE_ID)
+                .storagePath("source/object")
+                .objectType(Location.ObjectType.DICOM_FILE)
+                .size(CONTENT.length)
+                .build());
+        return inst;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RetrieveContext retrieveContext() {
+        List<UpdateLocation> updateLocations = new ArrayList<>();
+        return (RetrieveContext) Proxy.newProxyInstance(RetrieveContext.class.getClassLoader(),
+                new Class<?>[]{ RetrieveContext.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "computeStorageIfAbsent":
+                            return SOURCE_STORAGE_ID.equals(args[0])
+                                    ? source
+                                    : ((Function<String, Storage>) args[1]).apply((String) args[0]);
+                        case "getUpdateLocations":
+                            return updateLocations;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Storage storage(StorageDescriptor descriptor, InvocationHandler handler) {
+        return (Storage) Proxy.newProxyInstance(Storage.class.getClassLoader(), new Class<?>[]{ Storage.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStorageDescriptor":
+                            return descriptor;
+                        case "toString":
+                            return descriptor.toString();
+                    }
+                    return handler.invoke(proxy, method, args);
+                });
+    }
+}
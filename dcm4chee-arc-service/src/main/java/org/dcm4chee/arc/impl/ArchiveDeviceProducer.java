@@ -46,12 +46,12 @@ import org.dcm4che3.conf.api.DicomConfiguration;
 import org.dcm4che3.data.UID;
 import org.dcm4che3.imageio.codec.ImageReaderFactory;
 import org.dcm4che3.imageio.codec.ImageWriterFactory;
-import org.dcm4che3.io.TemplatesCache;
 import org.dcm4che3.net.Device;
 import org.dcm4che3.net.imageio.ImageReaderExtension;
 import org.dcm4che3.net.imageio.ImageWriterExtension;
 import org.dcm4che3.util.StringUtils;
 import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.TransformerPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,13 +61,16 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.*;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -99,6 +102,8 @@ public class ArchiveDeviceProducer {
     private DicomConfiguration conf;
 
     private Device device;
+    private byte[] imageReaderConfig;
+    private byte[] imageWriterConfig;
 
     @PostConstruct
     private void init() {
@@ -113,34 +118,48 @@ public class ArchiveDeviceProducer {
         }
     }
 
-    private void extractVendorData() {
+    private List<Path> extractVendorData() {
         ArchiveDeviceExtension arcDev = device.getDeviceExtension(ArchiveDeviceExtension.class);
         String unzipTo = arcDev != null ? arcDev.getUnzipVendorDataToURI() : null;
         if (unzipTo == null)
-            return;
+            return Collections.emptyList();
 
         byte[][] vendorData = device.getVendorData();
         if (vendorData.length == 0) {
             LOG.warn("UnzipVendorDataToURI={}, but no Vendor Data", unzipTo);
-            return;
+            return Collections.emptyList();
         }
 
         Path basePath = Paths.get(URI.create(StringUtils.replaceSystemProperties(unzipTo)));
         ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(vendorData[0]));
+        List<Path> changed = new ArrayList<>();
         ZipEntry entry;
         try {
             while ((entry = input.getNextEntry()) != null) {
                 if (!entry.isDirectory()) {
-                    Path filePath = basePath.resolve(entry.getName());
-                    Files.createDirectories(filePath.getParent());
-                    Files.copy(input, filePath, StandardCopyOption.REPLACE_EXISTING);
+                    Path filePath = basePath.resolve(entry.getName()).normalize();
+                    byte[] content = readEntry(input);
+                    if (!Files.exists(filePath) || !Arrays.equals(content, Files.readAllBytes(filePath))) {
+                        Files.createDirectories(filePath.getParent());
+                        Files.write(filePath, content);
+                        changed.add(filePath);
+                    }
                 }
             }
         } catch (IOException e) {
             LOG.error("Failed to extract Device Vendor Data", e);
         }
         device.setVendorData();
-        TemplatesCache.getDefault().clear();
+        return changed;
+    }
+
+    private static byte[] readEntry(ZipInputStream input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) > 0)
+            out.write(buffer, 0, read);
+        return out.toByteArray();
     }
 
     @Produces
@@ -149,10 +168,36 @@ public class ArchiveDeviceProducer {
     }
 
     public void reloadConfiguration() throws Exception {
-        device.reconfigure(findDevice());
-        initImageReaderFactory();
-        initImageWriterFactory();
-        extractVendorData();
+        long startTime = System.nanoTime();
+        Device newDevice = findDevice();
+        long loadTime = System.nanoTime();
+        Set<String> prevAETs = new HashSet<>(device.getApplicationAETitles());
+        Set<String> aets = new HashSet<>(newDevice.getApplicationAETitles());
+        device.reconfigure(newDevice);
+        boolean readerChanged = initImageReaderFactory();
+        boolean writerChanged = initImageWriterFactory();
+        List<Path> changedFiles = extractVendorData();
+        List<String> changedTemplates = TransformerPool.removeModified(changedFiles);
+        long endTime = System.nanoTime();
+        LOG.info("Reloaded configuration of Device '{}' in {} ms (load: {} ms, apply: {} ms)"
+                        + " - added AEs: {}, removed AEs: {}, changed Vendor Data files: {}, changed XSL: {}"
+                        + ", changed Image Reader/Writer Factory: {}/{}",
+                device.getDeviceName(),
+                (endTime - startTime) / 1000000,
+                (loadTime - startTime) / 1000000,
+                (endTime - loadTime) / 1000000,
+                difference(aets, prevAETs),
+                difference(prevAETs, aets),
+                changedFiles,
+                changedTemplates,
+                readerChanged,
+                writerChanged);
+    }
+
+    private static Set<String> difference(Set<String> a, Set<String> b) {
+        Set<String> diff = new TreeSet<>(a);
+        diff.removeAll(b);
+        return diff;
     }
 
     private Device findDevice() throws ConfigurationException {
@@ -169,21 +214,51 @@ public class ArchiveDeviceProducer {
         return arcDevice;
     }
 
-    private void initImageReaderFactory() {
+    private boolean initImageReaderFactory() {
         ImageReaderExtension ext = device.getDeviceExtension(ImageReaderExtension.class);
+        byte[] config = serialize(ext != null ? ext.getImageReaderFactory() : null);
+        if (config != null && Arrays.equals(config, imageReaderConfig))
+            return false;
+
+        imageReaderConfig = config;
         if (ext != null)
             ImageReaderFactory.setDefault(ext.getImageReaderFactory());
         else
             ImageReaderFactory.resetDefault();
+        return true;
     }
 
-    private void initImageWriterFactory() {
+    private boolean initImageWriterFactory() {
         ImageWriterExtension ext = device.getDeviceExtension(ImageWriterExtension.class);
+        byte[] config = serialize(ext != null ? ext.getImageWriterFactory() : null);
+        if (config != null && Arrays.equals(config, imageWriterConfig))
+            return false;
+
+        imageWriterConfig = config;
         if (ext != null)
             ImageWriterFactory.setDefault(ext.getImageWriterFactory());
         else
             ImageWriterFactory.resetDefault();
         ImageWriterFactory.getImageWriter(ImageWriterFactory.getImageWriterParam(UID.JPEGLSLossless));
+        return true;
+    }
+
+    /**
+     * Returns the serialized configuration to detect changes on reload, an empty array if there is no
+     * configuration, or {@code null} if it cannot be serialized, which is treated as changed.
+     */
+    private static byte[] serialize(Serializable config) {
+        if (config == null)
+            return new byte[0];
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(config);
+        } catch (IOException e) {
+            LOG.info("Failed to serialize {}:\n", config.getClass().getName(), e);
+            return null;
+        }
+        return out.toByteArray();
     }
 
     private static void addJBossDirURLSystemProperties() {
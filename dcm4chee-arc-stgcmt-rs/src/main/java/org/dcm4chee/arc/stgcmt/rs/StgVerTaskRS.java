@@ -77,6 +77,7 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.*;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -331,8 +332,9 @@ public class StgVerTaskRS {
                                                                 queueTaskQueryParam,
                                                                 stgVerTaskQueryParam,
                                                                 rescheduleTasksFetchSize);
-                stgVerTaskQueueMsgIDs.forEach(stgVerTaskQueueMsgID -> stgCmtMgr.rescheduleStgVerTask(stgVerTaskQueueMsgID));
+                rescheduleStgVerTasks(stgVerTaskQueueMsgIDs);
                 count = stgVerTaskQueueMsgIDs.size();
+                LOG.debug("Rescheduled {} tasks on device {}", rescheduled + count, device.getDeviceName());
                 rescheduled += count;
             } while (count >= rescheduleTasksFetchSize);
             queueEvent.setCount(rescheduled);
@@ -346,6 +348,19 @@ public class StgVerTaskRS {
         }
     }
 
+    private void rescheduleStgVerTasks(List<String> stgVerTaskQueueMsgIds) {
+        if (stgVerTaskQueueMsgIds.isEmpty())
+            return;
+
+        try {
+            stgCmtMgr.rescheduleStgVerTasks(stgVerTaskQueueMsgIds);
+        } catch (Exception e) {
+            LOG.info("Failed to reschedule {} tasks in one transaction - reschedule them separately:\n",
+                    stgVerTaskQueueMsgIds.size(), e);
+            stgVerTaskQueueMsgIds.forEach(stgCmtMgr::rescheduleStgVerTask);
+        }
+    }
+
     private Response rescheduleValidTasks(TaskQueryParam queueTaskQueryParam, TaskQueryParam stgVerTaskQueryParam) {
         BulkQueueMessageEvent queueEvent = new BulkQueueMessageEvent(request, QueueMessageOperation.RescheduleTasks);
         int rescheduled = 0;
@@ -356,11 +371,12 @@ public class StgVerTaskRS {
             do {
                 List<Tuple> stgVerTaskTuples = stgCmtMgr.listStgVerTaskQueueMsgIDAndMsgProps(
                         queueTaskQueryParam, stgVerTaskQueryParam, rescheduleTaskFetchSize);
+                List<String> stgVerTaskQueueMsgIds = new ArrayList<>(stgVerTaskTuples.size());
                 for (Tuple tuple : stgVerTaskTuples) {
                     String stgVerTaskQueueMsgId = (String) tuple.get(0);
                     try {
                         if (validateTaskAssociationInitiator((String) tuple.get(1), device)) {
-                            stgCmtMgr.rescheduleStgVerTask(stgVerTaskQueueMsgId);
+                            stgVerTaskQueueMsgIds.add(stgVerTaskQueueMsgId);
                             count++;
                         }
                     } catch (ConfigurationException e) {
@@ -369,6 +385,8 @@ public class StgVerTaskRS {
                         failed++;
                     }
                 }
+                rescheduleStgVerTasks(stgVerTaskQueueMsgIds);
+                LOG.debug("Rescheduled {} tasks on device {}", rescheduled + count, device.getDeviceName());
                 rescheduled += count;
             } while (count >= rescheduleTaskFetchSize);
             queueEvent.setCount(rescheduled);
@@ -97,6 +97,8 @@ public interface StgCmtManager {
 
     void rescheduleStgVerTask(String stgVerTaskQueueMsgId);
 
+    int rescheduleStgVerTasks(List<String> stgVerTaskQueueMsgIds);
+
     List<String> listDistinctDeviceNames(TaskQueryParam queueTaskQueryParam, TaskQueryParam stgVerTaskQueryParam);
 
     List<String> listStgVerTaskQueueMsgIDs(
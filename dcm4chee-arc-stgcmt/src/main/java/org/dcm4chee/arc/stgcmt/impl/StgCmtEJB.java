@@ -373,6 +373,12 @@ public class StgCmtEJB {
         queueManager.rescheduleTask(stgVerTaskQueueMsgId, StgCmtManager.QUEUE_NAME, queueEvent);
     }
 
+    public int rescheduleStgVerTasks(List<String> stgVerTaskQueueMsgIds) {
+        for (String stgVerTaskQueueMsgId : stgVerTaskQueueMsgIds)
+            queueManager.rescheduleTask(stgVerTaskQueueMsgId, StgCmtManager.QUEUE_NAME, null);
+        return stgVerTaskQueueMsgIds.size();
+    }
+
     public List<String> listDistinctDeviceNames(TaskQueryParam queueTaskQueryParam, TaskQueryParam stgVerTaskQueryParam) {
         return em.createQuery(
                 select(QueueMessage_.deviceName, queueTaskQueryParam, stgVerTaskQueryParam).distinct(true))
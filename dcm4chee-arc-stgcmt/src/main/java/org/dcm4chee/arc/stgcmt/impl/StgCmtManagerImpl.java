@@ -79,6 +79,8 @@ import java.io.InputStream;
 import java.nio.file.NoSuchFileException;
 import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 /**
@@ -105,6 +107,17 @@ public class StgCmtManagerImpl implements StgCmtManager {
     @Inject
     private Event<StgCmtContext> stgCmtEvent;
 
+    private final Map<String, StorageVerificationLimiter> limiters = new ConcurrentHashMap<>();
+
+    public StgCmtManagerImpl() {
+    }
+
+    StgCmtManagerImpl(Device device, RetrieveService retrieveService, StoreService storeService) {
+        this.device = device;
+        this.retrieveService = retrieveService;
+        this.storeService = storeService;
+    }
+
     @Override
     public void addExternalRetrieveAETs(Attributes eventInfo, Device device) {
         ejb.addExternalRetrieveAETs(eventInfo, device);
@@ -232,6 +245,11 @@ public class StgCmtManagerImpl implements StgCmtManager {
         ejb.rescheduleStgVerTask(stgVerTaskQueueMsgId, null);
     }
 
+    @Override
+    public int rescheduleStgVerTasks(List<String> stgVerTaskQueueMsgIds) {
+        return ejb.rescheduleStgVerTasks(stgVerTaskQueueMsgIds);
+    }
+
     @Override
     public List<String> listDistinctDeviceNames(TaskQueryParam queueTaskQueryParam, TaskQueryParam stgVerTaskQueryParam) {
         return ejb.listDistinctDeviceNames(queueTaskQueryParam, stgVerTaskQueryParam);
@@ -383,14 +401,16 @@ public class StgCmtManagerImpl implements StgCmtManager {
                 .add(failedSOP(cuid, iuid, failureReason));
     }
 
-    private void checkLocations(StgCmtContext ctx, RetrieveContext retrCtx, Map<String,SeriesResult> seriesResultMap) {
+    void checkLocations(StgCmtContext ctx, RetrieveContext retrCtx, Map<String,SeriesResult> seriesResultMap) {
         List<InstanceLocations> matches = retrCtx.getMatches();
         Attributes eventInfo = ctx.getEventInfo();
         String commonRetrieveAET = commonRetrieveAET(matches);
         if (commonRetrieveAET != null)
             eventInfo.setString(Tag.RetrieveAETitle, VR.AE, commonRetrieveAET);
 
+        boolean[] verified = verifyInstances(ctx, retrCtx, matches);
         Set<String> studyInstanceUIDs = new HashSet<>();
+        int index = 0;
         for (InstanceLocations inst : matches) {
             String cuid = inst.getSopClassUID();
             String iuid = inst.getSopInstanceUID();
@@ -402,8 +422,7 @@ public class StgCmtManagerImpl implements StgCmtManager {
             if (seriesResult != null) {
                 seriesResult.size += inst.getLocations().stream().mapToLong(Location::getSize).max().getAsLong();
             }
-            if (ctx.getStorageVerificationPolicy() == StorageVerificationPolicy.DB_RECORD_EXISTS
-                    || checkLocationsOfInstance(ctx, retrCtx, inst)) {
+            if (verified[index++]) {
                 eventInfo.ensureSequence(Tag.ReferencedSOPSequence, retrCtx.getNumberOfMatches())
                         .add(refSOP(cuid, iuid, commonRetrieveAET == null ? inst.getRetrieveAETs() : null));
             } else {
@@ -428,6 +447,66 @@ public class StgCmtManagerImpl implements StgCmtManager {
         }
     }
 
+    private boolean[] verifyInstances(StgCmtContext ctx, RetrieveContext retrCtx, List<InstanceLocations> matches) {
+        boolean[] verified = new boolean[matches.size()];
+        if (ctx.getStorageVerificationPolicy() == StorageVerificationPolicy.DB_RECORD_EXISTS) {
+            Arrays.fill(verified, true);
+            return verified;
+        }
+        Map<String, Storage> storages = new HashMap<>();
+        for (InstanceLocations inst : matches) {
+            for (Location l : inst.getLocations()) {
+                if (ctx.checkStorageID(l.getStorageID()))
+                    storages.computeIfAbsent(l.getStorageID(),
+                            storageID -> retrieveService.getStorage(storageID, retrCtx));
+            }
+        }
+        int maxParallel = Math.min(matches.size(), storages.values().stream()
+                .mapToInt(storage -> limiterOf(storage.getStorageDescriptor()).getMaxParallel())
+                .max()
+                .orElse(1));
+        List<UpdateLocation> updateLocations = retrCtx.getUpdateLocations();
+        if (maxParallel <= 1) {
+            for (int i = 0; i < verified.length; i++) {
+                verified[i] = checkLocationsOfInstance(ctx, storages, matches.get(i), updateLocations);
+            }
+            return verified;
+        }
+        LOG.debug("Verify {} Instances of Study[uid={}] by {} parallel threads",
+                matches.size(), retrCtx.getStudyInstanceUID(), maxParallel);
+        List<List<UpdateLocation>> updateLocationsOfInstances = new ArrayList<>(verified.length);
+        Semaphore semaphore = new Semaphore(maxParallel);
+        try {
+            for (int i = 0; i < verified.length; i++) {
+                int index = i;
+                InstanceLocations inst = matches.get(i);
+                List<UpdateLocation> updateLocationsOfInstance = new ArrayList<>(1);
+                updateLocationsOfInstances.add(updateLocationsOfInstance);
+                semaphore.acquire();
+                device.execute(() -> {
+                    try {
+                        verified[index] = checkLocationsOfInstance(ctx, storages, inst, updateLocationsOfInstance);
+                    } finally {
+                        semaphore.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted verification of Instances of Study[uid={}]:\n", retrCtx.getStudyInstanceUID(), e);
+            Thread.currentThread().interrupt();
+        }
+        semaphore.acquireUninterruptibly(maxParallel);
+        updateLocationsOfInstances.forEach(updateLocations::addAll);
+        return verified;
+    }
+
+    private StorageVerificationLimiter limiterOf(StorageDescriptor desc) {
+        return limiters.compute(desc.getStorageID(),
+                (storageID, limiter) -> limiter != null && limiter.matches(desc)
+                        ? limiter
+                        : new StorageVerificationLimiter(desc));
+    }
+
     private String commonRetrieveAET(List<InstanceLocations> matches) {
         if (matches.isEmpty())
             return null;
@@ -459,16 +538,30 @@ public class StgCmtManagerImpl implements StgCmtManager {
         return attrs;
     }
 
-    private boolean checkLocationsOfInstance(StgCmtContext ctx, RetrieveContext retrCtx, InstanceLocations inst) {
-        List<UpdateLocation> updateLocations = retrCtx.getUpdateLocations();
+    private boolean checkLocationsOfInstance(StgCmtContext ctx, Map<String, Storage> storages,
+            InstanceLocations inst, List<UpdateLocation> updateLocations) {
         int locationsOnStgCmtStorage = 0;
         Attributes attrs = inst.getAttributes();
         String studyInstanceUID = attrs.getString(Tag.StudyInstanceUID);
         for (Location l : inst.getLocations()) {
             if (ctx.checkStorageID(l.getStorageID())) {
                 locationsOnStgCmtStorage++;
-                Storage storage = retrieveService.getStorage(l.getStorageID(), retrCtx);
-                CheckResult result = checkLocation(ctx, inst, l, storage, updateLocations);
+                Storage storage = storages.get(l.getStorageID());
+                StorageVerificationLimiter limiter = limiterOf(storage.getStorageDescriptor());
+                try {
+                    limiter.acquire(readsObject(ctx.getStorageVerificationPolicy()) ? l.getSize() : 0L);
+                } catch (InterruptedException e) {
+                    LOG.warn("Interrupted verification of {} of Instance[uid={}] of Study[uid={}]",
+                            l, inst.getSopInstanceUID(), studyInstanceUID);
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                CheckResult result;
+                try {
+                    result = checkLocation(ctx, inst, l, storage, updateLocations);
+                } finally {
+                    limiter.release();
+                }
                 if (ctx.isUpdateLocationStatus() && l.getStatus() != result.status) {
                     updateLocations.add(new UpdateLocation(inst, l, result.status, null));
                 }
@@ -500,6 +593,10 @@ public class StgCmtManagerImpl implements StgCmtManager {
         return false;
     }
 
+    private static boolean readsObject(StorageVerificationPolicy policy) {
+        return policy == StorageVerificationPolicy.OBJECT_FETCH || policy == StorageVerificationPolicy.OBJECT_CHECKSUM;
+    }
+
     private CheckResult checkLocation(StgCmtContext ctx, InstanceLocations inst, Location l, Storage storage,
                                       List<UpdateLocation> updateLocations) {
         ReadContext readContext = storage.createReadContext();
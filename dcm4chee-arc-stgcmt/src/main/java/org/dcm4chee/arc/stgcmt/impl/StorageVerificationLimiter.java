@@ -0,0 +1,123 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.stgcmt.impl;
+
+import org.dcm4chee.arc.conf.StorageDescriptor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of parallel accesses, the number of accessed objects per second and the number of read bytes
+ * per second of Storage Verifications on one Storage System, shared by all Storage Verification Tasks and
+ * Storage Commitment Requests of the Device.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+class StorageVerificationLimiter {
+    private final int maxParallel;
+    private final long maxBytesPerSecond;
+    private final int maxObjectsPerSecond;
+    private final Semaphore semaphore;
+    private final Rate bytesRate;
+    private final Rate objectsRate;
+
+    StorageVerificationLimiter(StorageDescriptor desc) {
+        this.maxParallel = desc.getStorageVerificationMaxParallel();
+        this.maxBytesPerSecond = desc.getStorageVerificationMaxBytesPerSecond();
+        this.maxObjectsPerSecond = desc.getStorageVerificationMaxObjectsPerSecond();
+        this.semaphore = maxParallel > 0 ? new Semaphore(maxParallel, true) : null;
+        this.bytesRate = maxBytesPerSecond > 0 ? new Rate(maxBytesPerSecond) : null;
+        this.objectsRate = maxObjectsPerSecond > 0 ? new Rate(maxObjectsPerSecond) : null;
+    }
+
+    boolean matches(StorageDescriptor desc) {
+        return maxParallel == desc.getStorageVerificationMaxParallel()
+                && maxBytesPerSecond == desc.getStorageVerificationMaxBytesPerSecond()
+                && maxObjectsPerSecond == desc.getStorageVerificationMaxObjectsPerSecond();
+    }
+
+    int getMaxParallel() {
+        return Math.max(1, maxParallel);
+    }
+
+    void acquire(long bytes) throws InterruptedException {
+        if (semaphore != null)
+            semaphore.acquire();
+        try {
+            if (objectsRate != null)
+                objectsRate.acquire(1);
+            if (bytesRate != null && bytes > 0)
+                bytesRate.acquire(bytes);
+        } catch (InterruptedException e) {
+            release();
+            throw e;
+        }
+    }
+
+    void release() {
+        if (semaphore != null)
+            semaphore.release();
+    }
+
+    private static class Rate {
+        private final double nanosPerPermit;
+        private long nextFree = System.nanoTime();
+
+        Rate(long permitsPerSecond) {
+            this.nanosPerPermit = 1e9 / permitsPerSecond;
+        }
+
+        void acquire(long permits) throws InterruptedException {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long start = Math.max(now, nextFree);
+                nextFree = start + (long) (permits * nanosPerPermit);
+                wait = start - now;
+            }
+            if (wait > 0)
+                TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.stgcmt.impl;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Sequence;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.StorageDescriptor;
+import org.dcm4chee.arc.conf.StorageVerificationPolicy;
+import org.dcm4chee.arc.entity.Location;
+import org.dcm4chee.arc.retrieve.RetrieveContext;
+import org.dcm4chee.arc.retrieve.RetrieveService;
+import org.dcm4chee.arc.retrieve.impl.InstanceLocationsImpl;
+import org.dcm4chee.arc.stgcmt.StgCmtContext;
+import org.dcm4chee.arc.storage.DefaultReadContext;
+import org.dcm4chee.arc.storage.ReadContext;
+import org.dcm4chee.arc.storage.Storage;
+import org.dcm4chee.arc.store.InstanceLocations;
+import org.dcm4chee.arc.store.StoreService;
+import org.dcm4chee.arc.store.UpdateLocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class StgCmtManagerImplTest {
+
+    private static final String STORAGE_ID = "fs1";
+    private static final String STUDY_IUID = "1.2.3";
+    private static final int NUM_INSTANCES = 60;
+    private static final int OBJECT_SIZE = 1000;
+
+    private final AtomicInteger concurrentChecks = new AtomicInteger();
+    private final AtomicInteger maxConcurrentChecks = new AtomicInteger();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void parallelVerificationMatchesSerialVerification() {
+        Result serial = verify(0);
+        assertEquals(1, maxConcurrentChecks.get());
+        maxConcurrentChecks.set(0);
+        Result parallel = verify(8);
+        assertTrue("max concurrent checks: " + maxConcurrentChecks.get(), maxConcurrentChecks.get() > 1);
+        assertTrue(maxConcurrentChecks.get() <= 8);
+
+        assertEquals(NUM_INSTANCES, serial.referencedIUIDs.size() + serial.failedIUIDs.size());
+        assertFalse(serial.failedIUIDs.isEmpty());
+        assertFalse(serial.updateLocations.isEmpty());
+        assertEquals(serial.referencedIUIDs, parallel.referencedIUIDs);
+        assertEquals(serial.failedIUIDs, parallel.failedIUIDs);
+        assertEquals(serial.updateLocations, parallel.updateLocations);
+    }
+
+    private Result verify(int maxParallel) {
+        Device device = new Device("dcm4chee-arc");
+        device.setExecutor(executor);
+        device.addDeviceExtension(new ArchiveDeviceExtension());
+        ApplicationEntity ae = new ApplicationEntity("DCM4CHEE");
+        ae.addAEExtension(new ArchiveAEExtension());
+        device.addApplicationEntity(ae);
+
+        StorageDescriptor desc = new StorageDescriptor(STORAGE_ID);
+        desc.setStorageVerificationMaxParallel(maxParallel);
+        Storage storage = storage(desc);
+        Result result = new Result();
+        StgCmtManagerImpl manager = new StgCmtManagerImpl(device, retrieveService(storage), storeService(result));
+
+        StgCmtContext ctx = new StgCmtContext(ae, ae.getAETitle());
+        ctx.setStorageVerificationPolicy(StorageVerificationPolicy.OBJECT_SIZE);
+        ctx.setUpdateLocationStatus(true);
+        ctx.setStorageIDs();
+        manager.checkLocations(ctx, retrieveContext(matches()), null);
+
+        Attributes eventInfo = ctx.getEventInfo();
+        result.referencedIUIDs = iuids(eventInfo.getSequence(Tag.ReferencedSOPSequence));
+        result.failedIUIDs = iuids(eventInfo.getSequence(Tag.FailedSOPSequence));
+        return result;
+    }
+
+    /**
+     * Every 5th instance misses its object, every 7th has an object with differing size, every 3rd has
+     * a second location, which is used if the first one fails. Every 4th location was marked as missing before.
+     */
+    private static List<InstanceLocations> matches() {
+        List<InstanceLocations> matches = new ArrayList<>(NUM_INSTANCES);
+        for (int i = 0; i < NUM_INSTANCES; i++) {
+            Attributes attrs = new Attributes(5);
+            attrs.setString(Tag.StudyInstanceUID, VR.UI, STUDY_IUID);
+            attrs.setString(Tag.SeriesInstanceUID, VR.UI, STUDY_IUID + ".1");
+            attrs.setString(Tag.SOPClassUID, VR.UI, UID.CTImageStorage);
+            attrs.setString(Tag.SOPInstanceUID, VR.UI, STUDY_IUID + ".1." + i);
+            attrs.setString(Tag.PatientID, VR.LO, "P1");
+            InstanceLocationsImpl inst = new InstanceLocationsImpl(attrs);
+            inst.setRetrieveAETs("DCM4CHEE");
+            inst.getLocations().add(location(i, 0));
+            if (i % 3 == 0)
+                inst.getLocations().add(location(i, 1));
+            matches.add(inst);
+        }
+        return matches;
+    }
+
+    private static Location location(int instance, int index) {
+        return new Location.Builder()
+                .storageID(STORAGE_ID)
+                .storagePath(instance + "/" + index)
+                .size(OBJECT_SIZE)
+                .status(instance % 4 == 0 ? Location.Status.MISSING_OBJECT : Location.Status.OK)
+                .build();
+    }
+
+    private static Long objectSize(String storagePath) {
+        String[] ss = storagePath.split("/");
+        int instance = Integer.parseInt(ss[0]);
+        if (ss[1].equals("1"))
+            return (long) OBJECT_SIZE;
+        if (instance % 5 == 0)
+            return null;
+        return instance % 7 == 0 ? OBJECT_SIZE - 1L : OBJECT_SIZE;
+    }
+
+    private Storage storage(StorageDescriptor desc) {
+        Storage[] storage = new Storage[1];
+        storage[0] = (Storage) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ Storage.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStorageDescriptor":
+                            return desc;
+                        case "createReadContext":
+                            return new DefaultReadContext(storage[0]);
+                        case "getContentLength":
+                            return contentLength((ReadContext) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return storage[0];
+    }
+
+    private long contentLength(ReadContext readContext) throws Exception {
+        maxConcurrentChecks.accumulateAndGet(concurrentChecks.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(1, 5));
+            Long size = objectSize(readContext.getStoragePath());
+            if (size == null)
+                throw new NoSuchFileException(readContext.getStoragePath());
+            return size;
+        } finally {
+            concurrentChecks.decrementAndGet();
+        }
+    }
+
+    private RetrieveService retrieveService(Storage storage) {
+        return (RetrieveService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ RetrieveService.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getStorage"))
+                        return storage;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private StoreService storeService(Result result) {
+        return (StoreService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ StoreService.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("updateLocations")) {
+                        for (UpdateLocation updateLocation : (List<UpdateLocation>) args[1])
+                            result.updateLocations.add(updateLocation.instanceLocation.getSopInstanceUID()
+                                    + ' ' + updateLocation.location.getStoragePath()
+                                    + ' ' + updateLocation.newStatus
+                                    + ' ' + updateLocation.newDigest);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private RetrieveContext retrieveContext(List<InstanceLocations> matches) {
+        List<UpdateLocation> updateLocations = new ArrayList<>();
+        return (RetrieveContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ RetrieveContext.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMatches":
+                            return matches;
+                        case "getNumberOfMatches":
+                            return matches.size();
+                        case "getUpdateLocations":
+                            return updateLocations;
+                        case "getStudyInstanceUID":
+                            return STUDY_IUID;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<String> iuids(Sequence seq) {
+        List<String> iuids = new ArrayList<>();
+        if (seq != null)
+            seq.forEach(item -> iuids.add(item.getString(Tag.ReferencedSOPInstanceUID)));
+        return iuids;
+    }
+
+    private static class Result {
+        final List<String> updateLocations = new ArrayList<>();
+        List<String> referencedIUIDs;
+        List<String> failedIUIDs;
+    }
+}
@@ -48,12 +48,14 @@ import org.dcm4chee.arc.conf.StorageDescriptor;
 import org.dcm4chee.arc.metrics.MetricsService;
 import org.dcm4chee.arc.storage.AbstractStorage;
 import org.dcm4chee.arc.storage.ReadContext;
+import org.dcm4chee.arc.storage.Storage;
 import org.dcm4chee.arc.storage.WriteContext;
 import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.options.CopyOptions;
 import org.jclouds.io.Payload;
 import org.jclouds.io.payloads.InputStreamPayload;
 import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
@@ -62,6 +64,7 @@ import java.io.*;
 import java.nio.file.NoSuchFileException;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -183,6 +186,15 @@ public class CloudStorage extends AbstractStorage {
 
     private void upload(InputStream in, WriteContext ctx) throws IOException {
         BlobStore blobStore = context.getBlobStore();
+        String storagePath = storagePath(blobStore, ctx);
+        long length = ctx.getContentLength();
+        Uploader uploader = streamingUpload || length >= 0 && length <= maxPartSize
+                ? STREAMING_UPLOADER : new S3Uploader();
+        uploader.upload(context, in, length, blobStore, container, storagePath);
+        ctx.setStoragePath(storagePath);
+    }
+
+    private String storagePath(BlobStore blobStore, WriteContext ctx) {
         String storagePath = pathFormat.format(ctx.getAttributes());
         if (count++ == 0 && !blobStore.containerExists(container))
             blobStore.createContainerInLocation(null, container);
@@ -191,10 +203,40 @@ public class CloudStorage extends AbstractStorage {
                 storagePath = storagePath.substring(0, storagePath.lastIndexOf('/') + 1)
                         .concat(String.format("%08X", ThreadLocalRandom.current().nextInt()));
         }
-        long length = ctx.getContentLength();
-        Uploader uploader = streamingUpload || length >= 0 && length <= maxPartSize
-                ? STREAMING_UPLOADER : new S3Uploader();
-        uploader.upload(context, in, length, blobStore, container, storagePath);
+        return storagePath;
+    }
+
+    @Override
+    public boolean canCopyFrom(Storage source) {
+        if (!(source instanceof CloudStorage))
+            return false;
+
+        StorageDescriptor other = source.getStorageDescriptor();
+        return descriptor.getStorageURI().equals(other.getStorageURI())
+                && Objects.equals(descriptor.getProperty("identity", null), other.getProperty("identity", null));
+    }
+
+    @Override
+    protected void copyFromA(Storage source, ReadContext readCtx, WriteContext ctx) throws IOException {
+        if (isSynchronizeUpload())
+            synchronized (descriptor) {
+                copyBlob((CloudStorage) source, readCtx, ctx);
+            }
+        else
+            copyBlob((CloudStorage) source, readCtx, ctx);
+    }
+
+    private void copyBlob(CloudStorage source, ReadContext readCtx, WriteContext ctx) throws IOException {
+        BlobStore blobStore = context.getBlobStore();
+        String storagePath = storagePath(blobStore, ctx);
+        try {
+            blobStore.copyBlob(source.container, readCtx.getStoragePath(),
+                    container, storagePath, CopyOptions.NONE);
+        } catch (RuntimeException e) {
+            // jclouds signals failures, e.g. of the provider API, by unchecked exceptions
+            throw new IOException("Failed to copy " + readCtx.getStoragePath() + " from " + source.container
+                    + " to " + container, e);
+        }
         ctx.setStoragePath(storagePath);
     }
 
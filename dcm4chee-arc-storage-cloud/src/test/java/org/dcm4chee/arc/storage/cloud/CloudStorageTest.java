@@ -0,0 +1,171 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.storage.cloud;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.util.StreamUtils;
+import org.dcm4chee.arc.conf.StorageDescriptor;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.dcm4chee.arc.storage.ReadContext;
+import org.dcm4chee.arc.storage.WriteContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class CloudStorageTest {
+
+    private static final int SIZE = 64 * 1024;
+
+    private ExecutorService executor;
+    private CloudStorage storage;
+    private byte[] content;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        content = new byte[SIZE];
+        new Random(0).nextBytes(content);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        if (storage != null)
+            storage.close();
+    }
+
+    @Test
+    public void copyFromWaitsForSynchronizedUpload() throws Exception {
+        storage = openStorage("synchronized", true);
+        String sourcePath = store();
+        Future<String> copy;
+        synchronized (storage.getStorageDescriptor()) {
+            copy = executor.submit(() -> copyFrom(sourcePath));
+            try {
+                copy.get(500, TimeUnit.MILLISECONDS);
+                fail("copy did not wait for concurrent upload");
+            } catch (TimeoutException expected) {
+            }
+        }
+        String copyPath = copy.get(10, TimeUnit.SECONDS);
+        assertNotEquals(sourcePath, copyPath);
+        assertArrayEquals(content, read(copyPath));
+    }
+
+    @Test
+    public void copyFromWithoutSynchronizedUpload() throws Exception {
+        storage = openStorage("unsynchronized", false);
+        String sourcePath = store();
+        String copyPath;
+        synchronized (storage.getStorageDescriptor()) {
+            copyPath = executor.submit(() -> copyFrom(sourcePath)).get(10, TimeUnit.SECONDS);
+        }
+        assertNotEquals(sourcePath, copyPath);
+        assertArrayEquals(content, read(copyPath));
+    }
+
+    private String store() throws IOException {
+        WriteContext writeCtx = createWriteContext();
+        writeCtx.setContentLength(SIZE);
+        storage.copy(new ByteArrayInputStream(content), writeCtx);
+        return writeCtx.getStoragePath();
+    }
+
+    private String copyFrom(String storagePath) throws IOException {
+        assertTrue(storage.canCopyFrom(storage));
+        ReadContext readCtx = storage.createReadContext();
+        readCtx.setStoragePath(storagePath);
+        WriteContext writeCtx = createWriteContext();
+        writeCtx.setContentLength(SIZE);
+        storage.copyFrom(storage, readCtx, writeCtx);
+        return writeCtx.getStoragePath();
+    }
+
+    private byte[] read(String storagePath) throws IOException {
+        ReadContext readCtx = storage.createReadContext();
+        readCtx.setStoragePath(storagePath);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(SIZE);
+        try (InputStream in = storage.openInputStream(readCtx)) {
+            StreamUtils.copy(in, out);
+        }
+        return out.toByteArray();
+    }
+
+    private WriteContext createWriteContext() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3");
+        attrs.setString(Tag.SeriesInstanceUID, VR.UI, "1.2.3.4");
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4.5");
+        WriteContext writeCtx = storage.createWriteContext();
+        writeCtx.setAttributes(attrs);
+        return writeCtx;
+    }
+
+    private static CloudStorage openStorage(String container, boolean synchronizeUpload) {
+        StorageDescriptor descriptor = new StorageDescriptor(container);
+        descriptor.setStorageURIStr("jclouds:transient");
+        descriptor.setProperty("container", container);
+        descriptor.setProperty("synchronizeUpload", Boolean.toString(synchronizeUpload));
+        return new CloudStorage(descriptor, (MetricsService) Proxy.newProxyInstance(
+                MetricsService.class.getClassLoader(),
+                new Class<?>[]{ MetricsService.class },
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? Boolean.FALSE : null),
+                new Device("test"));
+    }
+}
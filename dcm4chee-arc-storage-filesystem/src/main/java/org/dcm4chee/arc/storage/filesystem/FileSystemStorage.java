@@ -41,10 +41,12 @@
 package org.dcm4chee.arc.storage.filesystem;
 
 import org.dcm4che3.util.AttributesFormat;
+import org.dcm4che3.util.SafeClose;
 import org.dcm4chee.arc.conf.StorageDescriptor;
 import org.dcm4chee.arc.metrics.MetricsService;
 import org.dcm4chee.arc.storage.AbstractStorage;
 import org.dcm4chee.arc.storage.ReadContext;
+import org.dcm4chee.arc.storage.Storage;
 import org.dcm4chee.arc.storage.WriteContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,7 +55,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -68,6 +74,8 @@ public class FileSystemStorage extends AbstractStorage {
     private final AttributesFormat pathFormat;
     private final Path checkMountFilePath;
     private final OpenOption[] openOptions;
+    private final Set<OpenOption> writeOptions;
+    private final boolean hardLink;
 
     public FileSystemStorage(StorageDescriptor descriptor, MetricsService metricsService) {
         super(descriptor, metricsService);
@@ -79,6 +87,9 @@ public class FileSystemStorage extends AbstractStorage {
         openOptions = fileOpenOption != null
                 ? new OpenOption[]{ StandardOpenOption.CREATE_NEW, StandardOpenOption.valueOf(fileOpenOption) }
                 : new OpenOption[]{ StandardOpenOption.CREATE_NEW };
+        writeOptions = new HashSet<>(Arrays.asList(openOptions));
+        writeOptions.add(StandardOpenOption.WRITE);
+        hardLink = Boolean.parseBoolean(descriptor.getProperty("hardLink", null));
     }
 
     private URI ensureTrailingSlash(URI uri) {
@@ -150,6 +161,52 @@ public class FileSystemStorage extends AbstractStorage {
         ctx.setStoragePath(rootURI.relativize(path.toUri()).toString());
     }
 
+    @Override
+    public boolean canCopyFrom(Storage source) {
+        return source instanceof FileSystemStorage;
+    }
+
+    @Override
+    protected void copyFromA(Storage source, ReadContext readCtx, WriteContext ctx) throws IOException {
+        Path sourcePath = Paths.get(((FileSystemStorage) source).rootURI.resolve(readCtx.getStoragePath()));
+        Path path = Paths.get(rootURI.resolve(pathFormat.format(ctx.getAttributes())));
+        Path dir = path.getParent();
+        Files.createDirectories(dir);
+        boolean link = hardLink;
+        for (;;)
+            try {
+                if (link)
+                    Files.createLink(path, sourcePath);
+                else
+                    copyFile(sourcePath, path);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                path = dir.resolve(String.format("%08X", ThreadLocalRandom.current().nextInt()));
+            } catch (IOException | UnsupportedOperationException e) {
+                if (!link)
+                    throw e;
+                LOG.info("Failed to link {} to {} - copy file:\n", path, sourcePath, e);
+                link = false;
+            }
+        ctx.setStoragePath(rootURI.relativize(path.toUri()).toString());
+    }
+
+    private void copyFile(Path sourcePath, Path path) throws IOException {
+        try (FileChannel in = FileChannel.open(sourcePath, StandardOpenOption.READ)) {
+            FileChannel out = FileChannel.open(path, writeOptions);
+            try {
+                long size = in.size();
+                for (long pos = 0L; pos < size;)
+                    pos += in.transferTo(pos, size - pos, out);
+                out.close();
+            } catch (IOException e) {
+                SafeClose.close(out);
+                Files.deleteIfExists(path);
+                throw e;
+            }
+        }
+    }
+
     @Override
     protected InputStream openInputStreamA(ReadContext ctx) throws IOException {
         Path path = Paths.get(rootURI.resolve(ctx.getStoragePath()));
@@ -0,0 +1,187 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.storage.filesystem;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4chee.arc.conf.StorageDescriptor;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.dcm4chee.arc.storage.ReadContext;
+import org.dcm4chee.arc.storage.Storage;
+import org.dcm4chee.arc.storage.WriteContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class FileSystemStorageTest {
+
+    private static final int SIZE = 256 * 1024;
+
+    private Path tmpDir;
+    private Storage source;
+    private byte[] content;
+    private String sourcePath;
+
+    @Before
+    public void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("fs-storage-test");
+        source = openStorage("fs1", null, null);
+        content = new byte[SIZE];
+        new Random(0).nextBytes(content);
+        WriteContext writeCtx = createWriteContext(source);
+        try (OutputStream out = source.openOutputStream(writeCtx)) {
+            out.write(content);
+        }
+        sourcePath = writeCtx.getStoragePath();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(tmpDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void copyFrom() throws IOException {
+        Storage target = openStorage("fs2", null, null);
+        assertTrue(target.canCopyFrom(source));
+        Path copy = copyFrom(target, sourcePath);
+        assertArrayEquals(content, Files.readAllBytes(copy));
+        assertFalse(Files.isSameFile(copy, sourceFile()));
+    }
+
+    @Test
+    public void copyFromWithSync() throws IOException {
+        Path copy = copyFrom(openStorage("fs2", "SYNC", null), sourcePath);
+        assertArrayEquals(content, Files.readAllBytes(copy));
+    }
+
+    @Test
+    public void copyFromAppliesFileOpenOption() throws IOException {
+        // DELETE_ON_CLOSE makes it visible that the configured option is used for the copy
+        Path copy = copyFrom(openStorage("fs2", "DELETE_ON_CLOSE", null), sourcePath);
+        assertFalse(Files.exists(copy));
+    }
+
+    @Test
+    public void copyFromByHardLink() throws IOException {
+        Path copy = copyFrom(openStorage("fs2", null, "true"), sourcePath);
+        assertTrue(Files.isSameFile(copy, sourceFile()));
+    }
+
+    @Test
+    public void copyFromTwice() throws IOException {
+        Storage target = openStorage("fs2", "SYNC", null);
+        Path copy1 = copyFrom(target, sourcePath);
+        Path copy2 = copyFrom(target, sourcePath);
+        assertNotEquals(copy1, copy2);
+        assertArrayEquals(content, Files.readAllBytes(copy1));
+        assertArrayEquals(content, Files.readAllBytes(copy2));
+    }
+
+    @Test
+    public void copyFromMissingSource() throws IOException {
+        Storage target = openStorage("fs2", null, null);
+        try {
+            copyFrom(target, "missing");
+            fail("NoSuchFileException expected");
+        } catch (NoSuchFileException expected) {
+        }
+        try (Stream<Path> paths = Files.walk(tmpDir.resolve("fs2"))) {
+            assertFalse(paths.anyMatch(Files::isRegularFile));
+        }
+    }
+
+    private Path copyFrom(Storage target, String storagePath) throws IOException {
+        ReadContext readCtx = source.createReadContext();
+        readCtx.setStoragePath(storagePath);
+        WriteContext writeCtx = createWriteContext(target);
+        writeCtx.setContentLength(SIZE);
+        target.copyFrom(source, readCtx, writeCtx);
+        return tmpDir.resolve(target.getStorageDescriptor().getStorageID()).resolve(writeCtx.getStoragePath());
+    }
+
+    private Path sourceFile() {
+        return tmpDir.resolve("fs1").resolve(sourcePath);
+    }
+
+    private static WriteContext createWriteContext(Storage storage) {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3");
+        attrs.setString(Tag.SeriesInstanceUID, VR.UI, "1.2.3.4");
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4.5");
+        WriteContext writeCtx = storage.createWriteContext();
+        writeCtx.setAttributes(attrs);
+        return writeCtx;
+    }
+
+    private Storage openStorage(String storageID, String fileOpenOption, String hardLink) {
+        StorageDescriptor descriptor = new StorageDescriptor(storageID);
+        descriptor.setStorageURIStr(tmpDir.resolve(storageID).toUri().toString());
+        if (fileOpenOption != null)
+            descriptor.setProperty("fileOpenOption", fileOpenOption);
+        if (hardLink != null)
+            descriptor.setProperty("hardLink", hardLink);
+        return new FileSystemStorage(descriptor, (MetricsService) Proxy.newProxyInstance(
+                MetricsService.class.getClassLoader(),
+                new Class<?>[]{ MetricsService.class },
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? Boolean.FALSE : null));
+    }
+}
@@ -165,6 +165,20 @@ public abstract class AbstractStorage implements Storage {
                 ctx.getContentLength(), startTime);
     }
 
+    @Override
+    public boolean canCopyFrom(Storage source) {
+        return false;
+    }
+
+    @Override
+    public void copyFrom(Storage source, ReadContext readCtx, WriteContext ctx) throws IOException {
+        checkAccessable();
+        long startTime = System.nanoTime();
+        copyFromA(source, readCtx, ctx);
+        metricsService.acceptDataRate("write-to-" + descriptor.getStorageID(),
+                ctx.getContentLength(), startTime);
+    }
+
     @Override
     public void deleteObject(String storagePath) throws IOException {
         checkAccessable();
@@ -194,6 +208,10 @@ public abstract class AbstractStorage implements Storage {
         throw new UnsupportedOperationException();
     }
 
+    protected void copyFromA(Storage source, ReadContext readCtx, WriteContext ctx) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
     protected abstract void deleteObjectA(String storagePath) throws IOException;
 
     protected void beforeOutputStreamClosed(WriteContext ctx, OutputStream stream) throws IOException {}
@@ -30,6 +30,10 @@ public interface Storage extends Closeable {
 
     void copy(InputStream in, WriteContext ctx) throws IOException;
 
+    boolean canCopyFrom(Storage source);
+
+    void copyFrom(Storage source, ReadContext readCtx, WriteContext ctx) throws IOException;
+
     long getUsableSpace() throws IOException;
 
     long getTotalSpace() throws IOException;
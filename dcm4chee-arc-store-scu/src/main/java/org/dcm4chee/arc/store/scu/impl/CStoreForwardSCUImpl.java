@@ -44,11 +44,11 @@ import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.Tag;
 import org.dcm4chee.arc.retrieve.RetrieveContext;
 import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreEventObserver;
 import org.dcm4chee.arc.store.StoreSession;
 import org.dcm4chee.arc.store.scu.CStoreForwardSCU;
 
 import javax.enterprise.context.ApplicationScoped;
-import javax.enterprise.event.Observes;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Map;
@@ -58,7 +58,7 @@ import java.util.Map;
  * @since May 2016
  */
 @ApplicationScoped
-public class CStoreForwardSCUImpl implements CStoreForwardSCU {
+public class CStoreForwardSCUImpl implements CStoreForwardSCU, StoreEventObserver {
 
     private final Map<String,Map<RetrieveContext,CStoreForward>> registry = new HashMap<>();
 
@@ -82,7 +82,13 @@ public class CStoreForwardSCUImpl implements CStoreForwardSCU {
         return map != null && map.remove(ctx) != null;
     }
 
-    public void onStore(@Observes StoreContext storeContext) {
+    @Override
+    public String getStoreEventObserverName() {
+        return "store-forward";
+    }
+
+    @Override
+    public void onStore(StoreContext storeContext) {
         if (storeContext.getStoredInstance() == null)
             return;
 
@@ -0,0 +1,245 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.store;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Code;
+import org.dcm4che3.util.ReverseDNS;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ExportPriorsRule;
+import org.dcm4chee.arc.conf.ExportReoccurredInstances;
+import org.dcm4chee.arc.conf.RejectionNote;
+import org.dcm4chee.arc.entity.Instance;
+import org.dcm4chee.arc.entity.RejectionState;
+import org.dcm4chee.arc.keycloak.HttpServletRequestInfo;
+
+import java.net.Socket;
+
+/**
+ * Immutable values of a {@link StoreContext} and its {@link StoreSession} passed to
+ * {@link AsyncStoreEventObserver}s. Attributes are copied and no entities are referenced, so it may be accessed
+ * by other threads after the Store Response was returned.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public final class StoreEvent {
+
+    private final StoreSession session;
+    private final String sessionAsString;
+    private final String sopClassUID;
+    private final String sopInstanceUID;
+    private final String studyInstanceUID;
+    private final String mppsInstanceUID;
+    private final Attributes attributes;
+    private final RejectionNote rejectionNote;
+    private final boolean rejectedInstance;
+    private final RejectionState studyRejectionState;
+    private final Exception exception;
+    private final boolean previousInstance;
+    private final boolean storedInstance;
+    private final boolean locations;
+    private final Code impaxReportPatientMismatch;
+    private final ArchiveAEExtension arcAE;
+    private final String localAETitle;
+    private final String callingAET;
+    private final String calledAET;
+    private final boolean association;
+    private final HttpServletRequestInfo httpRequest;
+    private final Socket socket;
+    private final String impaxReportEndpoint;
+
+    public StoreEvent(StoreContext ctx) {
+        StoreSession session = ctx.getStoreSession();
+        Instance storedInstance = ctx.getStoredInstance();
+        Attributes attrs = ctx.getAttributes();
+        this.session = session;
+        this.sessionAsString = session.toString();
+        this.sopClassUID = ctx.getSopClassUID();
+        this.sopInstanceUID = ctx.getSopInstanceUID();
+        this.studyInstanceUID = ctx.getStudyInstanceUID();
+        this.mppsInstanceUID = ctx.getMppsInstanceUID();
+        this.attributes = attrs != null ? new Attributes(attrs) : null;
+        this.rejectionNote = ctx.getRejectionNote();
+        this.rejectedInstance = ctx.getRejectedInstance() != null;
+        this.studyRejectionState = rejectionNote != null && storedInstance != null
+                ? storedInstance.getSeries().getStudy().getRejectionState()
+                : null;
+        this.exception = ctx.getException();
+        this.previousInstance = ctx.getPreviousInstance() != null;
+        this.storedInstance = storedInstance != null;
+        this.locations = !ctx.getLocations().isEmpty();
+        this.impaxReportPatientMismatch = ctx.getImpaxReportPatientMismatch();
+        this.arcAE = session.getLocalApplicationEntity() != null ? session.getArchiveAEExtension() : null;
+        this.localAETitle = session.getLocalApplicationEntity() != null
+                ? session.getLocalApplicationEntity().getAETitle()
+                : null;
+        this.callingAET = session.getCallingAET();
+        this.calledAET = session.getCalledAET();
+        this.association = session.getAssociation() != null;
+        this.httpRequest = session.getHttpRequest();
+        this.socket = session.getSocket();
+        this.impaxReportEndpoint = session.getImpaxReportEndpoint();
+    }
+
+    @Override
+    public String toString() {
+        return sessionAsString;
+    }
+
+    public String getSopClassUID() {
+        return sopClassUID;
+    }
+
+    public String getSopInstanceUID() {
+        return sopInstanceUID;
+    }
+
+    public String getStudyInstanceUID() {
+        return studyInstanceUID;
+    }
+
+    public String getMppsInstanceUID() {
+        return mppsInstanceUID;
+    }
+
+    public Attributes getAttributes() {
+        return attributes;
+    }
+
+    public RejectionNote getRejectionNote() {
+        return rejectionNote;
+    }
+
+    /**
+     * Returns {@code true} if the object was rejected by a previous received Rejection Note.
+     */
+    public boolean isRejectedInstance() {
+        return rejectedInstance;
+    }
+
+    /**
+     * Returns the Rejection State of the Study of a stored Rejection Note, or {@code null} for other objects.
+     */
+    public RejectionState getStudyRejectionState() {
+        return studyRejectionState;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    public boolean hasPreviousInstance() {
+        return previousInstance;
+    }
+
+    public boolean hasStoredInstance() {
+        return storedInstance;
+    }
+
+    public boolean hasLocations() {
+        return locations;
+    }
+
+    public Code getImpaxReportPatientMismatch() {
+        return impaxReportPatientMismatch;
+    }
+
+    public boolean isExportReoccurredInstances(ExportPriorsRule rule) {
+        ExportReoccurredInstances exportReoccurredInstances = rule.getExportReoccurredInstances();
+        return exportReoccurredInstances == ExportReoccurredInstances.ALWAYS
+                || (exportReoccurredInstances == ExportReoccurredInstances.NEVER && !previousInstance)
+                || locations;
+    }
+
+    public ArchiveAEExtension getArchiveAEExtension() {
+        return arcAE;
+    }
+
+    public String getLocalAETitle() {
+        return localAETitle;
+    }
+
+    public String getCallingAET() {
+        return callingAET;
+    }
+
+    public String getCalledAET() {
+        return calledAET;
+    }
+
+    public boolean hasAssociation() {
+        return association;
+    }
+
+    public HttpServletRequestInfo getHttpRequest() {
+        return httpRequest;
+    }
+
+    public String getRemoteHostName() {
+        return httpRequest != null ? httpRequest.requesterHost
+                : socket != null ? ReverseDNS.hostNameOf(socket.getInetAddress())
+                : null;
+    }
+
+    public String getLocalHostName() {
+        return httpRequest != null ? httpRequest.localHost
+                : socket != null ? ReverseDNS.hostNameOf(socket.getLocalAddress())
+                : null;
+    }
+
+    public String getImpaxReportEndpoint() {
+        return impaxReportEndpoint;
+    }
+
+    /**
+     * Checks the Export Priors Rules processed by the originating {@link StoreSession}, which are kept in a
+     * concurrent Set.
+     */
+    public boolean isNotProcessed(ExportPriorsRule rule) {
+        return session.isNotProcessed(rule);
+    }
+
+    public boolean markAsProcessed(ExportPriorsRule rule) {
+        return session.markAsProcessed(rule);
+    }
+}
@@ -58,6 +58,7 @@ import java.io.InputStream;
 import java.net.Socket;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.zip.ZipInputStream;
 
 /**
@@ -130,6 +131,9 @@ public interface StoreService {
     void replaceLocation(StoreSession storeSession, Long instancePk, Location newLocation,
             List<Location> replaceLocations);
 
+    void replaceLocations(StoreSession storeSession, Map<Long, Location> newLocations,
+            Map<Long, List<Location>> replaceLocations);
+
     void compress(StoreContext ctx, InstanceLocations inst, InputStream data)
             throws IOException;
 
@@ -0,0 +1,225 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.store.impl;
+
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.event.ArchiveServiceEvent;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.dcm4chee.arc.store.AsyncStoreEventObserver;
+import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreEvent;
+import org.dcm4chee.arc.store.StoreEventObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Dispatches {@link StoreContext} to {@link StoreEventObserver}s and {@link StoreEvent} to
+ * {@link AsyncStoreEventObserver}s. {@link StoreEventObserver}s are always invoked synchronously.
+ * {@link AsyncStoreEventObserver}s configured by {@code dcmStoreEventAsyncObserver} are invoked by the device
+ * executor, serialized per Study, so they do not delay the Store Response. The number of pending asynchronous
+ * events is bounded by {@code dcmStoreEventMaxBacklog}; if exceeded, events are dispatched synchronously.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+@ApplicationScoped
+public class StoreEventDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StoreEventDispatcher.class);
+
+    @Inject
+    private Device device;
+
+    @Inject
+    private Instance<StoreEventObserver> observers;
+
+    @Inject
+    private Instance<AsyncStoreEventObserver> asyncObservers;
+
+    @Inject
+    private MetricsService metricsService;
+
+    private final Map<String, Deque<Runnable>> studyQueues = new HashMap<>();
+    private final Set<String> syncOnlyObservers = ConcurrentHashMap.newKeySet();
+    private int backlog;
+
+    public StoreEventDispatcher() {
+    }
+
+    StoreEventDispatcher(Device device, MetricsService metricsService) {
+        this.device = device;
+        this.metricsService = metricsService;
+    }
+
+    public void dispatch(StoreContext ctx) {
+        dispatch(ctx, observers, asyncObservers);
+    }
+
+    void dispatch(StoreContext ctx, Iterable<StoreEventObserver> observers,
+            Iterable<AsyncStoreEventObserver> asyncObservers) {
+        ArchiveDeviceExtension arcdev = device.getDeviceExtensionNotNull(ArchiveDeviceExtension.class);
+        for (StoreEventObserver observer : observers) {
+            String name = observer.getStoreEventObserverName();
+            if (arcdev.isStoreEventAsyncObserver(name) && syncOnlyObservers.add(name))
+                LOG.warn("Ignore configuration of Store Event Observer {} as asynchronous", name);
+            notify(observer, ctx);
+        }
+        Iterator<AsyncStoreEventObserver> iter = asyncObservers.iterator();
+        if (!iter.hasNext())
+            return;
+
+        StoreEvent event = new StoreEvent(ctx);
+        List<AsyncStoreEventObserver> deferred = new ArrayList<>();
+        do {
+            AsyncStoreEventObserver observer = iter.next();
+            if (arcdev.isStoreEventAsyncObserver(observer.getStoreEventObserverName()))
+                deferred.add(observer);
+            else
+                notify(observer, event);
+        } while (iter.hasNext());
+        if (deferred.isEmpty())
+            return;
+
+        String studyIUID = event.getStudyInstanceUID();
+        if (studyIUID != null
+                && enqueue(studyIUID, () -> notifyAsync(deferred, event), arcdev.getStoreEventMaxBacklog()))
+            return;
+
+        LOG.debug("{}: Dispatch Store Event synchronously", ctx);
+        for (AsyncStoreEventObserver observer : deferred)
+            notify(observer, event);
+    }
+
+    public void onArchiveServiceEvent(@Observes ArchiveServiceEvent event) {
+        if (event.getType() != ArchiveServiceEvent.Type.STOPPED)
+            return;
+
+        synchronized (studyQueues) {
+            if (backlog > 0)
+                LOG.info("Wait for {} pending Store Events", backlog);
+            try {
+                while (backlog > 0)
+                    studyQueues.wait();
+            } catch (InterruptedException e) {
+                LOG.warn("Interrupted waiting for {} pending Store Events", backlog);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean enqueue(String studyIUID, Runnable task, int maxBacklog) {
+        synchronized (studyQueues) {
+            Deque<Runnable> queue;
+            // keep the order of events of one Study, even if the backlog is full
+            while ((queue = studyQueues.get(studyIUID)) != null && backlog >= maxBacklog) {
+                try {
+                    studyQueues.wait();
+                } catch (InterruptedException e) {
+                    LOG.info("Interrupted waiting for pending Store Events of Study[uid={}]", studyIUID);
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            if (backlog >= maxBacklog)
+                return false;
+
+            backlog++;
+            if (queue != null) {
+                queue.add(task);
+                return true;
+            }
+            studyQueues.put(studyIUID, new ArrayDeque<>());
+        }
+        try {
+            device.execute(() -> process(studyIUID, task));
+        } catch (RejectedExecutionException e) {
+            LOG.info("Failed to schedule asynchronous dispatch of Store Events of Study[uid={}]:\n", studyIUID, e);
+            process(studyIUID, task);
+        }
+        return true;
+    }
+
+    private void process(String studyIUID, Runnable task) {
+        do {
+            task.run();
+            synchronized (studyQueues) {
+                backlog--;
+                studyQueues.notifyAll();
+                Deque<Runnable> queue = studyQueues.get(studyIUID);
+                if ((task = queue.poll()) == null)
+                    studyQueues.remove(studyIUID);
+            }
+        } while (task != null);
+    }
+
+    private void notifyAsync(List<AsyncStoreEventObserver> asyncObservers, StoreEvent event) {
+        for (AsyncStoreEventObserver observer : asyncObservers) {
+            try {
+                notify(observer, event);
+            } catch (RuntimeException e) {
+                LOG.warn("{}: Store Event Observer {} throws Exception:\n",
+                        event, observer.getStoreEventObserverName(), e);
+            }
+        }
+    }
+
+    private void notify(StoreEventObserver observer, StoreContext ctx) {
+        long startTime = System.nanoTime();
+        observer.onStore(ctx);
+        metricsService.acceptNanoTime("store-event-" + observer.getStoreEventObserverName(), startTime);
+    }
+
+    private void notify(AsyncStoreEventObserver observer, StoreEvent event) {
+        long startTime = System.nanoTime();
+        observer.onStoreEvent(event);
+        metricsService.acceptNanoTime("store-event-" + observer.getStoreEventObserverName(), startTime);
+    }
+}
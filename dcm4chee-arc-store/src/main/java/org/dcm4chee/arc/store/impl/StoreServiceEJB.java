@@ -133,6 +133,14 @@ public class StoreServiceEJB {
     @Inject
     private Device device;
 
+    public StoreServiceEJB() {
+    }
+
+    StoreServiceEJB(EntityManager em, Device device) {
+        this.em = em;
+        this.device = device;
+    }
+
     public UpdateDBResult updateDB(StoreContext ctx, UpdateDBResult result)
             throws DicomServiceException {
         StoreSession session = ctx.getStoreSession();
@@ -394,7 +402,7 @@ public class StoreServiceEJB {
         LOG.info("{}: Create {}", session, location);
     }
 
-    private void rejectInstances(StoreContext ctx, RejectionNote rjNote, CodeEntity rejectionCode,
+    void rejectInstances(StoreContext ctx, RejectionNote rjNote, CodeEntity rejectionCode,
                                  ArchiveAEExtension arcAE)
             throws DicomServiceException {
         StoreSession session = ctx.getStoreSession();
@@ -407,7 +415,7 @@ public class StoreServiceEJB {
             for (Attributes seriesRef : studyRef.getSequence(Tag.ReferencedSeriesSequence)) {
                 String seriesUID = seriesRef.getString(Tag.SeriesInstanceUID);
                 series = findSeries(studyUID, seriesUID);
-                List<String> sopIUIDsOfSeries = null;
+                Set<String> sopIUIDsOfSeries = null;
                 if (!acceptRejectionBeforeStorage) {
                     if (series == null)
                         throw new DicomServiceException(StoreService.REJECTION_FAILED_NO_SUCH_INSTANCE,
@@ -417,6 +425,7 @@ public class StoreServiceEJB {
                 if (series != null && rjNote.getRejectionNoteType() == RejectionNote.Type.DATA_RETENTION_POLICY_EXPIRED)
                     checkExpirationDate(series, arcAE);
 
+                Map<String, RejectedInstance> rejectedInstances = rejectedInstancesOfSeries(studyUID, seriesUID);
                 for (Attributes sopRef : seriesRef.getSequence(Tag.ReferencedSOPSequence)) {
                     String classUID = sopRef.getString(Tag.ReferencedSOPClassUID);
                     String objectUID = sopRef.getString(Tag.ReferencedSOPInstanceUID);
@@ -424,7 +433,7 @@ public class StoreServiceEJB {
                         throw new DicomServiceException(StoreService.REJECTION_FAILED_NO_SUCH_INSTANCE,
                                 MessageFormat.format(StoreService.REJECTION_FAILED_NO_SUCH_INSTANCE_MSG, objectUID));
 
-                    RejectedInstance rejectedInstance = findRejectedInstance(studyUID, seriesUID, objectUID);
+                    RejectedInstance rejectedInstance = rejectedInstances.get(objectUID);
                     if (rejectedInstance != null) {
                         LOG.info("{}: Detect previous {}", session, rejectedInstance);
                         CodeEntity prevRjNoteCode = rejectedInstance.getRejectionNoteCode();
@@ -438,6 +447,7 @@ public class StoreServiceEJB {
                     } else {
                         rejectedInstance = new RejectedInstance(studyUID, seriesUID, objectUID, classUID, rejectionCode);
                         em.persist(rejectedInstance);
+                        rejectedInstances.put(objectUID, rejectedInstance);
                         LOG.info("{}: {}", session, rejectedInstance);
                     }
                 }
@@ -466,7 +476,7 @@ public class StoreServiceEJB {
         }
     }
 
-    private void revokeRejection(StoreContext ctx, ArchiveAEExtension arcAE) throws DicomServiceException {
+    void revokeRejection(StoreContext ctx, ArchiveAEExtension arcAE) throws DicomServiceException {
         StoreSession session = ctx.getStoreSession();
         Duration seriesMetadataDelay = arcAE.seriesMetadataDelay();
         Duration purgeInstanceRecordsDelay = arcAE.purgeInstanceRecordsDelay();
@@ -476,10 +486,11 @@ public class StoreServiceEJB {
             for (Attributes seriesRef : studyRef.getSequence(Tag.ReferencedSeriesSequence)) {
                 int revoked = 0;
                 String seriesUID = seriesRef.getString(Tag.SeriesInstanceUID);
+                Map<String, RejectedInstance> rejectedInstances = rejectedInstancesOfSeries(studyUID, seriesUID);
                 for (Attributes sopRef : seriesRef.getSequence(Tag.ReferencedSOPSequence)) {
                     String objectUID = sopRef.getString(Tag.ReferencedSOPInstanceUID);
                     String classUID = sopRef.getString(Tag.ReferencedSOPClassUID);
-                    RejectedInstance rejectedInstance = findRejectedInstance(studyUID, seriesUID, objectUID);
+                    RejectedInstance rejectedInstance = rejectedInstances.remove(objectUID);
                     if (rejectedInstance != null) {
                         em.remove(rejectedInstance);
                         revoked++;
@@ -525,6 +536,18 @@ public class StoreServiceEJB {
         }
     }
 
+    private Map<String, RejectedInstance> rejectedInstancesOfSeries(String studyIUID, String seriesIUID) {
+        Map<String, RejectedInstance> map = new HashMap<>();
+        for (RejectedInstance rejectedInstance
+                : em.createNamedQuery(RejectedInstance.FIND_BY_SERIES_UID, RejectedInstance.class)
+                    .setParameter(1, studyIUID)
+                    .setParameter(2, seriesIUID)
+                    .getResultList()) {
+            map.put(rejectedInstance.getSopInstanceUID(), rejectedInstance);
+        }
+        return map;
+    }
+
     private void checkExpirationDate(Series series, ArchiveAEExtension arcAE) throws DicomServiceException {
         switch (arcAE.allowRejectionForDataRetentionPolicyExpired()) {
             case NEVER:
@@ -908,9 +931,6 @@ public class StoreServiceEJB {
                     ? attrs.addOriginalAttributes(null, now, reason, device.getDeviceName(), updateInfo.modified)
                     : attrs,
                 filter, arcDev.getFuzzyStr());
-        em.createNamedQuery(Series.SCHEDULE_METADATA_UPDATE_FOR_PATIENT)
-                .setParameter(1, pat)
-                .executeUpdate();
         return pat;
     }
 
@@ -936,9 +956,6 @@ public class StoreServiceEJB {
         study.setIssuerOfAccessionNumber(findOrCreateIssuer(attrs, Tag.IssuerOfAccessionNumberSequence));
         study.setIssuerOfAdmissionID(findOrCreateIssuer(attrs, Tag.IssuerOfAdmissionIDSequence));
         setCodes(study.getProcedureCodes(), attrs, Tag.ProcedureCodeSequence);
-        em.createNamedQuery(Series.SCHEDULE_METADATA_UPDATE_FOR_STUDY)
-                .setParameter(1, study)
-                .executeUpdate();
         return study;
     }
 
@@ -1008,6 +1025,12 @@ public class StoreServiceEJB {
         }
     }
 
+    public void replaceLocations(StoreSession session, Map<Long, Location> newLocations,
+            Map<Long, List<Location>> replaceLocations) {
+        newLocations.forEach((instancePk, newLocation) -> replaceLocation(session, instancePk, newLocation,
+                replaceLocations.getOrDefault(instancePk, Collections.emptyList())));
+    }
+
     private static class UpdateInfo {
         int[] prevTags;
         Attributes modified;
@@ -1144,10 +1167,10 @@ public class StoreServiceEJB {
         }
     }
 
-    private List<String> sopIUIDsOfSeries(Series series) {
-        return em.createNamedQuery(Instance.IUIDS_OF_SERIES2, String.class)
+    private Set<String> sopIUIDsOfSeries(Series series) {
+        return new HashSet<>(em.createNamedQuery(Instance.IUIDS_OF_SERIES2, String.class)
                     .setParameter(1, series)
-                    .getResultList();
+                    .getResultList());
     }
 
     private Study createStudy(StoreContext ctx, Patient patient, UpdateDBResult result) {
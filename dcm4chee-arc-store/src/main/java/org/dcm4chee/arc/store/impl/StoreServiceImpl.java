@@ -55,7 +55,6 @@ import org.dcm4che3.net.hl7.HL7Application;
 import org.dcm4che3.net.hl7.UnparsedHL7Message;
 import org.dcm4che3.net.service.DicomServiceException;
 import org.dcm4che3.util.CountingInputStream;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4che3.util.UIDUtils;
 import org.dcm4chee.arc.Cache;
 import org.dcm4chee.arc.MergeMWLQueryParam;
@@ -78,7 +77,6 @@ import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.json.Json;
 import javax.json.stream.JsonGenerator;
-import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import java.io.File;
 import java.io.IOException;
@@ -115,6 +113,9 @@ class StoreServiceImpl implements StoreService {
     @Inject
     private Event<StoreContext> storeEvent;
 
+    @Inject
+    private StoreEventDispatcher storeEventDispatcher;
+
     @Inject
     private Event<SoftwareConfiguration> softwareConfigurationEvent;
 
@@ -313,6 +314,12 @@ class StoreServiceImpl implements StoreService {
         ejb.replaceLocation(session, instancePk, newLocation, replaceLocations);
     }
 
+    @Override
+    public void replaceLocations(StoreSession session, Map<Long, Location> newLocations,
+            Map<Long, List<Location>> replaceLocations) {
+        ejb.replaceLocations(session, newLocations, replaceLocations);
+    }
+
     @Override
     public void compress(StoreContext ctx, InstanceLocations inst, InputStream data)
             throws IOException {
@@ -391,6 +398,7 @@ class StoreServiceImpl implements StoreService {
     public void fireStoreEvent(StoreContext ctx) throws DicomServiceException {
         try {
             LOG.debug("{}: Firing Store Event", ctx.getStoreSession());
+            storeEventDispatcher.dispatch(ctx);
             storeEvent.fire(ctx);
             LOG.debug("{}: Fired Store Event", ctx.getStoreSession());
         } catch (RuntimeException e) {
@@ -534,9 +542,8 @@ class StoreServiceImpl implements StoreService {
         String xsltStylesheetURI = rule.getXSLTStylesheetURI();
         if (xsltStylesheetURI != null)
             try {
-                Templates tpls = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(xsltStylesheetURI));
                 LOG.info("Coerce Attributes from rule: {}", rule);
-                return new XSLTAttributesCoercion(tpls, null)
+                return new PooledXSLTAttributesCoercion(TransformerPool.of(xsltStylesheetURI), null)
                         .includeKeyword(!rule.isNoKeywords())
                         .setupTransformer(setupTransformer(ctx.getStoreSession()));
             } catch (TransformerConfigurationException e) {
@@ -586,9 +593,9 @@ class StoreServiceImpl implements StoreService {
         Attributes result = null;
         Sequence reqAttrsSeq = null;
         try {
-            Templates tpls = TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(tplURI));
+            TransformerPool tpls = TransformerPool.of(tplURI);
             for (Attributes mwlItem : mwlItems) {
-                Attributes attrs = SAXTransformer.transform(mwlItem, tpls, false, rule.isNoKeywords());
+                Attributes attrs = tpls.transform(mwlItem, false, rule.isNoKeywords(), null);
                 if (reqAttrsSeq == null) {
                     result = attrs;
                     reqAttrsSeq = attrs.getSequence(Tag.RequestAttributesSequence);
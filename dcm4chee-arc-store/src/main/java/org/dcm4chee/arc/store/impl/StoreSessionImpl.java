@@ -60,9 +60,9 @@ import org.dcm4chee.arc.store.StoreSession;
 import java.io.IOException;
 import java.net.Socket;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -86,7 +86,7 @@ class StoreSessionImpl implements StoreSession {
     private final Map<String, Storage> storageMap = new HashMap<>();
     private Study cachedStudy;
     private final Map<String,Series> seriesCache = new HashMap<>();
-    private final Set<String> processedPrefetchRules = new HashSet<>();
+    private final Set<String> processedPrefetchRules = ConcurrentHashMap.newKeySet();
     private final Map<Long,UIDMap> uidMapCache = new HashMap<>();
     private Map<String, String> uidMap;
     private String objectStorageID;
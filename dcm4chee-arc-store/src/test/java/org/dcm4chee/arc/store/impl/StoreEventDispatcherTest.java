@@ -0,0 +1,273 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.store.impl;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.AttributeFilter;
+import org.dcm4chee.arc.conf.Entity;
+import org.dcm4chee.arc.event.ArchiveServiceEvent;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.dcm4chee.arc.store.AsyncStoreEventObserver;
+import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreEvent;
+import org.dcm4chee.arc.store.StoreEventObserver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class StoreEventDispatcherTest {
+
+    private static final String STUDY_IUID = "1.2.3";
+
+    private ExecutorService executor;
+    private ArchiveDeviceExtension arcdev;
+    private ApplicationEntity ae;
+    private StoreEventDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        Device device = new Device("test");
+        device.setExecutor(executor);
+        arcdev = new ArchiveDeviceExtension();
+        arcdev.setAttributeFilter(Entity.Patient, new AttributeFilter(Tag.PatientName, Tag.PatientID));
+        arcdev.setAttributeFilter(Entity.Study, new AttributeFilter(Tag.StudyInstanceUID));
+        device.addDeviceExtension(arcdev);
+        ae = new ApplicationEntity("STORESCP");
+        ae.addAEExtension(new ArchiveAEExtension());
+        device.addApplicationEntity(ae);
+        dispatcher = new StoreEventDispatcher(device, new NoMetricsService());
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void asyncObserverReceivesImmutableStoreEvent() throws Exception {
+        arcdev.setStoreEventAsyncObservers("audit");
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingAsyncObserver observer = new RecordingAsyncObserver("audit", release);
+        StoreContextImpl ctx = newStoreContext("1.2.3.1");
+
+        dispatch(ctx, Collections.emptyList(), observer);
+        ctx.getAttributes().setString(Tag.PatientName, VR.PN, "Changed^After^Store");
+        ctx.setSopInstanceUID("1.2.3.99");
+        release.countDown();
+        drain();
+
+        assertEquals(1, observer.received.size());
+        StoreEvent received = observer.received.get(0);
+        assertNotSame(Thread.currentThread(), observer.threads.get(0));
+        assertEquals("1.2.3.1", received.getSopInstanceUID());
+        assertEquals(STUDY_IUID, received.getStudyInstanceUID());
+        assertEquals("Test^Patient", received.getAttributes().getString(Tag.PatientName));
+        assertEquals("STORESCP", received.getLocalAETitle());
+        assertFalse(received.hasStoredInstance());
+        assertFalse(received.hasLocations());
+    }
+
+    @Test
+    public void asyncObserverNotConfiguredIsInvokedSynchronously() {
+        RecordingAsyncObserver observer = new RecordingAsyncObserver("audit", null);
+
+        dispatch(newStoreContext("1.2.3.1"), Collections.emptyList(), observer);
+
+        assertEquals(1, observer.received.size());
+        assertSame(Thread.currentThread(), observer.threads.get(0));
+    }
+
+    @Test
+    public void storeEventObserverIsInvokedSynchronously() {
+        arcdev.setStoreEventAsyncObservers("store-forward");
+        RecordingObserver observer = new RecordingObserver("store-forward");
+        StoreContextImpl ctx = newStoreContext("1.2.3.1");
+
+        dispatch(ctx, Collections.singletonList(observer));
+
+        assertEquals(1, observer.received.size());
+        assertSame(ctx, observer.received.get(0));
+        assertSame(Thread.currentThread(), observer.threads.get(0));
+    }
+
+    @Test
+    public void asyncEventsOfStudyKeepOrder() throws Exception {
+        arcdev.setStoreEventAsyncObservers("audit");
+        arcdev.setStoreEventMaxBacklog(10);
+        RecordingAsyncObserver observer = new RecordingAsyncObserver("audit", null);
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            String iuid = "1.2.3.1." + i;
+            expected.add(iuid);
+            dispatch(newStoreContext(iuid), Collections.emptyList(), observer);
+        }
+        drain();
+
+        List<String> received = new ArrayList<>();
+        for (StoreEvent event : observer.received)
+            received.add(event.getSopInstanceUID());
+        assertEquals(expected, received);
+    }
+
+    private void dispatch(StoreContext ctx, List<StoreEventObserver> observers,
+            AsyncStoreEventObserver... asyncObservers) {
+        dispatcher.dispatch(ctx, observers, Arrays.asList(asyncObservers));
+    }
+
+    private void drain() {
+        dispatcher.onArchiveServiceEvent(new ArchiveServiceEvent(ArchiveServiceEvent.Type.STOPPED, null));
+    }
+
+    private StoreContextImpl newStoreContext(String iuid) {
+        StoreSessionImpl session = new StoreSessionImpl(null);
+        session.setApplicationEntity(ae);
+        session.setPatientUpdatePolicy(Attributes.UpdatePolicy.SUPPLEMENT);
+        StoreContextImpl ctx = new StoreContextImpl(session);
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPClassUID, VR.UI, UID.SecondaryCaptureImageStorage);
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, iuid);
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, STUDY_IUID);
+        attrs.setString(Tag.SeriesInstanceUID, VR.UI, STUDY_IUID + ".1");
+        attrs.setString(Tag.PatientName, VR.PN, "Test^Patient");
+        ctx.setAttributes(attrs);
+        return ctx;
+    }
+
+    private static class RecordingObserver implements StoreEventObserver {
+        final String name;
+        final List<StoreContext> received = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingObserver(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getStoreEventObserverName() {
+            return name;
+        }
+
+        @Override
+        public void onStore(StoreContext ctx) {
+            threads.add(Thread.currentThread());
+            received.add(ctx);
+        }
+    }
+
+    private static class RecordingAsyncObserver implements AsyncStoreEventObserver {
+        final String name;
+        final CountDownLatch release;
+        final List<StoreEvent> received = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingAsyncObserver(String name, CountDownLatch release) {
+            this.name = name;
+            this.release = release;
+        }
+
+        @Override
+        public String getStoreEventObserverName() {
+            return name;
+        }
+
+        @Override
+        public void onStoreEvent(StoreEvent event) {
+            try {
+                if (release != null)
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            threads.add(Thread.currentThread());
+            received.add(event);
+        }
+    }
+
+    private static class NoMetricsService implements MetricsService {
+        @Override
+        public boolean exists(String name) {
+            return false;
+        }
+
+        @Override
+        public void accept(String name, double value) {
+        }
+
+        @Override
+        public void acceptNanoTime(String name, long startTime) {
+        }
+
+        @Override
+        public void acceptDataRate(String name, long bytes, long startTime) {
+        }
+
+        @Override
+        public void accept(String name, DoubleSupplier valueSupplier) {
+        }
+
+        @Override
+        public void forEach(String name, int limit, int binSize, Consumer<DoubleSummaryStatistics> consumer) {
+        }
+    }
+}
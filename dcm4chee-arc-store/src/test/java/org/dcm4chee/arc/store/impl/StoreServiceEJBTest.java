@@ -0,0 +1,198 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.store.impl;
+
+import org.dcm4che3.data.*;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.conf.Duration;
+import org.dcm4chee.arc.conf.RejectionNote;
+import org.dcm4chee.arc.entity.CodeEntity;
+import org.dcm4chee.arc.entity.RejectedInstance;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.TypedQuery;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class StoreServiceEJBTest {
+
+    private static final String STUDY_IUID = "1.2.3";
+    private static final String SERIES_IUID = "1.2.3.1";
+    private static final int NUM_INSTANCES = 10000;
+
+    private final Map<String, Integer> namedQueries = new HashMap<>();
+    private final List<RejectedInstance> rejectedInstances = new ArrayList<>();
+    private int persisted;
+    private int removed;
+    private ApplicationEntity ae;
+    private ArchiveAEExtension arcAE;
+    private StoreServiceEJB ejb;
+
+    @Before
+    public void setUp() {
+        Device device = new Device("test");
+        device.addDeviceExtension(new ArchiveDeviceExtension());
+        ae = new ApplicationEntity("STORESCP");
+        ae.addAEExtension(arcAE = new ArchiveAEExtension());
+        device.addApplicationEntity(ae);
+        ejb = new StoreServiceEJB(entityManager(), device);
+    }
+
+    @Test
+    public void rejectInstancesQueriesRejectedInstancesOncePerSeries() throws Exception {
+        CodeEntity rejectionCode = new CodeEntity(new Code("113001", "DCM", null, "Rejected for Quality Reasons"));
+        ejb.rejectInstances(rejectionNote(NUM_INSTANCES), rejectionNote(), rejectionCode, arcAE);
+        assertEquals(NUM_INSTANCES, persisted);
+        assertEquals(Integer.valueOf(1), namedQueries.get(RejectedInstance.FIND_BY_SERIES_UID));
+        assertNull(namedQueries.get(RejectedInstance.FIND_BY_UIDS));
+
+        ejb.rejectInstances(rejectionNote(NUM_INSTANCES), rejectionNote(), rejectionCode, arcAE);
+        assertEquals("no duplicate rejection records", NUM_INSTANCES, persisted);
+        assertEquals(Integer.valueOf(2), namedQueries.get(RejectedInstance.FIND_BY_SERIES_UID));
+        assertNull(namedQueries.get(RejectedInstance.FIND_BY_UIDS));
+    }
+
+    @Test
+    public void rejectInstancesIgnoresDuplicateReferences() throws Exception {
+        CodeEntity rejectionCode = new CodeEntity(new Code("113001", "DCM", null, "Rejected for Quality Reasons"));
+        StoreContextImpl ctx = rejectionNote(10);
+        Sequence refSOPs = ctx.getAttributes()
+                .getNestedDataset(Tag.CurrentRequestedProcedureEvidenceSequence)
+                .getNestedDataset(Tag.ReferencedSeriesSequence)
+                .getSequence(Tag.ReferencedSOPSequence);
+        refSOPs.add(new Attributes(refSOPs.get(0)));
+        ejb.rejectInstances(ctx, rejectionNote(), rejectionCode, arcAE);
+        assertEquals(10, persisted);
+    }
+
+    @Test
+    public void revokeRejectionQueriesRejectedInstancesOncePerSeries() throws Exception {
+        CodeEntity rejectionCode = new CodeEntity(new Code("113001", "DCM", null, "Rejected for Quality Reasons"));
+        ejb.rejectInstances(rejectionNote(NUM_INSTANCES), rejectionNote(), rejectionCode, arcAE);
+        namedQueries.clear();
+
+        ejb.revokeRejection(rejectionNote(NUM_INSTANCES), arcAE);
+        assertEquals(NUM_INSTANCES, removed);
+        assertEquals(Integer.valueOf(1), namedQueries.get(RejectedInstance.FIND_BY_SERIES_UID));
+        assertNull(namedQueries.get(RejectedInstance.FIND_BY_UIDS));
+    }
+
+    private static RejectionNote rejectionNote() {
+        RejectionNote rjNote = new RejectionNote();
+        rjNote.setAcceptRejectionBeforeStorage(Duration.valueOf("P1D"));
+        return rjNote;
+    }
+
+    private StoreContextImpl rejectionNote(int numInstances) {
+        StoreSessionImpl session = new StoreSessionImpl(null);
+        session.setApplicationEntity(ae);
+        StoreContextImpl ctx = new StoreContextImpl(session);
+        Attributes refSeries = new Attributes(2);
+        refSeries.setString(Tag.SeriesInstanceUID, VR.UI, SERIES_IUID);
+        Sequence refSOPs = refSeries.newSequence(Tag.ReferencedSOPSequence, numInstances);
+        for (int i = 1; i <= numInstances; i++) {
+            Attributes refSOP = new Attributes(2);
+            refSOP.setString(Tag.ReferencedSOPClassUID, VR.UI, UID.CTImageStorage);
+            refSOP.setString(Tag.ReferencedSOPInstanceUID, VR.UI, SERIES_IUID + '.' + i);
+            refSOPs.add(refSOP);
+        }
+        Attributes refStudy = new Attributes(2);
+        refStudy.setString(Tag.StudyInstanceUID, VR.UI, STUDY_IUID);
+        refStudy.newSequence(Tag.ReferencedSeriesSequence, 1).add(refSeries);
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPClassUID, VR.UI, UID.KeyObjectSelectionDocumentStorage);
+        attrs.newSequence(Tag.CurrentRequestedProcedureEvidenceSequence, 1).add(refStudy);
+        ctx.setAttributes(attrs);
+        return ctx;
+    }
+
+    private EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{ EntityManager.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "createNamedQuery":
+                            namedQueries.merge((String) args[0], 1, Integer::sum);
+                            return query((String) args[0]);
+                        case "persist":
+                            rejectedInstances.add((RejectedInstance) args[0]);
+                            persisted++;
+                            return null;
+                        case "remove":
+                            rejectedInstances.remove(args[0]);
+                            removed++;
+                            return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private TypedQuery<?> query(String name) {
+        return (TypedQuery<?>) Proxy.newProxyInstance(TypedQuery.class.getClassLoader(),
+                new Class<?>[]{ TypedQuery.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setParameter":
+                            return proxy;
+                        case "getResultList":
+                            return RejectedInstance.FIND_BY_SERIES_UID.equals(name)
+                                    ? new ArrayList<>(rejectedInstances)
+                                    : Collections.emptyList();
+                        case "getSingleResult":
+                            throw new NoResultException();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
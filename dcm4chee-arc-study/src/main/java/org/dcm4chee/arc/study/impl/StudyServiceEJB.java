@@ -116,9 +116,6 @@ public class StudyServiceEJB {
         study.setIssuerOfAdmissionID(
                 findOrCreateIssuer(attrs.getNestedDataset(Tag.IssuerOfAdmissionIDSequence)));
         setCodes(study.getProcedureCodes(), attrs.getSequence(Tag.ProcedureCodeSequence));
-        em.createNamedQuery(Series.SCHEDULE_METADATA_UPDATE_FOR_STUDY)
-                .setParameter(1, study)
-                .executeUpdate();
     }
 
     private Study findStudy(StudyMgtContext ctx) throws StudyMissingException {
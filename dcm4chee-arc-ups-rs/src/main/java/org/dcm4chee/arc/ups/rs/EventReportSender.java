@@ -43,11 +43,15 @@ package org.dcm4chee.arc.ups.rs;
 
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.json.JSONWriter;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.metrics.MetricsService;
 import org.dcm4chee.arc.ups.UPSEvent;
+import org.dcm4chee.arc.ups.UPSEventQueue;
 import org.dcm4chee.arc.ups.UPSService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
@@ -79,6 +83,14 @@ public class EventReportSender {
     @Inject
     private UPSService service;
 
+    @Inject
+    private Device device;
+
+    @Inject
+    private MetricsService metricsService;
+
+    private UPSEventQueue queue;
+
     @OnOpen
     public void open(Session session,
             @PathParam("AETitle") String aet,
@@ -102,23 +114,34 @@ public class EventReportSender {
         LOG.warn("{} error /aets/{}/ws/subscribers/{}:\n", session, aet, subscriberAET, thr);
     }
 
+    @PostConstruct
+    public void init() {
+        queue = new UPSEventQueue("ups-event-ws", device, metricsService, this::send);
+    }
+
     public void onUPSEvent(@Observes UPSEvent event) {
-        Optional<String> inprocessStateReport = toInprocessStateReportJson(event);
-        String json = toJson(event);
         for (String subscriberAET : event.subscriberAETs) {
-            List<Session> sessions = service.getWebsocketChannels(subscriberAET);
+            queue.offer(event, subscriberAET);
+        }
+    }
+
+    private void send(String subscriberAET, List<UPSEvent> events) {
+        List<Session> sessions = service.getWebsocketChannels(subscriberAET);
+        for (UPSEvent event : events) {
             if (sessions.isEmpty()) {
                 LOG.info("No Websocket channel to send {} EventReport to {}", event.type, subscriberAET);
-            } else {
-                try {
-                    LOG.info("Send {} EventReport to {}", event.type, subscriberAET);
-                    if (inprocessStateReport.isPresent()) {
-                        send(inprocessStateReport.get(), sessions);
-                    }
-                    send(json, sessions);
-                } catch (IOException e) {
-                    LOG.warn("Failed to send {} EventReport to {}:\n", event.type, subscriberAET, e);
+                continue;
+            }
+            try {
+                LOG.info("Send {} EventReport to {}", event.type, subscriberAET);
+                Optional<String> inprocessStateReport = toInprocessStateReportJson(event);
+                if (inprocessStateReport.isPresent()) {
+                    send(inprocessStateReport.get(), sessions);
                 }
+                send(toJson(event), sessions);
+            } catch (IOException e) {
+                LOG.warn("Failed to send {} EventReport to {}:\n", event.type, subscriberAET, e);
+                sessions = service.getWebsocketChannels(subscriberAET);
             }
         }
     }
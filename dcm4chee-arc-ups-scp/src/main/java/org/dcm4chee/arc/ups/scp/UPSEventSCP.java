@@ -49,17 +49,24 @@ import org.dcm4che3.net.*;
 import org.dcm4che3.net.pdu.AAssociateRQ;
 import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.pdu.RoleSelection;
-import org.dcm4che3.net.service.DicomServiceException;
+import org.dcm4che3.util.TagUtils;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.metrics.MetricsService;
 import org.dcm4chee.arc.ups.UPSEvent;
+import org.dcm4chee.arc.ups.UPSEventQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * @author Gunter Zeilinger (gunterze@protonmail.com)
@@ -74,31 +81,77 @@ public class UPSEventSCP {
     @Inject
     private IApplicationEntityCache aeCache;
 
+    @Inject
+    private Device device;
+
+    @Inject
+    private MetricsService metricsService;
+
+    private UPSEventQueue queue;
+
+    @PostConstruct
+    public void init() {
+        queue = new UPSEventQueue("ups-event-scu", device, metricsService, this::send);
+    }
+
     public void onUPSEvent(@Observes UPSEvent event) {
-        Optional<Attributes> inprocessStateReport = event.inprocessStateReport();
-        int keepAliveTimeout = event.arcAE.upsEventSCUKeepAlive();
-        boolean keepAlive = keepAliveTimeout > 0;
         for (String subscriberAET : event.subscriberAETs) {
             if (event.arcAE.isUPSEventSCU(subscriberAET)) {
-                try {
-                    ApplicationEntity localAE = event.arcAE.getApplicationEntity();
-                    Association as = keepAlive
-                            ? getAssociation(localAE, subscriberAET, keepAliveTimeout)
-                            : localAE.connect(
-                                    aeCache.findApplicationEntity(subscriberAET),
-                                    mkAAssociateRQ(localAE, subscriberAET));
+                queue.offer(event, subscriberAET);
+            }
+        }
+    }
+
+    private void send(String subscriberAET, List<UPSEvent> events) {
+        events.stream()
+                .collect(Collectors.groupingBy(event -> event.arcAE, LinkedHashMap::new, Collectors.toList()))
+                .forEach((arcAE, eventsOfAE) -> send(arcAE, subscriberAET, eventsOfAE));
+    }
+
+    private void send(ArchiveAEExtension arcAE, String subscriberAET, List<UPSEvent> events) {
+        int keepAliveTimeout = arcAE.upsEventSCUKeepAlive();
+        boolean keepAlive = keepAliveTimeout > 0;
+        ApplicationEntity localAE = arcAE.getApplicationEntity();
+        Association as = null;
+        try {
+            for (int i = 0; i < events.size(); i++) {
+                UPSEvent event = events.get(i);
+                if (as == null || !as.isReadyForDataTransfer()) {
                     try {
-                        if (inprocessStateReport.isPresent()) {
-                            sendNEventReport(as, event, inprocessStateReport.get());
-                        }
-                        sendNEventReport(as, event, event.attrs);
-                    } finally {
-                        if (!keepAlive) {
-                            as.release();
-                        }
+                        as = keepAlive
+                                ? getAssociation(localAE, subscriberAET, keepAliveTimeout)
+                                : localAE.connect(
+                                        aeCache.findApplicationEntity(subscriberAET),
+                                        mkAAssociateRQ(localAE, subscriberAET));
+                    } catch (Exception e) {
+                        LOG.info("Failed to send {} EventReports to {} - {}",
+                                events.size() - i, subscriberAET, e.getMessage());
+                        return;
                     }
+                }
+                try {
+                    Optional<Attributes> inprocessStateReport = event.inprocessStateReport();
+                    if (inprocessStateReport.isPresent()) {
+                        sendNEventReport(as, event, inprocessStateReport.get());
+                    }
+                    sendNEventReport(as, event, event.attrs);
+                } catch (Exception e) {
+                    LOG.info("{}: Failed to send {} EventReport for {} - {}",
+                            as, event.type, event.upsIUID, e.getMessage());
+                }
+            }
+            if (as != null) {
+                as.waitForOutstandingRSP();
+            }
+        } catch (InterruptedException e) {
+            LOG.info("{}: Interrupted while waiting for outstanding EventReport RSPs", as);
+            Thread.currentThread().interrupt();
+        } finally {
+            if (as != null && !keepAlive) {
+                try {
+                    as.release();
                 } catch (Exception e) {
-                    LOG.info("Failed to send {} EventReport to {} - {}", event.type, subscriberAET, e.getMessage());
+                    LOG.info("{}: Failed to release association - {}", as, e.getMessage());
                 }
             }
         }
@@ -108,7 +161,7 @@ public class UPSEventSCP {
             throws Exception {
         FromTo fromTo = new FromTo(localAE.getAETitle(), subscriberAET);
         Association as = reuseAssociations.get(fromTo);
-        if (!as.isReadyForDataTransfer()) {
+        if (as == null || !as.isReadyForDataTransfer()) {
             ApplicationEntity remote = aeCache.get(subscriberAET);
             CompatibleConnection cc = localAE.findCompatibleConnection(remote);
             Connection localConnection = new Connection(cc.getLocalConnection());
@@ -120,18 +173,14 @@ public class UPSEventSCP {
     }
 
     private void sendNEventReport(Association as, UPSEvent event, Attributes attrs) throws Exception {
-        DimseRSP dimseRSP = as.neventReport(
+        as.neventReport(
                 UID.UnifiedProcedureStepEventSOPClass,
                 UID.UnifiedProcedureStepPushSOPClass,
                 event.upsIUID,
                 event.type.eventTypeID(),
                 attrs,
-                null);
-        dimseRSP.next();
-        int status = dimseRSP.getCommand().getInt(Tag.Status, -1);
-        if (status != 0) {
-            throw new DicomServiceException(status);
-        }
+                null,
+                new NEventReportRSPHandler(as.nextMessageID(), event));
     }
 
     private static AAssociateRQ mkAAssociateRQ(ApplicationEntity localAE, String subscriberAET) {
@@ -145,6 +194,25 @@ public class UPSEventSCP {
         return aarq;
     }
 
+    private static class NEventReportRSPHandler extends DimseRSPHandler {
+        private final UPSEvent event;
+
+        NEventReportRSPHandler(int msgId, UPSEvent event) {
+            super(msgId);
+            this.event = event;
+        }
+
+        @Override
+        public void onDimseRSP(Association as, Attributes cmd, Attributes data) {
+            super.onDimseRSP(as, cmd, data);
+            int status = cmd.getInt(Tag.Status, -1);
+            if (status != Status.Success) {
+                LOG.info("{}: Failed to send {} EventReport for {} - status: {}H",
+                        as, event.type, event.upsIUID, TagUtils.shortToHexString(status));
+            }
+        }
+    }
+
     private static class FromTo {
         final String callingAET;
         final String calledAET;
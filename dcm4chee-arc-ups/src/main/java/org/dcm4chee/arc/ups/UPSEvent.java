@@ -80,6 +80,38 @@ public class UPSEvent {
         return Optional.of(eventInformation);
     }
 
+    /**
+     * Returns {@code true} if a not yet delivered {@code other} Event Report need not be delivered after this one.
+     * Progress Reports, Assigned, Cancel Requested and SCP Status Change Event Reports are superseded by a newer
+     * Event Report of the same type for the same UPS. Progress Reports, Assigned and Cancel Requested Event Reports
+     * are also superseded by a State Report to COMPLETED or CANCELED. State Reports are never superseded.
+     */
+    public boolean supersedes(UPSEvent other) {
+        if (!upsIUID.equals(other.upsIUID))
+            return false;
+
+        switch (other.type) {
+            case ProgressReport:
+            case Assigned:
+            case CancelRequested:
+                return type == other.type || isFinalStateReport();
+            case StatusChange:
+                return type == other.type;
+        }
+        return false;
+    }
+
+    private boolean isFinalStateReport() {
+        switch (type) {
+            case StateReportInProcessAndCanceled:
+                return true;
+            case StateReport:
+                String state = attrs.getString(Tag.ProcedureStepState);
+                return "COMPLETED".equals(state) || "CANCELED".equals(state);
+        }
+        return false;
+    }
+
     public Attributes withCommandAttributes(Attributes src, int messageID) {
         Attributes dest = new Attributes(src);
         dest.setString(Tag.AffectedSOPClassUID, VR.UI, UID.UnifiedProcedureStepPushSOPClass);
@@ -0,0 +1,144 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.ups;
+
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded per-subscriber queues of UPS Events, each drained by at most one worker thread, so a slow or unreachable
+ * subscriber does not delay the transaction firing the event nor the delivery to other subscribers.
+ *
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class UPSEventQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(UPSEventQueue.class);
+
+    private final String name;
+    private final Device device;
+    private final MetricsService metricsService;
+    private final Sender sender;
+    private final Map<String, ArrayDeque<Entry>> queues = new HashMap<>();
+
+    public UPSEventQueue(String name, Device device, MetricsService metricsService, Sender sender) {
+        this.name = name;
+        this.device = device;
+        this.metricsService = metricsService;
+        this.sender = sender;
+    }
+
+    @FunctionalInterface
+    public interface Sender {
+        void send(String subscriberAET, List<UPSEvent> events);
+    }
+
+    public void offer(UPSEvent event, String subscriberAET) {
+        int maxBacklog = event.arcAE.getArchiveDeviceExtension().getUPSEventMaxBacklog();
+        boolean startWorker;
+        int backlog;
+        synchronized (queues) {
+            ArrayDeque<Entry> queue = queues.get(subscriberAET);
+            if (startWorker = queue == null) {
+                queues.put(subscriberAET, queue = new ArrayDeque<>());
+            }
+            queue.removeIf(entry -> event.supersedes(entry.event));
+            if (queue.size() >= maxBacklog) {
+                UPSEvent discarded = queue.remove().event;
+                LOG.warn("Backlog of EventReports to {} exceeds limit of {} - discard {} EventReport for {}",
+                        subscriberAET, maxBacklog, discarded.type, discarded.upsIUID);
+            }
+            queue.add(new Entry(event));
+            backlog = queue.size();
+        }
+        metricsService.accept(name + "-backlog-" + subscriberAET, backlog);
+        if (startWorker) {
+            device.execute(() -> drain(subscriberAET));
+        }
+    }
+
+    private void drain(String subscriberAET) {
+        List<Entry> entries;
+        while (!(entries = poll(subscriberAET)).isEmpty()) {
+            try {
+                sender.send(subscriberAET, entries.stream().map(entry -> entry.event).collect(Collectors.toList()));
+            } catch (Exception e) {
+                LOG.warn("Failed to send {} EventReports to {}:\n", entries.size(), subscriberAET, e);
+            }
+            for (Entry entry : entries) {
+                metricsService.acceptNanoTime(name + "-delivery-" + subscriberAET, entry.queued);
+            }
+        }
+    }
+
+    private List<Entry> poll(String subscriberAET) {
+        synchronized (queues) {
+            ArrayDeque<Entry> queue = queues.get(subscriberAET);
+            if (queue.isEmpty()) {
+                queues.remove(subscriberAET);
+                return Collections.emptyList();
+            }
+            List<Entry> entries = new ArrayList<>(queue);
+            queue.clear();
+            return entries;
+        }
+    }
+
+    private static class Entry {
+        final UPSEvent event;
+        final long queued = System.nanoTime();
+
+        Entry(UPSEvent event) {
+            this.event = event;
+        }
+    }
+}
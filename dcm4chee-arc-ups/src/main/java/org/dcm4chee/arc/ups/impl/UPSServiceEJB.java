@@ -43,14 +43,13 @@ package org.dcm4chee.arc.ups.impl;
 
 import org.dcm4che3.data.*;
 import org.dcm4che3.hl7.HL7Charset;
+import org.dcm4che3.hl7.HL7Parser;
+import org.dcm4che3.io.ContentHandlerAdapter;
 import org.dcm4che3.io.SAXTransformer;
-import org.dcm4che3.io.TemplatesCache;
 import org.dcm4che3.net.Status;
-import org.dcm4che3.net.hl7.HL7SAXTransformer;
 import org.dcm4che3.net.hl7.UnparsedHL7Message;
 import org.dcm4che3.net.service.DicomServiceException;
 import org.dcm4che3.soundex.FuzzyStr;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4che3.util.TagUtils;
 import org.dcm4che3.util.UIDUtils;
 import org.dcm4chee.arc.code.CodeCache;
@@ -74,7 +73,9 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Tuple;
 import javax.xml.transform.TransformerConfigurationException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.Socket;
 import java.util.*;
 import java.util.function.Predicate;
@@ -953,9 +954,8 @@ public class UPSServiceEJB {
         String uri = upsOnStore.getXSLTStylesheetURI();
         if (uri != null) {
             try {
-                return SAXTransformer.transform(
+                return TransformerPool.of(uri).transform(
                         ctx.getAttributes(),
-                        TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(uri)),
                         false,
                         !upsOnStore.isNoKeywords(),
                         setupTransformer(ctx.getStoreSession()));
@@ -972,14 +972,19 @@ public class UPSServiceEJB {
             ArchiveHL7ApplicationExtension arcHL7App, UnparsedHL7Message msg, UPSOnHL7 upsOnHL7) {
         try {
             String hl7Charset = msg.msh().getField(17, arcHL7App.getHL7Application().getHL7DefaultCharacterSet());
-            return HL7SAXTransformer.transform(
-                    msg.data(),
-                    hl7Charset,
-                    arcHL7App.hl7DicomCharacterSet() != null
-                            ? arcHL7App.hl7DicomCharacterSet()
-                            : HL7Charset.toDicomCharacterSetCode(hl7Charset),
-                    TemplatesCache.getDefault().get(StringUtils.replaceSystemProperties(upsOnHL7.getXSLTStylesheetURI())),
+            String dicomCharset = arcHL7App.hl7DicomCharacterSet() != null
+                    ? arcHL7App.hl7DicomCharacterSet()
+                    : HL7Charset.toDicomCharacterSetCode(hl7Charset);
+            Attributes attrs = new Attributes();
+            if (dicomCharset != null)
+                attrs.setString(Tag.SpecificCharacterSet, VR.CS, dicomCharset);
+            TransformerPool.of(upsOnHL7.getXSLTStylesheetURI()).transform(
+                    handler -> new HL7Parser(handler).parse(new InputStreamReader(
+                            new ByteArrayInputStream(msg.data()),
+                            HL7Charset.toCharsetName(hl7Charset))),
+                    new ContentHandlerAdapter(attrs),
                     null);
+            return attrs;
         } catch (SAXException e) {
             LOG.warn("Failed to apply XSL: {}", upsOnHL7.getXSLTStylesheetURI(), e);
         } catch (TransformerConfigurationException e) {
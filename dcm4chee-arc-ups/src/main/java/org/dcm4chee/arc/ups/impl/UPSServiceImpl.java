@@ -61,6 +61,7 @@ import org.dcm4chee.arc.query.QueryContext;
 import org.dcm4chee.arc.query.QueryService;
 import org.dcm4chee.arc.query.util.QueryParam;
 import org.dcm4chee.arc.store.StoreContext;
+import org.dcm4chee.arc.store.StoreEventObserver;
 import org.dcm4chee.arc.store.StoreSession;
 import org.dcm4chee.arc.ups.UPSContext;
 import org.dcm4chee.arc.ups.UPSEvent;
@@ -87,7 +88,7 @@ import java.util.stream.Collectors;
  * @since Sep 2019
  */
 @ApplicationScoped
-public class UPSServiceImpl implements UPSService {
+public class UPSServiceImpl implements UPSService, StoreEventObserver {
 
     private static Logger LOG = LoggerFactory.getLogger(UPSServiceImpl.class);
     private static final IOD CREATE_IOD = loadIOD("create-iod.xml");
@@ -320,7 +321,13 @@ public class UPSServiceImpl implements UPSService {
         }
     }
 
-    public void onStore(@Observes StoreContext ctx) {
+    @Override
+    public String getStoreEventObserverName() {
+        return "ups";
+    }
+
+    @Override
+    public void onStore(StoreContext ctx) {
         if (ctx.getStoredInstance() == null
                 || ctx.getException() != null) {
             return;
@@ -0,0 +1,222 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.ups;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.metrics.MetricsService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class UPSEventQueueTest {
+
+    private static final String SUBSCRIBER = "SUBSCRIBER";
+    private static final long TIMEOUT = 5;
+
+    private ExecutorService executor;
+    private Device device;
+    private ArchiveDeviceExtension arcDev;
+    private ArchiveAEExtension arcAE;
+    private final BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+    private final CountDownLatch firstBatchSent = new CountDownLatch(1);
+    private final CountDownLatch resume = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        device = new Device("ups");
+        device.setExecutor(executor);
+        arcDev = new ArchiveDeviceExtension();
+        device.addDeviceExtension(arcDev);
+        ApplicationEntity ae = new ApplicationEntity("UPS_SCP");
+        arcAE = new ArchiveAEExtension();
+        ae.addAEExtension(arcAE);
+        device.addApplicationEntity(ae);
+    }
+
+    @After
+    public void tearDown() {
+        resume.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCoalesceSupersededEventReports() throws Exception {
+        UPSEventQueue queue = new UPSEventQueue("test", device, new NoMetrics(), this::blockFirstBatch);
+        queue.offer(stateReport("1", "SCHEDULED"), SUBSCRIBER);
+        assertTrue(firstBatchSent.await(TIMEOUT, TimeUnit.SECONDS));
+        queue.offer(event(UPSEvent.Type.ProgressReport, "1"), SUBSCRIBER);
+        queue.offer(event(UPSEvent.Type.Assigned, "1"), SUBSCRIBER);
+        queue.offer(event(UPSEvent.Type.ProgressReport, "1"), SUBSCRIBER);
+        queue.offer(event(UPSEvent.Type.ProgressReport, "2"), SUBSCRIBER);
+        queue.offer(stateReport("1", "IN PROGRESS"), SUBSCRIBER);
+        queue.offer(event(UPSEvent.Type.ProgressReport, "1"), SUBSCRIBER);
+        queue.offer(stateReport("1", "COMPLETED"), SUBSCRIBER);
+        resume.countDown();
+
+        assertEquals(Collections.singletonList("StateReport:1"), nextBatch());
+        assertEquals(Arrays.asList("ProgressReport:2", "StateReport:1", "StateReport:1"), nextBatch());
+    }
+
+    @Test
+    public void testDiscardOldestOnMaxBacklog() throws Exception {
+        arcDev.setUPSEventMaxBacklog(3);
+        UPSEventQueue queue = new UPSEventQueue("test", device, new NoMetrics(), this::blockFirstBatch);
+        queue.offer(stateReport("0", "SCHEDULED"), SUBSCRIBER);
+        assertTrue(firstBatchSent.await(TIMEOUT, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++)
+            queue.offer(stateReport(Integer.toString(i), "SCHEDULED"), SUBSCRIBER);
+        resume.countDown();
+
+        assertEquals(Collections.singletonList("StateReport:0"), nextBatch());
+        assertEquals(Arrays.asList("StateReport:3", "StateReport:4", "StateReport:5"), nextBatch());
+    }
+
+    @Test
+    public void testContinueAfterFailedBatch() throws Exception {
+        UPSEventQueue queue = new UPSEventQueue("test", device, new NoMetrics(), (subscriberAET, events) -> {
+            batches.add(toStrings(events));
+            if (events.get(0).upsIUID.equals("1"))
+                throw new IllegalStateException("simulated failure");
+        });
+        queue.offer(stateReport("1", "SCHEDULED"), SUBSCRIBER);
+        assertEquals(Collections.singletonList("StateReport:1"), nextBatch());
+        queue.offer(stateReport("2", "SCHEDULED"), SUBSCRIBER);
+        assertEquals(Collections.singletonList("StateReport:2"), nextBatch());
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotDelayOthers() throws Exception {
+        UPSEventQueue queue = new UPSEventQueue("test", device, new NoMetrics(), (subscriberAET, events) -> {
+            if (subscriberAET.equals("SLOW")) {
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batches.add(toStrings(events));
+        });
+        queue.offer(stateReport("1", "SCHEDULED"), "SLOW");
+        queue.offer(stateReport("1", "SCHEDULED"), SUBSCRIBER);
+        assertEquals(Collections.singletonList("StateReport:1"), nextBatch());
+        assertTrue(batches.isEmpty());
+    }
+
+    private void blockFirstBatch(String subscriberAET, List<UPSEvent> events) {
+        batches.add(toStrings(events));
+        if (firstBatchSent.getCount() > 0) {
+            firstBatchSent.countDown();
+            try {
+                resume.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private List<String> nextBatch() throws InterruptedException {
+        List<String> batch = batches.poll(TIMEOUT, TimeUnit.SECONDS);
+        assertNotNull("no EventReports sent", batch);
+        return batch;
+    }
+
+    private static List<String> toStrings(List<UPSEvent> events) {
+        return events.stream().map(event -> event.type + ":" + event.upsIUID).collect(Collectors.toList());
+    }
+
+    private UPSEvent stateReport(String upsIUID, String state) {
+        Attributes attrs = new Attributes(1);
+        attrs.setString(Tag.ProcedureStepState, VR.CS, state);
+        return new UPSEvent(arcAE, UPSEvent.Type.StateReport, upsIUID, attrs,
+                Collections.singletonList(SUBSCRIBER));
+    }
+
+    private UPSEvent event(UPSEvent.Type type, String upsIUID) {
+        return new UPSEvent(arcAE, type, upsIUID, new Attributes(), Collections.singletonList(SUBSCRIBER));
+    }
+
+    private static class NoMetrics implements MetricsService {
+        @Override
+        public boolean exists(String name) {
+            return false;
+        }
+
+        @Override
+        public void accept(String name, double value) {
+        }
+
+        @Override
+        public void acceptNanoTime(String name, long startTime) {
+        }
+
+        @Override
+        public void acceptDataRate(String name, long bytes, long startTime) {
+        }
+
+        @Override
+        public void accept(String name, DoubleSupplier valueSupplier) {
+        }
+
+        @Override
+        public void forEach(String name, int limit, int binSize, Consumer<DoubleSummaryStatistics> consumer) {
+        }
+    }
+}
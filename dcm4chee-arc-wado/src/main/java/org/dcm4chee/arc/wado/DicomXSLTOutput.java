@@ -44,9 +44,8 @@ import org.dcm4che3.data.Attributes;
 import org.dcm4che3.io.DicomInputStream;
 import org.dcm4che3.io.SAXTransformer;
 import org.dcm4che3.io.SAXWriter;
-import org.dcm4che3.io.TemplatesCache;
-import org.dcm4che3.util.StringUtils;
 import org.dcm4chee.arc.conf.ArchiveAEExtension;
+import org.dcm4chee.arc.conf.TransformerPool;
 import org.dcm4chee.arc.retrieve.RetrieveContext;
 import org.dcm4chee.arc.retrieve.RetrieveService;
 import org.dcm4chee.arc.store.InstanceLocations;
@@ -100,11 +99,10 @@ public class DicomXSLTOutput implements StreamingOutput {
 
     private Templates templates() throws TransformerConfigurationException {
         ArchiveAEExtension arcAE = ctx.getArchiveAEExtension();
-        String uri = StringUtils.replaceSystemProperties(
-                mediaType.isCompatible(MediaType.TEXT_HTML_TYPE)
-                        ? arcAE.wadoSR2HtmlTemplateURI()
-                        : arcAE.wadoSR2TextTemplateURI());
-        return TemplatesCache.getDefault().get(uri);
+        String uri = mediaType.isCompatible(MediaType.TEXT_HTML_TYPE)
+                ? arcAE.wadoSR2HtmlTemplateURI()
+                : arcAE.wadoSR2TextTemplateURI();
+        return TransformerPool.of(uri).getTemplates();
     }
 
 }
@@ -47,6 +47,8 @@ import org.dcm4che3.image.PixelAspectRatio;
 import org.dcm4che3.imageio.plugins.dcm.DicomImageReadParam;
 import org.dcm4che3.imageio.plugins.dcm.DicomMetaData;
 import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
 import org.dcm4chee.arc.retrieve.RetrieveContext;
 import org.dcm4chee.arc.retrieve.RetrieveService;
 import org.dcm4chee.arc.store.InstanceLocations;
@@ -58,14 +60,22 @@ import javax.imageio.stream.ImageOutputStream;
 import javax.imageio.stream.MemoryCacheImageOutputStream;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
+import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -74,6 +84,10 @@ import java.util.Iterator;
 public class RenderedImageOutput implements StreamingOutput {
     private static final float DEF_FRAME_TIME = 1000.f;
     private static final byte[] LOOP_FOREVER = { 1, 0, 0 };
+    private static final int DECODE_AHEAD_FRAMES = 2;
+    private static final long MULTI_FRAME_RENDERING_TIMEOUT_SECONDS = 30;
+    private static final Object END_OF_FRAMES = new Object();
+    private static volatile MultiFrameRenderingLimit multiFrameRenderingLimit;
 
     private final RetrieveContext ctx;
     private final InstanceLocations inst;
@@ -107,27 +121,13 @@ public class RenderedImageOutput implements StreamingOutput {
         RetrieveService service = ctx.getRetrieveService();
         try (DicomInputStream dis = service.openDicomInputStream(ctx, inst)) {
             reader.setInput(dis);
+            setSourceSubsampling();
             ImageOutputStream imageOut = new MemoryCacheImageOutputStream(out);
             writer.setOutput(imageOut);
-            BufferedImage bi = null;
             if (imageIndex < 0) {
-                IIOMetadata metadata = null;
-                int numImages = reader.getNumImages(false);
-                writer.prepareWriteSequence(null);
-                for (int i = 0; i < numImages; i++) {
-                    readParam.setDestination(bi);
-                    bi = reader.read(i, readParam);
-                    BufferedImage bi2 = adjust(bi);
-                    if (metadata == null)
-                        metadata = createAnimatedGIFMetadata(bi2, writeParam, frameTime());
-                    writer.writeToSequence(
-                            new IIOImage(bi2, null, metadata),
-                            writeParam);
-                    imageOut.flush();
-                }
-                writer.endWriteSequence();
+                writeMultiFrame(service.getDevice(), imageOut, out);
             } else {
-                bi = reader.read(imageIndex, readParam);
+                BufferedImage bi = reader.read(imageIndex, readParam);
                 writer.write(null, new IIOImage(adjust(bi), null, null), writeParam);
             }
             imageOut.close();   // does not close out,
@@ -138,6 +138,162 @@ public class RenderedImageOutput implements StreamingOutput {
         }
     }
 
+    private void writeMultiFrame(Device device, ImageOutputStream imageOut, OutputStream out) throws IOException {
+        Semaphore semaphore = multiFrameRenderingSemaphore(
+                device.getDeviceExtensionNotNull(ArchiveDeviceExtension.class)
+                        .getWadoMultiFrameRenderingMaxParallel());
+        try {
+            if (!semaphore.tryAcquire(MULTI_FRAME_RENDERING_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                throw new WebApplicationException(Response.Status.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+        try {
+            float frameTime = frameTime();
+            FrameDecoder decoder = new FrameDecoder(reader.getNumImages(false));
+            device.execute(decoder);
+            try {
+                IIOMetadata metadata = null;
+                writer.prepareWriteSequence(null);
+                BufferedImage bi;
+                while ((bi = decoder.take()) != null) {
+                    if (metadata == null)
+                        metadata = createAnimatedGIFMetadata(bi, writeParam, frameTime);
+                    writer.writeToSequence(new IIOImage(bi, null, metadata), writeParam);
+                    imageOut.flush();
+                    out.flush();
+                }
+                writer.endWriteSequence();
+            } finally {
+                decoder.cancel();
+            }
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private static Semaphore multiFrameRenderingSemaphore(int maxParallel) {
+        MultiFrameRenderingLimit limit = multiFrameRenderingLimit;
+        if (limit == null || limit.maxParallel != maxParallel)
+            multiFrameRenderingLimit = limit = new MultiFrameRenderingLimit(maxParallel);
+        return limit.semaphore;
+    }
+
+    private static class MultiFrameRenderingLimit {
+        final int maxParallel;
+        final Semaphore semaphore;
+
+        MultiFrameRenderingLimit(int maxParallel) {
+            this.maxParallel = maxParallel;
+            this.semaphore = new Semaphore(maxParallel);
+        }
+    }
+
+    /**
+     * Decodes frames ahead of the encoding thread into a bounded queue, so decoding and encoding of the
+     * animation overlap without buffering more than {@link #DECODE_AHEAD_FRAMES} decoded frames.
+     */
+    private class FrameDecoder implements Runnable {
+        private final BlockingQueue<Object> frames = new ArrayBlockingQueue<>(DECODE_AHEAD_FRAMES);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final int numImages;
+        private volatile boolean canceled;
+
+        FrameDecoder(int numImages) {
+            this.numImages = numImages;
+        }
+
+        @Override
+        public void run() {
+            try {
+                BufferedImage bi = null;
+                for (int i = 0; i < numImages && !canceled; i++) {
+                    readParam.setDestination(bi);
+                    bi = reader.read(i, readParam);
+                    BufferedImage bi2 = adjust(bi);
+                    if (bi2 == bi)
+                        bi = null; // passed to encoder, so do not reuse as destination of next frame
+                    put(bi2);
+                }
+                put(END_OF_FRAMES);
+            } catch (Throwable e) {
+                put(e);
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private void put(Object o) {
+            try {
+                while (!canceled && !frames.offer(o, 1, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                canceled = true;
+            }
+        }
+
+        BufferedImage take() throws IOException {
+            Object o;
+            try {
+                o = frames.take();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            if (o == END_OF_FRAMES)
+                return null;
+            if (o instanceof IOException)
+                throw (IOException) o;
+            if (o instanceof RuntimeException)
+                throw (RuntimeException) o;
+            if (o instanceof Error)
+                throw (Error) o;
+            if (o instanceof Throwable)
+                throw new IOException((Throwable) o);
+            return (BufferedImage) o;
+        }
+
+        void cancel() {
+            canceled = true;
+            frames.clear();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void setSourceSubsampling() throws IOException {
+        if (rows == 0 && columns == 0)
+            return;
+
+        Rectangle sourceRegion = readParam.getSourceRegion();
+        int index = Math.max(imageIndex, 0);
+        int subsampling = sourceSubsampling(
+                sourceRegion != null ? sourceRegion.width : reader.getWidth(index),
+                sourceRegion != null ? sourceRegion.height : reader.getHeight(index),
+                rows, columns, getPixelAspectRatio());
+        if (subsampling > 1)
+            readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+    }
+
+    /**
+     * Returns the largest subsampling factor, which still provides at least twice the number of rows and columns
+     * required for the rescaled image, so the image reader returns a reduced raster and {@link #rescale} still
+     * averages at least 2x2 source pixels for each rendered pixel.
+     */
+    static int sourceSubsampling(int width, int height, int r, int c, float sy) {
+        if (r == 0 && c == 0)
+            return 1;
+
+        if (r != 0 && c != 0)
+            if (r * width > c * height * sy)
+                r = 0;
+            else
+                c = 0;
+        float sx = r != 0 ? r / (height * sy) : c / (float) width;
+        return Math.max(1, (int) (1 / (2 * Math.max(sx, sx * sy))));
+    }
+
     private float frameTime() throws IOException {
         DicomMetaData metaData  = (DicomMetaData) reader.getStreamMetadata();
         Attributes attrs = metaData.getAttributes();
@@ -152,7 +308,7 @@ public class RenderedImageOutput implements StreamingOutput {
         IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(formatName);
         IIOMetadataNode graphicControlExt =
                 (IIOMetadataNode) root.getElementsByTagName("GraphicControlExtension").item(0);
-        graphicControlExt.setAttribute("delayTime", Integer.toString(Math.round(frameTime() / 10)));
+        graphicControlExt.setAttribute("delayTime", Integer.toString(Math.round(frameTime / 10)));
         IIOMetadataNode appExts = new IIOMetadataNode("ApplicationExtensions");
         IIOMetadataNode appExt = new IIOMetadataNode("ApplicationExtension");
         appExt.setAttribute("applicationID", "NETSCAPE");
@@ -184,9 +340,20 @@ public class RenderedImageOutput implements StreamingOutput {
             sx = r != 0 ? r / (bi.getHeight() * sy) : c / (float)bi.getWidth();
             sy *= sx;
         }
+        // halve the image repeatedly, averaging 2x2 pixels by bilinear interpolation,
+        // to approximate area averaging also for larger scale factors
+        while (sx <= 0.5f && sy <= 0.5f && bi.getWidth() > 1 && bi.getHeight() > 1) {
+            bi = scale(bi, 0.5f, 0.5f);
+            sx *= 2;
+            sy *= 2;
+        }
+        return sx == 1f && sy == 1f ? bi : scale(bi, sx, sy);
+    }
+
+    private static BufferedImage scale(BufferedImage bi, float sx, float sy) {
         AffineTransformOp op = new AffineTransformOp(
                 AffineTransform.getScaleInstance(sx, sy),
-                AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
+                AffineTransformOp.TYPE_BILINEAR);
         return op.filter(bi, null);
     }
 
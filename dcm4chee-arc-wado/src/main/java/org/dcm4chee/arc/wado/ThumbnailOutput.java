@@ -43,7 +43,10 @@ package org.dcm4chee.arc.wado;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
 import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageOutputStream;
 import javax.imageio.stream.MemoryCacheImageOutputStream;
 import javax.ws.rs.WebApplicationException;
@@ -53,6 +56,7 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Iterator;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -73,7 +77,7 @@ public class ThumbnailOutput implements StreamingOutput {
 
     @Override
     public void write(OutputStream out) throws IOException, WebApplicationException {
-        BufferedImage bi = ImageIO.read(file);
+        BufferedImage bi = read();
         try (ImageOutputStream imageOut = new MemoryCacheImageOutputStream(out)) {
             writer.setOutput(imageOut);
             writer.write(new IIOImage(RenderedImageOutput.rescale(bi, rows, columns, 1.f),
@@ -82,4 +86,28 @@ public class ThumbnailOutput implements StreamingOutput {
             writer.dispose();
         }
     }
+
+    private BufferedImage read() throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(file)) {
+            if (iis == null)
+                throw new IOException("Failed to read " + file);
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext())
+                throw new IOException("No Image Reader for " + file);
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = RenderedImageOutput.sourceSubsampling(
+                        reader.getWidth(0), reader.getHeight(0), rows, columns, 1.f);
+                if (subsampling > 1)
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
 }
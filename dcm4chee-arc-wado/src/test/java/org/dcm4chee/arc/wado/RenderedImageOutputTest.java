@@ -0,0 +1,215 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.wado;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.imageio.plugins.dcm.DicomImageReadParam;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.io.DicomOutputStream;
+import org.dcm4che3.net.Device;
+import org.dcm4chee.arc.conf.ArchiveDeviceExtension;
+import org.dcm4chee.arc.retrieve.RetrieveContext;
+import org.dcm4chee.arc.retrieve.RetrieveService;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.ws.rs.core.MediaType;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class RenderedImageOutputTest {
+
+    private static final int FRAMES = 16;
+    private static final int ROWS = 256;
+    private static final int COLUMNS = 256;
+    private static final int FRAME_LENGTH = ROWS * COLUMNS;
+
+    @Test
+    public void sourceSubsampling() {
+        assertEquals(1, RenderedImageOutput.sourceSubsampling(4000, 3000, 0, 0, 1f));
+        assertEquals(15, RenderedImageOutput.sourceSubsampling(4000, 3000, 0, 128, 1f));
+        assertEquals(15, RenderedImageOutput.sourceSubsampling(4000, 3000, 96, 0, 1f));
+        assertEquals(15, RenderedImageOutput.sourceSubsampling(4000, 3000, 96, 128, 1f));
+        assertEquals(15, RenderedImageOutput.sourceSubsampling(4000, 3000, 200, 128, 1f));
+        assertEquals(7, RenderedImageOutput.sourceSubsampling(4000, 3000, 200, 0, 1f));
+        assertEquals(2, RenderedImageOutput.sourceSubsampling(1000, 500, 100, 0, 2f));
+        assertEquals(1, RenderedImageOutput.sourceSubsampling(512, 512, 300, 0, 1f));
+        assertEquals(1, RenderedImageOutput.sourceSubsampling(512, 512, 1024, 0, 1f));
+    }
+
+    @Test
+    public void subsampledSourceProvidesTwiceRequestedSize() {
+        for (int columns = 1; columns <= 512; columns++) {
+            int subsampling = RenderedImageOutput.sourceSubsampling(4000, 3000, 0, columns, 1f);
+            assertTrue("columns=" + columns, (4000 + subsampling - 1) / subsampling >= 2 * columns);
+        }
+    }
+
+    @Test
+    public void rescale() throws Exception {
+        BufferedImage bi = new BufferedImage(4000, 3000, BufferedImage.TYPE_BYTE_GRAY);
+        BufferedImage scaled = RenderedImageOutput.rescale(bi, 0, 128, 1f);
+        assertEquals(128, scaled.getWidth());
+        assertEquals(96, scaled.getHeight());
+        assertSame(bi, RenderedImageOutput.rescale(bi, 0, 0, 1f));
+    }
+
+    @Test
+    public void writeMultiFrameStreamsFrames() throws Exception {
+        byte[] dicom = multiFrameImage();
+        PositionInputStream in = new PositionInputStream(dicom);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            RenderedImageOutput output = new RenderedImageOutput(retrieveContext(in, executor), null,
+                    new DicomImageReadParam(), 0, 0, new MediaType("image", "gif"), null, 0);
+            FirstFlushOutputStream out = new FirstFlushOutputStream(in);
+            output.write(out);
+            assertTrue("first frame written after reading " + out.positionAtFirstFlush + " of "
+                            + dicom.length + " bytes",
+                    out.positionAtFirstFlush > 0 && out.positionAtFirstFlush < 5 * FRAME_LENGTH);
+            assertEquals(FRAMES, numImages(out.toByteArray()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] multiFrameImage() throws IOException {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPClassUID, VR.UI, UID.MultiFrameGrayscaleByteSecondaryCaptureImageStorage);
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4.5");
+        attrs.setInt(Tag.SamplesPerPixel, VR.US, 1);
+        attrs.setString(Tag.PhotometricInterpretation, VR.CS, "MONOCHROME2");
+        attrs.setInt(Tag.NumberOfFrames, VR.IS, FRAMES);
+        attrs.setInt(Tag.Rows, VR.US, ROWS);
+        attrs.setInt(Tag.Columns, VR.US, COLUMNS);
+        attrs.setInt(Tag.BitsAllocated, VR.US, 8);
+        attrs.setInt(Tag.BitsStored, VR.US, 8);
+        attrs.setInt(Tag.HighBit, VR.US, 7);
+        attrs.setInt(Tag.PixelRepresentation, VR.US, 0);
+        byte[] pixels = new byte[FRAMES * FRAME_LENGTH];
+        for (int i = 0; i < pixels.length; i++)
+            pixels[i] = (byte) (i / FRAME_LENGTH * 16 + i % COLUMNS);
+        attrs.setBytes(Tag.PixelData, VR.OB, pixels);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (DicomOutputStream dos = new DicomOutputStream(bout, UID.ExplicitVRLittleEndian)) {
+            dos.writeDataset(attrs.createFileMetaInformation(UID.ExplicitVRLittleEndian), attrs);
+        }
+        return bout.toByteArray();
+    }
+
+    private static RetrieveContext retrieveContext(PositionInputStream in, ExecutorService executor) {
+        Device device = new Device("test");
+        device.addDeviceExtension(new ArchiveDeviceExtension());
+        device.setExecutor(executor);
+        RetrieveService service = (RetrieveService) Proxy.newProxyInstance(
+                RenderedImageOutputTest.class.getClassLoader(), new Class<?>[]{ RetrieveService.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getDevice":
+                            return device;
+                        case "openDicomInputStream":
+                            return new DicomInputStream(in);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (RetrieveContext) Proxy.newProxyInstance(
+                RenderedImageOutputTest.class.getClassLoader(), new Class<?>[]{ RetrieveContext.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getRetrieveService"))
+                        return service;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static int numImages(byte[] gif) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(gif))) {
+            ImageReader reader = ImageIO.getImageReaders(iis).next();
+            try {
+                reader.setInput(iis);
+                return reader.getNumImages(true);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static class PositionInputStream extends ByteArrayInputStream {
+        PositionInputStream(byte[] buf) {
+            super(buf);
+        }
+
+        synchronized int position() {
+            return pos;
+        }
+    }
+
+    private static class FirstFlushOutputStream extends ByteArrayOutputStream {
+        private final PositionInputStream in;
+        int positionAtFirstFlush = -1;
+
+        FirstFlushOutputStream(PositionInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public void flush() {
+            if (positionAtFirstFlush < 0 && size() > 0)
+                positionAtFirstFlush = in.position();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2015-2020
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4chee.arc.wado;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import javax.ws.rs.core.MediaType;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent@local>
+ * @since Oct 2026
+ */
+public class ThumbnailOutputTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThumbnailOutputTest.class);
+
+    private static final int WIDTH = 4000;
+    private static final int HEIGHT = 3000;
+    private static final int COLUMNS = 128;
+    private static final int RUNS = 3;
+    private static final MediaType IMAGE_JPEG = new MediaType("image", "jpeg");
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        BufferedImage bi = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] data = ((DataBufferByte) bi.getRaster().getDataBuffer()).getData();
+        Random random = new Random(0);
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte) ((i % WIDTH) / 16 + random.nextInt(8));
+        file = File.createTempFile("thumbnail", ".jpg");
+        ImageIO.write(bi, "jpeg", file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    public void write() throws Exception {
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(writeThumbnail()));
+        assertEquals(COLUMNS, thumbnail.getWidth());
+        assertEquals(COLUMNS * HEIGHT / WIDTH, thumbnail.getHeight());
+    }
+
+    /**
+     * Measures the time to write a thumbnail from a subsampled and from a full decoded image. The durations are
+     * only logged for comparison, because they depend on the machine and its load.
+     */
+    @Test
+    public void measureSubsampledAndFullDecode() throws Exception {
+        long full = Long.MAX_VALUE;
+        long subsampled = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            writeThumbnailOfFullDecodedImage();
+            long mid = System.nanoTime();
+            writeThumbnail();
+            long end = System.nanoTime();
+            full = Math.min(full, mid - start);
+            subsampled = Math.min(subsampled, end - mid);
+        }
+        LOG.info("Thumbnail of {}x{} image - subsampled decode: {} ms, full decode: {} ms",
+                WIDTH, HEIGHT, subsampled / 1000000, full / 1000000);
+    }
+
+    private byte[] writeThumbnail() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ThumbnailOutput(file, 0, COLUMNS, IMAGE_JPEG).write(out);
+        return out.toByteArray();
+    }
+
+    private byte[] writeThumbnailOfFullDecodedImage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(RenderedImageOutput.rescale(ImageIO.read(file), 0, COLUMNS, 1f), "jpeg", out);
+        return out.toByteArray();
+    }
+}
@@ -75,11 +75,15 @@ public class XRoadServiceProvider {
 
     public Attributes rr441(String endpoint, Map<String, String> props, String patientID)
             throws XRoadException, ConfigurationException {
+        return rr441(port(endpoint, props), props, patientID);
+    }
+
+    public Attributes rr441(XRoadAdapterPortType port, Map<String, String> props, String patientID)
+            throws XRoadException {
         Headers h = new Headers(props, "RR441");
         Holder<RR441RequestType> request = new Holder<>(toRR441(props, patientID));
         Holder<RR441ResponseType> response = new Holder<>();
-        port(endpoint, props)
-                .rr441(request, h.client, h.service, h.userId, h.id, h.protocolVersion, response,  h.requestHash);
+        port.rr441(request, h.client, h.service, h.userId, h.id, h.protocolVersion, response,  h.requestHash);
         return toAttributes(props, XRoadException.validate(response.value));
     }
 
@@ -137,7 +141,7 @@ public class XRoadServiceProvider {
         return null;
     }
 
-    private XRoadAdapterPortType port(String endpoint, Map<String, String> props) throws ConfigurationException {
+    public XRoadAdapterPortType port(String endpoint, Map<String, String> props) throws ConfigurationException {
         XRoadAdapterPortType port = service.getXRoadServicePort();
         BindingProvider bindingProvider = (BindingProvider) port;
         Map<String, Object> reqCtx = bindingProvider.getRequestContext();